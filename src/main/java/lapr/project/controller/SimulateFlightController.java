@@ -7,7 +7,10 @@ import java.io.File;
 import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import lapr.project.datalayer.dao.SegmentDAO;
 import lapr.project.datalayer.oracle.FlightInfoOracle;
 import lapr.project.datalayer.oracle.FlightSimulationOracle;
@@ -18,6 +21,10 @@ import lapr.project.model.FlightInfo;
 import lapr.project.model.FlightSimulation;
 import lapr.project.model.Segment;
 import lapr.project.model.flightplan.FlightPlan;
+import lapr.project.model.flightplan.FlightPlanResult;
+import lapr.project.model.flightplan.FlightPlanService;
+import lapr.project.model.flightplan.ParetoFlightPlan;
+import lapr.project.model.flightplan.ParetoSearch;
 import lapr.project.utils.graph.MapEdge;
 
 /**
@@ -86,10 +93,27 @@ public class SimulateFlightController {
 
             }
         }
+        // the criteria of one Pareto search, sharing its frontier
+        flightPlans.addAll(Arrays.asList(ParetoFlightPlan.views(new ParetoSearch())));
 
         return flightPlans;
     }
 
+    /**
+     * Runs all the flight plan algorithms for a flight, in parallel, to
+     * compare them.
+     *
+     * @param airNetwork the air network
+     * @param flightSimulation the flight simulation (not changed)
+     * @param listener the listener of each result, as it completes
+     * @return the results of every algorithm, when all completed
+     * @throws Exception exception
+     */
+    public CompletableFuture<List<FlightPlanResult>> compareFlightPlans(AirNetwork airNetwork,
+            FlightSimulation flightSimulation, Consumer<FlightPlanResult> listener) throws Exception {
+        return new FlightPlanService().evaluate(airNetwork, flightSimulation, getFlightPlans(), listener);
+    }
+
     /**
      * Gets the air network.
      *
@@ -105,6 +129,8 @@ public class SimulateFlightController {
             airNetwork.addJunction(mapEdge.getVOrig());
             airNetwork.addSegment(mapEdge.getVOrig(), mapEdge.getVDest(), mapEdge.getElement());
         }
+        // route index ready by the time the simulation is chosen
+        airNetwork.buildRouteIndex();
         return airNetwork;
     }
 
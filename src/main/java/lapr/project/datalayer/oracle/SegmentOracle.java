@@ -14,6 +14,7 @@ import lapr.project.datalayer.DbConnection;
 import lapr.project.datalayer.dao.SegmentDAO;
 import lapr.project.model.Coordinate;
 import lapr.project.model.Segment;
+import lapr.project.model.SegmentGeometry;
 import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapVertex;
 import oracle.jdbc.OracleTypes;
@@ -62,6 +63,16 @@ public class SegmentOracle implements SegmentDAO {
         Coordinate origin = new Coordinate(rs.getString(5), rs.getDouble(6), rs.getDouble(7));
         Coordinate dest = new Coordinate(rs.getString(8), rs.getDouble(9), rs.getDouble(10));
 
+        // Stored geometry (length & bearing) when the cursor has it, computed on first use otherwise
+        if (rs.getMetaData().getColumnCount() >= 12) {
+            double length = rs.getDouble(11);
+            boolean hasLength = !rs.wasNull();
+            double bearing = rs.getDouble(12);
+            if (hasLength && !rs.wasNull()) {
+                segment.setGeometry(new SegmentGeometry(length, bearing, origin, dest));
+            }
+        }
+
         return new MapEdge<>(segment, 0, new MapVertex<Coordinate, Segment>(0, origin),
                 new MapVertex<Coordinate, Segment>(1, dest));
     }
@@ -0,0 +1,499 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import lapr.project.model.Calculus.REGIME;
+
+/**
+ * Adaptive step (error controlled) integration of the flight regimes.
+ *
+ * The regime is integrated as an ODE on altitude, mass and distance with the
+ * embedded Dormand-Prince 5(4) pair. The step grows while the local error
+ * estimate is below the tolerance (steady cruise takes a handful of steps)
+ * and shrinks when it is not. The end of the regime (cruise altitude, minimal
+ * climb rate, airport altitude or segment distance) and every flight pattern
+ * line are located as events by root finding inside the step, so there is no
+ * overshoot and the airspeed schedule switches exactly at its altitudes.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class AdaptiveIntegrator {
+
+    /**
+     * Indexes of the state variables.
+     */
+    private static final int ALTITUDE = 0;
+    private static final int MASS = 1;
+    private static final int DISTANCE = 2;
+    private static final int STATE_SIZE = 3;
+
+    /**
+     * Indexes of the events (end of the regime, minimal climb rate &amp;
+     * flight pattern line).
+     */
+    private static final int END_EVENT = 0;
+    private static final int CLIMB_RATE_EVENT = 1;
+    private static final int PATTERN_EVENT = 2;
+    private static final int EVENTS = 3;
+
+    /**
+     * Relative tolerance of the local error.
+     */
+    static final double RELATIVE_TOLERANCE = 1e-6;
+
+    /**
+     * Absolute tolerances of the local error (m, kg &amp; m).
+     */
+    private static final double[] ABSOLUTE_TOLERANCE = {1e-2, 1e-2, 1e-1};
+
+    /**
+     * Tolerance of the event root finding (same units as the events).
+     */
+    static final double EVENT_TOLERANCE = 1e-4;
+
+    /**
+     * Maximum iterations of the event root finding.
+     */
+    private static final int MAX_ROOT_ITERATIONS = 60;
+
+    /**
+     * First step. (s)
+     */
+    private static final double FIRST_STEP = FlightIntegrator.TIMESTEP;
+
+    /**
+     * Steps below this are accepted whatever their error. (s)
+     */
+    private static final double MIN_STEP = 1e-6;
+
+    /**
+     * Step change limits and safety factor of the step controller.
+     */
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5;
+    private static final double SAFETY = 0.9;
+
+    /**
+     * Dormand-Prince 5(4) tableau.
+     */
+    private static final double A21 = 1d / 5;
+    private static final double A31 = 3d / 40, A32 = 9d / 40;
+    private static final double A41 = 44d / 45, A42 = -56d / 15, A43 = 32d / 9;
+    private static final double A51 = 19372d / 6561, A52 = -25360d / 2187, A53 = 64448d / 6561, A54 = -212d / 729;
+    private static final double A61 = 9017d / 3168, A62 = -355d / 33, A63 = 46732d / 5247, A64 = 49d / 176,
+            A65 = -5103d / 18656;
+    private static final double B1 = 35d / 384, B3 = 500d / 1113, B4 = 125d / 192, B5 = -2187d / 6784, B6 = 11d / 84;
+    private static final double E1 = 71d / 57600, E3 = -71d / 16695, E4 = 71d / 1920, E5 = -17253d / 339200,
+            E6 = 22d / 525, E7 = -1d / 40;
+
+    /**
+     * Performance profile.
+     */
+    private final PerformanceProfile profile;
+
+    /**
+     * Initial mass. (kg)
+     */
+    private final double initialMass;
+
+    /**
+     * Regime.
+     */
+    private final REGIME regime;
+
+    /**
+     * Airport altitude (m) and segment distance (m).
+     */
+    private final double airportAltitude;
+    private final double segmentDistance;
+
+    /**
+     * Flight pattern line in use (climb &amp; landing).
+     */
+    private int line;
+
+    /**
+     * Work arrays (stages, trial state, error &amp; events).
+     */
+    private final double[][] k = new double[7][STATE_SIZE];
+    private final double[] stage = new double[STATE_SIZE];
+    private final double[] error = new double[STATE_SIZE];
+    private final double[] events = new double[EVENTS];
+    private final double[] trial = new double[STATE_SIZE];
+    private final double[] trialEvents = new double[EVENTS];
+
+    /**
+     * Number of accepted steps.
+     */
+    private int steps;
+
+    /**
+     * Creates an integrator for a flight regime.
+     *
+     * @param profile the performance profile
+     * @param regime the regime (climb, cruise &amp; landing)
+     * @param initialMass the initial mass (kg)
+     * @param airportAltitude the airport altitude (m)
+     * @param segmentDistance the segment distance in cruise (m)
+     */
+    private AdaptiveIntegrator(PerformanceProfile profile, REGIME regime, double initialMass,
+            double airportAltitude, double segmentDistance) {
+        this.profile = profile;
+        this.initialMass = initialMass;
+        this.regime = regime;
+        this.airportAltitude = airportAltitude;
+        this.segmentDistance = segmentDistance;
+    }
+
+    /**
+     * Integrates a flight regime of a compiled performance profile and stores
+     * the distance (m), duration (s) and consumption (kg) in the given result
+     * array.
+     *
+     * @param profile the performance profile
+     * @param regime the regime (climb, cruise &amp; landing)
+     * @param initialMass the initial mass (kg)
+     * @param airportAltitude the airport altitude (m)
+     * @param segmentDistance the segment distance in cruise (m)
+     * @param result the array to fill (see {@link FlightIntegrator#RESULT_SIZE})
+     * @return the number of accepted steps
+     */
+    static int integrate(PerformanceProfile profile, REGIME regime, double initialMass, double airportAltitude,
+            double segmentDistance, double[] result) {
+
+        AdaptiveIntegrator integrator = new AdaptiveIntegrator(profile, regime, initialMass, airportAltitude,
+                segmentDistance);
+        integrator.run(result);
+        return integrator.steps;
+    }
+
+    /**
+     * Runs the integration.
+     *
+     * @param result the array to fill
+     */
+    private void run(double[] result) {
+
+        double[] state = new double[STATE_SIZE];
+        double[] next = new double[STATE_SIZE];
+        state[ALTITUDE] = (regime == REGIME.CLIMB) ? airportAltitude : profile.getCruiseAltitude();
+        state[MASS] = initialMass;
+        if (regime != REGIME.CRUISE) {
+            line = clampLine(profile.patternLine(state[ALTITUDE]));
+        }
+
+        double time = 0;
+        double dt = FIRST_STEP;
+        double[] previous = new double[EVENTS];
+        evaluateEvents(state, previous);
+
+        while (!ended(previous)) {
+
+            double norm = step(state, dt, next, true);
+            if (!(norm <= 1) && dt > MIN_STEP) {
+                dt = Math.max(dt * factor(norm), MIN_STEP);
+                continue;
+            }
+
+            evaluateEvents(next, events);
+            int event = firstCrossing(previous, events);
+            double taken = dt;
+            if (event >= 0) {
+                taken = locate(state, dt, event, next);
+            }
+
+            System.arraycopy(next, 0, state, 0, STATE_SIZE);
+            time += taken;
+            steps++;
+
+            if (event == PATTERN_EVENT) {
+                line += (regime == REGIME.CLIMB) ? 1 : -1;
+                evaluateEvents(state, previous);
+            } else if (event >= 0) {
+                break;
+            } else {
+                System.arraycopy(events, 0, previous, 0, EVENTS);
+            }
+            dt = Math.max(dt * factor(norm), MIN_STEP);
+        }
+
+        result[FlightIntegrator.DISTANCE] = state[DISTANCE];
+        result[FlightIntegrator.DURATION] = time;
+        result[FlightIntegrator.CONSUMPTION] = initialMass - state[MASS];
+    }
+
+    /**
+     * Obtains the step change factor for an error norm.
+     *
+     * @param norm the error norm (1 is the tolerance)
+     * @return the factor to apply to the step
+     */
+    private static double factor(double norm) {
+
+        if (!(norm > 0)) {
+            return (norm == 0) ? MAX_FACTOR : MIN_FACTOR;
+        }
+        return Math.min(MAX_FACTOR, Math.max(MIN_FACTOR, SAFETY * Math.pow(norm, -0.2)));
+    }
+
+    /**
+     * Makes one Dormand-Prince step.
+     *
+     * @param state the state at the start of the step
+     * @param dt the step (s)
+     * @param next the array to fill with the state at the end of the step
+     * @param estimate true to estimate the local error
+     * @return the error norm (1 is the tolerance), 0 if not estimated
+     */
+    private double step(double[] state, double dt, double[] next, boolean estimate) {
+
+        derivatives(state, k[0]);
+        for (int i = 0; i < STATE_SIZE; i++) {
+            stage[i] = state[i] + dt * A21 * k[0][i];
+        }
+        derivatives(stage, k[1]);
+        for (int i = 0; i < STATE_SIZE; i++) {
+            stage[i] = state[i] + dt * (A31 * k[0][i] + A32 * k[1][i]);
+        }
+        derivatives(stage, k[2]);
+        for (int i = 0; i < STATE_SIZE; i++) {
+            stage[i] = state[i] + dt * (A41 * k[0][i] + A42 * k[1][i] + A43 * k[2][i]);
+        }
+        derivatives(stage, k[3]);
+        for (int i = 0; i < STATE_SIZE; i++) {
+            stage[i] = state[i] + dt * (A51 * k[0][i] + A52 * k[1][i] + A53 * k[2][i] + A54 * k[3][i]);
+        }
+        derivatives(stage, k[4]);
+        for (int i = 0; i < STATE_SIZE; i++) {
+            stage[i] = state[i] + dt * (A61 * k[0][i] + A62 * k[1][i] + A63 * k[2][i] + A64 * k[3][i]
+                    + A65 * k[4][i]);
+        }
+        derivatives(stage, k[5]);
+        for (int i = 0; i < STATE_SIZE; i++) {
+            next[i] = state[i] + dt * (B1 * k[0][i] + B3 * k[2][i] + B4 * k[3][i] + B5 * k[4][i] + B6 * k[5][i]);
+        }
+        if (!estimate) {
+            return 0;
+        }
+
+        derivatives(next, k[6]);
+        double sum = 0;
+        for (int i = 0; i < STATE_SIZE; i++) {
+            error[i] = dt * (E1 * k[0][i] + E3 * k[2][i] + E4 * k[3][i] + E5 * k[4][i] + E6 * k[5][i]
+                    + E7 * k[6][i]);
+            double scale = ABSOLUTE_TOLERANCE[i]
+                    + RELATIVE_TOLERANCE * Math.max(Math.abs(state[i]), Math.abs(next[i]));
+            sum += (error[i] / scale) * (error[i] / scale);
+        }
+        return Math.sqrt(sum / STATE_SIZE);
+    }
+
+    /**
+     * Calculates the time derivatives of a state (same physics as the fixed
+     * step kernel).
+     *
+     * @param state the state
+     * @param derivative the array to fill
+     */
+    private void derivatives(double[] state, double[] derivative) {
+
+        double climbRate = climbRate(state, derivative);
+        derivative[ALTITUDE] = climbRate;
+    }
+
+    /**
+     * Calculates the climb rate of a state, filling the mass and distance
+     * derivatives when an array is given.
+     *
+     * @param state the state
+     * @param derivative the array to fill, or null
+     * @return the climb rate (m/s)
+     */
+    private double climbRate(double[] state, double[] derivative) {
+
+        double altitude = state[ALTITUDE];
+        double mass = state[MASS];
+        double airDensity = Atmosphere.ISA.density(altitude);
+
+        double mach;
+        if (regime == REGIME.CRUISE) {
+            mach = profile.getCruiseMach();
+        } else {
+            double ias = (regime == REGIME.CLIMB) ? profile.climbIas(line) : profile.descentIas(line);
+            mach = FlightIntegrator.machTrue(ias, airDensity);
+        }
+        double tas = Atmosphere.ISA.speedOfSound(altitude) * mach;
+        double squaredTas = tas * tas;
+
+        double cl = profile.getLiftFactor() * mass / (airDensity * squaredTas);
+        double cd = profile.dragCoefficient(cl, profile.cdrag(mach));
+        double drag = cd * airDensity * squaredTas * profile.getWingArea() / 2;
+
+        double totalThrust;
+        if (regime == REGIME.CRUISE) {
+            totalThrust = drag;
+        } else {
+            double landingFactor = (regime == REGIME.LANDING) ? FlightIntegrator.LANDING_FACTOR : 1;
+            totalThrust = (profile.getThrust0() - profile.getLambda() * mach)
+                    * Math.pow(airDensity / Atmosphere.RHO0, profile.getLapseRateFactor())
+                    * landingFactor * profile.getNumberOfMotors();
+        }
+
+        double climbRate = (totalThrust - drag) * tas / (mass * FlightIntegrator.G);
+        if (derivative != null) {
+            derivative[MASS] = -totalThrust * profile.getFuelFlowFactor();
+            derivative[DISTANCE] = tas * Math.cos(Math.asin(climbRate / tas));
+        }
+        return climbRate;
+    }
+
+    /**
+     * Evaluates the events of a state. An event happens when its value
+     * reaches zero or less; inactive events are positive infinity.
+     *
+     * @param state the state
+     * @param values the array to fill
+     */
+    private void evaluateEvents(double[] state, double[] values) {
+
+        values[CLIMB_RATE_EVENT] = Double.POSITIVE_INFINITY;
+        values[PATTERN_EVENT] = Double.POSITIVE_INFINITY;
+        switch (regime) {
+            case CLIMB:
+                values[END_EVENT] = profile.getCruiseAltitude() - state[ALTITUDE];
+                values[CLIMB_RATE_EVENT] = climbRate(state, null) - FlightIntegrator.MIN_CLIMB_RATE;
+                if (line + 1 < profile.patternLines() - 1) {
+                    values[PATTERN_EVENT] = profile.patternAltitude(line + 1) - state[ALTITUDE];
+                }
+                break;
+            case LANDING:
+                values[END_EVENT] = state[ALTITUDE] - airportAltitude;
+                if (line > 0) {
+                    values[PATTERN_EVENT] = state[ALTITUDE] - profile.patternAltitude(line);
+                }
+                break;
+            default:
+                // CRUISE
+                values[END_EVENT] = segmentDistance - state[DISTANCE];
+                break;
+        }
+    }
+
+    /**
+     * Verifies if the regime has ended.
+     *
+     * @param values the events of the state
+     * @return true if the end or minimal climb rate events happened
+     */
+    private static boolean ended(double[] values) {
+        return values[END_EVENT] <= 0 || values[CLIMB_RATE_EVENT] <= 0;
+    }
+
+    /**
+     * Obtains the event that happens first in a step, judged by the linear
+     * estimate of the crossing.
+     *
+     * @param before the events at the start of the step
+     * @param after the events at the end of the step
+     * @return the event index, -1 if none happens
+     */
+    private static int firstCrossing(double[] before, double[] after) {
+
+        int first = -1;
+        double firstFraction = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < EVENTS; i++) {
+            if (after[i] <= 0 && before[i] > 0) {
+                double fraction = before[i] / (before[i] - after[i]);
+                if (fraction < firstFraction) {
+                    first = i;
+                    firstFraction = fraction;
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Locates an event inside a step (Illinois regula falsi over the step
+     * size) and fills the state at the event. The returned state is on the
+     * happened side of the event.
+     *
+     * @param state the state at the start of the step
+     * @param dt the step (s)
+     * @param event the event index
+     * @param next the array to fill with the state at the event
+     * @return the step taken up to the event (s)
+     */
+    private double locate(double[] state, double dt, int event, double[] next) {
+
+        double low = 0;
+        double lowValue = eventValue(state, event);
+        double high = dt;
+        double highValue = events[event];
+        double reached = highValue;
+        int retained = 0;
+
+        for (int i = 0; i < MAX_ROOT_ITERATIONS && reached < -EVENT_TOLERANCE && high - low > MIN_STEP; i++) {
+
+            double guess = high - highValue * (high - low) / (highValue - lowValue);
+            if (!(guess > low && guess < high)) {
+                guess = (low + high) / 2;
+            }
+            step(state, guess, trial, false);
+            double value = eventValue(trial, event);
+
+            if (value <= 0) {
+                high = guess;
+                highValue = value;
+                reached = value;
+                System.arraycopy(trial, 0, next, 0, STATE_SIZE);
+                if (retained == -1) {
+                    lowValue /= 2;
+                }
+                retained = -1;
+            } else {
+                low = guess;
+                lowValue = value;
+                if (retained == 1) {
+                    highValue /= 2;
+                }
+                retained = 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Obtains the value of an event for a state.
+     *
+     * @param state the state
+     * @param event the event index
+     * @return the event value
+     */
+    private double eventValue(double[] state, int event) {
+
+        evaluateEvents(state, trialEvents);
+        return trialEvents[event];
+    }
+
+    /**
+     * Keeps a flight pattern line inside the pattern.
+     *
+     * @param index the line index (-1 if out of the pattern)
+     * @return a valid line index
+     */
+    private int clampLine(int index) {
+
+        if (index >= 0) {
+            return index;
+        }
+        int lines = profile.patternLines();
+        boolean below = lines > 0
+                && (regime == REGIME.CLIMB ? airportAltitude : profile.getCruiseAltitude()) < profile.patternAltitude(0);
+        return below ? 0 : Math.max(0, lines - 2);
+    }
+}
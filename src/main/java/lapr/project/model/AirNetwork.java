@@ -3,13 +3,20 @@
  */
 package lapr.project.model;
 
+import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.Iterator;
-import javax.measure.quantity.Length;
-import javax.measure.unit.SI;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lapr.project.utils.graph.ContractionHierarchy;
 import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapGraph;
-import org.jscience.physics.amount.Amount;
+import lapr.project.utils.graph.MapGraphAlgorithms;
 
 /**
  * Represents a airnetwork. (contains a graph of coordinates and segments)
@@ -21,11 +28,38 @@ import org.jscience.physics.amount.Amount;
  */
 public class AirNetwork {
 
+    /**
+     * Builds the route indexes, in a background (daemon) thread.
+     */
+    private static final ExecutorService INDEX_BUILDER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "route-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Air Network
      */
     private MapGraph<Coordinate, Segment> network;
 
+    /**
+     * Route index (contraction hierarchy of the segment distances), the graph
+     * modification count it was built at and the last requested build.
+     */
+    private final Object indexLock = new Object();
+    private boolean routeIndexEnabled;
+    private ContractionHierarchy<Coordinate, Segment> routeIndex;
+    private int routeIndexModifications;
+    private Future<ContractionHierarchy<Coordinate, Segment>> routeIndexBuild;
+    private MapGraph<Coordinate, Segment> routeIndexBuildGraph;
+    private int routeIndexBuildModifications;
+
+    /**
+     * Great circle heuristic bounds of the network, computed again when the
+     * network changes (the strongest wind when the wind of a segment does).
+     */
+    private volatile HeuristicBounds heuristicBounds;
+
     /**
      * Constructs an empty air network
      */
@@ -56,6 +90,38 @@ public class AirNetwork {
 
     }
 
+    /**
+     * Creates a snapshot of the air network: the same junctions with copies
+     * of the segments (a segment of both directions stays one segment), so
+     * later changes to the network or to the wind of its segments are not
+     * seen. It keeps the route index if it is built and up to date.
+     *
+     * @return the snapshot
+     */
+    public AirNetwork snapshot() {
+
+        ContractionHierarchy<Coordinate, Segment> index = getReadyRouteIndex();
+        int modifications = network.getModificationCount();
+
+        MapGraph<Coordinate, Segment> copy = new MapGraph<>(true);
+        for (Coordinate junction : network.vertices()) {
+            copy.insertVertex(junction);
+        }
+        Map<Segment, Segment> segments = new IdentityHashMap<>();
+        for (MapEdge<Coordinate, Segment> edge : network.edges()) {
+            copy.insertEdge(edge.getVOrig(), edge.getVDest(),
+                    segments.computeIfAbsent(edge.getElement(), Segment::new), edge.getWeight());
+        }
+
+        AirNetwork snapshot = new AirNetwork(copy);
+        if (index != null && network.getModificationCount() == modifications) {
+            snapshot.routeIndexEnabled = true;
+            snapshot.routeIndex = index;
+            snapshot.routeIndexModifications = copy.getModificationCount();
+        }
+        return snapshot;
+    }
+
     /**
      * Obtains the Air Network
      *
@@ -74,6 +140,7 @@ public class AirNetwork {
     public void setNetwork(MapGraph<Coordinate, Segment> network) {
 
         this.network = network;
+        invalidateRouteIndex();
     }
 
     /**
@@ -126,10 +193,8 @@ public class AirNetwork {
      */
     public boolean addSegment(Coordinate coordinateA, Coordinate coordinateB, Segment newSegment) {
 
-        // Calculate distance between coordinates
-        Amount<Length> distance = Calculus.distance(coordinateA, coordinateB, newSegment.getAltitude());
-
-        return this.network.insertEdge(coordinateA, coordinateB, newSegment, distance.doubleValue(SI.METER));
+        return invalidateRouteIndex(this.network.insertEdge(coordinateA, coordinateB, newSegment,
+                newSegment.getGeometry(coordinateA, coordinateB).getLength()));
     }
 
     /**
@@ -168,10 +233,8 @@ public class AirNetwork {
             return false;
         }
 
-        // Calculate distance between coordinates
-        Amount<Length> distance = Calculus.distance(coordinateA, coordinateB, newSegment.getAltitude());
-
-        return this.network.insertEdge(coordinateA, coordinateB, newSegment, distance.doubleValue(SI.METER));
+        return invalidateRouteIndex(this.network.insertEdge(coordinateA, coordinateB, newSegment,
+                newSegment.getGeometry(coordinateA, coordinateB).getLength()));
     }
 
     /**
@@ -183,7 +246,7 @@ public class AirNetwork {
      */
     public boolean removeSegment(Coordinate coordinateA, Coordinate coordinateB) {
 
-        return this.network.removeEdge(coordinateA, coordinateB);
+        return invalidateRouteIndex(this.network.removeEdge(coordinateA, coordinateB));
     }
 
     /**
@@ -194,7 +257,7 @@ public class AirNetwork {
      */
     public boolean addJunction(Coordinate newJunction) {
 
-        return this.network.insertVertex(newJunction);
+        return invalidateRouteIndex(this.network.insertVertex(newJunction));
     }
 
     /**
@@ -205,7 +268,248 @@ public class AirNetwork {
      */
     public boolean removeJunction(Coordinate junction) {
 
-        return this.network.removeVertex(junction);
+        return invalidateRouteIndex(this.network.removeVertex(junction));
+    }
+
+    /**
+     * Enables the route index and builds it in the background. Until it is
+     * built (and after every change to the network, until it is built again)
+     * the route queries search the network itself.
+     *
+     * The index is a contraction hierarchy of the segment distances. Still air
+     * flight times are the distances over the true airspeed of the aircraft,
+     * so it gives the minimum still air time routes too.
+     *
+     * @return the build of the index of the current network
+     */
+    public Future<ContractionHierarchy<Coordinate, Segment>> buildRouteIndex() {
+
+        synchronized (indexLock) {
+            routeIndexEnabled = true;
+            MapGraph<Coordinate, Segment> graph = network;
+            int modifications = graph.getModificationCount();
+            if (routeIndexBuild == null || routeIndexBuildGraph != graph
+                    || routeIndexBuildModifications != modifications) {
+                routeIndexBuildGraph = graph;
+                routeIndexBuildModifications = modifications;
+                // the build reads a copy, so later changes to the network do not race with it
+                MapGraph<Coordinate, Segment> copy = copyOf(graph);
+                routeIndexBuild = INDEX_BUILDER.submit(() -> {
+                    ContractionHierarchy<Coordinate, Segment> index;
+                    try {
+                        index = new ContractionHierarchy<>(copy);
+                    } catch (RuntimeException ex) {
+                        Logger.getLogger(AirNetwork.class.getName()).log(Level.SEVERE, null, ex);
+                        throw ex;
+                    }
+                    synchronized (indexLock) {
+                        // a network changed during the build is indexed again on demand
+                        if (network == graph && graph.getModificationCount() == modifications) {
+                            routeIndex = index;
+                            routeIndexModifications = modifications;
+                        }
+                    }
+                    return index;
+                });
+            }
+            return routeIndexBuild;
+        }
+    }
+
+    /**
+     * Copies the junctions and the segments (with their weights) of a graph.
+     *
+     * @param graph the graph
+     * @return the copy
+     */
+    private static MapGraph<Coordinate, Segment> copyOf(MapGraph<Coordinate, Segment> graph) {
+
+        MapGraph<Coordinate, Segment> copy = new MapGraph<>(true);
+        for (Coordinate junction : graph.vertices()) {
+            copy.insertVertex(junction);
+        }
+        for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+            copy.insertEdge(edge.getVOrig(), edge.getVDest(), edge.getElement(), edge.getWeight());
+        }
+        return copy;
+    }
+
+    /**
+     * Obtains the route index of the current network, without waiting for it:
+     * if the index is enabled but out of date a new build is started.
+     *
+     * @return the route index, null if disabled or not built yet
+     */
+    public ContractionHierarchy<Coordinate, Segment> getRouteIndex() {
+
+        synchronized (indexLock) {
+            if (!routeIndexEnabled) {
+                return null;
+            }
+            if (routeIndex != null && routeIndexModifications == network.getModificationCount()) {
+                return routeIndex;
+            }
+            routeIndex = null;
+            buildRouteIndex();
+            return null;
+        }
+    }
+
+    /**
+     * Obtains the route index of the current network if it is built and up to
+     * date, without starting a build.
+     *
+     * @return the route index, null if disabled, not built yet or out of date
+     */
+    public ContractionHierarchy<Coordinate, Segment> getReadyRouteIndex() {
+
+        synchronized (indexLock) {
+            if (routeIndex != null && routeIndexModifications == network.getModificationCount()) {
+                return routeIndex;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Obtains the sea level great circle distance of the segments of the
+     * network, computed once per change to the network.
+     *
+     * @return the distances (m), by edge id
+     */
+    double[] getGreatCircleDistances() {
+        return heuristicBounds().distances;
+    }
+
+    /**
+     * Obtains the admissible cost per meter of great circle distance of the
+     * segment weights (see {@link GreatCircleHeuristic}), computed once per
+     * change to the network.
+     *
+     * @return the cost per meter
+     */
+    double getDistanceCostPerMeter() {
+        return heuristicBounds().distanceCostPerMeter;
+    }
+
+    /**
+     * Obtains the strongest wind of the segments (static or forecast),
+     * computed once per change to the network or to the wind of a segment.
+     *
+     * @return the strongest wind speed (m/s)
+     */
+    public double getMaxWindSpeed() {
+        return heuristicBounds().maxWindSpeed;
+    }
+
+    /**
+     * Obtains the heuristic bounds of the current network, computing the ones
+     * out of date.
+     *
+     * @return the heuristic bounds
+     */
+    private HeuristicBounds heuristicBounds() {
+
+        MapGraph<Coordinate, Segment> graph = network;
+        int modifications = graph.getModificationCount();
+        int windChanges = Segment.getWindChanges();
+        HeuristicBounds bounds = heuristicBounds;
+        if (bounds == null || bounds.graph != graph || bounds.modifications != modifications) {
+            double[] distances = GreatCircleHeuristic.greatCircleDistances(graph);
+            bounds = new HeuristicBounds(graph, modifications, distances,
+                    GreatCircleHeuristic.admissibleCost(graph, null, distances, 1),
+                    windChanges, GreatCircleHeuristic.maxWindSpeed(graph));
+            heuristicBounds = bounds;
+        } else if (bounds.windChanges != windChanges) {
+            bounds = new HeuristicBounds(graph, modifications, bounds.distances, bounds.distanceCostPerMeter,
+                    windChanges, GreatCircleHeuristic.maxWindSpeed(graph));
+            heuristicBounds = bounds;
+        }
+        return bounds;
+    }
+
+    /**
+     * Great circle heuristic bounds of a graph at a modification count and a
+     * number of wind changes.
+     */
+    private static final class HeuristicBounds {
+
+        private final MapGraph<Coordinate, Segment> graph;
+        private final int modifications;
+        private final double[] distances;
+        private final double distanceCostPerMeter;
+        private final int windChanges;
+        private final double maxWindSpeed;
+
+        HeuristicBounds(MapGraph<Coordinate, Segment> graph, int modifications, double[] distances,
+                double distanceCostPerMeter, int windChanges, double maxWindSpeed) {
+            this.graph = graph;
+            this.modifications = modifications;
+            this.distances = distances;
+            this.distanceCostPerMeter = distanceCostPerMeter;
+            this.windChanges = windChanges;
+            this.maxWindSpeed = maxWindSpeed;
+        }
+    }
+
+    /**
+     * Discards the route index after a change to the network. It is built
+     * again, in the background, on the next query.
+     *
+     * @param changed true if the network changed
+     * @return changed
+     */
+    private boolean invalidateRouteIndex(boolean changed) {
+
+        if (changed) {
+            invalidateRouteIndex();
+        }
+        return changed;
+    }
+
+    /**
+     * Discards the route index.
+     */
+    private void invalidateRouteIndex() {
+
+        synchronized (indexLock) {
+            routeIndex = null;
+        }
+    }
+
+    /**
+     * Calculates the shortest route (distance) between two junctions, with the
+     * route index when it is built and searching the network otherwise.
+     *
+     * @param origin the origin junction
+     * @param destination the destination junction
+     * @param route list to fill with the segments of the route (in order)
+     * @return the route distance (m), -1 if there is no route
+     */
+    public double shortestRoute(Coordinate origin, Coordinate destination, LinkedList<Segment> route) {
+
+        route.clear();
+        ContractionHierarchy<Coordinate, Segment> index = getRouteIndex();
+        if (index != null) {
+            LinkedList<MapEdge<Coordinate, Segment>> edges = new LinkedList<>();
+            double distance = index.shortestPathEdges(origin, destination, edges);
+            // the segments of this network (a snapshot shares the index of its network)
+            for (MapEdge<Coordinate, Segment> edge : edges) {
+                route.add(network.getEdge(edge.getVOrig(), edge.getVDest()).getElement());
+            }
+            return distance;
+        }
+
+        LinkedList<Coordinate> path = new LinkedList<>();
+        double distance = MapGraphAlgorithms.bidirectionalPath(network, origin, destination, path);
+        Iterator<Coordinate> it = path.iterator();
+        Coordinate first = it.hasNext() ? it.next() : null;
+        while (it.hasNext()) {
+            Coordinate second = it.next();
+            route.add(network.getEdge(first, second).getElement());
+            first = second;
+        }
+        return distance;
     }
 
     @Override
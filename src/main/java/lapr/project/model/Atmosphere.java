@@ -0,0 +1,349 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+import lapr.project.utils.Consts;
+import lapr.project.utils.CustomUnits;
+
+/**
+ * Precomputed International Standard Atmosphere (ISA) table.
+ *
+ * Temperature, pressure, air density and speed of sound are tabulated in SI
+ * every {@link #STEP} meters between {@link #MIN_ALTITUDE} and
+ * {@link #MAX_ALTITUDE}. Temperature is piecewise linear and is read with
+ * linear interpolation (exact). The other columns are read with cubic Hermite
+ * interpolation over values and analytic derivatives. The tropopause (11 km)
+ * is a table node and the derivatives of each interval are taken from the
+ * layer of that interval, so no interval crosses the break between the
+ * temperature lapse and the isothermal layer.
+ *
+ * Error bound: cubic Hermite interpolation errs by at most
+ * (STEP^4 / 384) x max|f''''| inside an interval. With a 25 m step that is
+ * below 1e-12 relative for pressure, density and speed of sound. Altitudes
+ * out of the table fall back to the exact formulas, which are the ones the
+ * {@link Calculus} facades always used.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class Atmosphere {
+
+    /**
+     * Reference temperature at sea level. (K)
+     */
+    static final double T0 = Consts.REF_TEMP_SEA_LEVEL.doubleValue(SI.KELVIN);
+
+    /**
+     * Temperature lapse rate. (K/m)
+     */
+    static final double LAPSE_RATE = Consts.TEMP_LAPSE_RATE.doubleValue(CustomUnits.TEMP_GRADIENT_SI);
+
+    /**
+     * Pressure at sea level. (Pa)
+     */
+    static final double P0 = Consts.AIR_PRESSURE_SEA_LEVEL.doubleValue(SI.PASCAL);
+
+    /**
+     * Air density at sea level. (kg/m3)
+     */
+    static final double RHO0 = Consts.AIR_DENSITY_SEA_LEVEL.doubleValue(CustomUnits.VOLUMETRIC_DENSITY_SI);
+
+    /**
+     * Specific gas constant of the air. (J/kg/K)
+     */
+    static final double GAS_CONST = Consts.UNIV_GAS_CONST.doubleValue(SI.JOULE.divide(SI.KILOGRAM).divide(SI.KELVIN));
+
+    /**
+     * Ratio of specific heats. (dimensionless)
+     */
+    static final double GAMMA = Consts.GAMMA.doubleValue(Unit.ONE);
+
+    /**
+     * Tropopause altitude. (m)
+     */
+    public static final double TROPOPAUSE = 11000;
+
+    /**
+     * Temperature in the isothermal layer above the tropopause. (K)
+     */
+    static final double TROPOPAUSE_TEMP = 216.7;
+
+    /**
+     * Pressure exponent.
+     */
+    private static final double PRESSURE_EXPONENT = 5.2561;
+
+    /**
+     * Lowest tabulated altitude. (m)
+     */
+    public static final double MIN_ALTITUDE = -1000;
+
+    /**
+     * Highest tabulated altitude. (m)
+     */
+    public static final double MAX_ALTITUDE = 20000;
+
+    /**
+     * Distance between table nodes. (m) (must divide the tropopause offset)
+     */
+    public static final double STEP = 25;
+
+    /**
+     * The standard atmosphere.
+     */
+    public static final Atmosphere ISA = new Atmosphere();
+
+    /**
+     * Tabulated temperatures. (K)
+     */
+    private final double[] temperature;
+
+    /**
+     * Tabulated pressures. (Pa)
+     */
+    private final double[] pressure;
+
+    /**
+     * Tabulated air densities. (kg/m3)
+     */
+    private final double[] density;
+
+    /**
+     * Tabulated speeds of sound. (m/s)
+     */
+    private final double[] speedOfSound;
+
+    /**
+     * Scaled derivatives (per STEP) at the start and at the end of each
+     * interval, for the pressure, air density and speed of sound.
+     */
+    private final double[] pressureStart;
+    private final double[] pressureEnd;
+    private final double[] densityStart;
+    private final double[] densityEnd;
+    private final double[] speedOfSoundStart;
+    private final double[] speedOfSoundEnd;
+
+    /**
+     * Builds the atmosphere table.
+     */
+    private Atmosphere() {
+
+        int size = (int) Math.round((MAX_ALTITUDE - MIN_ALTITUDE) / STEP) + 1;
+        temperature = new double[size];
+        pressure = new double[size];
+        density = new double[size];
+        speedOfSound = new double[size];
+        pressureStart = new double[size - 1];
+        pressureEnd = new double[size - 1];
+        densityStart = new double[size - 1];
+        densityEnd = new double[size - 1];
+        speedOfSoundStart = new double[size - 1];
+        speedOfSoundEnd = new double[size - 1];
+
+        for (int i = 0; i < size; i++) {
+            double altitude = MIN_ALTITUDE + i * STEP;
+            temperature[i] = exactTemperature(altitude);
+            pressure[i] = exactPressure(altitude);
+            density[i] = exactDensity(altitude);
+            speedOfSound[i] = exactSpeedOfSound(altitude);
+        }
+
+        for (int i = 0; i < size - 1; i++) {
+            double start = MIN_ALTITUDE + i * STEP;
+            double end = start + STEP;
+            double lapse = (start < TROPOPAUSE) ? LAPSE_RATE : 0;
+
+            pressureStart[i] = pressureSlope(start) * STEP;
+            pressureEnd[i] = pressureSlope(end) * STEP;
+            densityStart[i] = densitySlope(start, lapse) * STEP;
+            densityEnd[i] = densitySlope(end, lapse) * STEP;
+            speedOfSoundStart[i] = speedOfSoundSlope(start, lapse) * STEP;
+            speedOfSoundEnd[i] = speedOfSoundSlope(end, lapse) * STEP;
+        }
+    }
+
+    /**
+     * Obtains the temperature of an altitude.
+     *
+     * @param altitude the altitude (m)
+     * @return the temperature (K)
+     */
+    public double temperature(double altitude) {
+
+        if (!inTable(altitude)) {
+            return exactTemperature(altitude);
+        }
+        double position = (altitude - MIN_ALTITUDE) / STEP;
+        int index = (int) position;
+        double fraction = position - index;
+
+        return temperature[index] + (temperature[index + 1] - temperature[index]) * fraction;
+    }
+
+    /**
+     * Obtains the pressure of an altitude.
+     *
+     * @param altitude the altitude (m)
+     * @return the pressure (Pa)
+     */
+    public double pressure(double altitude) {
+
+        if (!inTable(altitude)) {
+            return exactPressure(altitude);
+        }
+        return interpolate(pressure, pressureStart, pressureEnd, altitude);
+    }
+
+    /**
+     * Obtains the air density of an altitude.
+     *
+     * @param altitude the altitude (m)
+     * @return the air density (kg/m3)
+     */
+    public double density(double altitude) {
+
+        if (!inTable(altitude)) {
+            return exactDensity(altitude);
+        }
+        return interpolate(density, densityStart, densityEnd, altitude);
+    }
+
+    /**
+     * Obtains the speed of sound of an altitude.
+     *
+     * @param altitude the altitude (m)
+     * @return the speed of sound (m/s)
+     */
+    public double speedOfSound(double altitude) {
+
+        if (!inTable(altitude)) {
+            return exactSpeedOfSound(altitude);
+        }
+        return interpolate(speedOfSound, speedOfSoundStart, speedOfSoundEnd, altitude);
+    }
+
+    /**
+     * Verifies if an altitude is covered by the table.
+     *
+     * @param altitude the altitude (m)
+     * @return true if it is tabulated
+     */
+    private static boolean inTable(double altitude) {
+        return altitude >= MIN_ALTITUDE && altitude < MAX_ALTITUDE;
+    }
+
+    /**
+     * Cubic Hermite interpolation of a tabulated column.
+     *
+     * @param column the column values
+     * @param start the scaled derivatives at the start of each interval
+     * @param end the scaled derivatives at the end of each interval
+     * @param altitude the altitude (m), inside the table
+     * @return the interpolated value
+     */
+    private static double interpolate(double[] column, double[] start, double[] end, double altitude) {
+
+        double position = (altitude - MIN_ALTITUDE) / STEP;
+        int index = (int) position;
+        double t = position - index;
+        double t2 = t * t;
+        double t3 = t2 * t;
+
+        return (2 * t3 - 3 * t2 + 1) * column[index]
+                + (t3 - 2 * t2 + t) * start[index]
+                + (3 * t2 - 2 * t3) * column[index + 1]
+                + (t3 - t2) * end[index];
+    }
+
+    /**
+     * Exact ISA temperature.
+     *
+     * @param altitude the altitude (m)
+     * @return the temperature (K)
+     */
+    static double exactTemperature(double altitude) {
+        return (altitude < TROPOPAUSE) ? T0 + LAPSE_RATE * altitude : TROPOPAUSE_TEMP;
+    }
+
+    /**
+     * Exact pressure (same expression as the Calculus facade always used).
+     *
+     * @param altitude the altitude (m)
+     * @return the pressure (Pa)
+     */
+    static double exactPressure(double altitude) {
+        return P0 * Math.pow(1 + LAPSE_RATE * (altitude / T0), PRESSURE_EXPONENT);
+    }
+
+    /**
+     * Exact ISA air density.
+     *
+     * @param altitude the altitude (m)
+     * @return the air density (kg/m3)
+     */
+    static double exactDensity(double altitude) {
+        return exactPressure(altitude) / (exactTemperature(altitude) * GAS_CONST);
+    }
+
+    /**
+     * Exact ISA speed of sound.
+     *
+     * @param altitude the altitude (m)
+     * @return the speed of sound (m/s)
+     */
+    static double exactSpeedOfSound(double altitude) {
+        return Math.sqrt(GAMMA * GAS_CONST * exactTemperature(altitude));
+    }
+
+    /**
+     * Derivative of the pressure.
+     *
+     * @param altitude the altitude (m)
+     * @return the pressure derivative (Pa/m)
+     */
+    private static double pressureSlope(double altitude) {
+        return P0 * PRESSURE_EXPONENT * (LAPSE_RATE / T0)
+                * Math.pow(1 + LAPSE_RATE * (altitude / T0), PRESSURE_EXPONENT - 1);
+    }
+
+    /**
+     * Temperature of an altitude extended along the lapse of a layer.
+     *
+     * @param altitude the altitude (m)
+     * @param lapse the layer lapse rate (K/m)
+     * @return the temperature (K)
+     */
+    private static double layerTemperature(double altitude, double lapse) {
+        return (lapse == 0) ? TROPOPAUSE_TEMP : T0 + lapse * altitude;
+    }
+
+    /**
+     * Derivative of the air density inside a layer.
+     *
+     * @param altitude the altitude (m)
+     * @param lapse the layer lapse rate (K/m)
+     * @return the air density derivative (kg/m4)
+     */
+    private static double densitySlope(double altitude, double lapse) {
+
+        double temp = layerTemperature(altitude, lapse);
+        return (pressureSlope(altitude) * temp - exactPressure(altitude) * lapse) / (temp * temp * GAS_CONST);
+    }
+
+    /**
+     * Derivative of the speed of sound inside a layer.
+     *
+     * @param altitude the altitude (m)
+     * @param lapse the layer lapse rate (K/m)
+     * @return the speed of sound derivative (1/s)
+     */
+    private static double speedOfSoundSlope(double altitude, double lapse) {
+        return GAMMA * GAS_CONST * lapse / (2 * Math.sqrt(GAMMA * GAS_CONST * layerTemperature(altitude, lapse)));
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+/**
+ * Closed form (Breguet) solution of the cruise regime.
+ *
+ * In cruise the Mach number and the altitude are constant and the thrust is
+ * equal to the drag. With the parabolic drag polar the drag is a x m^2 + b,
+ * where the induced part a x m^2 comes from the lift coefficient and b is the
+ * zero lift part (cdrag table), so the fuel flow is
+ * dm/dt = -(tsfc / g) x (a x m^2 + b). It integrates to
+ * m(t) = sqrt(b / a) x tan(atan(m0 x sqrt(a / b)) - (tsfc / g) x sqrt(a x b) x t)
+ * and the duration of a leg is its distance over the true airspeed, so a
+ * cruise costs O(1) whatever its length. The mass decreases along the leg as
+ * in the step by step loop, which stays the reference.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class BreguetCruise {
+
+    /**
+     * Solves a cruise of a compiled performance profile and stores the
+     * distance (m), duration (s) and consumption (kg) in the given result
+     * array.
+     *
+     * @param profile the performance profile
+     * @param initialMass the initial mass (kg)
+     * @param segmentDistance the segment distance (m)
+     * @param result the array to fill (see {@link FlightIntegrator#RESULT_SIZE})
+     */
+    static void solve(PerformanceProfile profile, double initialMass, double segmentDistance, double[] result) {
+
+        double altitude = profile.getCruiseAltitude();
+        double airDensity = Atmosphere.ISA.density(altitude);
+        double tas = Atmosphere.ISA.speedOfSound(altitude) * profile.getCruiseMach();
+        double dynamicPressureArea = airDensity * tas * tas * profile.getWingArea() / 2;
+
+        // drag = a.m^2 + b (the lift coefficient of a unit mass is liftFactor / (rho.tas^2))
+        double unitLift = profile.getLiftFactor() / (airDensity * tas * tas);
+        double a = profile.dragCoefficient(unitLift, 0) * dynamicPressureArea;
+        double b = profile.cdrag(profile.getCruiseMach()) * dynamicPressureArea;
+
+        double duration = segmentDistance / tas;
+        result[FlightIntegrator.DISTANCE] = segmentDistance;
+        result[FlightIntegrator.DURATION] = duration;
+        result[FlightIntegrator.CONSUMPTION] = initialMass
+                - mass(initialMass, a, b, profile.getFuelFlowFactor(), duration);
+    }
+
+    /**
+     * Obtains the mass after a cruise time.
+     *
+     * @param mass the initial mass (kg)
+     * @param a the induced drag factor (N/kg2)
+     * @param b the zero lift drag (N)
+     * @param k the fuel flow per thrust (tsfc / g) (kg/N/s)
+     * @param time the cruise time (s)
+     * @return the final mass (kg)
+     */
+    static double mass(double mass, double a, double b, double k, double time) {
+
+        if (b <= 0) {
+            return mass / (1 + k * a * mass * time);
+        }
+        if (a <= 0) {
+            return mass - k * b * time;
+        }
+        double ratio = Math.sqrt(a / b);
+        return Math.tan(Math.atan(mass * ratio) - k * Math.sqrt(a * b) * time) / ratio;
+    }
+}
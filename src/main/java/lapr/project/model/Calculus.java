@@ -35,17 +35,7 @@ public class Calculus {
     /**
      * Earth radius in meters (Assuming that Earth is perfect sphere)
      */
-    private static final double EARTH_RADIUS = 6371e3;
-
-    /**
-     * Time step for fuel burn calculation.
-     */
-    private static final double TIMESTEP = 60;
-
-    /**
-     * Minimal climbing rate. (m/s)
-     */
-    private static final Amount<Velocity> MIN_CLIMB_RATE = Amount.valueOf(0.2, SI.METERS_PER_SECOND);
+    static final double EARTH_RADIUS = 6371e3;
 
     /**
      * Compass directions.
@@ -54,6 +44,16 @@ public class Calculus {
         NORTH, EAST, SOUTH, WEST
     }
 
+    /**
+     * Integration modes of the flight regimes: fixed 60 s steps (reference),
+     * adaptive, error controlled steps with exact phase boundaries, or the
+     * closed form cruise (climb and landing have no closed form, so they are
+     * integrated adaptively in that mode).
+     */
+    public static enum INTEGRATION {
+        FIXED_STEP, ADAPTIVE, ANALYTIC
+    }
+
     /**
      * Converts a compass coordinate (DD MM SS) to decimal format.
      *
@@ -97,26 +97,9 @@ public class Calculus {
         // Haversine:
         // a = sin²(Δφ/2) + cos φ1 x cos φ2 x sin²(Δλ/2)
         // c = 2 x atan2( √a, √(1−a) )
-        // d = R x c
-        // Earth radius plus airport altitude.
-        double radius = EARTH_RADIUS + altitude.doubleValue(SI.METER);
-
-        // Stores lat/lon pairs in degrees
-        Amount<Angle> lat1 = Amount.valueOf(first.getLatitude(), NonSI.DEGREE_ANGLE);
-        Amount<Angle> lat2 = Amount.valueOf(second.getLatitude(), NonSI.DEGREE_ANGLE);
-        Amount<Angle> lon1 = Amount.valueOf(first.getLongitude(), NonSI.DEGREE_ANGLE);
-        Amount<Angle> lon2 = Amount.valueOf(second.getLongitude(), NonSI.DEGREE_ANGLE);
-        // Variation of lat/lat & lon/lon pairs in radians
-        double deltaLat = lat2.minus(lat1).doubleValue(SI.RADIAN);
-        double deltaLon = lon2.minus(lon1).doubleValue(SI.RADIAN);
-
-        double a = (Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2))
-                + Math.cos(lat1.doubleValue(SI.RADIAN)) * Math.cos(lat2.doubleValue(SI.RADIAN))
-                * (Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2));
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return Amount.valueOf(radius * c, SI.METER);
+        // d = R x c (Earth radius plus airport altitude)
+        // with the radians & cosines cached by the coordinates.
+        return Amount.valueOf(first.distance(second, altitude.doubleValue(SI.METER)), SI.METER);
     }
 
     /**
@@ -169,14 +152,27 @@ public class Calculus {
     public static Amount<Length> virtualDistance(double realDistance, FlightSimulation flight,
             Segment segment, Coordinate first, Coordinate second) {
 
+        return virtualDistance(realDistance, flight, windComponent(segment, first, second));
+    }
+
+    /**
+     * Virtual distance to calculate the range, with a wind speed portion
+     * along the flight (for example, the mean one of a wind forecast).
+     *
+     * @param realDistance real distance
+     * @param flight flight
+     * @param windComponent the wind speed portion (m/s)
+     *
+     * @return distance to calculate the range.
+     */
+    public static Amount<Length> virtualDistance(double realDistance, FlightSimulation flight, double windComponent) {
+
         Amount<Length> altitude = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseAltitude();
         Amount<Velocity> mach = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseSpeed();
-        Amount<Velocity> windSpeed = segment.getWindIntensity();
-        Amount<Angle> windDirection = segment.getWindDirection();
-        Amount<Angle> flightDirection = Calculus.direction(first, second);
+        double tas = calculateTAS(altitude, mach).doubleValue(SI.METERS_PER_SECOND);
 
-        double realDuration = realDistance / calculateTAS(altitude, mach).doubleValue(SI.METERS_PER_SECOND);
-        double virtualDuration = realDistance / calculateGS(altitude, mach, windSpeed, windDirection, flightDirection).doubleValue(SI.METERS_PER_SECOND);
+        double realDuration = realDistance / tas;
+        double virtualDuration = realDistance / (tas + windComponent);
         double factor = (virtualDuration / realDuration) - 1;
         double virtualDistance = realDistance + (realDistance * factor);
 
@@ -195,11 +191,8 @@ public class Calculus {
     public static Amount<Force> getLiftForce(Amount<Length> altitude, Amount<Mass> mass,
             Amount<Area> wingsArea, Amount<Velocity> machNumber) {
 
-        Amount<Pressure> press = getPressure(altitude);
-        Amount<Temperature> temp = getTemperature(altitude);
-
         return (Amount<Force>) getLiftCoefficient(altitude, mass, wingsArea, machNumber)
-                .times(getAirDensity(press, temp))
+                .times(getAirDensity(altitude))
                 .times(calculateTAS(altitude, machNumber).pow(2))
                 .times(wingsArea)
                 .divide(Amount.valueOf(2, Unit.ONE));
@@ -217,13 +210,10 @@ public class Calculus {
     public static Amount<Dimensionless> getLiftCoefficient(Amount<Length> altitude, Amount<Mass> mass,
             Amount<Area> wingsArea, Amount<Velocity> machNumber) {
 
-        Amount<Pressure> press = getPressure(altitude);
-        Amount<Temperature> temp = getTemperature(altitude);
-
         return (Amount<Dimensionless>) Amount.valueOf(2, Unit.ONE)
                 .times(mass)
                 .times(Constants.g)
-                .divide(getAirDensity(press, temp)
+                .divide(getAirDensity(altitude)
                         .times(wingsArea)
                         .times(calculateTAS(altitude, machNumber).pow(2)));
     }
@@ -236,10 +226,8 @@ public class Calculus {
      * @return the temperature
      */
     public static Amount<Temperature> getTemperature(Amount<Length> altitude) {
-        if (altitude.isLessThan(Amount.valueOf(11000, SI.METER))) {
-            return (Amount<Temperature>) (altitude.times(Consts.TEMP_LAPSE_RATE).plus(Consts.REF_TEMP_SEA_LEVEL));
-        }
-        return (Amount<Temperature>) (Amount.valueOf(216.7, SI.KELVIN));
+
+        return Amount.valueOf(Atmosphere.ISA.temperature(altitude.doubleValue(SI.METER)), SI.KELVIN);
     }
 
     /**
@@ -248,12 +236,18 @@ public class Calculus {
      */
     public static Amount<Pressure> getPressure(Amount<Length> altitude) {
 
-        double i = altitude.doubleValue(SI.METER) / Consts.REF_TEMP_SEA_LEVEL.doubleValue(SI.KELVIN);
-        double j = Consts.TEMP_LAPSE_RATE.doubleValue(CustomUnits.TEMP_GRADIENT_SI) * i;
-        double k = Math.pow(1 + j, 5.2561);
-        double result = Consts.AIR_PRESSURE_SEA_LEVEL.doubleValue(SI.PASCAL) * k;
+        return Amount.valueOf(Atmosphere.ISA.pressure(altitude.doubleValue(SI.METER)), SI.PASCAL);
+    }
+
+    /**
+     * Get the air density of a given altitude.
+     *
+     * @param altitude the given altitude (m)
+     * @return the air density at the given altitude
+     */
+    public static Amount<VolumetricDensity> getAirDensity(Amount<Length> altitude) {
 
-        return Amount.valueOf(result, SI.PASCAL);
+        return Amount.valueOf(Atmosphere.ISA.density(altitude.doubleValue(SI.METER)), CustomUnits.VOLUMETRIC_DENSITY_SI);
     }
 
     /**
@@ -289,9 +283,75 @@ public class Calculus {
      * air) (m/s)
      */
     public static Amount<Velocity> calculateTAS(Amount<Length> altitude, Amount<Velocity> machNumber) {
-        Amount<Temperature> temp = getTemperature(altitude);
 
-        return (Amount<Velocity>) getSpeedOfSound(temp).times(machNumber.doubleValue(NonSI.MACH));
+        double speedOfSound = Atmosphere.ISA.speedOfSound(altitude.doubleValue(SI.METER));
+
+        return Amount.valueOf(speedOfSound * machNumber.doubleValue(NonSI.MACH), SI.METERS_PER_SECOND);
+    }
+
+    /**
+     * Obtains the wind speed portion (vx) along a segment, in m/s, from the
+     * geometry of the segment between the coordinates.
+     *
+     * @param segment the segment
+     * @param first the first coordinate
+     * @param second the second coordinate
+     * @return the wind speed portion (m/s)
+     */
+    public static double windComponent(Segment segment, Coordinate first, Coordinate second) {
+        return segment.getWindComponent(first, second);
+    }
+
+    /**
+     * Obtains the arrival time of a cruise over a segment: with the wind
+     * forecast of the segment when it has one (see
+     * {@link WindForecast#arrival(double, double, double, double, double)}),
+     * otherwise at the ground speed of its static wind.
+     *
+     * @param segment the segment
+     * @param first the first coordinate
+     * @param second the second coordinate
+     * @param departure the departure time (s since the epoch)
+     * @param distance the distance flown (m)
+     * @param tas the true airspeed (m/s)
+     * @return the arrival time (s since the epoch), infinity if the wind
+     * never lets the flight arrive
+     */
+    public static double cruiseArrival(Segment segment, Coordinate first, Coordinate second, double departure,
+            double distance, double tas) {
+
+        WindForecast forecast = segment.getWindForecast();
+        if (forecast == null) {
+            if (distance <= 0) {
+                return departure;
+            }
+            double groundSpeed = tas + windComponent(segment, first, second);
+            return (groundSpeed > 0) ? departure + distance / groundSpeed : Double.POSITIVE_INFINITY;
+        }
+        SegmentGeometry geometry = segment.getGeometry(first, second);
+        return forecast.arrival(departure, distance, tas, geometry.getSinBearing(), geometry.getCosBearing());
+    }
+
+    /**
+     * Obtains the mean wind speed portion (vx) of a cruise over a segment
+     * from a time, in m/s: the one of its wind forecast over the time flown
+     * (see {@link #cruiseArrival}), or its static one.
+     *
+     * @param segment the segment
+     * @param first the first coordinate
+     * @param second the second coordinate
+     * @param departure the departure time (s since the epoch)
+     * @param distance the distance flown (m)
+     * @param tas the true airspeed (m/s)
+     * @return the wind speed portion (m/s)
+     */
+    public static double windComponent(Segment segment, Coordinate first, Coordinate second, double departure,
+            double distance, double tas) {
+
+        if (segment.getWindForecast() == null || distance <= 0) {
+            return windComponent(segment, first, second);
+        }
+        return distance / (cruiseArrival(segment, first, second, departure, distance, tas) - departure) - tas;
     }
 
     /**
@@ -370,10 +430,8 @@ public class Calculus {
             Amount<Dimensionless> dragCoefficient0, Amount<Area> wingArea, Amount<Dimensionless> e,
             Amount<Velocity> machNumber, Amount<Dimensionless> aspectRatio) {
 
-        Amount<Pressure> press = getPressure(altitude);
-        Amount<Temperature> temp = getTemperature(altitude);
         double cDrag = getDragCoefficient(altitude, mass, aspectRatio, dragCoefficient0, wingArea, e, machNumber).doubleValue(Unit.ONE);
-        double airDensity = getAirDensity(press, temp).doubleValue(CustomUnits.VOLUMETRIC_DENSITY_SI);
+        double airDensity = Atmosphere.ISA.density(altitude.doubleValue(SI.METER));
         double squaredTas = Math.pow((calculateTAS(altitude, machNumber).doubleValue(SI.METERS_PER_SECOND)), 2);
         double wingsArea = wingArea.doubleValue(SI.SQUARE_METRE);
 
@@ -400,11 +458,8 @@ public class Calculus {
         Amount<Area> wingArea = flight.getFlightInfo().getAircraft().getAircraftModel().getWingArea();
         Amount<Dimensionless> aspectRatio = flight.getFlightInfo().getAircraft().getAircraftModel().getAspectRatio();
 
-        Amount<Pressure> press = getPressure(altitude);
-        Amount<Temperature> temp = getTemperature(altitude);
-
         return (Amount<Force>) getDragCoefficient(altitude, mass, aspectRatio, dragCoefficient0, wingArea, e, machNumber)
-                .times(getAirDensity(press, temp))
+                .times(getAirDensity(altitude))
                 .times((calculateTAS(altitude, machNumber)).pow(2))
                 .times(wingArea)
                 .divide(Amount.valueOf(2, Unit.ONE));
@@ -602,34 +657,52 @@ public class Calculus {
     /**
      * Enumeration of the flight regimes.
      */
-    private static enum REGIME {
+    static enum REGIME {
         CLIMB, CRUISE, LANDING
     }
 
-    private static Amount<Velocity> getIAS(FlightSimulation flight, Amount<Length> altitude, REGIME regime) {
+    /**
+     * Calculates the climb of a flight.
+     *
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @return a analysis with distance, duration & consumption of flight climb
+     */
+    public static AlgorithmAnalysis calculateClimb(FlightSimulation flight,
+            Amount<Length> airportAltitude) {
 
-        switch (regime) {
-            case CLIMB:
-                return flight.getFlightInfo().getAircraft().getFlightPattern().getVclimb(altitude);
-            case LANDING:
-                return flight.getFlightInfo().getAircraft().getFlightPattern().getVdesc(altitude);
-            default:
-                // CRUISE
-                return Amount.valueOf(0, SI.METERS_PER_SECOND);
-        }
+        return calculateClimb(flight, airportAltitude, INTEGRATION.FIXED_STEP);
     }
 
     /**
-     * Calculates the climb of a flight.
+     * Calculates the climb of a flight with an integration mode.
      *
      * @param flight the flight
      * @param airportAltitude the airports altitude
+     * @param mode the integration mode
      * @return a analysis with distance, duration & consumption of flight climb
      */
     public static AlgorithmAnalysis calculateClimb(FlightSimulation flight,
-            Amount<Length> airportAltitude) {
+            Amount<Length> airportAltitude, INTEGRATION mode) {
+
+        return calculateClimb(PerformanceProfile.of(flight), flight, airportAltitude, mode);
+    }
+
+    /**
+     * Calculates the climb of a flight with the compiled performance profile
+     * of its aircraft (compiled once for the many regimes of a flight plan).
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @param mode the integration mode
+     * @return a analysis with distance, duration & consumption of flight climb
+     */
+    public static AlgorithmAnalysis calculateClimb(PerformanceProfile profile, FlightSimulation flight,
+            Amount<Length> airportAltitude, INTEGRATION mode) {
 
-        return calculateFlightAnalysis(flight, REGIME.CLIMB, airportAltitude, Amount.valueOf(0.0, SI.METER));
+        return calculateFlightAnalysis(profile, flight, REGIME.CLIMB, airportAltitude, Amount.valueOf(0.0, SI.METER),
+                mode);
     }
 
     /**
@@ -643,7 +716,40 @@ public class Calculus {
     public static AlgorithmAnalysis calculateLanding(FlightSimulation flight,
             Amount<Length> airportAltitude) {
 
-        return calculateFlightAnalysis(flight, REGIME.LANDING, airportAltitude, Amount.valueOf(0.0, SI.METER));
+        return calculateLanding(flight, airportAltitude, INTEGRATION.FIXED_STEP);
+    }
+
+    /**
+     * Calculates the landing of a flight with an integration mode.
+     *
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @param mode the integration mode
+     * @return a analysis with distance, duration & consumption of flight
+     * landing
+     */
+    public static AlgorithmAnalysis calculateLanding(FlightSimulation flight,
+            Amount<Length> airportAltitude, INTEGRATION mode) {
+
+        return calculateLanding(PerformanceProfile.of(flight), flight, airportAltitude, mode);
+    }
+
+    /**
+     * Calculates the landing of a flight with the compiled performance
+     * profile of its aircraft.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @param mode the integration mode
+     * @return a analysis with distance, duration & consumption of flight
+     * landing
+     */
+    public static AlgorithmAnalysis calculateLanding(PerformanceProfile profile, FlightSimulation flight,
+            Amount<Length> airportAltitude, INTEGRATION mode) {
+
+        return calculateFlightAnalysis(profile, flight, REGIME.LANDING, airportAltitude,
+                Amount.valueOf(0.0, SI.METER), mode);
     }
 
     /**
@@ -656,99 +762,70 @@ public class Calculus {
      */
     public static AlgorithmAnalysis calculateCruise(FlightSimulation flight, Amount<Length> segmentDistance) {
 
-        return calculateFlightAnalysis(flight, REGIME.CRUISE, Amount.valueOf(0.0, SI.METER), segmentDistance);
+        return calculateCruise(flight, segmentDistance, INTEGRATION.FIXED_STEP);
+    }
+
+    /**
+     * Calculates the cruise of a flight with an integration mode.
+     *
+     * @param flight the flight
+     * @param segmentDistance the segment distance
+     * @param mode the integration mode
+     * @return a analysis with distance, duration & consumption of flight
+     * cruise
+     */
+    public static AlgorithmAnalysis calculateCruise(FlightSimulation flight, Amount<Length> segmentDistance,
+            INTEGRATION mode) {
+
+        return calculateCruise(PerformanceProfile.of(flight), flight, segmentDistance, mode);
+    }
+
+    /**
+     * Calculates the cruise of a flight with the compiled performance profile
+     * of its aircraft.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param segmentDistance the segment distance
+     * @param mode the integration mode
+     * @return a analysis with distance, duration & consumption of flight
+     * cruise
+     */
+    public static AlgorithmAnalysis calculateCruise(PerformanceProfile profile, FlightSimulation flight,
+            Amount<Length> segmentDistance, INTEGRATION mode) {
+
+        return calculateFlightAnalysis(profile, flight, REGIME.CRUISE, Amount.valueOf(0.0, SI.METER),
+                segmentDistance, mode);
     }
 
     /**
      * Calculates the flight ananlysis by regime.
      *
+     * @param profile the performance profile of the aircraft of the flight
      * @param flight the flight
      * @param regime the regime (climb, cruise & landing)
      * @param airportAltitude the airports altitude
      * @param segmentDistance the segment distance in criuse
+     * @param mode the integration mode
      * @return a analysis with distance, duration & consumption of flight regime
      */
-    private static AlgorithmAnalysis calculateFlightAnalysis(FlightSimulation flight, REGIME regime,
-            Amount<Length> airportAltitude, Amount<Length> segmentDistance) {
-
-        // Fuel Consumption
-        Amount<Mass> consumption = Amount.valueOf(0, SI.KILOGRAM);
-
-        // Atributes from flight
-        double cruiseAltitude = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseAltitude().doubleValue(SI.METER);
-        Amount e = flight.getFlightInfo().getAircraft().getAircraftModel().getE();
-        Amount<Force> thrust_0 = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().getThrust0();
-        Amount<Force> thrustMaxSpeed = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().getThrustMaxSpeed();
-        Amount<Velocity> maxSpeed = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().getMaxSpeed();
-        int numMotors = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getNumberOfMotors();
-        Amount tsfc = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getTsfc();
-        Amount<Mass> mass = flight.getEffectiveCargo().plus(flight.getEffectiveFuel()).plus(flight.getFlightInfo().getAircraft().getAircraftModel().getEmptyWeight());
-
-        // Intialized variables to calculate during iteration
-        int lapsedTime = 0;
-        double startingAltitude = (regime == REGIME.CLIMB) ? airportAltitude.doubleValue(SI.METER) : cruiseAltitude;
-        Amount<Mass> fuelBurn = Amount.valueOf(0, SI.KILOGRAM);
-        Amount<Length> distance = Amount.valueOf(0, SI.METER);
-        Amount<Force> lambda = getLambda(thrust_0, thrustMaxSpeed, maxSpeed);
-        Amount<Velocity> climbRate = Amount.valueOf(Double.POSITIVE_INFINITY, SI.METERS_PER_SECOND);
-        // Unintialized variables to calculate during iteration
-        Amount<Length> altitude;
-        Amount<VolumetricDensity> airDensity;
-        Amount<Velocity> ias;
-        Amount<Velocity> mTrue;
-        Amount<Velocity> tas;
-        Amount<Force> drag;
-        Amount<Force> thrust;
-        Amount<Force> totalThrust;
-        Amount<Angle> climbAngle;
-        Amount<Length> stepDistance;
-        Amount<Pressure> pressure;
-        Amount<Temperature> temperature;
-
-        boolean stopCriteria = true;
-        while (stopCriteria) {
-
-            // Variables to calculate during iteration
-            altitude = Amount.valueOf(startingAltitude, SI.METER);
-            mass = getNewMass(mass, fuelBurn);
-            pressure = getPressure(altitude);
-            temperature = getTemperature(altitude);
-            airDensity = getAirDensity(pressure, temperature);
-            if (!regime.equals(REGIME.CRUISE)) {
-                ias = getIAS(flight, altitude, regime);
-                mTrue = getMachTrue(ias, airDensity);
-            } else {
-                mTrue = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseSpeed();
-            }
-            tas = calculateTAS(altitude, mTrue);
-            drag = getDragForce(flight, altitude, mass, e, mTrue);
-            double landingFactor = (regime == REGIME.LANDING) ? 0.1 : 1;
-            thrust = (regime == REGIME.CRUISE) ? Amount.valueOf(0, SI.NEWTON)
-                    : getThrust(flight, lambda, mTrue, airDensity).times(landingFactor);
-            totalThrust = (regime == REGIME.CRUISE) ? drag : getTotalThrust(thrust, numMotors);
-            fuelBurn = getFuelBurnCalculation(totalThrust, Amount.valueOf(TIMESTEP, SI.SECOND), tsfc);
-            climbRate = getRateOfClimb(totalThrust, drag, tas, mass);
-            climbAngle = getClimbingAngle(climbRate, tas);
-            stepDistance = getTimeStepDistance(tas, climbAngle, Amount.valueOf(TIMESTEP, SI.SECOND));
-            distance = getCumulativeDistance(distance, stepDistance);
-            consumption = consumption.plus(fuelBurn);
-            startingAltitude = getCumulativeAltitude(altitude, climbRate, Amount.valueOf(TIMESTEP, SI.SECOND)).doubleValue(SI.METER);
-            lapsedTime += TIMESTEP;
-
-            switch (regime) {
-                case CLIMB:
-                    stopCriteria = (startingAltitude < cruiseAltitude) && (climbRate.isGreaterThan(MIN_CLIMB_RATE));
-                    break;
-                case LANDING:
-                    stopCriteria = startingAltitude > airportAltitude.doubleValue(SI.METER);
-                    break;
-                default:
-                    // CRUISE
-                    stopCriteria = (distance.isLessThan(segmentDistance));
-                    break;
-            }
+    private static AlgorithmAnalysis calculateFlightAnalysis(PerformanceProfile profile, FlightSimulation flight,
+            REGIME regime, Amount<Length> airportAltitude, Amount<Length> segmentDistance, INTEGRATION mode) {
+
+        double mass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        if (mode == INTEGRATION.ANALYTIC && regime == REGIME.CRUISE) {
+            BreguetCruise.solve(profile, mass, segmentDistance.doubleValue(SI.METER), result);
+        } else if (mode != INTEGRATION.FIXED_STEP) {
+            AdaptiveIntegrator.integrate(profile, regime, mass, airportAltitude.doubleValue(SI.METER),
+                    segmentDistance.doubleValue(SI.METER), result);
+        } else {
+            FlightIntegrator.integrate(profile, regime, mass, airportAltitude.doubleValue(SI.METER),
+                    segmentDistance.doubleValue(SI.METER), result);
         }
 
-        return new AlgorithmAnalysis(distance, Amount.valueOf(lapsedTime, SI.SECOND), consumption);
+        return new AlgorithmAnalysis(Amount.valueOf(result[FlightIntegrator.DISTANCE], SI.METER),
+                Amount.valueOf(result[FlightIntegrator.DURATION], SI.SECOND),
+                Amount.valueOf(result[FlightIntegrator.CONSUMPTION], SI.KILOGRAM));
     }
 }
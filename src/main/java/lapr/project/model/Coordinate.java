@@ -23,12 +23,21 @@ public class Coordinate implements Junction {
     /**
      * The coordinate's latitude.
      */
-    private Double latitude;
+    private double latitude;
 
     /**
      * The coordinate's longitude.
      */
-    private Double longitude;
+    private double longitude;
+
+    /**
+     * Latitude and longitude in radians and sine and cosine of the latitude,
+     * kept with the degrees for the distance.
+     */
+    private double latitudeRadians;
+    private double longitudeRadians;
+    private double sinLatitude;
+    private double cosLatitude;
 
     /**
      * The default coordinate's ID.
@@ -56,6 +65,7 @@ public class Coordinate implements Junction {
         this.id = id;
         this.latitude = latitude;
         this.longitude = longitude;
+        updateRadians();
     }
 
     /**
@@ -65,6 +75,7 @@ public class Coordinate implements Junction {
         this.id = DEFAULT_ID;
         this.latitude = DEFAULT_LATITUDE;
         this.longitude = DEFAULT_LONGITUDE;
+        updateRadians();
     }
 
     /**
@@ -76,6 +87,7 @@ public class Coordinate implements Junction {
         this.id = other.id;
         this.longitude = other.longitude;
         this.latitude = other.latitude;
+        updateRadians();
     }
 
     /**
@@ -112,6 +124,7 @@ public class Coordinate implements Junction {
      */
     public void setLatitude(Double latitude) {
         this.latitude = latitude;
+        updateRadians();
     }
 
     /**
@@ -130,6 +143,91 @@ public class Coordinate implements Junction {
      */
     public void setLongitude(Double longitude) {
         this.longitude = longitude;
+        updateRadians();
+    }
+
+    /**
+     * Calculates the great circle distance to another coordinate (Haversine
+     * Formula), with the cached radians and cosines and no allocation.
+     *
+     * @param other the other coordinate
+     * @param altitude average flight altitude (m)
+     * @return the distance (m)
+     */
+    public double distance(Coordinate other, double altitude) {
+
+        // a = sin²(Δφ/2) + cos φ1 x cos φ2 x sin²(Δλ/2)
+        double sinDeltaLat = Math.sin((other.latitudeRadians - latitudeRadians) / 2);
+        double sinDeltaLon = Math.sin((other.longitudeRadians - longitudeRadians) / 2);
+        double a = sinDeltaLat * sinDeltaLat + cosLatitude * other.cosLatitude * sinDeltaLon * sinDeltaLon;
+
+        return (Calculus.EARTH_RADIUS + altitude) * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Calculates the great circle distances from this coordinate to many
+     * coordinates.
+     *
+     * @param others the other coordinates
+     * @param altitude average flight altitude (m)
+     * @param distances the array to fill with the distances (m)
+     */
+    public void distances(Coordinate[] others, double altitude, double[] distances) {
+
+        double radius = Calculus.EARTH_RADIUS + altitude;
+        for (int i = 0; i < others.length; i++) {
+            Coordinate other = others[i];
+            double sinDeltaLat = Math.sin((other.latitudeRadians - latitudeRadians) / 2);
+            double sinDeltaLon = Math.sin((other.longitudeRadians - longitudeRadians) / 2);
+            double a = sinDeltaLat * sinDeltaLat + cosLatitude * other.cosLatitude * sinDeltaLon * sinDeltaLon;
+            distances[i] = radius * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        }
+    }
+
+    /**
+     * Gets the latitude in radians.
+     *
+     * @return the latitude (rad)
+     */
+    public double getLatitudeRadians() {
+        return latitudeRadians;
+    }
+
+    /**
+     * Gets the longitude in radians.
+     *
+     * @return the longitude (rad)
+     */
+    public double getLongitudeRadians() {
+        return longitudeRadians;
+    }
+
+    /**
+     * Gets the sine of the latitude.
+     *
+     * @return the sine of the latitude
+     */
+    public double getSinLatitude() {
+        return sinLatitude;
+    }
+
+    /**
+     * Gets the cosine of the latitude.
+     *
+     * @return the cosine of the latitude
+     */
+    public double getCosLatitude() {
+        return cosLatitude;
+    }
+
+    /**
+     * Keeps the radians and the sine and cosine of the latitude.
+     */
+    private void updateRadians() {
+        latitudeRadians = Math.toRadians(latitude);
+        longitudeRadians = Math.toRadians(longitude);
+        sinLatitude = Math.sin(latitudeRadians);
+        cosLatitude = Math.cos(latitudeRadians);
     }
 
     @Override
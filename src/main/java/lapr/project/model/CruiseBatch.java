@@ -0,0 +1,231 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lapr.project.model.Calculus.INTEGRATION;
+import lapr.project.model.Calculus.REGIME;
+
+/**
+ * Batched cruise evaluation of many segments of one aircraft.
+ *
+ * The segments are given as parallel primitive arrays (structure of arrays):
+ * still air distances, flight headings, wind speeds, wind directions and start
+ * masses, and the results are written to distance, duration and consumption
+ * arrays, so a batch builds no {@link FlightSimulation} nor
+ * {@link org.jscience.physics.amount.Amount}. The wind correction is the one
+ * of {@link Calculus#virtualDistance}: the air distance is the still air
+ * distance scaled by the true airspeed over the ground speed. It runs in a
+ * flat loop over the arrays, as does the closed form cruise
+ * ({@link INTEGRATION#ANALYTIC}), and the step by step modes integrate each
+ * segment with the compiled {@link PerformanceProfile}. Large batches are
+ * split in ranges over a fork-join pool; every range only writes its own
+ * slice of the result arrays.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class CruiseBatch {
+
+    /**
+     * Number of segments under which a range is not split any further.
+     */
+    public static final int SPLIT_THRESHOLD = 256;
+
+    /**
+     * The performance profile.
+     */
+    private final PerformanceProfile profile;
+
+    /**
+     * The integration mode.
+     */
+    private final INTEGRATION mode;
+
+    /**
+     * True airspeed in cruise. (m/s)
+     */
+    private final double tas;
+
+    /**
+     * Induced (N/kg2) and zero lift (N) drag of the closed form cruise.
+     */
+    private final double inducedDrag;
+    private final double zeroLiftDrag;
+
+    /**
+     * Creates a batch evaluator.
+     *
+     * @param profile the performance profile
+     * @param mode the integration mode
+     */
+    public CruiseBatch(PerformanceProfile profile, INTEGRATION mode) {
+
+        if (profile == null || mode == null) {
+            throw new IllegalArgumentException("Invalid cruise batch profile or mode.");
+        }
+        this.profile = profile;
+        this.mode = mode;
+
+        double altitude = profile.getCruiseAltitude();
+        double airDensity = Atmosphere.ISA.density(altitude);
+        tas = Atmosphere.ISA.speedOfSound(altitude) * profile.getCruiseMach();
+        double dynamicPressureArea = airDensity * tas * tas * profile.getWingArea() / 2;
+        inducedDrag = profile.dragCoefficient(profile.getLiftFactor() / (airDensity * tas * tas), 0)
+                * dynamicPressureArea;
+        zeroLiftDrag = profile.cdrag(profile.getCruiseMach()) * dynamicPressureArea;
+    }
+
+    /**
+     * Evaluates a batch in the calling thread.
+     *
+     * @param distances the still air distances (m)
+     * @param headings the flight directions (degrees)
+     * @param windSpeeds the wind speeds (m/s)
+     * @param windDirections the wind directions (degrees)
+     * @param masses the start masses (kg)
+     * @param distance the array to fill with the air distances (m)
+     * @param duration the array to fill with the durations (s)
+     * @param consumption the array to fill with the consumptions (kg)
+     */
+    public void evaluate(double[] distances, double[] headings, double[] windSpeeds, double[] windDirections,
+            double[] masses, double[] distance, double[] duration, double[] consumption) {
+
+        int size = checkSize(distances, headings, windSpeeds, windDirections, masses, distance, duration, consumption);
+        evaluate(distances, headings, windSpeeds, windDirections, masses, distance, duration, consumption, 0, size);
+    }
+
+    /**
+     * Evaluates a batch over a fork-join pool.
+     *
+     * @param pool the fork-join pool
+     * @param distances the still air distances (m)
+     * @param headings the flight directions (degrees)
+     * @param windSpeeds the wind speeds (m/s)
+     * @param windDirections the wind directions (degrees)
+     * @param masses the start masses (kg)
+     * @param distance the array to fill with the air distances (m)
+     * @param duration the array to fill with the durations (s)
+     * @param consumption the array to fill with the consumptions (kg)
+     */
+    public void evaluate(ForkJoinPool pool, double[] distances, double[] headings, double[] windSpeeds,
+            double[] windDirections, double[] masses, double[] distance, double[] duration, double[] consumption) {
+
+        int size = checkSize(distances, headings, windSpeeds, windDirections, masses, distance, duration, consumption);
+        pool.invoke(new Range(distances, headings, windSpeeds, windDirections, masses,
+                distance, duration, consumption, 0, size));
+    }
+
+    /**
+     * Evaluates a range of a batch.
+     *
+     * @param distances the still air distances (m)
+     * @param headings the flight directions (degrees)
+     * @param windSpeeds the wind speeds (m/s)
+     * @param windDirections the wind directions (degrees)
+     * @param masses the start masses (kg)
+     * @param distance the array to fill with the air distances (m)
+     * @param duration the array to fill with the durations (s)
+     * @param consumption the array to fill with the consumptions (kg)
+     * @param from the first index (inclusive)
+     * @param to the last index (exclusive)
+     */
+    void evaluate(double[] distances, double[] headings, double[] windSpeeds, double[] windDirections,
+            double[] masses, double[] distance, double[] duration, double[] consumption, int from, int to) {
+
+        // air distance (virtual distance) & duration, flat loop over the arrays
+        for (int i = from; i < to; i++) {
+            double groundSpeed = tas + windSpeeds[i] * Math.cos(Math.toRadians(headings[i] - windDirections[i]));
+            distance[i] = distances[i] * tas / groundSpeed;
+            duration[i] = distance[i] / tas;
+        }
+
+        if (mode == INTEGRATION.ANALYTIC) {
+            double fuelFlowFactor = profile.getFuelFlowFactor();
+            for (int i = from; i < to; i++) {
+                consumption[i] = masses[i]
+                        - BreguetCruise.mass(masses[i], inducedDrag, zeroLiftDrag, fuelFlowFactor, duration[i]);
+            }
+            return;
+        }
+
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        for (int i = from; i < to; i++) {
+            if (mode == INTEGRATION.ADAPTIVE) {
+                AdaptiveIntegrator.integrate(profile, REGIME.CRUISE, masses[i], 0, distance[i], result);
+            } else {
+                FlightIntegrator.integrate(profile, REGIME.CRUISE, masses[i], 0, distance[i], result);
+            }
+            distance[i] = result[FlightIntegrator.DISTANCE];
+            duration[i] = result[FlightIntegrator.DURATION];
+            consumption[i] = result[FlightIntegrator.CONSUMPTION];
+        }
+    }
+
+    /**
+     * Verifies that every array of a batch has the same length.
+     *
+     * @param arrays the arrays
+     * @return the batch size
+     */
+    private static int checkSize(double[]... arrays) {
+
+        int size = arrays[0].length;
+        for (double[] array : arrays) {
+            if (array.length != size) {
+                throw new IllegalArgumentException("Cruise batch arrays of different lengths.");
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Fork-join task of a range of a batch.
+     */
+    private final class Range extends RecursiveAction {
+
+        private final double[] distances;
+        private final double[] headings;
+        private final double[] windSpeeds;
+        private final double[] windDirections;
+        private final double[] masses;
+        private final double[] distance;
+        private final double[] duration;
+        private final double[] consumption;
+        private final int from;
+        private final int to;
+
+        Range(double[] distances, double[] headings, double[] windSpeeds, double[] windDirections,
+                double[] masses, double[] distance, double[] duration, double[] consumption, int from, int to) {
+            this.distances = distances;
+            this.headings = headings;
+            this.windSpeeds = windSpeeds;
+            this.windDirections = windDirections;
+            this.masses = masses;
+            this.distance = distance;
+            this.duration = duration;
+            this.consumption = consumption;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= SPLIT_THRESHOLD) {
+                evaluate(distances, headings, windSpeeds, windDirections, masses,
+                        distance, duration, consumption, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(distances, headings, windSpeeds, windDirections, masses,
+                    distance, duration, consumption, from, middle),
+                    new Range(distances, headings, windSpeeds, windDirections, masses,
+                            distance, duration, consumption, middle, to));
+        }
+    }
+}
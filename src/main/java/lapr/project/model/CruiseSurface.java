@@ -0,0 +1,278 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import lapr.project.model.Calculus.REGIME;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Cruise fuel burn surface of an aircraft.
+ *
+ * In cruise the altitude and the Mach number are fixed by the motorization,
+ * so the consumption and the duration of a cruise only depend on the start
+ * mass and on the (still air) distance. The surface tabulates both on a
+ * regular grid of start masses (empty weight to maximum takeoff weight) and
+ * distances, each node being the result of the reference step by step cruise
+ * (every mass row is integrated once and sampled at all the distance nodes),
+ * and reads them with bilinear interpolation. Queries out of the grid fall
+ * back to the exact cruise. The wind is not part of the surface: the callers
+ * look it up with the virtual distance of the segment (see
+ * {@link Calculus#virtualDistance}).
+ *
+ * The grid is built lazily on the first lookup and never changes afterwards,
+ * so a surface is shared by every thread and simulation of the same
+ * {@link PerformanceProfile}. The shared surfaces are kept in a bounded,
+ * lock-free registry (an arbitrary surface is dropped when it is full); the
+ * callers resolve the surface once per flight plan and keep it.
+ *
+ * Error bound: the nodes are exact, between nodes the reference cruise is a
+ * staircase of one minute steps, so the interpolated consumption differs from
+ * {@link Calculus#calculateCruise(FlightSimulation, Amount)} by about the fuel
+ * burnt in one step plus the curvature of the consumption over a grid cell.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class CruiseSurface {
+
+    /**
+     * The default number of start mass nodes.
+     */
+    public static final int DEFAULT_MASS_NODES = 33;
+
+    /**
+     * The default number of distance nodes.
+     */
+    public static final int DEFAULT_DISTANCE_NODES = 129;
+
+    /**
+     * The default highest tabulated distance. (m)
+     */
+    public static final double DEFAULT_MAX_DISTANCE = 2e7;
+
+    /**
+     * Maximum number of shared surfaces.
+     */
+    public static final int REGISTRY_CAPACITY = 16;
+
+    /**
+     * The shared surfaces.
+     */
+    private static final ConcurrentHashMap<PerformanceProfile, CruiseSurface> REGISTRY
+            = new ConcurrentHashMap<>();
+
+    /**
+     * The performance profile.
+     */
+    private final PerformanceProfile profile;
+
+    /**
+     * Start mass axis (kg).
+     */
+    private final double minMass;
+    private final double maxMass;
+    private final int massNodes;
+
+    /**
+     * Distance axis (m), starting at zero.
+     */
+    private final double maxDistance;
+    private final int distanceNodes;
+
+    /**
+     * Tabulated consumptions (kg) and durations (s), one row per start mass.
+     * Null until built.
+     */
+    private volatile double[] consumption;
+    private volatile double[] duration;
+
+    /**
+     * Creates a surface. It is built on the first lookup. A mass range that is
+     * empty (maximum not above minimum) covers nothing, so every lookup is
+     * exact.
+     *
+     * @param profile the performance profile
+     * @param minMass the lowest start mass (kg)
+     * @param maxMass the highest start mass (kg)
+     * @param massNodes the number of start mass nodes
+     * @param maxDistance the highest distance (m)
+     * @param distanceNodes the number of distance nodes
+     */
+    public CruiseSurface(PerformanceProfile profile, double minMass, double maxMass, int massNodes,
+            double maxDistance, int distanceNodes) {
+
+        if (profile == null || massNodes < 2 || distanceNodes < 2 || !(maxDistance > 0)) {
+            throw new IllegalArgumentException("Invalid cruise surface grid.");
+        }
+        this.profile = profile;
+        this.minMass = minMass;
+        this.maxMass = maxMass;
+        this.massNodes = massNodes;
+        this.maxDistance = maxDistance;
+        this.distanceNodes = distanceNodes;
+    }
+
+    /**
+     * Obtains the shared surface of a performance profile, with the default
+     * grid between the empty weight and the maximum takeoff weight.
+     *
+     * @param profile the performance profile
+     * @return the surface
+     */
+    public static CruiseSurface of(PerformanceProfile profile) {
+
+        CruiseSurface surface = REGISTRY.get(profile);
+        if (surface != null) {
+            return surface;
+        }
+        // the grid is built on the first lookup, so creating a surface is cheap
+        Iterator<PerformanceProfile> it = REGISTRY.keySet().iterator();
+        while (REGISTRY.size() >= REGISTRY_CAPACITY && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        return REGISTRY.computeIfAbsent(profile, key -> new CruiseSurface(key, key.getEmptyWeight(),
+                key.getMaxTakeoffWeight(), DEFAULT_MASS_NODES, DEFAULT_MAX_DISTANCE, DEFAULT_DISTANCE_NODES));
+    }
+
+    /**
+     * Calculates the cruise of a flight with the shared surface of its
+     * aircraft (see {@link Calculus#calculateCruise(FlightSimulation, Amount)}).
+     *
+     * @param flight the flight
+     * @param segmentDistance the segment distance
+     * @return a analysis with distance, duration &amp; consumption of flight
+     * cruise
+     */
+    public static AlgorithmAnalysis calculateCruise(FlightSimulation flight, Amount<Length> segmentDistance) {
+        return of(PerformanceProfile.of(flight)).cruise(flight, segmentDistance);
+    }
+
+    /**
+     * Calculates the cruise of a flight of the aircraft of this surface.
+     *
+     * @param flight the flight
+     * @param segmentDistance the segment distance
+     * @return a analysis with distance, duration &amp; consumption of flight
+     * cruise
+     */
+    public AlgorithmAnalysis cruise(FlightSimulation flight, Amount<Length> segmentDistance) {
+
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        lookup(profile.initialMass(flight), segmentDistance.doubleValue(SI.METER), result);
+
+        return new AlgorithmAnalysis(Amount.valueOf(result[FlightIntegrator.DISTANCE], SI.METER),
+                Amount.valueOf(result[FlightIntegrator.DURATION], SI.SECOND),
+                Amount.valueOf(result[FlightIntegrator.CONSUMPTION], SI.KILOGRAM));
+    }
+
+    /**
+     * Verifies if a start mass and distance are inside the grid.
+     *
+     * @param mass the start mass (kg)
+     * @param distance the distance (m)
+     * @return true if the lookup is interpolated
+     */
+    public boolean covers(double mass, double distance) {
+        return maxMass > minMass && mass >= minMass && mass <= maxMass
+                && distance >= 0 && distance <= maxDistance;
+    }
+
+    /**
+     * Verifies if the grid is already built.
+     *
+     * @return true if built
+     */
+    public boolean isBuilt() {
+        return consumption != null;
+    }
+
+    /**
+     * Looks up a cruise and stores the distance (m), duration (s) and
+     * consumption (kg) in the given result array. Out of the grid the cruise
+     * is integrated exactly.
+     *
+     * @param mass the start mass (kg)
+     * @param distance the distance (m)
+     * @param result the array to fill (see {@link FlightIntegrator#RESULT_SIZE})
+     */
+    public void lookup(double mass, double distance, double[] result) {
+
+        if (!covers(mass, distance)) {
+            FlightIntegrator.integrate(profile, REGIME.CRUISE, mass, 0, distance, result);
+            return;
+        }
+        double[] consumptionGrid = consumption;
+        double[] durationGrid = duration;
+        if (consumptionGrid == null) {
+            build();
+            consumptionGrid = consumption;
+            durationGrid = duration;
+        }
+
+        double massPosition = (mass - minMass) / (maxMass - minMass) * (massNodes - 1);
+        int row = Math.min((int) massPosition, massNodes - 2);
+        double u = massPosition - row;
+        double distancePosition = distance / maxDistance * (distanceNodes - 1);
+        int column = Math.min((int) distancePosition, distanceNodes - 2);
+        double v = distancePosition - column;
+
+        int index = row * distanceNodes + column;
+        result[FlightIntegrator.DISTANCE] = distance;
+        result[FlightIntegrator.DURATION] = bilinear(durationGrid, index, u, v);
+        result[FlightIntegrator.CONSUMPTION] = bilinear(consumptionGrid, index, u, v);
+    }
+
+    /**
+     * Bilinear interpolation inside a grid cell.
+     *
+     * @param grid the grid
+     * @param index the index of the lower corner of the cell
+     * @param u the fraction along the start mass
+     * @param v the fraction along the distance
+     * @return the interpolated value
+     */
+    private double bilinear(double[] grid, int index, double u, double v) {
+
+        double low = grid[index] + (grid[index + 1] - grid[index]) * v;
+        double high = grid[index + distanceNodes] + (grid[index + distanceNodes + 1] - grid[index + distanceNodes]) * v;
+        return low + (high - low) * u;
+    }
+
+    /**
+     * Builds the grid, once.
+     */
+    private synchronized void build() {
+
+        if (consumption != null) {
+            return;
+        }
+
+        double[] distances = new double[distanceNodes];
+        for (int j = 0; j < distanceNodes; j++) {
+            distances[j] = maxDistance * j / (distanceNodes - 1);
+        }
+
+        double[] consumptionGrid = new double[massNodes * distanceNodes];
+        double[] durationGrid = new double[massNodes * distanceNodes];
+        double[] rowConsumption = new double[distanceNodes];
+        double[] rowDuration = new double[distanceNodes];
+        for (int i = 0; i < massNodes; i++) {
+            double mass = minMass + (maxMass - minMass) * i / (massNodes - 1);
+            FlightIntegrator.integrateCruise(profile, mass, distances, rowConsumption, rowDuration);
+            System.arraycopy(rowConsumption, 0, consumptionGrid, i * distanceNodes, distanceNodes);
+            System.arraycopy(rowDuration, 0, durationGrid, i * distanceNodes, distanceNodes);
+        }
+
+        // duration first, consumption (checked by the readers) last
+        duration = durationGrid;
+        consumption = consumptionGrid;
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import lapr.project.model.Calculus.REGIME;
+import org.jscience.physics.amount.Amount;
+import org.jscience.physics.amount.Constants;
+
+/**
+ * Primitive (SI doubles) integration kernel for the flight regimes.
+ *
+ * The aircraft and flight pattern values are read from a compiled
+ * {@link PerformanceProfile}, so the time step loop works only with doubles
+ * and allocates nothing per step. The atmospheric state comes from {@link Atmosphere#ISA}.
+ * {@link Calculus} keeps the Amount based facades.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class FlightIntegrator {
+
+    /**
+     * Time step for fuel burn calculation. (s)
+     */
+    static final double TIMESTEP = 60;
+
+    /**
+     * Minimal climbing rate. (m/s)
+     */
+    static final double MIN_CLIMB_RATE = 0.2;
+
+    /**
+     * Index of the distance (m) in a result array.
+     */
+    public static final int DISTANCE = 0;
+
+    /**
+     * Index of the duration (s) in a result array.
+     */
+    public static final int DURATION = 1;
+
+    /**
+     * Index of the fuel consumption (kg) in a result array.
+     */
+    public static final int CONSUMPTION = 2;
+
+    /**
+     * Size of a result array.
+     */
+    public static final int RESULT_SIZE = 3;
+
+    /**
+     * Standard gravity. (m/s2)
+     */
+    static final double G = Constants.g.doubleValue(SI.METERS_PER_SQUARE_SECOND);
+
+    /**
+     * Sea level speed of sound used by the true Mach expression. (m/s)
+     */
+    static final double SEA_LEVEL_SOUND_SPEED = Amount.valueOf(661.5, NonSI.KNOT).doubleValue(SI.METERS_PER_SECOND);
+
+    /**
+     * Thrust reduction applied on landing.
+     */
+    static final double LANDING_FACTOR = 0.1;
+
+    /**
+     * Integrates a flight regime of a compiled performance profile and stores
+     * the distance (m), duration (s) and consumption (kg) in the given result
+     * array.
+     *
+     * @param profile the performance profile
+     * @param regime the regime (climb, cruise &amp; landing)
+     * @param initialMass the initial mass (kg)
+     * @param airportAltitude the airport altitude (m)
+     * @param segmentDistance the segment distance in cruise (m)
+     * @param result the array to fill (see {@link #RESULT_SIZE})
+     */
+    static void integrate(PerformanceProfile profile, REGIME regime, double initialMass, double airportAltitude,
+            double segmentDistance, double[] result) {
+
+        double mass = initialMass;
+        double cruiseAltitude = profile.getCruiseAltitude();
+        double wingArea = profile.getWingArea();
+        double liftFactor = profile.getLiftFactor();
+        double fuelFlowFactor = profile.getFuelFlowFactor();
+        double maxThrust = profile.getThrust0() * profile.getNumberOfMotors()
+                * ((regime == REGIME.LANDING) ? LANDING_FACTOR : 1);
+        double maxThrustLoss = profile.getLambda() * profile.getNumberOfMotors()
+                * ((regime == REGIME.LANDING) ? LANDING_FACTOR : 1);
+        double lapseRateFactor = profile.getLapseRateFactor();
+
+        // Intialized variables to calculate during iteration
+        double altitude = (regime == REGIME.CLIMB) ? airportAltitude : cruiseAltitude;
+        double fuelBurn = 0;
+        double distance = 0;
+        double consumption = 0;
+        double lapsedTime = 0;
+
+        boolean stopCriteria = true;
+        while (stopCriteria) {
+
+            mass -= fuelBurn;
+            double airDensity = Atmosphere.ISA.density(altitude);
+
+            double mach;
+            if (regime == REGIME.CRUISE) {
+                mach = profile.getCruiseMach();
+            } else {
+                int line = profile.patternLine(altitude);
+                double ias = (regime == REGIME.CLIMB) ? profile.climbIas(line) : profile.descentIas(line);
+                mach = machTrue(ias, airDensity);
+            }
+            double tas = Atmosphere.ISA.speedOfSound(altitude) * mach;
+            double squaredTas = tas * tas;
+
+            double cl = liftFactor * mass / (airDensity * squaredTas);
+            double cd = profile.dragCoefficient(cl, profile.cdrag(mach));
+            double drag = cd * airDensity * squaredTas * wingArea / 2;
+
+            double totalThrust;
+            if (regime == REGIME.CRUISE) {
+                totalThrust = drag;
+            } else {
+                totalThrust = (maxThrust - maxThrustLoss * mach)
+                        * Math.pow(airDensity / Atmosphere.RHO0, lapseRateFactor);
+            }
+
+            fuelBurn = totalThrust * TIMESTEP * fuelFlowFactor;
+            double climbRate = (totalThrust - drag) * tas / (mass * G);
+            double climbAngle = Math.asin(climbRate / tas);
+
+            distance += tas * Math.cos(climbAngle) * TIMESTEP;
+            consumption += fuelBurn;
+            altitude += climbRate * TIMESTEP;
+            lapsedTime += TIMESTEP;
+
+            switch (regime) {
+                case CLIMB:
+                    stopCriteria = (altitude < cruiseAltitude) && (climbRate > MIN_CLIMB_RATE);
+                    break;
+                case LANDING:
+                    stopCriteria = altitude > airportAltitude;
+                    break;
+                default:
+                    // CRUISE
+                    stopCriteria = distance < segmentDistance;
+                    break;
+            }
+        }
+
+        result[DISTANCE] = distance;
+        result[DURATION] = lapsedTime;
+        result[CONSUMPTION] = consumption;
+    }
+
+    /**
+     * Integrates one cruise and records the consumption (kg) and duration (s)
+     * at several distances, each equal to the result of
+     * {@link #integrate(PerformanceProfile, REGIME, double, double, double, double[])}
+     * for that segment distance.
+     *
+     * @param profile the performance profile
+     * @param initialMass the initial mass (kg)
+     * @param distances the segment distances (m), ascending
+     * @param consumption the array to fill with the consumptions
+     * @param duration the array to fill with the durations
+     */
+    static void integrateCruise(PerformanceProfile profile, double initialMass, double[] distances,
+            double[] consumption, double[] duration) {
+
+        double altitude = profile.getCruiseAltitude();
+        double mach = profile.getCruiseMach();
+        double airDensity = Atmosphere.ISA.density(altitude);
+        double tas = Atmosphere.ISA.speedOfSound(altitude) * mach;
+        double squaredTas = tas * tas;
+        double cdrag0 = profile.cdrag(mach);
+        double wingArea = profile.getWingArea();
+        double liftFactor = profile.getLiftFactor();
+        double fuelFlowFactor = profile.getFuelFlowFactor();
+
+        double mass = initialMass;
+        double fuelBurn = 0;
+        double distance = 0;
+        double fuel = 0;
+        double lapsedTime = 0;
+
+        int next = 0;
+        while (next < distances.length) {
+
+            mass -= fuelBurn;
+            // same expressions as the reference loop, so every node is bit for bit equal
+            double cl = liftFactor * mass / (airDensity * squaredTas);
+            double drag = profile.dragCoefficient(cl, cdrag0) * airDensity * squaredTas * wingArea / 2;
+            fuelBurn = drag * TIMESTEP * fuelFlowFactor;
+
+            distance += tas * TIMESTEP;
+            fuel += fuelBurn;
+            lapsedTime += TIMESTEP;
+
+            while (next < distances.length && distance >= distances[next]) {
+                consumption[next] = fuel;
+                duration[next] = lapsedTime;
+                next++;
+            }
+        }
+    }
+
+    /**
+     * Obtains the true Mach number from the indicated airspeed.
+     *
+     * @param ias the indicated airspeed (m/s)
+     * @param airDensity the air density (kg/m3)
+     * @return the true Mach number
+     */
+    static double machTrue(double ias, double airDensity) {
+
+        double i = (ias / SEA_LEVEL_SOUND_SPEED) * (ias / SEA_LEVEL_SOUND_SPEED);
+        double j = Math.pow(1 + 0.2 * i, 3.5) - 1;
+        double k = (Atmosphere.RHO0 / airDensity) * j + 1;
+
+        return Math.sqrt((Math.pow(k, 0.286) - 1) * 5);
+    }
+}
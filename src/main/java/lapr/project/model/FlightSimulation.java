@@ -347,6 +347,8 @@ public class FlightSimulation implements Comparable<FlightSimulation> {
         AlgorithmAnalysis analysis = new AlgorithmAnalysis();
 
         FlightSimulation flight = new FlightSimulation(this);
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        Calculus.INTEGRATION mode = Calculus.INTEGRATION.FIXED_STEP;
 
         if (!flightplan.isEmpty()) {
 
@@ -358,10 +360,10 @@ public class FlightSimulation implements Comparable<FlightSimulation> {
             Segment first = aux.pop();
             MapEdge<Coordinate, Segment> firstEdge = dao.getSegment(first.getId());
 
-            analysis.sumAnalysis(Calculus.calculateClimb(flight, flight.getFlightInfo().getOriginAirport().getAltitude()));
+            analysis.sumAnalysis(Calculus.calculateClimb(profile, flight, flight.getFlightInfo().getOriginAirport().getAltitude(), mode));
             if (isTechnicalStop(firstEdge.getVDest())) {
                 Stop stop = getStop(firstEdge.getVDest());
-                analysis.sumAnalysis(Calculus.calculateLanding(flight, stop.getAirport().getAltitude()));
+                analysis.sumAnalysis(Calculus.calculateLanding(profile, flight, stop.getAirport().getAltitude(), mode));
             }
 
             // Arrival
@@ -375,28 +377,28 @@ public class FlightSimulation implements Comparable<FlightSimulation> {
                 AlgorithmAnalysis landing = new AlgorithmAnalysis();
                 if (isTechnicalStop(edge.getVOrig())) {
                     Stop stop = getStop(edge.getVOrig());
-                    climb = Calculus.calculateClimb(flight, stop.getAirport().getAltitude());
+                    climb = Calculus.calculateClimb(profile, flight, stop.getAirport().getAltitude(), mode);
                     analysis.addsDuration(stop.getMinimumStopMinutes());
                     flight.setEffectiveFuel(this.effectiveFuel);
                 }
                 if (isTechnicalStop(edge.getVDest())) {
                     Stop stop = getStop(edge.getVDest());
-                    landing = Calculus.calculateLanding(flight, stop.getAirport().getAltitude());
+                    landing = Calculus.calculateLanding(profile, flight, stop.getAirport().getAltitude(), mode);
                 }
                 Amount<Length> cruiseDist = Amount.valueOf(edge.getWeight(), SI.METER)
                         .minus(climb.getDistance().plus(landing.getDistance()));
-                analysis.sumAnalysis(Calculus.calculateCruise(flight, cruiseDist));
+                analysis.sumAnalysis(Calculus.calculateCruise(profile, flight, cruiseDist, mode));
                 analysis.sumAnalysis(climb);
                 analysis.sumAnalysis(landing);
             }
             if (isTechnicalStop(lastEdge.getVOrig())) {
                 Stop stop = getStop(lastEdge.getVOrig());
-                analysis.sumAnalysis(Calculus.calculateClimb(flight, stop.getAirport().getAltitude()));
+                analysis.sumAnalysis(Calculus.calculateClimb(profile, flight, stop.getAirport().getAltitude(), mode));
                 analysis.addsDuration(stop.getMinimumStopMinutes());
                 flight.setEffectiveFuel(this.effectiveFuel);
             }
             // Arrival
-            analysis.sumAnalysis(Calculus.calculateLanding(flight, flight.getFlightInfo().getDestinationAirport().getAltitude()));
+            analysis.sumAnalysis(Calculus.calculateLanding(profile, flight, flight.getFlightInfo().getDestinationAirport().getAltitude(), mode));
 
         }
 
@@ -0,0 +1,244 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.SI;
+import lapr.project.utils.graph.EdgeWeightFunction;
+import lapr.project.utils.graph.Heuristic;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+
+/**
+ * Great circle heuristic of the route searches (A*): the sea level great
+ * circle distance to the target times a cost per meter.
+ *
+ * For distances the cost per meter is one, for flight times it is the
+ * inverse of an upper bound of the ground speed (cruise true airspeed plus
+ * the strongest wind of the network). The great circle distance obeys the
+ * triangle inequality, so the heuristic is consistent as long as no edge
+ * costs less than its own great circle distance times the cost per meter.
+ * The factory methods check every edge of the graph and lower the cost per
+ * meter when one does (for example graphs with weights that are not
+ * distances), so the search always returns the minimum path. The factories
+ * of an air network reuse its great circle distances, distance cost per meter
+ * and strongest wind, kept until the network changes.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class GreatCircleHeuristic implements Heuristic<Coordinate> {
+
+    /**
+     * Cost per meter of great circle distance.
+     */
+    private final double costPerMeter;
+
+    /**
+     * Creates a heuristic.
+     *
+     * @param costPerMeter the cost per meter of great circle distance
+     */
+    public GreatCircleHeuristic(double costPerMeter) {
+        this.costPerMeter = costPerMeter;
+    }
+
+    /**
+     * Creates the heuristic of a graph weighted by distance (m).
+     *
+     * @param graph the graph
+     * @return the heuristic
+     */
+    public static GreatCircleHeuristic distance(MapGraph<Coordinate, Segment> graph) {
+        return new GreatCircleHeuristic(admissibleCost(graph, null, 1));
+    }
+
+    /**
+     * Creates the heuristic of an air network weighted by distance (m), with
+     * the cost per meter the network keeps for its current segments.
+     *
+     * @param network the air network
+     * @return the heuristic
+     */
+    public static GreatCircleHeuristic distance(AirNetwork network) {
+        return new GreatCircleHeuristic(network.getDistanceCostPerMeter());
+    }
+
+    /**
+     * Creates the heuristic of a graph weighted by flight time (s).
+     *
+     * @param graph the graph
+     * @param maxGroundSpeed the upper bound of the ground speed (m/s)
+     * @return the heuristic
+     */
+    public static GreatCircleHeuristic time(MapGraph<Coordinate, Segment> graph, double maxGroundSpeed) {
+        return time(graph, null, maxGroundSpeed);
+    }
+
+    /**
+     * Creates the heuristic of a graph seen through flight time (s) weights.
+     *
+     * @param graph the graph
+     * @param weights the flight time of the edges (null for the weights of the
+     * edges)
+     * @param maxGroundSpeed the upper bound of the ground speed (m/s)
+     * @return the heuristic
+     */
+    public static GreatCircleHeuristic time(MapGraph<Coordinate, Segment> graph,
+            EdgeWeightFunction<Coordinate, Segment> weights, double maxGroundSpeed) {
+        return new GreatCircleHeuristic(admissibleCost(graph, weights, 1 / maxGroundSpeed));
+    }
+
+    /**
+     * Creates the heuristic of an air network seen through flight time (s)
+     * weights, checking the weights against the great circle distances the
+     * network keeps for its current segments.
+     *
+     * @param network the air network
+     * @param weights the flight time of the edges
+     * @param maxGroundSpeed the upper bound of the ground speed (m/s)
+     * @return the heuristic
+     */
+    public static GreatCircleHeuristic time(AirNetwork network,
+            EdgeWeightFunction<Coordinate, Segment> weights, double maxGroundSpeed) {
+        return new GreatCircleHeuristic(admissibleCost(network.getNetwork(), weights,
+                network.getGreatCircleDistances(), 1 / maxGroundSpeed));
+    }
+
+    /**
+     * Obtains the upper bound of the ground speed of a flight in a graph:
+     * cruise true airspeed plus the strongest wind of the segments (static or
+     * forecast).
+     *
+     * @param graph the graph
+     * @param flight the flight
+     * @return the upper bound of the ground speed (m/s)
+     */
+    public static double maxGroundSpeed(MapGraph<Coordinate, Segment> graph, FlightSimulation flight) {
+
+        return cruiseSpeed(flight) + maxWindSpeed(graph);
+    }
+
+    /**
+     * Obtains the upper bound of the ground speed of a flight in an air
+     * network, with the strongest wind the network keeps for its segments.
+     *
+     * @param network the air network
+     * @param flight the flight
+     * @return the upper bound of the ground speed (m/s)
+     */
+    public static double maxGroundSpeed(AirNetwork network, FlightSimulation flight) {
+        return cruiseSpeed(flight) + network.getMaxWindSpeed();
+    }
+
+    /**
+     * Obtains the cruise true airspeed of a flight.
+     *
+     * @param flight the flight
+     * @return the cruise true airspeed (m/s)
+     */
+    private static double cruiseSpeed(FlightSimulation flight) {
+
+        Motorization motorization = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization();
+        return Calculus.calculateTAS(motorization.getCruiseAltitude(), motorization.getCruiseSpeed())
+                .doubleValue(SI.METERS_PER_SECOND);
+    }
+
+    /**
+     * Obtains the strongest wind of the segments of a graph (static or
+     * forecast).
+     *
+     * @param graph the graph
+     * @return the strongest wind speed (m/s)
+     */
+    static double maxWindSpeed(MapGraph<Coordinate, Segment> graph) {
+
+        double maxWind = 0;
+        for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+            maxWind = Math.max(maxWind, edge.getElement().getMaxWindSpeed());
+        }
+        return maxWind;
+    }
+
+    /**
+     * Obtains the sea level great circle distance of the edges of a graph.
+     *
+     * @param graph the graph
+     * @return the distances (m), by edge id
+     */
+    static double[] greatCircleDistances(MapGraph<Coordinate, Segment> graph) {
+
+        double[] distances = new double[graph.numEdgeIds()];
+        for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+            distances[edge.getId()] = edge.getVOrig().distance(edge.getVDest(), 0);
+        }
+        return distances;
+    }
+
+    /**
+     * Lowers a cost per meter until no edge of the graph costs less than its
+     * great circle distance times it.
+     *
+     * @param graph the graph
+     * @param weights the edge weights (null for the weights of the edges)
+     * @param costPerMeter the cost per meter
+     * @return the admissible cost per meter
+     */
+    private static double admissibleCost(MapGraph<Coordinate, Segment> graph,
+            EdgeWeightFunction<Coordinate, Segment> weights, double costPerMeter) {
+        return admissibleCost(graph, weights, greatCircleDistances(graph), costPerMeter);
+    }
+
+    /**
+     * Lowers a cost per meter until no edge of the graph costs less than its
+     * great circle distance times it.
+     *
+     * @param graph the graph
+     * @param weights the edge weights (null for the weights of the edges)
+     * @param distances the great circle distances of the edges (m), by edge id
+     * @param costPerMeter the cost per meter
+     * @return the admissible cost per meter
+     */
+    static double admissibleCost(MapGraph<Coordinate, Segment> graph,
+            EdgeWeightFunction<Coordinate, Segment> weights, double[] distances, double costPerMeter) {
+
+        double cost = costPerMeter;
+        for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+            double distance = distances[edge.getId()];
+            if (distance > 0) {
+                double weight = (weights == null) ? edge.getWeight() : weights.weight(edge);
+                cost = Math.min(cost, weight / distance);
+            }
+        }
+        return Math.max(cost, 0);
+    }
+
+    /**
+     * Verifies if the heuristic is still consistent with an edge of a new
+     * weight (no less than its great circle distance times the cost per
+     * meter).
+     *
+     * @param edge the edge
+     * @param weight the new weight of the edge
+     * @return true if consistent
+     */
+    public boolean admits(MapEdge<Coordinate, Segment> edge, double weight) {
+        return weight >= costPerMeter * edge.getVOrig().distance(edge.getVDest(), 0);
+    }
+
+    /**
+     * Obtains the cost per meter.
+     *
+     * @return the cost per meter
+     */
+    public double getCostPerMeter() {
+        return costPerMeter;
+    }
+
+    @Override
+    public double estimate(Coordinate vertex, Coordinate target) {
+        return costPerMeter * vertex.distance(target, 0);
+    }
+}
@@ -0,0 +1,486 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Velocity;
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+import lapr.project.utils.CustomUnits;
+import org.jscience.physics.amount.Amount;
+import org.jscience.physics.amount.Constants;
+
+/**
+ * Immutable performance profile of an aircraft model and flight pattern.
+ *
+ * Compiled once from the {@link AircraftModel}, its {@link Motorization} and
+ * the {@link FlightPattern}, it keeps every value the flight regimes need in
+ * SI doubles: the precomputed lambda ({@link Calculus#getLambda}), the wing
+ * loading constants of the drag polar, and the cdrag and flight pattern tables
+ * as primitive arrays sorted by Mach number and altitude and read by binary
+ * search. The integration kernels only read this profile, so their loops
+ * have no getter chains or unit conversions.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class PerformanceProfile {
+
+    /**
+     * Standard gravity. (m/s2)
+     */
+    private static final double G = Constants.g.doubleValue(SI.METERS_PER_SQUARE_SECOND);
+
+    /**
+     * Cruise altitude. (m)
+     */
+    private final double cruiseAltitude;
+
+    /**
+     * Cruise Mach number.
+     */
+    private final double cruiseMach;
+
+    /**
+     * Wing area. (m2)
+     */
+    private final double wingArea;
+
+    /**
+     * Lift coefficient of a unit mass and dynamic pressure term
+     * (cl = liftFactor x m / (rho x tas^2)). (m/s2/m2)
+     */
+    private final double liftFactor;
+
+    /**
+     * Induced drag factor of the drag polar (1 / (pi x AR x e)).
+     */
+    private final double inducedDragFactor;
+
+    /**
+     * Static thrust of one motor. (N)
+     */
+    private final double thrust0;
+
+    /**
+     * Thrust loss per Mach number. (N)
+     */
+    private final double lambda;
+
+    /**
+     * Thrust lapse rate factor.
+     */
+    private final double lapseRateFactor;
+
+    /**
+     * Number of motors.
+     */
+    private final int numberOfMotors;
+
+    /**
+     * Fuel flow per thrust (tsfc / g). (kg/N/s)
+     */
+    private final double fuelFlowFactor;
+
+    /**
+     * Empty weight. (kg)
+     */
+    private final double emptyWeight;
+
+    /**
+     * Maximum takeoff weight. (kg)
+     */
+    private final double maxTakeoffWeight;
+
+    /**
+     * Cdrag table (Mach number &amp; zero lift drag coefficient), sorted by
+     * Mach number.
+     */
+    private final double[] cdragMach;
+    private final double[] cdragValue;
+
+    /**
+     * Flight pattern table (altitude (m), climb &amp; descent indicated
+     * airspeeds (m/s)), sorted by altitude.
+     */
+    private final double[] patternAltitude;
+    private final double[] climbIas;
+    private final double[] descentIas;
+
+    /**
+     * The hash code, computed once (the profile keys the phase caches).
+     */
+    private final int hash;
+
+    /**
+     * Compiles the profile.
+     *
+     * @param model the aircraft model
+     * @param pattern the flight pattern
+     */
+    private PerformanceProfile(AircraftModel model, FlightPattern pattern) {
+
+        Motorization motorization = model.getMotorization();
+        ThrustFunction thrustFunction = motorization.getThrustFunction();
+
+        cruiseAltitude = motorization.getCruiseAltitude().doubleValue(SI.METER);
+        cruiseMach = motorization.getCruiseSpeed().doubleValue(NonSI.MACH);
+        wingArea = model.getWingArea().doubleValue(SI.SQUARE_METRE);
+        liftFactor = 2 * G / wingArea;
+        inducedDragFactor = 1 / (model.getAspectRatio().doubleValue(Unit.ONE) * Math.PI
+                * model.getE().doubleValue(Unit.ONE));
+        thrust0 = thrustFunction.getThrust0().doubleValue(SI.NEWTON);
+        lambda = Calculus.getLambda(thrustFunction.getThrust0(), thrustFunction.getThrustMaxSpeed(),
+                thrustFunction.getMaxSpeed()).doubleValue(SI.NEWTON);
+        lapseRateFactor = motorization.getLapseRateFactor().doubleValue(Unit.ONE);
+        numberOfMotors = motorization.getNumberOfMotors();
+        @SuppressWarnings("unchecked")
+        double tsfc = motorization.getTsfc().doubleValue(CustomUnits.TSFC_NNS);
+        fuelFlowFactor = tsfc / G;
+        emptyWeight = model.getEmptyWeight().doubleValue(SI.KILOGRAM);
+        maxTakeoffWeight = model.getMtow().doubleValue(SI.KILOGRAM);
+
+        double[][] cdrag = model.getCdragFunction().clone();
+        Arrays.sort(cdrag, Comparator.comparingDouble((double[] line) -> line[0]));
+        cdragMach = new double[cdrag.length];
+        cdragValue = new double[cdrag.length];
+        for (int i = 0; i < cdrag.length; i++) {
+            cdragMach[i] = cdrag[i][0];
+            cdragValue[i] = cdrag[i][1];
+        }
+
+        int lines = pattern.numLines();
+        Amount[][] matrix = Arrays.copyOf(pattern.getFlightProfile(), lines);
+        Arrays.sort(matrix, Comparator.comparingDouble(PerformanceProfile::altitude));
+        patternAltitude = new double[lines];
+        climbIas = new double[lines];
+        descentIas = new double[lines];
+        for (int i = 0; i < lines; i++) {
+            @SuppressWarnings("unchecked")
+            Amount<Velocity> climb = matrix[i][FlightPattern.VCLIMB_COLUMN];
+            @SuppressWarnings("unchecked")
+            Amount<Velocity> descent = matrix[i][FlightPattern.VDESC_COLUMN];
+            patternAltitude[i] = altitude(matrix[i]);
+            climbIas[i] = climb.doubleValue(SI.METERS_PER_SECOND);
+            descentIas[i] = descent.doubleValue(SI.METERS_PER_SECOND);
+        }
+        hash = computeHash();
+    }
+
+    /**
+     * Obtains the altitude of a line of a flight pattern.
+     *
+     * @param line the line of the flight pattern
+     * @return the altitude (m)
+     */
+    private static double altitude(Amount[] line) {
+
+        @SuppressWarnings("unchecked")
+        Amount<Length> altitude = line[FlightPattern.ALTITUDE_COLUMN];
+        return altitude.doubleValue(SI.METER);
+    }
+
+    /**
+     * Compiles the profile of an aircraft model and flight pattern.
+     *
+     * @param model the aircraft model
+     * @param pattern the flight pattern
+     * @return the profile
+     */
+    public static PerformanceProfile compile(AircraftModel model, FlightPattern pattern) {
+        return new PerformanceProfile(model, pattern);
+    }
+
+    /**
+     * Compiles the profile of the aircraft of a flight.
+     *
+     * @param flight the flight
+     * @return the profile
+     */
+    public static PerformanceProfile of(FlightSimulation flight) {
+
+        Aircraft aircraft = flight.getFlightInfo().getAircraft();
+        return new PerformanceProfile(aircraft.getAircraftModel(), aircraft.getFlightPattern());
+    }
+
+    /**
+     * Obtains the initial mass of a flight (empty weight, cargo &amp; fuel).
+     *
+     * @param flight the flight
+     * @return the initial mass (kg)
+     */
+    public double initialMass(FlightSimulation flight) {
+        return emptyWeight + flight.getEffectiveCargo().doubleValue(SI.KILOGRAM)
+                + flight.getEffectiveFuel().doubleValue(SI.KILOGRAM);
+    }
+
+    /**
+     * Obtains the zero lift drag coefficient of a Mach number (same rule as
+     * {@link AircraftModel#getCdragFunction(double)}: the line of the last
+     * Mach number not above it, or the first line beyond the table).
+     *
+     * @param machNumber the Mach number
+     * @return the zero lift drag coefficient
+     */
+    public double cdrag(double machNumber) {
+
+        int next = upperBound(cdragMach, machNumber, 1);
+        return (next < cdragMach.length) ? cdragValue[next - 1] : cdragValue[0];
+    }
+
+    /**
+     * Obtains the flight pattern line of an altitude (same rule as
+     * {@link FlightPattern#getAltitudeIndex(Amount)}).
+     *
+     * @param altitude the altitude (m)
+     * @return the line index, -1 if out of the flight pattern
+     */
+    public int patternLine(double altitude) {
+
+        if (patternAltitude.length == 0 || altitude < patternAltitude[0]) {
+            return -1;
+        }
+        int next = upperBound(patternAltitude, altitude, 0);
+        return (next < patternAltitude.length) ? next - 1 : -1;
+    }
+
+    /**
+     * Obtains the first index (from a start) of a sorted array with a value
+     * greater than the key.
+     *
+     * @param values the sorted values
+     * @param key the key
+     * @param start the first index to search
+     * @return the index, the array length if there is none
+     */
+    private static int upperBound(double[] values, double key, int start) {
+
+        int low = start;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] > key) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Obtains the number of flight pattern lines.
+     *
+     * @return the number of lines
+     */
+    public int patternLines() {
+        return patternAltitude.length;
+    }
+
+    /**
+     * Obtains the altitude of a flight pattern line.
+     *
+     * @param line the line index
+     * @return the altitude (m)
+     */
+    public double patternAltitude(int line) {
+        return patternAltitude[line];
+    }
+
+    /**
+     * Obtains the climb indicated airspeed of a flight pattern line.
+     *
+     * @param line the line index
+     * @return the indicated airspeed (m/s)
+     */
+    public double climbIas(int line) {
+        return climbIas[line];
+    }
+
+    /**
+     * Obtains the descent indicated airspeed of a flight pattern line.
+     *
+     * @param line the line index
+     * @return the indicated airspeed (m/s)
+     */
+    public double descentIas(int line) {
+        return descentIas[line];
+    }
+
+    /**
+     * Obtains the drag coefficient of a lift coefficient (drag polar, same
+     * expression as {@link Calculus#getDragCoefficient}).
+     *
+     * @param cl the lift coefficient
+     * @param cdrag0 the zero lift drag coefficient
+     * @return the drag coefficient
+     */
+    public double dragCoefficient(double cl, double cdrag0) {
+        return cl * cl * inducedDragFactor + cdrag0;
+    }
+
+    /**
+     * Obtains the cruise altitude.
+     *
+     * @return the cruise altitude (m)
+     */
+    public double getCruiseAltitude() {
+        return cruiseAltitude;
+    }
+
+    /**
+     * Obtains the cruise Mach number.
+     *
+     * @return the cruise Mach number
+     */
+    public double getCruiseMach() {
+        return cruiseMach;
+    }
+
+    /**
+     * Obtains the wing area.
+     *
+     * @return the wing area (m2)
+     */
+    public double getWingArea() {
+        return wingArea;
+    }
+
+    /**
+     * Obtains the lift factor (cl = liftFactor x m / (rho x tas^2)).
+     *
+     * @return the lift factor (m/s2/m2)
+     */
+    public double getLiftFactor() {
+        return liftFactor;
+    }
+
+    /**
+     * Obtains the induced drag factor (1 / (pi x AR x e)).
+     *
+     * @return the induced drag factor
+     */
+    public double getInducedDragFactor() {
+        return inducedDragFactor;
+    }
+
+    /**
+     * Obtains the static thrust of one motor.
+     *
+     * @return the static thrust (N)
+     */
+    public double getThrust0() {
+        return thrust0;
+    }
+
+    /**
+     * Obtains the thrust loss per Mach number.
+     *
+     * @return the lambda (N)
+     */
+    public double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * Obtains the thrust lapse rate factor.
+     *
+     * @return the lapse rate factor
+     */
+    public double getLapseRateFactor() {
+        return lapseRateFactor;
+    }
+
+    /**
+     * Obtains the number of motors.
+     *
+     * @return the number of motors
+     */
+    public int getNumberOfMotors() {
+        return numberOfMotors;
+    }
+
+    /**
+     * Obtains the fuel flow per thrust (tsfc / g).
+     *
+     * @return the fuel flow factor (kg/N/s)
+     */
+    public double getFuelFlowFactor() {
+        return fuelFlowFactor;
+    }
+
+    /**
+     * Obtains the empty weight.
+     *
+     * @return the empty weight (kg)
+     */
+    public double getEmptyWeight() {
+        return emptyWeight;
+    }
+
+    /**
+     * Obtains the maximum takeoff weight.
+     *
+     * @return the maximum takeoff weight (kg)
+     */
+    public double getMaxTakeoffWeight() {
+        return maxTakeoffWeight;
+    }
+
+    /**
+     * Computes the hash code.
+     *
+     * @return the hash code
+     */
+    private int computeHash() {
+        int code = 7;
+        code = 31 * code + Double.hashCode(cruiseAltitude);
+        code = 31 * code + Double.hashCode(cruiseMach);
+        code = 31 * code + Double.hashCode(wingArea);
+        code = 31 * code + Double.hashCode(thrust0);
+        code = 31 * code + Double.hashCode(fuelFlowFactor);
+        code = 31 * code + Arrays.hashCode(climbIas);
+        return code;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final PerformanceProfile other = (PerformanceProfile) obj;
+
+        return hash == other.hash
+                && cruiseAltitude == other.cruiseAltitude
+                && cruiseMach == other.cruiseMach
+                && wingArea == other.wingArea
+                && inducedDragFactor == other.inducedDragFactor
+                && thrust0 == other.thrust0
+                && lambda == other.lambda
+                && lapseRateFactor == other.lapseRateFactor
+                && numberOfMotors == other.numberOfMotors
+                && fuelFlowFactor == other.fuelFlowFactor
+                && emptyWeight == other.emptyWeight
+                && maxTakeoffWeight == other.maxTakeoffWeight
+                && Arrays.equals(cdragMach, other.cdragMach)
+                && Arrays.equals(cdragValue, other.cdragValue)
+                && Arrays.equals(patternAltitude, other.patternAltitude)
+                && Arrays.equals(climbIas, other.climbIas)
+                && Arrays.equals(descentIas, other.descentIas);
+    }
+}
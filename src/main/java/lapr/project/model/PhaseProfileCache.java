@@ -0,0 +1,277 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import lapr.project.model.Calculus.REGIME;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Bounded, thread-safe cache of climb and landing analyses.
+ *
+ * A climb or a landing only depends on the aircraft model, the flight
+ * pattern, the initial mass and the airport altitude. The entries are keyed on
+ * the compiled {@link PerformanceProfile} of the model and the flight pattern
+ * (not on their identities, so a changed model never reads a stale entry),
+ * the mass quantized to a configurable band and the airport altitude. When the
+ * band is greater than zero the analysis is calculated with the center of the
+ * band, so every mass of a band gets the same result. Least recently used
+ * entries are evicted above the capacity.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class PhaseProfileCache {
+
+    /**
+     * The default capacity (entries).
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default mass band (kg), the one of the edge cost cache of the
+     * searches, so the climbs and landings of their stops are shared too.
+     */
+    public static final double DEFAULT_MASS_BAND = 10;
+
+    /**
+     * The cache shared by the flight plan algorithms.
+     */
+    public static final PhaseProfileCache SHARED = new PhaseProfileCache();
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int capacity;
+
+    /**
+     * The mass band (kg).
+     */
+    private final double massBand;
+
+    /**
+     * The entries (distance, duration &amp; consumption), in access order.
+     */
+    private final LinkedHashMap<Key, double[]> entries;
+
+    /**
+     * Number of hits and misses.
+     */
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache with the default capacity and mass band.
+     */
+    public PhaseProfileCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_MASS_BAND);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param capacity the maximum number of entries
+     * @param massBand the mass band (kg), zero to keep the exact mass
+     */
+    public PhaseProfileCache(int capacity, double massBand) {
+
+        if (capacity < 1 || massBand < 0) {
+            throw new IllegalArgumentException("Invalid cache capacity or mass band.");
+        }
+        this.capacity = capacity;
+        this.massBand = massBand;
+        this.entries = new LinkedHashMap<Key, double[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+                return size() > PhaseProfileCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Obtains the climb of a flight (see
+     * {@link Calculus#calculateClimb(FlightSimulation, Amount)}).
+     *
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @return a analysis with distance, duration &amp; consumption of flight
+     * climb
+     */
+    public AlgorithmAnalysis climb(FlightSimulation flight, Amount<Length> airportAltitude) {
+        return climb(PerformanceProfile.of(flight), flight, airportAltitude);
+    }
+
+    /**
+     * Obtains the climb of a flight with the compiled performance profile of
+     * its aircraft, so a hit costs only the key lookup.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @return a analysis with distance, duration &amp; consumption of flight
+     * climb
+     */
+    public AlgorithmAnalysis climb(PerformanceProfile profile, FlightSimulation flight,
+            Amount<Length> airportAltitude) {
+        return analysis(profile, flight, REGIME.CLIMB, airportAltitude);
+    }
+
+    /**
+     * Obtains the landing of a flight (see
+     * {@link Calculus#calculateLanding(FlightSimulation, Amount)}).
+     *
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @return a analysis with distance, duration &amp; consumption of flight
+     * landing
+     */
+    public AlgorithmAnalysis landing(FlightSimulation flight, Amount<Length> airportAltitude) {
+        return landing(PerformanceProfile.of(flight), flight, airportAltitude);
+    }
+
+    /**
+     * Obtains the landing of a flight with the compiled performance profile
+     * of its aircraft, so a hit costs only the key lookup.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param airportAltitude the airports altitude
+     * @return a analysis with distance, duration &amp; consumption of flight
+     * landing
+     */
+    public AlgorithmAnalysis landing(PerformanceProfile profile, FlightSimulation flight,
+            Amount<Length> airportAltitude) {
+        return analysis(profile, flight, REGIME.LANDING, airportAltitude);
+    }
+
+    /**
+     * Obtains the number of hits.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Obtains the number of misses.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Obtains the number of entries.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Obtains the analysis of a regime, calculating it on a miss.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param regime the regime (climb or landing)
+     * @param airportAltitude the airports altitude
+     * @return the analysis
+     */
+    private AlgorithmAnalysis analysis(PerformanceProfile profile, FlightSimulation flight, REGIME regime,
+            Amount<Length> airportAltitude) {
+
+        double mass = profile.initialMass(flight);
+        if (massBand > 0) {
+            mass = (Math.floor(mass / massBand) + 0.5) * massBand;
+        }
+        double altitude = airportAltitude.doubleValue(SI.METER);
+        Key key = new Key(profile, regime, mass, altitude);
+
+        double[] result;
+        synchronized (this) {
+            result = entries.get(key);
+            if (result != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+
+        if (result == null) {
+            // calculated outside the lock, so other threads are never blocked
+            result = new double[FlightIntegrator.RESULT_SIZE];
+            FlightIntegrator.integrate(profile, regime, mass, altitude, 0, result);
+            synchronized (this) {
+                entries.put(key, result);
+            }
+        }
+
+        return new AlgorithmAnalysis(Amount.valueOf(result[FlightIntegrator.DISTANCE], SI.METER),
+                Amount.valueOf(result[FlightIntegrator.DURATION], SI.SECOND),
+                Amount.valueOf(result[FlightIntegrator.CONSUMPTION], SI.KILOGRAM));
+    }
+
+    /**
+     * Key of an entry.
+     */
+    private static final class Key {
+
+        private final PerformanceProfile profile;
+        private final REGIME regime;
+        private final double mass;
+        private final double airportAltitude;
+
+        Key(PerformanceProfile profile, REGIME regime, double mass, double airportAltitude) {
+            this.profile = profile;
+            this.regime = regime;
+            this.mass = mass;
+            this.airportAltitude = airportAltitude;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 3;
+            hash = 59 * hash + profile.hashCode();
+            hash = 59 * hash + regime.hashCode();
+            hash = 59 * hash + Double.hashCode(mass);
+            hash = 59 * hash + Double.hashCode(airportAltitude);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+
+            return regime == other.regime
+                    && mass == other.mass
+                    && airportAltitude == other.airportAltitude
+                    && Objects.equals(profile, other.profile);
+        }
+    }
+}
@@ -4,6 +4,7 @@
 package lapr.project.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.measure.quantity.Angle;
 import javax.measure.quantity.Length;
 import javax.measure.quantity.Velocity;
@@ -41,6 +42,33 @@ public class Segment {
      */
     private Amount<Velocity> windIntensity;
 
+    /**
+     * The wind speed (m/s) and the sine and cosine of the wind direction,
+     * kept with the amounts for the wind component.
+     */
+    private double windSpeed;
+    private double sinWindDirection;
+    private double cosWindDirection;
+
+    /**
+     * The forecast of the wind over time (null if the wind is static).
+     */
+    private WindForecast windForecast;
+
+    /**
+     * The geometries of the segment between the coordinates it was last used
+     * on, one for each direction (null until computed or loaded). They are
+     * immutable, so the threads sharing the segment at most compute one again.
+     */
+    private SegmentGeometry geometry;
+    private SegmentGeometry previousGeometry;
+
+    /**
+     * Number of changes to the wind of any segment, so the strongest wind an
+     * air network keeps is computed again after one.
+     */
+    private static final AtomicInteger WIND_CHANGES = new AtomicInteger();
+
     /**
      * The default id.
      */
@@ -69,6 +97,7 @@ public class Segment {
         this.altitude = DEFAULT_ALTITUDE;
         this.windDirection = DEFAULT_WIND_DIRECTION;
         this.windIntensity = DEFAULT_WIND_SPEED;
+        updateWind();
     }
 
     /**
@@ -85,10 +114,12 @@ public class Segment {
         this.altitude = altitude;
         this.windDirection = windDirection;
         this.windIntensity = windSpeed;
+        updateWind();
     }
 
     /**
-     * Creates a segment receiving another segment.
+     * Creates a segment receiving another segment. The geometries and the wind
+     * forecast are immutable and shared.
      *
      * @param otherSegment other segment to copy
      */
@@ -97,6 +128,10 @@ public class Segment {
         this.altitude = otherSegment.altitude;
         this.windDirection = otherSegment.windDirection;
         this.windIntensity = otherSegment.windIntensity;
+        this.windForecast = otherSegment.windForecast;
+        this.geometry = otherSegment.geometry;
+        this.previousGeometry = otherSegment.previousGeometry;
+        updateWind();
     }
 
     /**
@@ -133,6 +168,8 @@ public class Segment {
      */
     public void setAltitude(Amount<Length> altitude) {
         this.altitude = altitude;
+        this.geometry = null;
+        this.previousGeometry = null;
     }
 
     /**
@@ -151,6 +188,8 @@ public class Segment {
      */
     public void setWindDirection(Amount<Angle> windDirection) {
         this.windDirection = windDirection;
+        updateWind();
+        WIND_CHANGES.incrementAndGet();
     }
 
     /**
@@ -169,6 +208,106 @@ public class Segment {
      */
     public void setWindIntensity(Amount<Velocity> windIntensity) {
         this.windIntensity = windIntensity;
+        updateWind();
+        WIND_CHANGES.incrementAndGet();
+    }
+
+    /**
+     * Gets the forecast of the wind over time.
+     *
+     * @return the wind forecast, null if the wind is static
+     */
+    public WindForecast getWindForecast() {
+        return windForecast;
+    }
+
+    /**
+     * Sets the forecast of the wind over time.
+     *
+     * @param windForecast the wind forecast, null for the static wind
+     */
+    public void setWindForecast(WindForecast windForecast) {
+        this.windForecast = windForecast;
+        WIND_CHANGES.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of changes to the wind of any segment.
+     *
+     * @return the number of wind changes
+     */
+    public static int getWindChanges() {
+        return WIND_CHANGES.get();
+    }
+
+    /**
+     * Gets the strongest wind speed of the segment, static or forecast (SI:
+     * m/s).
+     *
+     * @return the strongest wind speed
+     */
+    public double getMaxWindSpeed() {
+
+        double speed = Math.abs(windIntensity.doubleValue(SI.METERS_PER_SECOND));
+        return (windForecast == null) ? speed : Math.max(speed, windForecast.getMaxWindSpeed());
+    }
+
+    /**
+     * Gets the geometry of the segment between two coordinates, computing it
+     * if the segment has none between them at their current position.
+     *
+     * @param first the first coordinate
+     * @param second the second coordinate
+     * @return the geometry
+     */
+    public SegmentGeometry getGeometry(Coordinate first, Coordinate second) {
+
+        SegmentGeometry current = geometry;
+        if (current != null && current.isBetween(first, second)) {
+            return current;
+        }
+        SegmentGeometry previous = previousGeometry;
+        if (previous != null && previous.isBetween(first, second)) {
+            return previous;
+        }
+        SegmentGeometry computed = SegmentGeometry.of(first, second, altitude);
+        setGeometry(computed);
+        return computed;
+    }
+
+    /**
+     * Sets a precomputed (for example, loaded) geometry.
+     *
+     * @param geometry the geometry
+     */
+    public void setGeometry(SegmentGeometry geometry) {
+        this.previousGeometry = this.geometry;
+        this.geometry = geometry;
+    }
+
+    /**
+     * Gets the wind speed portion along the flight direction between two
+     * coordinates (SI: m/s), from the geometry.
+     *
+     * @param first the first coordinate
+     * @param second the second coordinate
+     * @return the wind speed portion
+     */
+    public double getWindComponent(Coordinate first, Coordinate second) {
+        return getGeometry(first, second).windComponent(windSpeed, sinWindDirection, cosWindDirection);
+    }
+
+    /**
+     * Keeps the wind speed and the sine and cosine of the wind direction.
+     */
+    private void updateWind() {
+
+        if (windDirection != null && windIntensity != null) {
+            double radians = windDirection.doubleValue(SI.RADIAN);
+            windSpeed = windIntensity.doubleValue(SI.METERS_PER_SECOND);
+            sinWindDirection = Math.sin(radians);
+            cosWindDirection = Math.cos(radians);
+        }
     }
 
     @Override
@@ -0,0 +1,205 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import javax.measure.quantity.Length;
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Immutable geometry of a segment: great circle length, flight direction
+ * (bearing) and the sine and cosine of the bearing.
+ *
+ * It is computed (with {@link Calculus#distance(Coordinate, Coordinate, Amount)}
+ * and {@link Calculus#direction(Coordinate, Coordinate)}) when the segment is
+ * first used between two coordinates and kept by the segment, so the wind
+ * component along the segment is a few multiplications. It remembers the
+ * position of the coordinates it is between, so it is computed again if they
+ * move.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class SegmentGeometry {
+
+    /**
+     * Great circle length. (m)
+     */
+    private final double length;
+
+    /**
+     * Flight direction, relative to north, between 0 and 360. (degrees)
+     */
+    private final double bearing;
+
+    /**
+     * Sine and cosine of the flight direction.
+     */
+    private final double sinBearing;
+    private final double cosBearing;
+
+    /**
+     * Latitude &amp; longitude of the first and second coordinates (SI: RAD),
+     * NaN if the geometry is not between coordinates.
+     */
+    private final double firstLatitude;
+    private final double firstLongitude;
+    private final double secondLatitude;
+    private final double secondLongitude;
+
+    /**
+     * Creates a geometry.
+     *
+     * @param length the great circle length (m)
+     * @param bearing the flight direction (degrees)
+     */
+    public SegmentGeometry(double length, double bearing) {
+
+        this(length, bearing, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Creates the geometry of a segment between two coordinates.
+     *
+     * @param length the great circle length (m)
+     * @param bearing the flight direction (degrees)
+     * @param first first coordinate
+     * @param second second coordinate
+     */
+    public SegmentGeometry(double length, double bearing, Coordinate first, Coordinate second) {
+
+        this(length, bearing, first.getLatitudeRadians(), first.getLongitudeRadians(),
+                second.getLatitudeRadians(), second.getLongitudeRadians());
+    }
+
+    /**
+     * Creates a geometry.
+     *
+     * @param length the great circle length (m)
+     * @param bearing the flight direction (degrees)
+     * @param firstLatitude latitude of the first coordinate (SI: RAD)
+     * @param firstLongitude longitude of the first coordinate (SI: RAD)
+     * @param secondLatitude latitude of the second coordinate (SI: RAD)
+     * @param secondLongitude longitude of the second coordinate (SI: RAD)
+     */
+    private SegmentGeometry(double length, double bearing, double firstLatitude, double firstLongitude,
+            double secondLatitude, double secondLongitude) {
+
+        this.firstLatitude = firstLatitude;
+        this.firstLongitude = firstLongitude;
+        this.secondLatitude = secondLatitude;
+        this.secondLongitude = secondLongitude;
+        this.length = length;
+        this.bearing = bearing;
+        double radians = Math.toRadians(bearing);
+        this.sinBearing = Math.sin(radians);
+        this.cosBearing = Math.cos(radians);
+    }
+
+    /**
+     * Computes the geometry of a segment between two coordinates.
+     *
+     * @param first first coordinate
+     * @param second second coordinate
+     * @param altitude the segment altitude
+     * @return the geometry
+     */
+    public static SegmentGeometry of(Coordinate first, Coordinate second, Amount<Length> altitude) {
+
+        return new SegmentGeometry(Calculus.distance(first, second, altitude).doubleValue(SI.METER),
+                Calculus.direction(first, second).doubleValue(NonSI.DEGREE_ANGLE), first, second);
+    }
+
+    /**
+     * Checks if this is the geometry between two coordinates, at their current
+     * position.
+     *
+     * @param first first coordinate
+     * @param second second coordinate
+     * @return true if the coordinates are where the geometry was computed
+     */
+    public boolean isBetween(Coordinate first, Coordinate second) {
+
+        return firstLatitude == first.getLatitudeRadians() && firstLongitude == first.getLongitudeRadians()
+                && secondLatitude == second.getLatitudeRadians() && secondLongitude == second.getLongitudeRadians();
+    }
+
+    /**
+     * Obtains the wind component along the flight direction (see
+     * {@link Calculus#getPortionWindSpeed}).
+     *
+     * @param windSpeed the wind speed (m/s)
+     * @param sinWindDirection the sine of the wind direction
+     * @param cosWindDirection the cosine of the wind direction
+     * @return the wind speed portion (m/s)
+     */
+    public double windComponent(double windSpeed, double sinWindDirection, double cosWindDirection) {
+        return windSpeed * (cosBearing * cosWindDirection + sinBearing * sinWindDirection);
+    }
+
+    /**
+     * Obtains the great circle length.
+     *
+     * @return the length (m)
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Obtains the flight direction.
+     *
+     * @return the bearing (degrees)
+     */
+    public double getBearing() {
+        return bearing;
+    }
+
+    /**
+     * Obtains the sine of the flight direction.
+     *
+     * @return the sine of the bearing
+     */
+    public double getSinBearing() {
+        return sinBearing;
+    }
+
+    /**
+     * Obtains the cosine of the flight direction.
+     *
+     * @return the cosine of the bearing
+     */
+    public double getCosBearing() {
+        return cosBearing;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 67 * hash + Double.hashCode(length);
+        hash = 67 * hash + Double.hashCode(bearing);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final SegmentGeometry other = (SegmentGeometry) obj;
+        return length == other.length && bearing == other.bearing;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SegmentGeometry{length=%f, bearing=%f}", length, bearing);
+    }
+}
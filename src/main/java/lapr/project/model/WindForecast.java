@@ -0,0 +1,259 @@
+/**
+ * Package location for Model concepts.
+ */
+package lapr.project.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable forecast of the wind of a segment: the wind at a series of times,
+ * linearly interpolated between them and held before the first &amp; after
+ * the last one.
+ *
+ * The wind is kept as its north &amp; east components in primitive arrays, so
+ * the wind along a flight direction is two multiplications per forecast time
+ * and the time of a forecast is found by binary search.
+ *
+ * The flight over a segment integrates the ground speed (true airspeed plus
+ * the wind along the segment, never below zero) through the forecast times,
+ * so the ground speed depends only on the time and not on when the flight
+ * started: a flight that starts later never arrives sooner (first in, first
+ * out), which keeps the time dependent searches exact.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class WindForecast {
+
+    /**
+     * The forecast times, increasing (s since the epoch).
+     */
+    private final double[] times;
+
+    /**
+     * The north &amp; east components of the wind at each time (m/s).
+     */
+    private final double[] north;
+    private final double[] east;
+
+    /**
+     * The strongest wind speed of the forecast (m/s).
+     */
+    private final double maxWindSpeed;
+
+    /**
+     * Creates a forecast.
+     *
+     * @param times the forecast times, increasing (s since the epoch)
+     * @param windSpeeds the wind speed at each time (m/s)
+     * @param windDirections the angle of the wind direction relative to north
+     * at each time (SI: RAD)
+     */
+    public WindForecast(double[] times, double[] windSpeeds, double[] windDirections) {
+
+        if (times == null || windSpeeds == null || windDirections == null || times.length == 0
+                || windSpeeds.length != times.length || windDirections.length != times.length) {
+            throw new IllegalArgumentException("Invalid forecast.");
+        }
+        this.times = Arrays.copyOf(times, times.length);
+        this.north = new double[times.length];
+        this.east = new double[times.length];
+        double max = 0;
+        for (int i = 0; i < times.length; i++) {
+            if (!Double.isFinite(times[i]) || (i > 0 && times[i] <= times[i - 1])
+                    || !Double.isFinite(windSpeeds[i]) || !Double.isFinite(windDirections[i])) {
+                throw new IllegalArgumentException("Invalid forecast.");
+            }
+            north[i] = windSpeeds[i] * Math.cos(windDirections[i]);
+            east[i] = windSpeeds[i] * Math.sin(windDirections[i]);
+            max = Math.max(max, Math.abs(windSpeeds[i]));
+        }
+        this.maxWindSpeed = max;
+    }
+
+    /**
+     * Obtains the number of forecast times.
+     *
+     * @return the number of forecast times
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * Obtains a forecast time.
+     *
+     * @param index the index of the time
+     * @return the time (s since the epoch)
+     */
+    public double getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * Obtains the strongest wind speed of the forecast.
+     *
+     * @return the wind speed (m/s)
+     */
+    public double getMaxWindSpeed() {
+        return maxWindSpeed;
+    }
+
+    /**
+     * Obtains the wind component along a flight direction at a time (see
+     * {@link SegmentGeometry#windComponent(double, double, double)}).
+     *
+     * @param time the time (s since the epoch)
+     * @param sinBearing the sine of the flight direction
+     * @param cosBearing the cosine of the flight direction
+     * @return the wind speed portion (m/s)
+     */
+    public double windComponent(double time, double sinBearing, double cosBearing) {
+
+        int i = step(time);
+        if (i < 0) {
+            return component(0, sinBearing, cosBearing);
+        }
+        if (i == times.length - 1) {
+            return component(i, sinBearing, cosBearing);
+        }
+        double fraction = (time - times[i]) / (times[i + 1] - times[i]);
+        double first = component(i, sinBearing, cosBearing);
+        return first + (component(i + 1, sinBearing, cosBearing) - first) * fraction;
+    }
+
+    /**
+     * Obtains the arrival time of a flight over a distance along a flight
+     * direction, integrating the ground speed (interpolated between the
+     * forecast times) from its departure.
+     *
+     * @param departure the departure time (s since the epoch)
+     * @param distance the distance (m)
+     * @param airspeed the true airspeed (m/s)
+     * @param sinBearing the sine of the flight direction
+     * @param cosBearing the cosine of the flight direction
+     * @return the arrival time (s since the epoch), infinity if the wind
+     * never lets the flight arrive
+     */
+    public double arrival(double departure, double distance, double airspeed, double sinBearing,
+            double cosBearing) {
+
+        if (distance <= 0) {
+            return departure;
+        }
+        int last = times.length - 1;
+        int i = step(departure);
+        double time = departure;
+        double remaining = distance;
+        double speed = (i < 0) ? groundSpeed(0, airspeed, sinBearing, cosBearing)
+                : groundSpeed(i, airspeed, sinBearing, cosBearing);
+        if (i >= 0 && i < last) {
+            double fraction = (departure - times[i]) / (times[i + 1] - times[i]);
+            speed += (groundSpeed(i + 1, airspeed, sinBearing, cosBearing) - speed) * fraction;
+        }
+
+        // whole forecast steps, until the one where the distance is flown
+        for (; i < last; i++) {
+            double end = times[i + 1];
+            double endSpeed = groundSpeed(i + 1, airspeed, sinBearing, cosBearing);
+            double span = end - time;
+            double flown = (speed + endSpeed) / 2 * span;
+            if (flown >= remaining) {
+                return time + duration(speed, (endSpeed - speed) / span, remaining);
+            }
+            remaining -= flown;
+            time = end;
+            speed = endSpeed;
+        }
+        // after the last forecast time the wind holds
+        return (speed > 0) ? time + remaining / speed : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Obtains the index of the last forecast time at or before a time.
+     *
+     * @param time the time (s since the epoch)
+     * @return the index, -1 if before the first forecast time
+     */
+    private int step(double time) {
+
+        int index = Arrays.binarySearch(times, time);
+        return (index >= 0) ? index : -index - 2;
+    }
+
+    /**
+     * Obtains the wind component along a flight direction at a forecast time.
+     *
+     * @param index the index of the time
+     * @param sinBearing the sine of the flight direction
+     * @param cosBearing the cosine of the flight direction
+     * @return the wind speed portion (m/s)
+     */
+    private double component(int index, double sinBearing, double cosBearing) {
+        return cosBearing * north[index] + sinBearing * east[index];
+    }
+
+    /**
+     * Obtains the ground speed along a flight direction at a forecast time,
+     * never below zero.
+     *
+     * @param index the index of the time
+     * @param airspeed the true airspeed (m/s)
+     * @param sinBearing the sine of the flight direction
+     * @param cosBearing the cosine of the flight direction
+     * @return the ground speed (m/s)
+     */
+    private double groundSpeed(int index, double airspeed, double sinBearing, double cosBearing) {
+        return Math.max(0, airspeed + component(index, sinBearing, cosBearing));
+    }
+
+    /**
+     * Obtains the time to fly a distance from a speed changing at a constant
+     * rate (the root of rate / 2 * t^2 + speed * t = distance).
+     *
+     * @param speed the initial speed (m/s)
+     * @param rate the rate of change of the speed (m/s^2)
+     * @param distance the distance, no more than flown until the speed
+     * reaches zero (m)
+     * @return the time (s)
+     */
+    private static double duration(double speed, double rate, double distance) {
+
+        if (rate == 0) {
+            return distance / speed;
+        }
+        // the form without cancellation
+        return 2 * distance / (speed + Math.sqrt(Math.max(0, speed * speed + 2 * rate * distance)));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 59 * hash + Arrays.hashCode(times);
+        hash = 59 * hash + Arrays.hashCode(north);
+        hash = 59 * hash + Arrays.hashCode(east);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final WindForecast other = (WindForecast) obj;
+        return Arrays.equals(times, other.times) && Arrays.equals(north, other.north)
+                && Arrays.equals(east, other.east);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WindForecast{times=%d, from=%f, to=%f}", times.length, times[0],
+                times[times.length - 1]);
+    }
+}
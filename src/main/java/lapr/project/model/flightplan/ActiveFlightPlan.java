@@ -0,0 +1,324 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.GreatCircleHeuristic;
+import lapr.project.model.Segment;
+import lapr.project.utils.exceptions.FailedAnalysisException;
+import lapr.project.utils.graph.DynamicShortestPath;
+import lapr.project.utils.graph.EdgeWeightFunction;
+import lapr.project.utils.graph.EdgeWeights;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+
+/**
+ * Represents a flight plan being flown, kept up to date as the segment
+ * winds change (see {@link WindReplanner}).
+ *
+ * The junctions are visited in the order chosen when the flight plan is
+ * activated, and each leg keeps its search (see {@link DynamicShortestPath}),
+ * so a wind update only searches again the junctions whose time to the end
+ * of the leg depends on the segments that changed. The flight plan is
+ * searched from scratch only when the network changes or a wind makes a
+ * segment faster than the heuristic allows.
+ *
+ * The searches repair static leg weights, so a flight plan whose edge costs
+ * depend on when they are flown (the flight times over wind forecasts) is
+ * rejected, and is lost if a wind forecast is set later.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class ActiveFlightPlan {
+
+    /**
+     * Fraction of the cost per meter of the heuristic of the algorithm that
+     * is used, so the winds may strengthen before the heuristic stops being
+     * consistent.
+     */
+    public static final double HEURISTIC_SLACK = 0.8;
+
+    /**
+     * The algorithm (its leg weights are the costs).
+     */
+    private final ShortestFlightPlan algorithm;
+
+    /**
+     * The air network.
+     */
+    private final AirNetwork network;
+
+    /**
+     * The flight.
+     */
+    private final FlightSimulation flight;
+
+    /**
+     * The graph searched.
+     */
+    private MapGraph<Coordinate, Segment> graph;
+
+    /**
+     * The edge weights of the legs.
+     */
+    private EdgeWeightFunction<Coordinate, Segment> weights;
+
+    /**
+     * The heuristic of the legs (null for none).
+     */
+    private GreatCircleHeuristic heuristic;
+
+    /**
+     * The search of each leg.
+     */
+    private final List<DynamicShortestPath<Coordinate, Segment>> legs = new ArrayList<>();
+
+    /**
+     * The sum of the stop weights.
+     */
+    private double stopWeights;
+
+    /**
+     * The coordinates of the flight plan (empty if there is none).
+     */
+    private List<Coordinate> coordinates = Collections.emptyList();
+
+    /**
+     * The cost of the flight plan (-1 if there is none).
+     */
+    private double cost = -1d;
+
+    /**
+     * Vertices settled by the searches discarded so far.
+     */
+    private long settledBefore;
+
+    /**
+     * Number of times the flight plan was searched from scratch.
+     */
+    private int restarts;
+
+    /**
+     * Searches the flight plan of a flight.
+     *
+     * @param algorithm the algorithm (with static leg weights)
+     * @param network the air network
+     * @param flight the flight (copied)
+     * @throws FailedAnalysisException if there is no flight plan
+     * @throws IllegalArgumentException if the edge costs depend on when they
+     * are flown (wind forecasts)
+     */
+    ActiveFlightPlan(ShortestFlightPlan algorithm, AirNetwork network, FlightSimulation flight)
+            throws FailedAnalysisException {
+
+        this.algorithm = algorithm;
+        this.network = network;
+        this.flight = new FlightSimulation(flight);
+        if (!restart()) {
+            throw new IllegalArgumentException("Flight plans over wind forecasts cannot be kept up to date.");
+        }
+        if (cost < 0) {
+            throw new FailedAnalysisException();
+        }
+    }
+
+    /**
+     * Obtains the flight.
+     *
+     * @return the flight
+     */
+    public FlightSimulation getFlight() {
+        return flight;
+    }
+
+    /**
+     * Obtains the coordinates of the flight plan.
+     *
+     * @return the coordinates, empty if there is no flight plan
+     */
+    public synchronized List<Coordinate> getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * Obtains the segments of the flight plan.
+     *
+     * @return the segments, empty if there is no flight plan
+     */
+    public synchronized LinkedList<Segment> getFlightPlan() {
+
+        LinkedList<Segment> flightplan = new LinkedList<>();
+        if (!coordinates.isEmpty()) {
+            ShortestFlightPlan.segments(graph, new LinkedList<>(coordinates), flightplan);
+        }
+        return flightplan;
+    }
+
+    /**
+     * Obtains the cost of the flight plan, by the algorithm's criteria
+     * (meters, seconds, etc.).
+     *
+     * @return the cost, -1 if there is no flight plan
+     */
+    public synchronized double getCost() {
+        return cost;
+    }
+
+    /**
+     * Obtains the number of vertices settled by all the searches of the
+     * flight plan, including the repairs.
+     *
+     * @return the number of settled vertices
+     */
+    public synchronized long getSettled() {
+
+        long settled = settledBefore;
+        for (DynamicShortestPath<Coordinate, Segment> leg : legs) {
+            settled += leg.getStatistics().getSettled();
+        }
+        return settled;
+    }
+
+    /**
+     * Obtains the number of times the flight plan was searched from scratch
+     * (the first one included).
+     *
+     * @return the number of restarts
+     */
+    public synchronized int getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Updates the flight plan after the weights of some edges changed.
+     *
+     * @param edges the edges whose segment changed
+     * @return true if the flight plan or its cost changed
+     */
+    synchronized boolean update(Iterable<MapEdge<Coordinate, Segment>> edges) {
+
+        List<Coordinate> oldCoordinates = coordinates;
+        double oldCost = cost;
+        if (!isCurrent()) {
+            restart();
+        } else {
+            List<MapEdge<Coordinate, Segment>> changed = new ArrayList<>();
+            boolean consistent = true;
+            for (MapEdge<Coordinate, Segment> edge : edges) {
+                // the weights of the edges (distances) do not change with the winds
+                boolean refreshed = weights != null && (!(weights instanceof EdgeWeights)
+                        || ((EdgeWeights<Coordinate, Segment>) weights).refresh(edge));
+                if (refreshed) {
+                    changed.add(edge);
+                    consistent &= heuristic == null || heuristic.admits(edge, weights.weight(edge));
+                }
+            }
+            if (changed.isEmpty()) {
+                return false;
+            }
+            if (!consistent) {
+                restart();
+            } else {
+                for (DynamicShortestPath<Coordinate, Segment> leg : legs) {
+                    leg.updateEdges(changed);
+                }
+                plan();
+            }
+        }
+        return cost != oldCost || !coordinates.equals(oldCoordinates);
+    }
+
+    /**
+     * Verifies if the searches are still of the graph of the air network.
+     *
+     * @return true if the searches can be repaired
+     */
+    private boolean isCurrent() {
+
+        if (graph != network.getNetwork() || legs.isEmpty()) {
+            return false;
+        }
+        for (DynamicShortestPath<Coordinate, Segment> leg : legs) {
+            if (!leg.isCurrent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Searches the flight plan from scratch: the visiting order of the
+     * junctions and the legs.
+     *
+     * @return false if the edge costs depend on when they are flown (there is
+     * no flight plan)
+     */
+    private boolean restart() {
+
+        for (DynamicShortestPath<Coordinate, Segment> leg : legs) {
+            settledBefore += leg.getStatistics().getSettled();
+        }
+        legs.clear();
+        restarts++;
+
+        PlanningContext context = new PlanningContext(network, flight);
+        graph = context.getGraph();
+        algorithm.prepare(context);
+        if (context.getArrivalTimes() != null) {
+            coordinates = Collections.emptyList();
+            cost = -1d;
+            return false;
+        }
+        List<Coordinate> ends = new ArrayList<>();
+        stopWeights = algorithm.legEnds(context, ends);
+        weights = algorithm.legWeights(context);
+        GreatCircleHeuristic legHeuristic = algorithm.legHeuristic(context);
+        heuristic = (legHeuristic == null) ? null
+                : new GreatCircleHeuristic(legHeuristic.getCostPerMeter() * HEURISTIC_SLACK);
+        if (stopWeights < 0) {
+            coordinates = Collections.emptyList();
+            cost = -1d;
+            return true;
+        }
+        for (int i = 0; i < ends.size() - 1; i++) {
+            legs.add(new DynamicShortestPath<>(graph, ends.get(i), ends.get(i + 1), weights, heuristic));
+        }
+        plan();
+        return true;
+    }
+
+    /**
+     * Obtains the flight plan from the searches of the legs.
+     */
+    private void plan() {
+
+        List<Coordinate> plan = new ArrayList<>();
+        double total = stopWeights;
+        LinkedList<Coordinate> path = new LinkedList<>();
+        for (DynamicShortestPath<Coordinate, Segment> leg : legs) {
+            double length = leg.shortestPath(path);
+            if (length < 0) {
+                coordinates = Collections.emptyList();
+                cost = -1d;
+                return;
+            }
+            if (!plan.isEmpty()) {
+                path.pop(); // First Vert is already in path.
+            }
+            plan.addAll(path);
+            total += length;
+        }
+        coordinates = Collections.unmodifiableList(plan);
+        cost = total;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.LinkedList;
+import java.util.List;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Interface to represent a Path Algorithm that also generates alternative
+ * flight plans (the k best ones, by the algorithm's criteria).
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public interface AlternativeFlightPlan extends FlightPlan {
+
+    /**
+     * Maximum number of flight plans generated at once.
+     */
+    int MAX_ALTERNATIVES = 10;
+
+    /**
+     * Default time budget of the searches (milliseconds).
+     */
+    long DEFAULT_TIME_BUDGET = 500;
+
+    /**
+     * Generates up to k flight plans, in increasing order of the algorithm's
+     * criteria (the first is the one of
+     * {@link #generateFlightPlan(AirNetwork, FlightSimulation, LinkedList)}).
+     * When the time budget runs out, the flight plans found so far are
+     * returned.
+     *
+     * @param network The air network
+     * @param flight The selected flight
+     * @param k the number of flight plans (at most {@link #MAX_ALTERNATIVES})
+     * @param timeBudget the time budget of the searches (milliseconds)
+     * @param flightplans the list to insert the flight plans
+     * @return the criteria total amount of each flight plan
+     * @throws java.lang.Exception
+     */
+    List<Amount<?>> generateFlightPlans(AirNetwork network, FlightSimulation flight, int k, long timeBudget,
+            List<LinkedList<Segment>> flightplans) throws Exception;
+}
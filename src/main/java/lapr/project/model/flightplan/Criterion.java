@@ -0,0 +1,16 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+/**
+ * Enumerates the criteria of a flight plan.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public enum Criterion {
+    DISTANCE, TIME, FUEL
+}
@@ -0,0 +1,265 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import lapr.project.model.AlgorithmAnalysis;
+import lapr.project.model.Calculus;
+import lapr.project.model.Coordinate;
+import lapr.project.model.CruiseSurface;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Motorization;
+import lapr.project.model.PerformanceProfile;
+import lapr.project.model.Segment;
+import lapr.project.utils.graph.MapEdge;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Cache of the cruises flown over the edges of an air network, for the
+ * searches of one flight plan (one aircraft &amp; flight pattern).
+ *
+ * The cruise over an edge only depends on its distance (the edge weight less
+ * the climb &amp; descent distances), on the mass at its start and, when its
+ * segment has a wind forecast, on the mean wind along it from its start time.
+ * The entries are keyed on the edge (identity), the cruise distance, the start
+ * mass quantized to a band and the mean wind; when the band is greater than
+ * zero the cruise is calculated with the center of the band, the distance
+ * rounded to the metre and the mean wind to the centimetre per second, so
+ * every mass of a band gets the same result. It is not thread-safe:
+ * each flight plan creates its own and discards it afterwards.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class EdgeCostCache {
+
+    /**
+     * The default mass band (kg).
+     */
+    public static final double DEFAULT_MASS_BAND = 10;
+
+    /**
+     * The mass band (kg), zero to keep the exact mass.
+     */
+    private final double massBand;
+
+    /**
+     * Read the cruises from the aircraft cruise surface.
+     */
+    private final boolean cruiseSurface;
+
+    /**
+     * The performance profile of the aircraft, compiled on the first miss if
+     * not given.
+     */
+    private PerformanceProfile profile;
+
+    /**
+     * The cruise surface of the aircraft, resolved on the first miss if the
+     * cruises are read from it.
+     */
+    private CruiseSurface surface;
+
+    /**
+     * The entries (consumption &amp; duration of the cruise).
+     */
+    private final Map<Key, double[]> entries = new HashMap<>();
+
+    /**
+     * Number of hits and misses.
+     */
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache with the default mass band, integrating the cruises.
+     */
+    public EdgeCostCache() {
+        this(DEFAULT_MASS_BAND, false);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param massBand the mass band (kg), zero to keep the exact mass
+     * @param cruiseSurface true to read the cruises from the aircraft cruise
+     * surface (see {@link CruiseSurface}) instead of integrating them
+     */
+    public EdgeCostCache(double massBand, boolean cruiseSurface) {
+        this(null, massBand, cruiseSurface);
+    }
+
+    /**
+     * Creates a cache for a compiled performance profile.
+     *
+     * @param profile the performance profile of the aircraft, null to compile
+     * it from the flight on the first miss
+     * @param massBand the mass band (kg), zero to keep the exact mass
+     * @param cruiseSurface true to read the cruises from the aircraft cruise
+     * surface (see {@link CruiseSurface}) instead of integrating them
+     */
+    public EdgeCostCache(PerformanceProfile profile, double massBand, boolean cruiseSurface) {
+
+        if (massBand < 0) {
+            throw new IllegalArgumentException("Invalid mass band.");
+        }
+        this.profile = profile;
+        this.massBand = massBand;
+        this.cruiseSurface = cruiseSurface;
+    }
+
+    /**
+     * Obtains the cruise over an edge, with the static wind of its segment,
+     * calculating it on a miss. The effective fuel of the flight is changed.
+     *
+     * @param flight the flight
+     * @param edge the edge
+     * @param cruiseDistance the distance flown in cruise (m)
+     * @param fuel the fuel at the start of the cruise (kg)
+     * @return a analysis with the duration &amp; consumption of the cruise
+     */
+    public AlgorithmAnalysis cruise(FlightSimulation flight, MapEdge<Coordinate, Segment> edge,
+            double cruiseDistance, double fuel) {
+        return cruise(flight, edge, cruiseDistance, fuel, Double.NaN);
+    }
+
+    /**
+     * Obtains the cruise over an edge started at a time, with the wind
+     * forecast of its segment if it has one, calculating it on a miss. The
+     * effective fuel of the flight is changed.
+     *
+     * @param flight the flight
+     * @param edge the edge
+     * @param cruiseDistance the distance flown in cruise (m)
+     * @param fuel the fuel at the start of the cruise (kg)
+     * @param time the time at the start of the cruise (s since the epoch),
+     * NaN for the static wind
+     * @return a analysis with the duration &amp; consumption of the cruise
+     */
+    public AlgorithmAnalysis cruise(FlightSimulation flight, MapEdge<Coordinate, Segment> edge,
+            double cruiseDistance, double fuel, double time) {
+
+        if (massBand > 0) {
+            fuel = (Math.floor(fuel / massBand) + 0.5) * massBand;
+            cruiseDistance = Math.rint(cruiseDistance);
+        }
+        // the mean wind of the forecast from the start of the cruise
+        boolean forecast = !Double.isNaN(time) && edge.getElement().getWindForecast() != null;
+        double wind = 0;
+        if (forecast) {
+            Motorization motorization = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization();
+            double tas = Calculus.calculateTAS(motorization.getCruiseAltitude(), motorization.getCruiseSpeed())
+                    .doubleValue(SI.METERS_PER_SECOND);
+            wind = Calculus.windComponent(edge.getElement(), edge.getVOrig(), edge.getVDest(), time,
+                    cruiseDistance, tas);
+            if (massBand > 0) {
+                wind = Math.rint(wind * 100) / 100;
+            }
+        }
+        Key key = new Key(edge, cruiseDistance, fuel, wind);
+
+        double[] result = entries.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+            if (profile == null) {
+                profile = PerformanceProfile.of(flight);
+            }
+            if (cruiseSurface && surface == null) {
+                surface = CruiseSurface.of(profile);
+            }
+            flight.setEffectiveFuel(Amount.valueOf(fuel, SI.KILOGRAM));
+            Amount<Length> virtualDist = forecast ? Calculus.virtualDistance(cruiseDistance, flight, wind)
+                    : Calculus.virtualDistance(cruiseDistance, flight, edge.getElement(), edge.getVOrig(),
+                            edge.getVDest());
+            AlgorithmAnalysis analysis = cruiseSurface ? surface.cruise(flight, virtualDist)
+                    : Calculus.calculateCruise(profile, flight, virtualDist, Calculus.INTEGRATION.FIXED_STEP);
+            result = new double[]{analysis.getConsumption().doubleValue(SI.KILOGRAM),
+                analysis.getDuration().doubleValue(SI.SECOND)};
+            entries.put(key, result);
+        }
+
+        return new AlgorithmAnalysis(Amount.valueOf(cruiseDistance, SI.METER),
+                Amount.valueOf(result[1], SI.SECOND),
+                Amount.valueOf(result[0], SI.KILOGRAM));
+    }
+
+    /**
+     * Obtains the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Obtains the number of hits.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Obtains the number of misses.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Key of an entry.
+     */
+    private static final class Key {
+
+        private final MapEdge<Coordinate, Segment> edge;
+        private final double cruiseDistance;
+        private final double fuel;
+        private final double wind;
+
+        Key(MapEdge<Coordinate, Segment> edge, double cruiseDistance, double fuel, double wind) {
+            this.edge = edge;
+            this.cruiseDistance = cruiseDistance;
+            this.fuel = fuel;
+            this.wind = wind;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + System.identityHashCode(edge);
+            hash = 41 * hash + Double.hashCode(cruiseDistance);
+            hash = 41 * hash + Double.hashCode(fuel);
+            hash = 41 * hash + Double.hashCode(wind);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+
+            return edge == other.edge
+                    && cruiseDistance == other.cruiseDistance
+                    && fuel == other.fuel
+                    && wind == other.wind;
+        }
+    }
+}
@@ -31,6 +31,21 @@ public interface FlightPlan {
      */
     Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight, LinkedList<Segment> flightplan) 
             throws Exception;
+
+    /**
+     * Generates the flight plan of a request, based on the algorithm's
+     * criteria. The flight simulated is the working copy of the context, so
+     * the caller's flight is not changed.
+     *
+     * @param context the request (air network, flight &amp; search state)
+     * @param flightplan the flight plan to insert
+     * @return the criteria total amount (distance, consumption, etc.)
+     * @throws java.lang.Exception
+     */
+    default Amount<?> generateFlightPlan(PlanningContext context, LinkedList<Segment> flightplan)
+            throws Exception {
+        return generateFlightPlan(context.getNetwork(), context.getFlight(), flightplan);
+    }
     
     /**
      * Obtains the algorithm description. 
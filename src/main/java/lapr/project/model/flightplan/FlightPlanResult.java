@@ -0,0 +1,142 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * The result of a flight plan algorithm run by the {@link FlightPlanService}:
+ * the flight plan and its criteria amount, or the exception thrown.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class FlightPlanResult {
+
+    /**
+     * The algorithm.
+     */
+    private final FlightPlan algorithm;
+
+    /**
+     * The copy of the flight simulated by the algorithm.
+     */
+    private final FlightSimulation flight;
+
+    /**
+     * The flight plan (empty if failed).
+     */
+    private final List<Segment> flightplan;
+
+    /**
+     * The criteria total amount (null if failed).
+     */
+    private final Amount<?> amount;
+
+    /**
+     * The exception thrown (null if successful).
+     */
+    private final Exception exception;
+
+    /**
+     * Duration of the run (ns).
+     */
+    private final long duration;
+
+    /**
+     * Creates a result.
+     *
+     * @param algorithm the algorithm
+     * @param flight the copy of the flight simulated
+     * @param flightplan the flight plan
+     * @param amount the criteria total amount, null if failed
+     * @param exception the exception thrown, null if successful
+     * @param duration the duration of the run (ns)
+     */
+    public FlightPlanResult(FlightPlan algorithm, FlightSimulation flight, LinkedList<Segment> flightplan,
+            Amount<?> amount, Exception exception, long duration) {
+        this.algorithm = algorithm;
+        this.flight = flight;
+        this.flightplan = Collections.unmodifiableList(flightplan);
+        this.amount = amount;
+        this.exception = exception;
+        this.duration = duration;
+    }
+
+    /**
+     * Obtains the algorithm.
+     *
+     * @return the algorithm
+     */
+    public FlightPlan getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Obtains the copy of the flight simulated by the algorithm (with the
+     * state it left it in).
+     *
+     * @return the flight
+     */
+    public FlightSimulation getFlight() {
+        return flight;
+    }
+
+    /**
+     * Obtains the flight plan.
+     *
+     * @return the segments of the flight plan, empty if failed
+     */
+    public List<Segment> getFlightplan() {
+        return flightplan;
+    }
+
+    /**
+     * Obtains the criteria total amount (distance, consumption, etc.).
+     *
+     * @return the amount, null if failed
+     */
+    public Amount<?> getAmount() {
+        return amount;
+    }
+
+    /**
+     * Obtains the exception thrown by the algorithm.
+     *
+     * @return the exception, null if successful
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * Verifies if the algorithm generated a flight plan.
+     *
+     * @return true if successful
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+
+    /**
+     * Obtains the duration of the run.
+     *
+     * @return the duration (ns)
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm.getDescription() + ": " + (isSuccessful() ? amount : exception);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Runs a set of flight plan algorithms for a flight in parallel, on a fork
+ * join pool, so comparing them takes as long as the slowest one.
+ *
+ * Every algorithm of a request reads the same snapshot of the air network (a
+ * copy taken when the request is made, never changed afterwards) and
+ * simulates its own copy of the flight in its own {@link PlanningContext},
+ * so the caller's network &amp; flight are left untouched. The algorithms keep
+ * their state in the context, so the same instances may serve any number of
+ * requests at once.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class FlightPlanService {
+
+    /**
+     * The pool running the algorithms.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a service running on the common pool.
+     */
+    public FlightPlanService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a service running on a pool.
+     *
+     * @param pool the pool
+     */
+    public FlightPlanService(ForkJoinPool pool) {
+
+        if (pool == null) {
+            throw new IllegalArgumentException("Invalid pool.");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a read-only snapshot of an air network, shared by the
+     * algorithms of a request (see {@link AirNetwork#snapshot()}): copies of
+     * the segments and the route index if it is ready. Its lazily built views
+     * are built before it is shared.
+     *
+     * @param network the air network
+     * @return the snapshot
+     */
+    public static AirNetwork snapshot(AirNetwork network) {
+
+        AirNetwork snapshot = network.snapshot();
+        snapshot.getNetwork().reverseView();
+        return snapshot;
+    }
+
+    /**
+     * Runs flight plan algorithms for a flight, in parallel. Each result is
+     * given to the listener as soon as its algorithm completes (in the pool
+     * thread that ran it); a failed algorithm gives a result with its
+     * exception, not failing the others.
+     *
+     * @param network the air network (a snapshot is taken)
+     * @param flight the flight (each algorithm simulates a copy)
+     * @param algorithms the algorithms
+     * @param listener the listener of each result, null if none
+     * @return the results, in the order of the algorithms, when all completed
+     */
+    public CompletableFuture<List<FlightPlanResult>> evaluate(AirNetwork network, FlightSimulation flight,
+            List<? extends FlightPlan> algorithms, Consumer<FlightPlanResult> listener) {
+
+        AirNetwork snapshot = snapshot(network);
+        List<CompletableFuture<FlightPlanResult>> runs = new ArrayList<>();
+        for (FlightPlan algorithm : algorithms) {
+            PlanningContext context = new PlanningContext(snapshot, flight);
+            CompletableFuture<FlightPlanResult> run
+                    = CompletableFuture.supplyAsync(() -> run(algorithm, context), pool);
+            if (listener != null) {
+                run = run.thenApply(result -> {
+                    listener.accept(result);
+                    return result;
+                });
+            }
+            runs.add(run);
+        }
+
+        return CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[runs.size()]))
+                .thenApply(done -> {
+                    List<FlightPlanResult> results = new ArrayList<>(runs.size());
+                    for (CompletableFuture<FlightPlanResult> run : runs) {
+                        results.add(run.join());
+                    }
+                    return results;
+                });
+    }
+
+    /**
+     * Runs an algorithm.
+     *
+     * @param algorithm the algorithm
+     * @param context the request, on the air network snapshot
+     * @return the result
+     */
+    private static FlightPlanResult run(FlightPlan algorithm, PlanningContext context) {
+
+        FlightSimulation flight = context.getFlight();
+        long start = System.nanoTime();
+        LinkedList<Segment> flightplan = new LinkedList<>();
+        try {
+            Amount<?> amount = algorithm.generateFlightPlan(context, flightplan);
+            return new FlightPlanResult(algorithm, flight, flightplan, amount, null, System.nanoTime() - start);
+        } catch (Exception ex) {
+            return new FlightPlanResult(algorithm, flight, new LinkedList<>(), null, ex, System.nanoTime() - start);
+        }
+    }
+}
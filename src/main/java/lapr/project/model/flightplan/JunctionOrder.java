@@ -0,0 +1,466 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the order in which the waypoints &amp; stops of a flight plan are
+ * visited, from the costs of the legs between them.
+ *
+ * The nodes are numbered in the leg cost matrix as: 0 the origin, 1 to n the
+ * junctions and n + 1 the destination. Up to {@link #HELD_KARP_JUNCTIONS}
+ * junctions the order is optimal (Held-Karp dynamic programming over the
+ * subsets of visited junctions); above that it starts from the nearest next
+ * junction order and improves it by 2-opt &amp; Or-opt moves until no move
+ * improves it or the time budget runs out.
+ *
+ * Optionally, the cost flown without visiting a refuel junction (a stop) may
+ * not exceed a budget (the fuel on board, which is reset at each stop).
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class JunctionOrder {
+
+    /**
+     * Maximum number of junctions ordered by dynamic programming.
+     */
+    public static final int HELD_KARP_JUNCTIONS = 12;
+
+    /**
+     * Default time budget of the heuristic ordering (milliseconds).
+     */
+    public static final long DEFAULT_TIME_BUDGET = 50;
+
+    /**
+     * Maximum length of the sequences moved by Or-opt.
+     */
+    private static final int OR_OPT_LENGTH = 3;
+
+    /**
+     * The leg costs, by node (infinity if there is no leg).
+     */
+    private final double[][] costs;
+
+    /**
+     * The number of junctions.
+     */
+    private final int numJunctions;
+
+    /**
+     * Junctions where the budget is reset.
+     */
+    private final boolean[] refuel;
+
+    /**
+     * Maximum cost between refuels.
+     */
+    private final double budget;
+
+    /**
+     * Creates an ordering without budget.
+     *
+     * @param costs the leg costs between the n + 2 nodes
+     */
+    public JunctionOrder(double[][] costs) {
+        this(costs, null, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Creates an ordering with a budget between refuels.
+     *
+     * @param costs the leg costs between the n + 2 nodes
+     * @param refuel the junctions where the budget is reset (null for none)
+     * @param budget the maximum cost between refuels
+     */
+    public JunctionOrder(double[][] costs, boolean[] refuel, double budget) {
+
+        if (costs.length < 2) {
+            throw new IllegalArgumentException("Missing origin or destination.");
+        }
+        for (double[] row : costs) {
+            if (row.length != costs.length) {
+                throw new IllegalArgumentException("Leg costs must be a square matrix.");
+            }
+        }
+        numJunctions = costs.length - 2;
+        if (refuel != null && refuel.length != numJunctions) {
+            throw new IllegalArgumentException("Invalid refuel junctions.");
+        }
+        if (!(budget > 0)) {
+            throw new IllegalArgumentException("Budget must be positive.");
+        }
+        this.costs = costs;
+        this.refuel = (refuel != null) ? refuel : new boolean[numJunctions];
+        this.budget = budget;
+    }
+
+    /**
+     * Obtains the number of junctions.
+     *
+     * @return the number of junctions
+     */
+    public int numJunctions() {
+        return numJunctions;
+    }
+
+    /**
+     * Finds the visiting order, with the default time budget.
+     *
+     * @return the junction indexes (0 to n - 1) in visiting order, null if
+     * every order misses a leg
+     */
+    public int[] solve() {
+        return solve(DEFAULT_TIME_BUDGET);
+    }
+
+    /**
+     * Finds the visiting order. Orders within budget are preferred; if there is
+     * none, the cheapest order is returned.
+     *
+     * @param timeBudget time budget of the heuristic ordering (milliseconds)
+     * @return the junction indexes (0 to n - 1) in visiting order, null if
+     * every order misses a leg
+     */
+    public int[] solve(long timeBudget) {
+
+        if (numJunctions <= HELD_KARP_JUNCTIONS) {
+            int[] order = heldKarp(true);
+            return (order != null) ? order : heldKarp(false);
+        }
+        int[] order = improve(nearestNext(), System.nanoTime() + timeBudget * 1000000L);
+        return (cost(order) < Double.POSITIVE_INFINITY) ? order : null;
+    }
+
+    /**
+     * Calculates the cost of visiting the junctions in an order.
+     *
+     * @param order the junction indexes in visiting order
+     * @return the cost, infinity if a leg is missing
+     */
+    public double cost(int[] order) {
+
+        double total = 0;
+        int previous = 0;
+        for (int junction : order) {
+            total += costs[previous][junction + 1];
+            previous = junction + 1;
+        }
+        return total + costs[previous][numJunctions + 1];
+    }
+
+    /**
+     * Verifies if an order keeps the cost between refuels within budget.
+     *
+     * @param order the junction indexes in visiting order
+     * @return true if it is within budget
+     */
+    public boolean withinBudget(int[] order) {
+        return excess(order) == 0;
+    }
+
+    /**
+     * Calculates how much the cost between refuels exceeds the budget, in
+     * total.
+     *
+     * @param order the junction indexes in visiting order
+     * @return the excess, 0 if within budget
+     */
+    private double excess(int[] order) {
+
+        if (budget == Double.POSITIVE_INFINITY) {
+            return 0;
+        }
+        double excess = 0;
+        double since = 0;
+        int previous = 0;
+        for (int junction : order) {
+            since += costs[previous][junction + 1];
+            if (refuel[junction]) {
+                excess += Math.max(0, since - budget);
+                since = 0;
+            }
+            previous = junction + 1;
+        }
+        since += costs[previous][numJunctions + 1];
+        return excess + Math.max(0, since - budget);
+    }
+
+    /**
+     * Held-Karp dynamic programming. Each state (visited junctions, last
+     * junction) keeps the labels (cost, cost since the last refuel) that no
+     * other label dominates; without budget there is one label per state.
+     *
+     * @param limited true to discard the labels over budget
+     * @return the optimal order, null if there is none
+     */
+    private int[] heldKarp(boolean limited) {
+
+        int n = numJunctions;
+        if (n == 0) {
+            return costs[0][1] < Double.POSITIVE_INFINITY ? new int[0] : null;
+        }
+        double limit = limited ? budget : Double.POSITIVE_INFINITY;
+        boolean tracked = limit < Double.POSITIVE_INFINITY;
+
+        @SuppressWarnings("unchecked")
+        List<Label>[] states = new List[(1 << n) * n];
+        for (int j = 0; j < n; j++) {
+            double cost = costs[0][j + 1];
+            if (cost <= limit) {
+                offer(states, (1 << j) * n + j, new Label(cost, tracked && !refuel[j] ? cost : 0, null, j));
+            }
+        }
+
+        // subsets in increasing order: every predecessor is final
+        for (int mask = 1; mask < (1 << n); mask++) {
+            for (int last = 0; last < n; last++) {
+                List<Label> labels = states[mask * n + last];
+                if (labels == null) {
+                    continue;
+                }
+                for (int j = 0; j < n; j++) {
+                    if ((mask & (1 << j)) != 0) {
+                        continue;
+                    }
+                    double leg = costs[last + 1][j + 1];
+                    for (Label label : labels) {
+                        double since = label.since + leg;
+                        if (since <= limit) {
+                            offer(states, (mask | (1 << j)) * n + j,
+                                    new Label(label.cost + leg, tracked && !refuel[j] ? since : 0, label, j));
+                        }
+                    }
+                }
+            }
+        }
+
+        Label best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int full = (1 << n) - 1;
+        for (int last = 0; last < n; last++) {
+            List<Label> labels = states[full * n + last];
+            if (labels == null) {
+                continue;
+            }
+            double leg = costs[last + 1][n + 1];
+            for (Label label : labels) {
+                if (label.since + leg <= limit && label.cost + leg < bestCost) {
+                    bestCost = label.cost + leg;
+                    best = label;
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        int[] order = new int[n];
+        for (int i = n - 1; best != null; i--) {
+            order[i] = best.junction;
+            best = best.previous;
+        }
+        return order;
+    }
+
+    /**
+     * Adds a label to a state unless another label dominates it, removing the
+     * labels it dominates.
+     *
+     * @param states the labels by state
+     * @param state the state index
+     * @param label the label to add
+     */
+    private static void offer(List<Label>[] states, int state, Label label) {
+
+        if (label.cost == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        List<Label> labels = states[state];
+        if (labels == null) {
+            labels = new ArrayList<>(1);
+            states[state] = labels;
+        }
+        for (int i = labels.size() - 1; i >= 0; i--) {
+            Label other = labels.get(i);
+            if (other.cost <= label.cost && other.since <= label.since) {
+                return;
+            }
+            if (label.cost <= other.cost && label.since <= other.since) {
+                labels.remove(i);
+            }
+        }
+        labels.add(label);
+    }
+
+    /**
+     * Orders the junctions by visiting the cheapest next junction each time.
+     *
+     * @return the junction indexes in visiting order
+     */
+    private int[] nearestNext() {
+
+        int[] order = new int[numJunctions];
+        boolean[] visited = new boolean[numJunctions];
+        int previous = 0;
+        for (int i = 0; i < numJunctions; i++) {
+            int next = -1;
+            for (int j = 0; j < numJunctions; j++) {
+                if (!visited[j] && (next < 0 || costs[previous][j + 1] < costs[previous][next + 1])) {
+                    next = j;
+                }
+            }
+            visited[next] = true;
+            order[i] = next;
+            previous = next + 1;
+        }
+        return order;
+    }
+
+    /**
+     * Improves an order by 2-opt (reversing a sequence) &amp; Or-opt (moving a
+     * sequence of up to three junctions) moves, taking the first move that
+     * improves it, until none does or the deadline passes. The costs may be
+     * asymmetric, so every move is evaluated over the whole order.
+     *
+     * @param order the initial order (changed)
+     * @param deadline the deadline ({@link System#nanoTime()})
+     * @return the improved order
+     */
+    private int[] improve(int[] order, long deadline) {
+
+        int n = order.length;
+        double bestExcess = excess(order);
+        double bestCost = cost(order);
+        int[] candidate = new int[n];
+
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+
+            // 2-opt
+            for (int i = 0; i < n - 1 && !improved; i++) {
+                for (int j = i + 1; j < n && !improved; j++) {
+                    System.arraycopy(order, 0, candidate, 0, n);
+                    for (int a = i, b = j; a < b; a++, b--) {
+                        int swap = candidate[a];
+                        candidate[a] = candidate[b];
+                        candidate[b] = swap;
+                    }
+                    improved = accept(candidate, bestExcess, bestCost);
+                }
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+            }
+
+            // Or-opt
+            for (int length = 1; length <= OR_OPT_LENGTH && !improved; length++) {
+                for (int i = 0; i + length <= n && !improved; i++) {
+                    for (int to = 0; to + length <= n && !improved; to++) {
+                        if (to == i) {
+                            continue;
+                        }
+                        move(order, i, length, to, candidate);
+                        improved = accept(candidate, bestExcess, bestCost);
+                    }
+                    if (System.nanoTime() >= deadline) {
+                        break;
+                    }
+                }
+            }
+
+            if (improved) {
+                int[] swap = order;
+                order = candidate;
+                candidate = swap;
+                bestExcess = excess(order);
+                bestCost = cost(order);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Verifies if an order is better than the best one: less over budget or,
+     * as much over budget, cheaper.
+     *
+     * @param order the order
+     * @param bestExcess the excess of the best order
+     * @param bestCost the cost of the best order
+     * @return true if it is better
+     */
+    private boolean accept(int[] order, double bestExcess, double bestCost) {
+
+        double excess = excess(order);
+        if (excess != bestExcess) {
+            return excess < bestExcess;
+        }
+        return cost(order) < bestCost;
+    }
+
+    /**
+     * Moves a sequence of an order to another position.
+     *
+     * @param order the order
+     * @param from the first position of the sequence
+     * @param length the length of the sequence
+     * @param to the first position of the sequence after the move
+     * @param moved the order after the move
+     */
+    private static void move(int[] order, int from, int length, int to, int[] moved) {
+
+        int[] rest = new int[order.length - length];
+        System.arraycopy(order, 0, rest, 0, from);
+        System.arraycopy(order, from + length, rest, from, order.length - from - length);
+        System.arraycopy(rest, 0, moved, 0, to);
+        System.arraycopy(order, from, moved, to, length);
+        System.arraycopy(rest, to, moved, to + length, rest.length - to);
+    }
+
+    /**
+     * A partial order in the dynamic programming.
+     */
+    private static class Label {
+
+        /**
+         * The cost from the origin.
+         */
+        private final double cost;
+
+        /**
+         * The cost since the last refuel.
+         */
+        private final double since;
+
+        /**
+         * The label of the previous junction (null at the first).
+         */
+        private final Label previous;
+
+        /**
+         * The last junction.
+         */
+        private final int junction;
+
+        /**
+         * Creates a label.
+         *
+         * @param cost the cost from the origin
+         * @param since the cost since the last refuel
+         * @param previous the label of the previous junction
+         * @param junction the last junction
+         */
+        Label(double cost, double since, Label previous, int junction) {
+            this.cost = cost;
+            this.since = since;
+            this.previous = previous;
+            this.junction = junction;
+        }
+    }
+
+}
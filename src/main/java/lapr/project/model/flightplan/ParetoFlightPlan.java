@@ -0,0 +1,146 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import javax.measure.unit.SI;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import lapr.project.utils.exceptions.FailedAnalysisException;
+import lapr.project.utils.graph.MapGraph;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Represents the flight plan of the Pareto frontier of a flight (see
+ * {@link ParetoSearch}) with the least value of a criterion. The views of a
+ * same search share its frontier, so the shortest, fastest &amp; most fuel
+ * efficient flight plans (and the trade-offs between them) come from one
+ * search.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class ParetoFlightPlan implements FlightPlan {
+
+    /**
+     * The search.
+     */
+    private final ParetoSearch search;
+
+    /**
+     * The criterion to minimize.
+     */
+    private final Criterion criterion;
+
+    /**
+     * Creates a view of a search.
+     *
+     * @param search the search
+     * @param criterion the criterion to minimize
+     */
+    public ParetoFlightPlan(ParetoSearch search, Criterion criterion) {
+
+        if (search == null || criterion == null) {
+            throw new IllegalArgumentException("Invalid search or criterion.");
+        }
+        this.search = search;
+        this.criterion = criterion;
+    }
+
+    /**
+     * Creates the views of every criterion of a new search.
+     *
+     * @param search the search
+     * @return the views (distance, time &amp; fuel)
+     */
+    public static ParetoFlightPlan[] views(ParetoSearch search) {
+
+        Criterion[] criteria = Criterion.values();
+        ParetoFlightPlan[] views = new ParetoFlightPlan[criteria.length];
+        for (int i = 0; i < criteria.length; i++) {
+            views[i] = new ParetoFlightPlan(search, criteria[i]);
+        }
+        return views;
+    }
+
+    /**
+     * Obtains the Pareto frontier of the flight plans of a flight.
+     *
+     * @param network The air network
+     * @param flight The selected flight
+     * @return the flight plans, by increasing distance
+     * @throws java.lang.Exception
+     */
+    public List<ParetoPlan> frontier(AirNetwork network, FlightSimulation flight) throws Exception {
+        return search.frontier(network, flight);
+    }
+
+    @Override
+    public Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight, LinkedList<Segment> flightplan)
+            throws Exception {
+        return generateFlightPlan(new PlanningContext(network, flight), flightplan);
+    }
+
+    @Override
+    public Amount<?> generateFlightPlan(PlanningContext context, LinkedList<Segment> flightplan) throws Exception {
+
+        ParetoPlan plan = ParetoSearch.extreme(search.frontier(context.getNetwork(), context.getFlight()), criterion);
+        if (plan == null || plan.getCoordinates().size() < 2) {
+            throw new FailedAnalysisException();
+        }
+        // Get segments from ordered coordinates.
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+        Iterator<Coordinate> it = plan.getCoordinates().iterator();
+        Coordinate first = it.next();
+        while (it.hasNext()) {
+
+            Coordinate second = it.next();
+
+            flightplan.add(graph.getEdge(first, second).getElement());
+
+            first = second;
+        }
+
+        switch (criterion) {
+            case DISTANCE:
+                return Amount.valueOf(plan.getDistance(), SI.METER);
+            case TIME:
+                return Amount.valueOf(plan.getTime(), SI.SECOND);
+            default:
+                return Amount.valueOf(plan.getFuel(), SI.KILOGRAM);
+        }
+    }
+
+    /**
+     * Obtains the criterion minimized.
+     *
+     * @return the criterion
+     */
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    @Override
+    public String getDescription() {
+        switch (criterion) {
+            case DISTANCE:
+                return "Pareto shortest Path";
+            case TIME:
+                return "Pareto fastest Path";
+            default:
+                return "Pareto fuel efficient Path";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import lapr.project.model.Coordinate;
+
+/**
+ * A flight plan of the Pareto frontier (see {@link ParetoSearch}), with its
+ * distance, time &amp; fuel burned.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class ParetoPlan {
+
+    /**
+     * The coordinates of the flight plan, in order.
+     */
+    private final List<Coordinate> coordinates;
+
+    /**
+     * Distance (m).
+     */
+    private final double distance;
+
+    /**
+     * Time (s).
+     */
+    private final double time;
+
+    /**
+     * Fuel burned (kg).
+     */
+    private final double fuel;
+
+    /**
+     * Creates a flight plan.
+     *
+     * @param coordinates the coordinates, in order
+     * @param distance the distance (m)
+     * @param time the time (s)
+     * @param fuel the fuel burned (kg)
+     */
+    public ParetoPlan(List<Coordinate> coordinates, double distance, double time, double fuel) {
+        this.coordinates = Collections.unmodifiableList(new LinkedList<>(coordinates));
+        this.distance = distance;
+        this.time = time;
+        this.fuel = fuel;
+    }
+
+    /**
+     * Obtains the coordinates of the flight plan.
+     *
+     * @return the coordinates, in order
+     */
+    public List<Coordinate> getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * Obtains the distance.
+     *
+     * @return the distance (m)
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Obtains the time.
+     *
+     * @return the time (s)
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Obtains the fuel burned.
+     *
+     * @return the fuel burned (kg)
+     */
+    public double getFuel() {
+        return fuel;
+    }
+
+    /**
+     * Obtains the value of a criterion.
+     *
+     * @param criterion the criterion
+     * @return the distance (m), time (s) or fuel burned (kg)
+     */
+    public double value(Criterion criterion) {
+        switch (criterion) {
+            case DISTANCE:
+                return distance;
+            case TIME:
+                return time;
+            default:
+                return fuel;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.0f m, %.0f s, %.0f kg", distance, time, fuel);
+    }
+}
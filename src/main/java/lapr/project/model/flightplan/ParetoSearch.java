@@ -0,0 +1,566 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Mass;
+import javax.measure.unit.SI;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.AlgorithmAnalysis;
+import lapr.project.model.Calculus;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightInfo;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Junction;
+import lapr.project.model.Motorization;
+import lapr.project.model.PerformanceProfile;
+import lapr.project.model.PhaseProfileCache;
+import lapr.project.model.Segment;
+import lapr.project.model.Stop;
+import lapr.project.utils.exceptions.InsufficientFuelException;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import static lapr.project.utils.graph.MapGraphAlgorithms.BFS;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Multi-criteria search of the flight plans of a flight: computes, in one
+ * pass, the Pareto frontier of the (distance, time, fuel burned) flight plans
+ * passing through all its waypoints &amp; stops, in any order.
+ *
+ * It is a label correcting search over the states (vertex, junctions
+ * visited). A label is a partial flight plan with its distance, time, fuel
+ * burned &amp; fuel remaining; the edges are flown as in the fastest path (a
+ * climb on the edges leaving the origin or a technical stop, otherwise a
+ * landing on the edges into a technical stop or the destination, and the
+ * cruise over the rest of the edge at the ground speed), the minimum stop
+ * time is added and the fuel reset to the initial fuel at the technical stops
+ * not yet visited, and the edges are only taken if the remaining fuel flies
+ * them. A label is discarded if another label of its state epsilon-dominates
+ * it (no more than (1 + epsilon) times its distance, time &amp; fuel burned,
+ * and no less fuel remaining), or if a flight plan already found does (in the
+ * three criteria): with epsilon greater than zero the frontier holds at most
+ * one plan per epsilon box, each within (1 + epsilon) of a plan it stands for.
+ *
+ * The frontier of the last flight is kept, so the views of each criterion
+ * (see {@link ParetoFlightPlan}) share one search. It is searched again when
+ * the network changes (a junction or segment added or removed, or the wind or
+ * altitude of a segment). Views asking for the frontier while it is searched
+ * wait for that search (a managed block, so the fork join pool keeps its
+ * parallelism) instead of searching it again.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class ParetoSearch {
+
+    /**
+     * The default epsilon of the dominance.
+     */
+    public static final double DEFAULT_EPSILON = 0.001;
+
+    /**
+     * Maximum number of waypoints &amp; stops (the states hold the visited
+     * ones).
+     */
+    public static final int MAX_JUNCTIONS = 16;
+
+    /**
+     * The epsilon of the dominance, zero for the exact frontier.
+     */
+    private final double epsilon;
+
+    /**
+     * Mass band (kg) of the edge cost cache.
+     */
+    private final double massBand;
+
+    /**
+     * The last search and its frontier.
+     */
+    private final AtomicReference<Frontier> last = new AtomicReference<>();
+
+    /**
+     * Creates a search with the default epsilon.
+     */
+    public ParetoSearch() {
+        this(DEFAULT_EPSILON, EdgeCostCache.DEFAULT_MASS_BAND);
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param epsilon the epsilon of the dominance, zero for the exact frontier
+     * @param massBand the mass band (kg) of the edge cost cache (see
+     * {@link EdgeCostCache})
+     */
+    public ParetoSearch(double epsilon, double massBand) {
+
+        if (epsilon < 0 || massBand < 0) {
+            throw new IllegalArgumentException("Invalid epsilon or mass band.");
+        }
+        this.epsilon = epsilon;
+        this.massBand = massBand;
+    }
+
+    /**
+     * Obtains the Pareto frontier of the flight plans of a flight, reusing the
+     * last one if the network (with the same segments, winds &amp;
+     * altitudes), the flight info, the fuel &amp; the cargo are the same (so
+     * the copies of a flight share it).
+     *
+     * @param network the air network
+     * @param flight the flight (its fuel is the initial fuel; never changed)
+     * @return the flight plans, by increasing distance (empty if none)
+     * @throws InsufficientFuelException if there are flight plans, but the
+     * fuel on board flies none of them
+     */
+    public List<ParetoPlan> frontier(AirNetwork network, FlightSimulation flight)
+            throws InsufficientFuelException {
+
+        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+        // the search changes the fuel of its copy, the caller's flight is never changed
+        FlightSimulation copy = new FlightSimulation(flight);
+        Frontier frontier = new Frontier(graph, copy);
+        while (true) {
+            Frontier current = last.get();
+            if (current != null && current.isFor(frontier)) {
+                return current.join();
+            }
+            if (last.compareAndSet(current, frontier)) {
+                break;
+            }
+        }
+
+        try {
+            frontier.plans.complete(search(graph, copy));
+        } catch (InsufficientFuelException | RuntimeException ex) {
+            frontier.plans.completeExceptionally(ex);
+        }
+        return frontier.join();
+    }
+
+    /**
+     * Forgets the last frontier.
+     */
+    public void clear() {
+        last.set(null);
+    }
+
+    /**
+     * Obtains the flight plan of a frontier with the least value of a
+     * criterion (ties broken by the other criteria).
+     *
+     * @param frontier the frontier
+     * @param criterion the criterion
+     * @return the flight plan, null if the frontier is empty
+     */
+    public static ParetoPlan extreme(List<ParetoPlan> frontier, Criterion criterion) {
+
+        ParetoPlan best = null;
+        for (ParetoPlan plan : frontier) {
+            if (best == null || plan.value(criterion) < best.value(criterion)
+                    || (plan.value(criterion) == best.value(criterion)
+                    && plan.getDistance() + plan.getTime() + plan.getFuel()
+                    < best.getDistance() + best.getTime() + best.getFuel())) {
+                best = plan;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Searches the frontier.
+     *
+     * @param graph the air network
+     * @param flight the flight
+     * @return the flight plans, by increasing distance
+     * @throws InsufficientFuelException if the fuel on board flies none of
+     * the flight plans
+     */
+    private List<ParetoPlan> search(MapGraph<Coordinate, Segment> graph, FlightSimulation flight)
+            throws InsufficientFuelException {
+
+        Coordinate vOrig = flight.getFlightInfo().getOriginAirport().getCoordinates();
+        Coordinate vDest = flight.getFlightInfo().getDestinationAirport().getCoordinates();
+        List<ParetoPlan> plans = new ArrayList<>();
+        if (!graph.validVertex(vOrig) || !graph.validVertex(vDest)) {
+            return plans;
+        }
+
+        List<Junction> junctions = new ArrayList<>();
+        junctions.addAll(flight.getFlightInfo().getWaypoints());
+        junctions.addAll(flight.getFlightInfo().getStops());
+        if (junctions.size() > MAX_JUNCTIONS) {
+            throw new IllegalArgumentException("Too many waypoints & stops.");
+        }
+        Object[] vertices = graph.allkeyVerts(); // vertices by key
+        int[] junctionAt = new int[vertices.length];
+        Arrays.fill(junctionAt, -1);
+        for (int i = 0; i < junctions.size(); i++) {
+            if (!graph.validVertex(junctions.get(i).getCoordinate())) {
+                return plans;
+            }
+            junctionAt[graph.getKey(junctions.get(i).getCoordinate())] = i;
+        }
+        int allVisited = (1 << junctions.size()) - 1;
+
+        double refuel = flight.getEffectiveFuel().doubleValue(SI.KILOGRAM);
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        Motorization motorization = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization();
+        double tas = Calculus.calculateTAS(motorization.getCruiseAltitude(), motorization.getCruiseSpeed())
+                .doubleValue(SI.METERS_PER_SECOND);
+        EdgeCostCache cache = new EdgeCostCache(profile, massBand, false);
+        Map<Long, List<Label>> labels = new HashMap<>();
+        List<Label> found = new ArrayList<>();
+        PriorityQueue<Label> heap = new PriorityQueue<>();
+        boolean exhausted = false;
+
+        int origKey = graph.getKey(vOrig);
+        int destKey = graph.getKey(vDest);
+        Label origin = new Label(origKey, visit(0, junctionAt[origKey]), 0, 0, 0, refuel, null);
+        offer(labels, origin);
+        heap.add(origin);
+        while (!heap.isEmpty()) {
+            Label label = heap.poll();
+            if (label.pruned) {
+                continue;
+            }
+            if (dominated(found, label)) {
+                continue;
+            }
+            if (label.key == destKey && label.visited == allVisited) {
+                found.add(label);
+                continue;
+            }
+            Coordinate vert = (Coordinate) vertices[label.key];
+
+            // climb when leaving the origin or a technical stop
+            AlgorithmAnalysis climb = null;
+            if (label.key == origKey || isStop(junctions, junctionAt[label.key])) {
+                flight.setEffectiveFuel(Amount.valueOf(label.fuel, SI.KILOGRAM));
+                climb = PhaseProfileCache.SHARED.climb(profile, flight, airportAltitude(flight, vert));
+            }
+
+            for (MapEdge<Coordinate, Segment> edge : graph.outgoingEdges(vert)) {
+                int adjKey = graph.getKey(edge.getVDest());
+                int junction = junctionAt[adjKey];
+
+                // otherwise land at a technical stop or the destination
+                AlgorithmAnalysis phase = climb;
+                if (phase == null && (adjKey == destKey || isStop(junctions, junction))) {
+                    flight.setEffectiveFuel(Amount.valueOf(label.fuel, SI.KILOGRAM));
+                    phase = PhaseProfileCache.SHARED.landing(profile, flight,
+                            airportAltitude(flight, edge.getVDest()));
+                }
+                // cruise at the ground speed, as in the fastest path
+                double groundSpeed = tas + Calculus.windComponent(edge.getElement(), edge.getVOrig(),
+                        edge.getVDest());
+                if (groundSpeed <= 0) {
+                    continue;
+                }
+                double consumption = 0;
+                double duration = 0;
+                double cruiseDistance = edge.getWeight();
+                if (phase != null) {
+                    consumption = phase.getConsumption().doubleValue(SI.KILOGRAM);
+                    duration = phase.getDuration().doubleValue(SI.SECOND);
+                    cruiseDistance = Math.max(0, cruiseDistance - phase.getDistance().doubleValue(SI.METER));
+                }
+                AlgorithmAnalysis cruise = cache.cruise(flight, edge, cruiseDistance,
+                        label.fuel - ((climb != null) ? consumption : 0));
+                consumption += cruise.getConsumption().doubleValue(SI.KILOGRAM);
+                duration += cruiseDistance / groundSpeed;
+
+                double fuel = label.fuel - consumption;
+                if (fuel < 0) {
+                    exhausted = true;
+                    continue;
+                }
+                // refuel at the technical stops not yet visited, after their minimum time
+                if (isStop(junctions, junction) && (label.visited & (1 << junction)) == 0) {
+                    fuel = refuel;
+                    duration += ((Stop) junctions.get(junction)).getMinimumStopMinutes().doubleValue(SI.SECOND);
+                }
+                Label next = new Label(adjKey, visit(label.visited, junction),
+                        label.distance + edge.getWeight(), label.time + duration, label.burned + consumption,
+                        fuel, label);
+                if (!dominated(found, next) && offer(labels, next)) {
+                    heap.add(next);
+                }
+            }
+        }
+
+        if (found.isEmpty() && exhausted && BFS(graph, vOrig).contains(vDest)) {
+            throw new InsufficientFuelException(vOrig.getId() + " - " + vDest.getId());
+        }
+        for (Label label : found) {
+            if (!label.pruned) {
+                LinkedList<Coordinate> coordinates = new LinkedList<>();
+                for (Label previous = label; previous != null; previous = previous.previous) {
+                    coordinates.addFirst((Coordinate) vertices[previous.key]);
+                }
+                plans.add(new ParetoPlan(coordinates, label.distance, label.time, label.burned));
+            }
+        }
+        plans.sort((plan, other) -> Double.compare(plan.getDistance(), other.getDistance()));
+        return plans;
+    }
+
+    /**
+     * Marks a junction as visited.
+     *
+     * @param visited the visited junctions
+     * @param junction the junction index, -1 if none
+     * @return the visited junctions
+     */
+    private static int visit(int visited, int junction) {
+        return (junction < 0) ? visited : visited | (1 << junction);
+    }
+
+    /**
+     * Verifies if a junction is a technical stop.
+     *
+     * @param junctions the waypoints &amp; stops
+     * @param junction the junction index, -1 if none
+     * @return true if it is a technical stop
+     */
+    private static boolean isStop(List<Junction> junctions, int junction) {
+        return junction >= 0 && junctions.get(junction) instanceof Stop;
+    }
+
+    /**
+     * Obtains the altitude of the airport at a vertex (the origin, the
+     * destination or a technical stop).
+     *
+     * @param flight the flight
+     * @param coordinate the vertex
+     * @return the altitude, zero if there is no airport
+     */
+    private static Amount<Length> airportAltitude(FlightSimulation flight, Coordinate coordinate) {
+
+        FlightInfo info = flight.getFlightInfo();
+        if (coordinate.equals(info.getOriginAirport().getCoordinates())) {
+            return info.getOriginAirport().getAltitude();
+        }
+        if (coordinate.equals(info.getDestinationAirport().getCoordinates())) {
+            return info.getDestinationAirport().getAltitude();
+        }
+        for (Stop stop : info.getStops()) {
+            if (coordinate.equals(stop.getCoordinate())) {
+                return stop.getAirport().getAltitude();
+            }
+        }
+        return Amount.valueOf(0d, SI.METER);
+    }
+
+    /**
+     * Adds a label to the labels of its state, unless one of them
+     * epsilon-dominates it; the labels it epsilon-dominates are pruned.
+     *
+     * @param labels the labels by state
+     * @param label the new label
+     * @return true if the label was added
+     */
+    private boolean offer(Map<Long, List<Label>> labels, Label label) {
+
+        long state = ((long) label.key << MAX_JUNCTIONS) | label.visited;
+        List<Label> stateLabels = labels.get(state);
+        if (stateLabels == null) {
+            stateLabels = new ArrayList<>(1);
+            labels.put(state, stateLabels);
+        }
+        for (int i = stateLabels.size() - 1; i >= 0; i--) {
+            Label other = stateLabels.get(i);
+            if (other.dominates(label, epsilon) && other.fuel >= label.fuel) {
+                return false;
+            }
+            if (label.dominates(other, 0) && label.fuel >= other.fuel) {
+                other.pruned = true;
+                stateLabels.remove(i);
+            }
+        }
+        stateLabels.add(label);
+        return true;
+    }
+
+    /**
+     * Verifies if a flight plan found epsilon-dominates a label.
+     *
+     * @param found the flight plans found
+     * @param label the label
+     * @return true if the label is dominated
+     */
+    private boolean dominated(List<Label> found, Label label) {
+
+        for (Label plan : found) {
+            if (!plan.pruned && plan.dominates(label, epsilon)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A search (the network, its segment winds &amp; altitudes, the flight
+     * info, the initial fuel &amp; cargo) and its frontier, when found.
+     */
+    private static class Frontier {
+
+        /**
+         * The network &amp; its modification count.
+         */
+        private final MapGraph<Coordinate, Segment> graph;
+        private final int modifications;
+
+        /**
+         * The wind intensity, wind direction, wind forecast &amp; altitude of
+         * each segment.
+         */
+        private final Object[] winds;
+
+        /**
+         * The flight info, initial fuel &amp; cargo.
+         */
+        private final FlightInfo flightInfo;
+        private final Amount<Mass> fuel;
+        private final Amount<Mass> cargo;
+
+        /**
+         * The flight plans.
+         */
+        private final CompletableFuture<List<ParetoPlan>> plans = new CompletableFuture<>();
+
+        Frontier(MapGraph<Coordinate, Segment> graph, FlightSimulation flight) {
+            this.graph = graph;
+            this.modifications = graph.getModificationCount();
+            this.winds = new Object[4 * graph.numEdges()];
+            int i = 0;
+            for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+                Segment segment = edge.getElement();
+                winds[i++] = segment.getWindIntensity();
+                winds[i++] = segment.getWindDirection();
+                winds[i++] = segment.getWindForecast();
+                winds[i++] = segment.getAltitude();
+            }
+            this.flightInfo = flight.getFlightInfo();
+            this.fuel = flight.getEffectiveFuel();
+            this.cargo = flight.getEffectiveCargo();
+        }
+
+        /**
+         * Verifies if this is the search of another one.
+         *
+         * @param other the other search
+         * @return true if the frontier is the same
+         */
+        boolean isFor(Frontier other) {
+            return graph == other.graph && modifications == other.modifications
+                    && flightInfo == other.flightInfo && Objects.equals(fuel, other.fuel)
+                    && Objects.equals(cargo, other.cargo) && Arrays.equals(winds, other.winds);
+        }
+
+        /**
+         * Obtains the flight plans, waiting for the search.
+         *
+         * @return the flight plans
+         * @throws InsufficientFuelException if the fuel on board flies none of
+         * the flight plans
+         */
+        List<ParetoPlan> join() throws InsufficientFuelException {
+            try {
+                return plans.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof InsufficientFuelException) {
+                    throw (InsufficientFuelException) ex.getCause();
+                }
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * A partial flight plan of the search.
+     */
+    private static class Label implements Comparable<Label> {
+
+        /**
+         * Key of the last vertex.
+         */
+        private final int key;
+
+        /**
+         * The junctions visited (a bit per junction).
+         */
+        private final int visited;
+
+        /**
+         * Distance (m), time (s) &amp; fuel burned (kg).
+         */
+        private final double distance;
+        private final double time;
+        private final double burned;
+
+        /**
+         * Remaining fuel (kg).
+         */
+        private final double fuel;
+
+        /**
+         * The label of the previous vertex (null at the origin).
+         */
+        private final Label previous;
+
+        /**
+         * Dominated by a later label.
+         */
+        private boolean pruned;
+
+        Label(int key, int visited, double distance, double time, double burned, double fuel,
+                Label previous) {
+            this.key = key;
+            this.visited = visited;
+            this.distance = distance;
+            this.time = time;
+            this.burned = burned;
+            this.fuel = fuel;
+            this.previous = previous;
+        }
+
+        /**
+         * Verifies if this label is within (1 + epsilon) of another in every
+         * criterion.
+         *
+         * @param other the other label
+         * @param epsilon the epsilon
+         * @return true if it epsilon-dominates the other label
+         */
+        boolean dominates(Label other, double epsilon) {
+            return distance <= (1 + epsilon) * other.distance
+                    && time <= (1 + epsilon) * other.time
+                    && burned <= (1 + epsilon) * other.burned;
+        }
+
+        @Override
+        public int compareTo(Label other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import javax.measure.quantity.Mass;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.GreatCircleHeuristic;
+import lapr.project.model.PerformanceProfile;
+import lapr.project.model.Segment;
+import lapr.project.utils.graph.ArrivalTimeFunction;
+import lapr.project.utils.graph.ContractionHierarchy;
+import lapr.project.utils.graph.EdgeWeights;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * The state of one flight plan request: the air network, a working copy of
+ * the flight (whose fuel the searches change, the caller's flight is never
+ * changed), the time the flight reaches the vertex being searched from (for
+ * the segments with a wind forecast) and the caches of the searches. The algorithms keep no state of
+ * their own, so one algorithm instance serves any number of requests at
+ * once, each with its own context.
+ *
+ * A context is not thread-safe: it belongs to one request.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class PlanningContext {
+
+    /**
+     * The air network.
+     */
+    private final AirNetwork network;
+
+    /**
+     * The working copy of the flight.
+     */
+    private final FlightSimulation flight;
+
+    /**
+     * The fuel of the flight at the origin.
+     */
+    private final Amount<Mass> initialFuel;
+
+    /**
+     * Route index of the air network, if built when the request was made.
+     */
+    private final ContractionHierarchy<Coordinate, Segment> routeIndex;
+
+    /**
+     * The time the flight reaches the vertex being searched from (s since the
+     * epoch).
+     */
+    private double time;
+
+    /**
+     * Some segment of the air network has a wind forecast (null until
+     * verified).
+     */
+    private Boolean windForecasts;
+
+    /**
+     * Arrival times over the edges, if their costs depend on the time.
+     */
+    private ArrivalTimeFunction<Coordinate, Segment> arrivalTimes;
+
+    /**
+     * Weights of the edges searched, if not their distances.
+     */
+    private EdgeWeights<Coordinate, Segment> edgeWeights;
+
+    /**
+     * The performance profile of the aircraft of the flight, compiled on first
+     * use.
+     */
+    private PerformanceProfile profile;
+
+    /**
+     * Heuristic of the searches (A*).
+     */
+    private GreatCircleHeuristic heuristic;
+
+    /**
+     * The cruises over the edges.
+     */
+    private EdgeCostCache edgeCosts;
+
+    /**
+     * Creates the context of a request.
+     *
+     * @param network the air network
+     * @param flight the flight (copied)
+     */
+    public PlanningContext(AirNetwork network, FlightSimulation flight) {
+
+        if (network == null || flight == null) {
+            throw new IllegalArgumentException("Invalid network or flight.");
+        }
+        this.network = network;
+        this.flight = new FlightSimulation(flight);
+        this.initialFuel = flight.getEffectiveFuel();
+        this.routeIndex = network.getReadyRouteIndex();
+        this.time = (flight.getDepartureDate() == null) ? 0d : flight.getDepartureDate().getTimeInMillis() / 1000d;
+    }
+
+    /**
+     * Obtains the air network.
+     *
+     * @return the air network
+     */
+    public AirNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * Obtains the graph of the air network.
+     *
+     * @return the graph
+     */
+    public MapGraph<Coordinate, Segment> getGraph() {
+        return network.getNetwork();
+    }
+
+    /**
+     * Obtains the working copy of the flight.
+     *
+     * @return the flight
+     */
+    public FlightSimulation getFlight() {
+        return flight;
+    }
+
+    /**
+     * Obtains the fuel of the flight at the origin.
+     *
+     * @return the initial fuel
+     */
+    public Amount<Mass> getInitialFuel() {
+        return initialFuel;
+    }
+
+    /**
+     * Obtains the route index of the air network.
+     *
+     * @return the route index, null if not built when the request was made
+     */
+    public ContractionHierarchy<Coordinate, Segment> getRouteIndex() {
+        return routeIndex;
+    }
+
+    /**
+     * Obtains the performance profile of the aircraft of the flight, compiled
+     * once for the request.
+     *
+     * @return the performance profile
+     */
+    public PerformanceProfile getProfile() {
+
+        if (profile == null) {
+            profile = PerformanceProfile.of(flight);
+        }
+        return profile;
+    }
+
+    /**
+     * Obtains the time the flight reaches the vertex being searched from,
+     * initially its departure date.
+     *
+     * @return the time (s since the epoch)
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Sets the time the flight reaches the vertex being searched from.
+     *
+     * @param time the time (s since the epoch)
+     */
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    /**
+     * Verifies if some segment of the air network has a wind forecast, so the
+     * edge costs depend on the time they are flown.
+     *
+     * @return true if some segment has a wind forecast
+     */
+    public boolean hasWindForecasts() {
+
+        if (windForecasts == null) {
+            windForecasts = false;
+            for (MapEdge<Coordinate, Segment> edge : getGraph().edges()) {
+                if (edge.getElement().getWindForecast() != null) {
+                    windForecasts = true;
+                    break;
+                }
+            }
+        }
+        return windForecasts;
+    }
+
+    /**
+     * Obtains the arrival times over the edges searched.
+     *
+     * @return the arrival times, null if not set
+     */
+    public ArrivalTimeFunction<Coordinate, Segment> getArrivalTimes() {
+        return arrivalTimes;
+    }
+
+    /**
+     * Sets the arrival times over the edges searched.
+     *
+     * @param arrivalTimes the arrival times
+     */
+    public void setArrivalTimes(ArrivalTimeFunction<Coordinate, Segment> arrivalTimes) {
+        this.arrivalTimes = arrivalTimes;
+    }
+
+    /**
+     * Obtains the weights of the edges searched.
+     *
+     * @return the edge weights, null if not set
+     */
+    public EdgeWeights<Coordinate, Segment> getEdgeWeights() {
+        return edgeWeights;
+    }
+
+    /**
+     * Sets the weights of the edges searched.
+     *
+     * @param edgeWeights the edge weights
+     */
+    public void setEdgeWeights(EdgeWeights<Coordinate, Segment> edgeWeights) {
+        this.edgeWeights = edgeWeights;
+    }
+
+    /**
+     * Obtains the heuristic of the searches.
+     *
+     * @return the heuristic, null if not set
+     */
+    public GreatCircleHeuristic getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Sets the heuristic of the searches.
+     *
+     * @param heuristic the heuristic
+     */
+    public void setHeuristic(GreatCircleHeuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Obtains the cruises over the edges.
+     *
+     * @return the edge cost cache, null if not set
+     */
+    public EdgeCostCache getEdgeCosts() {
+        return edgeCosts;
+    }
+
+    /**
+     * Sets the cruises over the edges.
+     *
+     * @param edgeCosts the edge cost cache
+     */
+    public void setEdgeCosts(EdgeCostCache edgeCosts) {
+        this.edgeCosts = edgeCosts;
+    }
+}
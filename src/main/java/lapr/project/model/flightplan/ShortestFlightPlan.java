@@ -4,15 +4,25 @@
 package lapr.project.model.flightplan;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 import javax.measure.quantity.Mass;
-import javax.measure.unit.SI;
+import lapr.project.model.AirNetwork;
 import lapr.project.model.Coordinate;
 import lapr.project.model.FlightSimulation;
+import lapr.project.model.GreatCircleHeuristic;
 import lapr.project.model.Junction;
 import lapr.project.model.Segment;
 import lapr.project.utils.exceptions.InsufficientFuelException;
+import lapr.project.utils.graph.CostMatrix;
+import lapr.project.utils.graph.EdgeWeightFunction;
+import lapr.project.utils.graph.KShortestPaths;
 import lapr.project.utils.graph.MapGraph;
 import org.jscience.physics.amount.Amount;
 
@@ -20,6 +30,9 @@ import org.jscience.physics.amount.Amount;
  * Abstract class to represent shortest flight plan (example distance, time,
  * etc.).
  *
+ * The algorithms keep no state between calls: the state of a request lives
+ * in its {@link PlanningContext}, so an instance serves concurrent requests.
+ *
  * @author Daniel Gonçalves - 1151452
  * @author Eric Amaral - 1141570
  * @author Ivo Ferro - 1151159
@@ -27,6 +40,22 @@ import org.jscience.physics.amount.Amount;
  */
 public abstract class ShortestFlightPlan implements FlightPlan {
 
+    /**
+     * Number of waypoints &amp; stops from which the static leg costs are
+     * computed once, to choose the visiting order (see {@link JunctionOrder}).
+     */
+    public static final int COST_MATRIX_JUNCTIONS = 2;
+
+    @Override
+    public Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight, LinkedList<Segment> flightplan)
+            throws Exception {
+        return generateFlightPlan(new PlanningContext(network, flight), flightplan);
+    }
+
+    @Override
+    public abstract Amount<?> generateFlightPlan(PlanningContext context, LinkedList<Segment> flightplan)
+            throws Exception;
+
     /**
      * Adds weight to path if any alteration is need when passing a waypoint or
      * a stop.
@@ -40,25 +69,88 @@ public abstract class ShortestFlightPlan implements FlightPlan {
      * Preformes an action to the flight at a stop.
      *
      * @param junction the junction to analyse
-     * @param flight the flight to preforme the action
+     * @param context the request (its flight to preforme the action)
+     */
+    protected abstract void actionAtStop(Junction junction, PlanningContext context);
+
+    /**
+     * Verifies if the cost of a leg only depends on its ends (not on the
+     * state of the flight), so all the legs can be computed at once, in a
+     * cost matrix.
+     *
+     * @param context the request
+     * @return true if the leg costs are static
      */
-    protected abstract void actionAtStop(Junction junction, FlightSimulation flight);
+    protected boolean staticLegCosts(PlanningContext context) {
+        return false;
+    }
 
-    protected abstract double pathAlgorithm(MapGraph<Coordinate, Segment> network, Coordinate vOrig, Coordinate vDest,
-            LinkedList<Coordinate> efficientPath, FlightSimulation flight, List<Junction> junctions)
-            throws InsufficientFuelException;
+    /**
+     * Obtains the weights of the edges searched by the cost matrix of static
+     * leg costs (see {@link #staticLegCosts(PlanningContext)}).
+     *
+     * @param context the request
+     * @return the edge weights, null for the weights of the edges
+     */
+    protected EdgeWeightFunction<Coordinate, Segment> legWeights(PlanningContext context) {
+        return null;
+    }
 
     /**
-     * Calculates the shortest path passing through all waypoints & stops.
+     * Obtains the heuristic of the searches over the
+     * {@link #legWeights(PlanningContext)}, built on the first search of the
+     * request.
      *
-     * @param graph the airnetwork
-     * @param flight the flight to simulate
+     * @param context the request
+     * @return the heuristic, null if none
+     */
+    protected GreatCircleHeuristic legHeuristic(PlanningContext context) {
+        return null;
+    }
+
+    /**
+     * Prepares the context of a request before its searches (by default,
+     * nothing).
+     *
+     * @param context the request
+     */
+    protected void prepare(PlanningContext context) {
+        // nothing to prepare
+    }
+
+    /**
+     * Calculates the path of least cost between two vertices, departing at
+     * the time of the context.
+     *
+     * @param context the request (its flight is simulated and, on a path, its
+     * time set to the arrival)
+     * @param vOrig the origin
+     * @param vDest the destination
+     * @param efficientPath list to fill with the path (in order)
+     * @param junctions the waypoints &amp; stops still to visit
+     * @return the cost, -1 if there is no path
+     * @throws InsufficientFuelException if there are paths, but the fuel on
+     * board flies none of them
+     */
+    protected abstract double pathAlgorithm(PlanningContext context, Coordinate vOrig, Coordinate vDest,
+            LinkedList<Coordinate> efficientPath, List<Junction> junctions) throws InsufficientFuelException;
+
+    /**
+     * Calculates the shortest path passing through all waypoints & stops,
+     * visited in the order of least total cost when the leg costs are static,
+     * otherwise nearest first (the leg costs depend on the state of the flight
+     * at the start of each leg).
+     *
+     * @param context the request (its flight is simulated)
      * @param shortestPath list of coordinates that form the flight plan
      * @return the distance (meters, time, etc.)
      * @throws lapr.project.utils.exceptions.InsufficientFuelException
      */
-    protected double shortestFlightPlan(MapGraph<Coordinate, Segment> graph, FlightSimulation flight,
-            LinkedList<Coordinate> shortestPath) throws InsufficientFuelException {
+    protected double shortestFlightPlan(PlanningContext context, LinkedList<Coordinate> shortestPath)
+            throws InsufficientFuelException {
+
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+        FlightSimulation flight = context.getFlight();
 
         Coordinate vOrig = flight.getFlightInfo().getOriginAirport().getCoordinates();
         Coordinate vDest = flight.getFlightInfo().getDestinationAirport().getCoordinates();
@@ -67,16 +159,9 @@ public abstract class ShortestFlightPlan implements FlightPlan {
             return -1d;
         }
 
-        // List all obrigatory coordinates
-        List<Junction> junctions = new ArrayList();
-        junctions.addAll(flight.getFlightInfo().getWaypoints());
-        junctions.addAll(flight.getFlightInfo().getStops());
-
-        // Verify if all coords are in graph
-        for (Junction junction : junctions) {
-            if (!graph.validVertex(junction.getCoordinate())) {
-                return -1d;
-            }
+        List<Junction> junctions = junctions(graph, flight);
+        if (junctions == null) {
+            return -1d;
         }
 
         double totalDist = 0;
@@ -84,46 +169,67 @@ public abstract class ShortestFlightPlan implements FlightPlan {
         shortestPath.add(vOrig); // add first vert (origin)
         Coordinate currentVert = vOrig; // start from origin
 
-        while (!junctions.isEmpty()) {
-
-            LinkedList<Coordinate> pathToNextVert = new LinkedList<>();
-            double minDist = Double.POSITIVE_INFINITY;
-            Junction nextVert = new Coordinate(); // Placeholder (to avoid null dereferencing)
-            Amount<Mass> nextFuel = Amount.valueOf(0d, SI.KILOGRAM);
-            Amount<Mass> currentFuel = flight.getEffectiveFuel();
-            for (Junction junction : junctions) {
+        // Static leg costs (rows: origin & junctions, columns: junctions &
+        // destination) and best visiting order of the junctions; otherwise
+        // the nearest junction from the state of the flight is visited next
+        int n = junctions.size();
+        CostMatrix<Coordinate, Segment> legs = null;
+        int[] order = null;
+        if (n >= COST_MATRIX_JUNCTIONS && staticLegCosts(context)) {
+            double[][] costs = emptyCosts(n);
+            // one search per junction, paths only of the chosen legs
+            legs = staticLegs(context, vOrig, vDest, junctions, costs);
+            order = new JunctionOrder(costs).solve();
+            if (order == null) {
+                return -1d;
+            }
+        }
 
-                flight.setEffectiveFuel(currentFuel);
+        // realize the legs (not yet visited junctions still ahead)
+        List<Junction> remaining = new ArrayList<>(junctions);
+        int currentRow = 0;
+        for (int visit = 0; visit < n; visit++) {
 
-                LinkedList<Coordinate> temp = new LinkedList<>();
-                double dist = pathAlgorithm(graph, currentVert, junction.getCoordinate(), temp, flight, junctions);
-                if (dist > 0 && dist < minDist) {
-                    nextFuel = flight.getEffectiveFuel();
-                    minDist = dist;
-                    pathToNextVert = temp;
-                    nextVert = junction;
+            Junction nextVert;
+            LinkedList<Coordinate> pathToNextVert;
+            double dist;
+            if (legs != null) {
+                int next = order[visit];
+                nextVert = junctions.get(next);
+                pathToNextVert = new LinkedList<>();
+                dist = legs.path(currentRow, next, pathToNextVert);
+                currentRow = next + 1;
+            } else {
+                Leg leg = nearestLeg(context, currentVert, remaining);
+                if (leg == null) {
+                    return -1d;
                 }
+                nextVert = leg.junction;
+                pathToNextVert = leg.path;
+                dist = leg.cost;
+                // state of the flight at the junction
+                flight.setEffectiveFuel(leg.fuel);
+                context.setTime(leg.time);
             }
-            if (minDist == Double.POSITIVE_INFINITY) {
+            if (dist < 0) {
                 return -1d;
             }
-            // Fuel at next vert
-            flight.setEffectiveFuel(nextFuel);
-            // Add values for nearest junction.
+            // Add values for next junction.
             pathToNextVert.pop(); // First Vert is already in path.
             currentVert = nextVert.getCoordinate();
             shortestPath.addAll(pathToNextVert);
-            totalDist += minDist;
+            totalDist += dist;
             // add stopage time/distance, if any & preformes an action if any.
-            actionAtStop(nextVert, flight);
+            actionAtStop(nextVert, context);
             totalDist += addStopWeight(nextVert);
             // remove visited vert
-            junctions.remove(nextVert);
+            remaining.remove(nextVert);
         }
 
         // find shortest path from last waypoint/stop to destination
         LinkedList<Coordinate> pathToDest = new LinkedList<>();
-        double distToDest = pathAlgorithm(graph, currentVert, vDest, pathToDest, flight, junctions);
+        double distToDest = (legs != null) ? legs.path(currentRow, n, pathToDest)
+                : pathAlgorithm(context, currentVert, vDest, pathToDest, remaining);
         if (distToDest == -1) {
             return -1d;
         }
@@ -133,4 +239,323 @@ public abstract class ShortestFlightPlan implements FlightPlan {
 
         return totalDist;
     }
+
+    /**
+     * Searches the leg to the nearest junction still to visit, one path
+     * search per junction, each departing with the current state of the
+     * flight (its fuel &amp; time). The state of the flight is left as found.
+     *
+     * @param context the request (its flight is simulated)
+     * @param vOrig the vertex the flight is at
+     * @param junctions the waypoints &amp; stops still to visit
+     * @return the leg, null if no junction has a path
+     * @throws InsufficientFuelException if there are paths, but the fuel on
+     * board flies none of them
+     */
+    private Leg nearestLeg(PlanningContext context, Coordinate vOrig, List<Junction> junctions)
+            throws InsufficientFuelException {
+
+        FlightSimulation flight = context.getFlight();
+        Amount<Mass> currentFuel = flight.getEffectiveFuel();
+        double currentTime = context.getTime();
+        boolean insufficientFuel = false;
+        Leg nearest = null;
+        for (Junction junction : junctions) {
+            flight.setEffectiveFuel(currentFuel);
+            context.setTime(currentTime);
+            LinkedList<Coordinate> path = new LinkedList<>();
+            try {
+                double cost = pathAlgorithm(context, vOrig, junction.getCoordinate(), path, junctions);
+                if (cost >= 0 && (nearest == null || cost < nearest.cost)) {
+                    nearest = new Leg(junction, path, cost, flight.getEffectiveFuel(), context.getTime());
+                }
+            } catch (InsufficientFuelException ex) {
+                insufficientFuel = true;
+            }
+        }
+        flight.setEffectiveFuel(currentFuel);
+        context.setTime(currentTime);
+        if (nearest == null && insufficientFuel) {
+            throw new InsufficientFuelException();
+        }
+        return nearest;
+    }
+
+    /**
+     * Calculates the k shortest flight plans passing through all waypoints
+     * &amp; stops, for the algorithms whose edge costs are static (the
+     * {@link #legWeights(PlanningContext)}). The junctions are visited in the
+     * order of least total cost, and each leg is one of its k shortest
+     * loopless paths (see {@link KShortestPaths}); the plans are the k least
+     * cost combinations of the legs, in increasing cost.
+     *
+     * @param context the request
+     * @param k the maximum number of flight plans
+     * @param timeBudget the time budget of the path searches (milliseconds)
+     * @param plans list to fill with the coordinates of each flight plan
+     * @param costs list to fill with the cost of each flight plan
+     * @return the number of flight plans found
+     */
+    protected int alternativeFlightPlans(PlanningContext context, int k, long timeBudget,
+            List<LinkedList<Coordinate>> plans, List<Double> costs) {
+
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+        plans.clear();
+        costs.clear();
+        long deadline = System.currentTimeMillis() + timeBudget;
+
+        // visiting order
+        List<Coordinate> ends = new ArrayList<>();
+        double stopWeights = legEnds(context, ends);
+        if (stopWeights < 0) {
+            return 0;
+        }
+        Coordinate vOrig = ends.get(0);
+
+        // k shortest paths of each leg
+        int numLegs = ends.size() - 1;
+        List<List<LinkedList<Coordinate>>> legPaths = new ArrayList<>();
+        List<List<Double>> legLengths = new ArrayList<>();
+        for (int leg = 0; leg < numLegs; leg++) {
+            List<LinkedList<Coordinate>> paths = new ArrayList<>();
+            List<Double> lengths = new ArrayList<>();
+            KShortestPaths<Coordinate, Segment> search = new KShortestPaths<>(graph, ends.get(leg + 1),
+                    legWeights(context));
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            if (search.paths(ends.get(leg), k, remaining, paths, lengths) == 0) {
+                return 0;
+            }
+            legPaths.add(paths);
+            legLengths.add(lengths);
+        }
+
+        // k least cost combinations of the legs (one path index per leg)
+        PriorityQueue<Combination> combinations = new PriorityQueue<>();
+        Set<List<Integer>> seen = new HashSet<>();
+        List<Integer> start = new ArrayList<>(Collections.nCopies(numLegs, 0));
+        combinations.add(new Combination(start, combinationCost(legLengths, start)));
+        seen.add(start);
+        while (plans.size() < k && !combinations.isEmpty()) {
+            Combination best = combinations.poll();
+            LinkedList<Coordinate> plan = new LinkedList<>();
+            plan.add(vOrig);
+            for (int leg = 0; leg < numLegs; leg++) {
+                LinkedList<Coordinate> path = legPaths.get(leg).get(best.indexes.get(leg));
+                plan.addAll(path.subList(1, path.size()));
+            }
+            plans.add(plan);
+            costs.add(best.cost + stopWeights);
+
+            for (int leg = 0; leg < numLegs; leg++) {
+                int index = best.indexes.get(leg) + 1;
+                if (index < legPaths.get(leg).size()) {
+                    List<Integer> next = new ArrayList<>(best.indexes);
+                    next.set(leg, index);
+                    if (seen.add(next)) {
+                        combinations.add(new Combination(next, combinationCost(legLengths, next)));
+                    }
+                }
+            }
+        }
+        return plans.size();
+    }
+
+    /**
+     * Obtains the ends of the legs of a flight plan, for the algorithms whose
+     * edge costs are static (the {@link #legWeights(PlanningContext)}): the
+     * origin, the waypoints &amp; stops in the order of least total cost and
+     * the destination.
+     *
+     * @param context the request
+     * @param ends list to fill with the ends of the legs (in order)
+     * @return the sum of the stop weights (see
+     * {@link #addStopWeight(Junction)}), -1 if there is no flight plan
+     */
+    protected double legEnds(PlanningContext context, List<Coordinate> ends) {
+
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+        FlightSimulation flight = context.getFlight();
+        ends.clear();
+        Coordinate vOrig = flight.getFlightInfo().getOriginAirport().getCoordinates();
+        Coordinate vDest = flight.getFlightInfo().getDestinationAirport().getCoordinates();
+        if (!graph.validVertex(vOrig) || !graph.validVertex(vDest)) {
+            return -1d;
+        }
+        List<Junction> junctions = junctions(graph, flight);
+        if (junctions == null) {
+            return -1d;
+        }
+
+        int n = junctions.size();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (n >= COST_MATRIX_JUNCTIONS) {
+            double[][] legCosts = emptyCosts(n);
+            staticLegs(context, vOrig, vDest, junctions, legCosts);
+            order = new JunctionOrder(legCosts).solve();
+            if (order == null) {
+                return -1d;
+            }
+        }
+        double stopWeights = 0;
+        ends.add(vOrig);
+        for (int next : order) {
+            ends.add(junctions.get(next).getCoordinate());
+            stopWeights += addStopWeight(junctions.get(next));
+        }
+        ends.add(vDest);
+        return stopWeights;
+    }
+
+    /**
+     * Obtains the waypoints &amp; stops of a flight.
+     *
+     * @param graph the airnetwork
+     * @param flight the flight
+     * @return the waypoints &amp; stops, null if any is not in the airnetwork
+     */
+    private static List<Junction> junctions(MapGraph<Coordinate, Segment> graph, FlightSimulation flight) {
+
+        // List all obrigatory coordinates
+        List<Junction> junctions = new ArrayList<>();
+        junctions.addAll(flight.getFlightInfo().getWaypoints());
+        junctions.addAll(flight.getFlightInfo().getStops());
+
+        // Verify if all coords are in graph
+        for (Junction junction : junctions) {
+            if (!graph.validVertex(junction.getCoordinate())) {
+                return null;
+            }
+        }
+        return junctions;
+    }
+
+    /**
+     * Creates a leg cost matrix without legs.
+     *
+     * @param n the number of junctions
+     * @return the costs (all infinity)
+     */
+    private static double[][] emptyCosts(int n) {
+
+        double[][] costs = new double[n + 2][n + 2];
+        for (double[] row : costs) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        return costs;
+    }
+
+    /**
+     * Computes the static leg costs (one search per junction, over the
+     * {@link #legWeights(PlanningContext)}).
+     *
+     * @param context the request
+     * @param vOrig the origin
+     * @param vDest the destination
+     * @param junctions the waypoints &amp; stops
+     * @param costs the costs to fill (0 the origin, 1 to n the junctions,
+     * n + 1 the destination; infinity if there is no path)
+     * @return the cost matrix (rows: origin &amp; junctions, columns:
+     * junctions &amp; destination)
+     */
+    private CostMatrix<Coordinate, Segment> staticLegs(PlanningContext context, Coordinate vOrig,
+            Coordinate vDest, List<Junction> junctions, double[][] costs) {
+
+        int n = junctions.size();
+        List<Coordinate> sources = new ArrayList<>();
+        List<Coordinate> targets = new ArrayList<>();
+        sources.add(vOrig);
+        for (Junction junction : junctions) {
+            sources.add(junction.getCoordinate());
+            targets.add(junction.getCoordinate());
+        }
+        targets.add(vDest);
+        CostMatrix<Coordinate, Segment> legs = new CostMatrix<>(context.getGraph(), sources, targets,
+                legWeights(context));
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                costs[i][j + 1] = legs.cost(i, j);
+            }
+        }
+        return legs;
+    }
+
+    /**
+     * Obtains the cost of a combination of leg paths.
+     *
+     * @param legLengths the path lengths of each leg
+     * @param indexes the path index of each leg
+     * @return the cost
+     */
+    private static double combinationCost(List<List<Double>> legLengths, List<Integer> indexes) {
+
+        double cost = 0;
+        for (int leg = 0; leg < indexes.size(); leg++) {
+            cost += legLengths.get(leg).get(indexes.get(leg));
+        }
+        return cost;
+    }
+
+    /**
+     * Obtains the segments of a flight plan from its coordinates.
+     *
+     * @param graph the airnetwork
+     * @param coordinates the coordinates of the flight plan
+     * @param flightplan the segments to insert
+     */
+    protected static void segments(MapGraph<Coordinate, Segment> graph, LinkedList<Coordinate> coordinates,
+            LinkedList<Segment> flightplan) {
+
+        Iterator<Coordinate> it = coordinates.iterator();
+        Coordinate first = it.next();
+        while (it.hasNext()) {
+
+            Coordinate second = it.next();
+
+            flightplan.add(graph.getEdge(first, second).getElement());
+
+            first = second;
+        }
+    }
+
+    /**
+     * The leg to a junction and the state of the flight at its end.
+     */
+    private static class Leg {
+
+        private final Junction junction;
+        private final LinkedList<Coordinate> path;
+        private final double cost;
+        private final Amount<Mass> fuel;
+        private final double time;
+
+        Leg(Junction junction, LinkedList<Coordinate> path, double cost, Amount<Mass> fuel, double time) {
+            this.junction = junction;
+            this.path = path;
+            this.cost = cost;
+            this.fuel = fuel;
+            this.time = time;
+        }
+    }
+
+    /**
+     * A combination of leg paths, ordered by cost.
+     */
+    private static class Combination implements Comparable<Combination> {
+
+        private final List<Integer> indexes;
+        private final double cost;
+
+        Combination(List<Integer> indexes, double cost) {
+            this.indexes = indexes;
+            this.cost = cost;
+        }
+
+        @Override
+        public int compareTo(Combination other) {
+            return Double.compare(cost, other.cost);
+        }
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Package location for Project concept
+ */
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import lapr.project.utils.exceptions.FailedAnalysisException;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+
+/**
+ * Keeps the flight plans of the active flights of an air network up to date
+ * as the segment winds change, repairing the searches of each flight plan
+ * (see {@link ActiveFlightPlan}) instead of planning it again.
+ *
+ * The algorithm must be one whose flight plan cost is the sum of its edge
+ * weights (an {@link AlternativeFlightPlan}, as the fastest path, whose
+ * flight times depend on the winds); the fuel efficient path depends on the
+ * fuel on board of each edge and has no such weights.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class WindReplanner {
+
+    /**
+     * The air network.
+     */
+    private final AirNetwork network;
+
+    /**
+     * The algorithm of the flight plans.
+     */
+    private final ShortestFlightPlan algorithm;
+
+    /**
+     * The active flight plans.
+     */
+    private final List<ActiveFlightPlan> plans = new ArrayList<>();
+
+    /**
+     * The edges of each segment (null until needed).
+     */
+    private Map<Segment, List<MapEdge<Coordinate, Segment>>> segmentEdges;
+    private MapGraph<Coordinate, Segment> segmentEdgesGraph;
+    private int segmentEdgesModifications;
+
+    /**
+     * Creates a replanner of the flight plans of an air network.
+     *
+     * @param network the air network
+     * @param algorithm the algorithm of the flight plans
+     */
+    public WindReplanner(AirNetwork network, ShortestFlightPlan algorithm) {
+
+        if (network == null || !(algorithm instanceof AlternativeFlightPlan)) {
+            throw new IllegalArgumentException("Invalid network or algorithm.");
+        }
+        this.network = network;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Plans a flight and keeps its flight plan up to date.
+     *
+     * @param flight the flight (copied)
+     * @return the active flight plan
+     * @throws FailedAnalysisException if there is no flight plan
+     * @throws IllegalArgumentException if the edge costs depend on when they
+     * are flown (wind forecasts)
+     */
+    public synchronized ActiveFlightPlan activate(FlightSimulation flight) throws FailedAnalysisException {
+
+        if (flight == null) {
+            throw new IllegalArgumentException("Invalid flight.");
+        }
+        ActiveFlightPlan plan = new ActiveFlightPlan(algorithm, network, flight);
+        plans.add(plan);
+        return plan;
+    }
+
+    /**
+     * Stops keeping a flight plan up to date.
+     *
+     * @param plan the active flight plan
+     * @return true if it was active
+     */
+    public synchronized boolean deactivate(ActiveFlightPlan plan) {
+        return plans.remove(plan);
+    }
+
+    /**
+     * Obtains the active flight plans.
+     *
+     * @return the active flight plans
+     */
+    public synchronized List<ActiveFlightPlan> getActivePlans() {
+        return Collections.unmodifiableList(new ArrayList<>(plans));
+    }
+
+    /**
+     * Updates the active flight plans after the winds of some segments
+     * changed.
+     *
+     * @param segments the segments whose wind changed
+     * @return the active flight plans whose route or cost changed
+     */
+    public synchronized List<ActiveFlightPlan> windsChanged(Iterable<Segment> segments) {
+
+        List<MapEdge<Coordinate, Segment>> edges = new ArrayList<>();
+        Map<Segment, List<MapEdge<Coordinate, Segment>>> index = segmentEdges();
+        for (Segment segment : segments) {
+            List<MapEdge<Coordinate, Segment>> found = index.get(segment);
+            if (found != null) {
+                edges.addAll(found);
+            }
+        }
+
+        List<ActiveFlightPlan> changed = new ArrayList<>();
+        for (ActiveFlightPlan plan : plans) {
+            if (plan.update(edges)) {
+                changed.add(plan);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Obtains the edges of each segment of the air network, indexed again
+     * only after vertices or edges are inserted or removed.
+     *
+     * @return the edges of each segment
+     */
+    private Map<Segment, List<MapEdge<Coordinate, Segment>>> segmentEdges() {
+
+        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+        if (segmentEdges == null || segmentEdgesGraph != graph
+                || segmentEdgesModifications != graph.getModificationCount()) {
+            // segments are compared by identity (a wind changes one instance)
+            segmentEdges = new IdentityHashMap<>();
+            for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+                segmentEdges.computeIfAbsent(edge.getElement(), segment -> new ArrayList<>(1)).add(edge);
+            }
+            segmentEdgesGraph = graph;
+            segmentEdgesModifications = graph.getModificationCount();
+        }
+        return segmentEdges;
+    }
+}
@@ -3,28 +3,31 @@
  */
 package lapr.project.model.flightplan.algorithms;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
+import java.util.PriorityQueue;
 import javax.measure.quantity.Length;
 import javax.measure.quantity.Mass;
 import javax.measure.unit.SI;
-import lapr.project.model.AirNetwork;
 import lapr.project.model.AlgorithmAnalysis;
-import lapr.project.model.Calculus;
 import lapr.project.model.Coordinate;
+import lapr.project.model.CruiseSurface;
 import lapr.project.model.FlightSimulation;
 import lapr.project.model.Junction;
+import lapr.project.model.PerformanceProfile;
+import lapr.project.model.PhaseProfileCache;
 import lapr.project.model.Segment;
 import lapr.project.model.Stop;
+import lapr.project.model.flightplan.EdgeCostCache;
+import lapr.project.model.flightplan.PlanningContext;
 import lapr.project.model.flightplan.ShortestFlightPlan;
 import lapr.project.utils.exceptions.FailedAnalysisException;
 import lapr.project.utils.exceptions.InsufficientFuelException;
 import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapGraph;
-import static lapr.project.utils.graph.MapGraphAlgorithms.getPath;
-import static lapr.project.utils.graph.MapGraphAlgorithms.revPath;
+import static lapr.project.utils.graph.MapGraphAlgorithms.BFS;
 import org.jscience.physics.amount.Amount;
 
 /**
@@ -43,22 +46,53 @@ public class EfficientConsumption extends ShortestFlightPlan {
      */
     private static final String DESCRIPTION = "Fuel efficient Path";
 
-    private Amount<Mass> initialFuel;
+    /**
+     * Reads the cruises from the aircraft cruise surface (interpolated)
+     * instead of integrating them.
+     */
+    private final boolean cruiseSurface;
 
-    @Override
-    public Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight, LinkedList<Segment> flightplan)
-            throws Exception {
+    /**
+     * Mass band (kg) of the edge cost cache.
+     */
+    private final double massBand;
 
-        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+    /**
+     * Creates the algorithm with the cruises integrated and the default mass
+     * band.
+     */
+    public EfficientConsumption() {
+        this(false, EdgeCostCache.DEFAULT_MASS_BAND);
+    }
 
-        // Store initial fuel
-        initialFuel = flight.getEffectiveFuel();
+    /**
+     * Creates the algorithm.
+     *
+     * @param cruiseSurface true to read the cruises from the aircraft cruise
+     * surface (see {@link CruiseSurface})
+     * @param massBand the mass band (kg) of the edge cost cache (see
+     * {@link EdgeCostCache}), zero to keep the exact mass
+     */
+    public EfficientConsumption(boolean cruiseSurface, double massBand) {
+        if (massBand < 0) {
+            throw new IllegalArgumentException("Invalid mass band.");
+        }
+        this.cruiseSurface = cruiseSurface;
+        this.massBand = massBand;
+    }
+
+    @Override
+    public Amount<?> generateFlightPlan(PlanningContext context, LinkedList<Segment> flightplan) throws Exception {
+
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
 
         // New ordered list of coordinates.
         LinkedList<Coordinate> coordinates = new LinkedList<>();
 
         // Find best shortest path between orgin & dest, passing through waypoints/stops
-        double consumption = shortestFlightPlan(graph, flight, coordinates);
+        // (every edge cruise integrated once for all the searches)
+        context.setEdgeCosts(new EdgeCostCache(context.getProfile(), massBand, cruiseSurface));
+        double consumption = shortestFlightPlan(context, coordinates);
 
         if (consumption < 1 || coordinates.isEmpty()) {
             throw new FailedAnalysisException();
@@ -78,138 +112,162 @@ public class EfficientConsumption extends ShortestFlightPlan {
         return Amount.valueOf(consumption, SI.KILOGRAM);
     }
 
-    private double efficientPath(MapGraph<Coordinate, Segment> network, Coordinate vOrig, Coordinate vDest,
-            LinkedList<Coordinate> efficientPath, FlightSimulation flight, List<Junction> junctions)
-            throws InsufficientFuelException {
+    /**
+     * Computes the most fuel efficient path between two vertices, by a
+     * resource constrained label setting search. A label is a partial path
+     * with its fuel burned, remaining fuel &amp; time; labels are expanded by
+     * least fuel burned, a label is pruned if another one at its vertex has
+     * burned no more fuel, has no less fuel remaining &amp; took no more time,
+     * an edge is only taken if the remaining fuel flies it and the fuel is
+     * reset to the initial fuel at the technical stops. The time of a label
+     * starts the cruises of its edges through the wind forecasts of their
+     * segments, if any.
+     *
+     * The flight of the context is left with the remaining fuel of the path
+     * found, and the context with its arrival time.
+     *
+     * @param context the request
+     * @param vOrig the origin
+     * @param vDest the destination
+     * @param efficientPath list to fill with the path (in order)
+     * @param junctions the waypoints &amp; stops still to visit
+     * @return the fuel burned (kg), -1 if there is no path
+     * @throws InsufficientFuelException if there are paths, but the fuel on
+     * board flies none of them
+     */
+    private double efficientPath(PlanningContext context, Coordinate vOrig, Coordinate vDest,
+            LinkedList<Coordinate> efficientPath, List<Junction> junctions) throws InsufficientFuelException {
 
+        MapGraph<Coordinate, Segment> network = context.getGraph();
+        FlightSimulation flight = context.getFlight();
+        efficientPath.clear();
         if (!network.validVertex(vOrig) || !network.validVertex(vDest)) {
             return -1d;
         }
 
-        int numVert = network.numVertices();
-
-        Object[] objs = ((Set) network.vertices()).toArray();
-        Coordinate[] vertices = new Coordinate[numVert];
-        for (int i = 0; i < objs.length; i++) {
-            vertices[i] = (Coordinate) objs[i];
+        Object[] vertices = network.allkeyVerts(); // vertices by key
+        List<List<Label>> labels = new ArrayList<>(vertices.length);
+        for (int i = 0; i < vertices.length; i++) {
+            labels.add(new ArrayList<>(1));
         }
+        PriorityQueue<Label> heap = new PriorityQueue<>();
+        PerformanceProfile profile = context.getProfile();
+        EdgeCostCache cache = context.getEdgeCosts();
+        if (cache == null) {
+            cache = new EdgeCostCache(profile, massBand, cruiseSurface);
+            context.setEdgeCosts(cache);
+        }
+        Amount<Length> originAltitude = flight.getFlightInfo().getOriginAirport().getAltitude();
+        Amount<Mass> startFuel = flight.getEffectiveFuel();
+        double refuel = context.getInitialFuel().doubleValue(SI.KILOGRAM);
+        // the cruises start at the time of the labels only with wind forecasts
+        double departure = context.hasWindForecasts() ? context.getTime() : Double.NaN;
+        boolean exhausted = false;
+
+        Label origin = new Label(network.getKey(vOrig), 0, startFuel.doubleValue(SI.KILOGRAM), 0,
+                startFuel.doubleValue(SI.KILOGRAM), null);
+        labels.get(origin.key).add(origin);
+        heap.add(origin);
+
+        int vDestKey = network.getKey(vDest);
+        Label found = null;
+        while (found == null && !heap.isEmpty()) {
+            Label label = heap.poll();
+            if (label.pruned) {
+                continue;
+            }
+            if (label.key == vDestKey) {
+                found = label;
+                continue;
+            }
+            Coordinate vert = (Coordinate) vertices[label.key];
 
-        boolean visited[] = new boolean[numVert];
-        int[] pathKeys = new int[numVert];
-        double[] dist = new double[numVert];
-
-        efficientPathLength(network, vOrig, vertices, visited, pathKeys, dist, flight, junctions);
+            // climb from the last departure (origin or technical stop)
+            flight.setEffectiveFuel(Amount.valueOf(label.departureFuel, SI.KILOGRAM));
+            AlgorithmAnalysis climb = PhaseProfileCache.SHARED.climb(profile, flight, originAltitude);
+            double climbConsumption = climb.getConsumption().doubleValue(SI.KILOGRAM);
+            double climbDistance = climb.getDistance().doubleValue(SI.METER);
+            double climbDuration = climb.getDuration().doubleValue(SI.SECOND);
 
-        efficientPath.clear();
-        if (!visited[network.getKey(vDest)]) {
-            return -1d;
-        }
-        getPath(network, vOrig, vDest, vertices, pathKeys, efficientPath);
+            for (MapEdge<Coordinate, Segment> edge : network.outgoingEdges(vert)) {
+                Coordinate vAdj = network.opposite(vert, edge);
+                boolean stop = isTechnicalStop(vAdj, junctions);
 
-        LinkedList<Coordinate> pathInOrder = revPath(efficientPath);
-        efficientPath.clear();
-        while (!pathInOrder.isEmpty()) {
-            efficientPath.add(pathInOrder.removeFirst());
+                double consumption = climbConsumption;
+                double duration = climbDuration;
+                double descDistance = 0;
+                double descConsumption = 0;
+                if (stop) {
+                    flight.setEffectiveFuel(Amount.valueOf(label.fuel, SI.KILOGRAM));
+                    AlgorithmAnalysis desc = PhaseProfileCache.SHARED.landing(profile, flight, originAltitude);
+                    descConsumption = desc.getConsumption().doubleValue(SI.KILOGRAM);
+                    descDistance = desc.getDistance().doubleValue(SI.METER);
+                    duration += desc.getDuration().doubleValue(SI.SECOND);
+                }
+                // Subtract climbing & descending (distance) from distance
+                double cruiseDistance = edge.getWeight() - (climbDistance + descDistance);
+                AlgorithmAnalysis cruise = cache.cruise(flight, edge, cruiseDistance, label.fuel - climbConsumption,
+                        departure + label.time + climbDuration);
+                consumption += cruise.getConsumption().doubleValue(SI.KILOGRAM) + descConsumption;
+                duration += cruise.getDuration().doubleValue(SI.SECOND);
+
+                double fuel = label.fuel - consumption;
+                if (fuel < 0) {
+                    exhausted = true;
+                    continue;
+                }
+                Label next = stop
+                        ? new Label(network.getKey(vAdj), label.burned + consumption, refuel,
+                                label.time + duration, refuel, label)
+                        : new Label(network.getKey(vAdj), label.burned + consumption, fuel,
+                                label.time + duration, label.departureFuel, label);
+                if (offer(labels.get(next.key), next)) {
+                    heap.add(next);
+                }
+            }
         }
 
-        int vDestId = network.getKey(vDest);
-        if (!visited[vDestId]) {
+        if (found == null) {
+            // Reset Fuel
+            flight.setEffectiveFuel(startFuel);
+            if (exhausted && BFS(network, vOrig).contains(vDest)) {
+                throw new InsufficientFuelException(vOrig.getId() + " - " + vDest.getId());
+            }
             return -1d;
         }
 
-        // Deduct wasted fuel
-        double newFuel = flight.getEffectiveFuel().doubleValue(SI.KILOGRAM) - dist[vDestId];
-        flight.setEffectiveFuel(Amount.valueOf(newFuel, SI.KILOGRAM));
+        for (Label label = found; label != null; label = label.previous) {
+            efficientPath.addFirst((Coordinate) vertices[label.key]);
+        }
+        // Fuel left at destination
+        flight.setEffectiveFuel(Amount.valueOf(found.fuel, SI.KILOGRAM));
+        context.setTime(context.getTime() + found.time);
 
-        return dist[vDestId];
+        return found.burned;
     }
 
     /**
-     * Computes efficient path from a source vertex to all reachable vertices of
-     * a graph g with nonnegative edge weights This implementation uses
-     * Dijkstra's algorithm
+     * Adds a label to the labels of its vertex, unless one of them dominates
+     * it; the labels it dominates are pruned.
      *
-     * @param g MapGraph instance
-     * @param vOrig Vertex that will be the source of the path
-     * @param visited set of discovered vertices
-     * @param pathkeys minimum path vertices keys
-     * @param dist minimum consumptions
+     * @param labels the labels of the vertex
+     * @param label the new label
+     * @return true if the label was added
      */
-    private void efficientPathLength(MapGraph<Coordinate, Segment> g, Coordinate vOrig, Coordinate[] vertices,
-            boolean[] visited, int[] pathKeys, double[] dist, FlightSimulation flight, List<Junction> junctions) throws InsufficientFuelException {
-
-        for (Coordinate v : vertices) {
-            dist[g.getKey(v)] = Double.POSITIVE_INFINITY;
-            pathKeys[g.getKey(v)] = -1;
-            visited[g.getKey(v)] = false;
-        }
-
-        dist[g.getKey(vOrig)] = 0;
+    private static boolean offer(List<Label> labels, Label label) {
 
-        // Orgin flight departure (calculate climb)
-        AlgorithmAnalysis analysisClimb = Calculus.calculateClimb(flight, flight.getFlightInfo().getOriginAirport().getAltitude());
-        double climbConsumption = analysisClimb.getConsumption().doubleValue(SI.KILOGRAM);
-        double climbDistance = analysisClimb.getDistance().doubleValue(SI.METER);
-        // Initialize Landing values
-        double descConsumption = 0; // Start at zero
-        double descDistance = 0; // Start at zero
-
-        while (vOrig != null) {
-            int vOrigValue = g.getKey(vOrig);
-            visited[vOrigValue] = true;
-
-            Amount<Mass> prevFuel = flight.getEffectiveFuel();
-            for (MapEdge<Coordinate, Segment> edge : g.outgoingEdges(vOrig)) {
-                Coordinate vAdj = g.opposite(vOrig, edge);
-
-                if (isTechnicalStop(vAdj, junctions)) {
-                    AlgorithmAnalysis analysisDesc = Calculus.calculateLanding(flight, flight.getFlightInfo().getOriginAirport().getAltitude());
-                    descConsumption = analysisDesc.getConsumption().doubleValue(SI.KILOGRAM);
-                    descDistance = analysisDesc.getDistance().doubleValue(SI.METER);
-                }
-                // Subtract climbing & descending (distance) from distance
-                double cruiseDistance = edge.getWeight() - (climbDistance + descDistance);
-                Amount<Length> virtualDist = Calculus.virtualDistance(cruiseDistance, flight, edge.getElement(),
-                        edge.getVOrig(), edge.getVDest());
-
-                // Add climbing consumption
-                double consumption = climbConsumption;
-                // TODO: reorganize params & units
-                Amount<Mass> currentFuel = prevFuel.minus(Amount.valueOf(climbConsumption, SI.KILOGRAM));
-                flight.setEffectiveFuel(currentFuel);
-                consumption += Calculus.calculateCruise(flight, virtualDist).getConsumption().doubleValue(SI.KILOGRAM);
-                consumption += descConsumption;
-
-                if (!visited[g.getKey(vAdj)] && dist[g.getKey(vAdj)] > dist[vOrigValue] + consumption) {
-                    dist[g.getKey(vAdj)] = dist[vOrigValue] + consumption;
-                    pathKeys[g.getKey(vAdj)] = vOrigValue;
-                }
-            }
-
-            vOrig = null;
-            double minimunDistance = Double.POSITIVE_INFINITY;
-
-            Amount<Mass> nextFuel = Amount.valueOf(0d, SI.KILOGRAM);
-            for (Coordinate ver : vertices) {
-                int vId = g.getKey(ver);
-                if (visited[vId] == false && dist[vId] < minimunDistance) {
-                    vOrig = ver;
-                    minimunDistance = dist[vId];
-                    nextFuel = initialFuel.minus(Amount.valueOf(dist[vId], SI.KILOGRAM));
-                }
+        for (int i = labels.size() - 1; i >= 0; i--) {
+            Label other = labels.get(i);
+            if (other.dominates(label)) {
+                return false;
             }
-
-            flight.setEffectiveFuel(nextFuel);
-            if (isTechnicalStop(vOrig, junctions)) {
-                // calculate climb for techinical stop
-                analysisClimb = Calculus.calculateClimb(flight, flight.getFlightInfo().getOriginAirport().getAltitude());
-                climbConsumption = analysisClimb.getConsumption().doubleValue(SI.KILOGRAM);
-                climbDistance = analysisClimb.getDistance().doubleValue(SI.METER);
+            if (label.dominates(other)) {
+                other.pruned = true;
+                labels.remove(i);
             }
         }
-
-        // Reset Fuel
-        flight.setEffectiveFuel(initialFuel);
+        labels.add(label);
+        return true;
     }
 
     private boolean isTechnicalStop(Coordinate coord, List<Junction> junctions) {
@@ -233,11 +291,10 @@ public class EfficientConsumption extends ShortestFlightPlan {
     }
 
     @Override
-    protected double pathAlgorithm(MapGraph<Coordinate, Segment> network, Coordinate vOrig,
-            Coordinate vDest, LinkedList<Coordinate> efficientPath, FlightSimulation flight,
-            List<Junction> junctions) throws InsufficientFuelException {
+    protected double pathAlgorithm(PlanningContext context, Coordinate vOrig, Coordinate vDest,
+            LinkedList<Coordinate> efficientPath, List<Junction> junctions) throws InsufficientFuelException {
 
-        return efficientPath(network, vOrig, vDest, efficientPath, flight, junctions);
+        return efficientPath(context, vOrig, vDest, efficientPath, junctions);
     }
 
     @Override
@@ -246,9 +303,75 @@ public class EfficientConsumption extends ShortestFlightPlan {
     }
 
     @Override
-    protected void actionAtStop(Junction junction, FlightSimulation flight) {
+    protected void actionAtStop(Junction junction, PlanningContext context) {
         if (junction instanceof Stop) {
-            flight.setEffectiveFuel(initialFuel);
+            context.getFlight().setEffectiveFuel(context.getInitialFuel());
+        }
+    }
+
+    /**
+     * A partial path of the label setting search.
+     */
+    private static class Label implements Comparable<Label> {
+
+        /**
+         * Key of the last vertex.
+         */
+        private final int key;
+
+        /**
+         * Fuel burned (kg).
+         */
+        private final double burned;
+
+        /**
+         * Remaining fuel (kg).
+         */
+        private final double fuel;
+
+        /**
+         * Time flown (s).
+         */
+        private final double time;
+
+        /**
+         * Fuel at the last departure (kg).
+         */
+        private final double departureFuel;
+
+        /**
+         * The label of the previous vertex (null at the origin).
+         */
+        private final Label previous;
+
+        /**
+         * Dominated by a later label.
+         */
+        private boolean pruned;
+
+        Label(int key, double burned, double fuel, double time, double departureFuel, Label previous) {
+            this.key = key;
+            this.burned = burned;
+            this.fuel = fuel;
+            this.time = time;
+            this.departureFuel = departureFuel;
+            this.previous = previous;
+        }
+
+        /**
+         * Verifies if this label is at least as good as another in every
+         * resource.
+         *
+         * @param other the other label
+         * @return true if it dominates the other label
+         */
+        boolean dominates(Label other) {
+            return burned <= other.burned && fuel >= other.fuel && time <= other.time;
+        }
+
+        @Override
+        public int compareTo(Label other) {
+            return Double.compare(burned, other.burned);
         }
     }
 
@@ -3,10 +3,10 @@
  */
 package lapr.project.model.flightplan.algorithms;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import javax.measure.quantity.Angle;
 import javax.measure.quantity.Length;
 import javax.measure.quantity.Velocity;
 import javax.measure.unit.NonSI;
@@ -16,12 +16,20 @@ import lapr.project.model.AlgorithmAnalysis;
 import lapr.project.model.Calculus;
 import lapr.project.model.Coordinate;
 import lapr.project.model.FlightSimulation;
+import lapr.project.model.GreatCircleHeuristic;
 import lapr.project.model.Junction;
+import lapr.project.model.PerformanceProfile;
+import lapr.project.model.PhaseProfileCache;
 import lapr.project.model.Segment;
 import lapr.project.model.Stop;
+import lapr.project.model.flightplan.AlternativeFlightPlan;
+import lapr.project.model.flightplan.PlanningContext;
 import lapr.project.model.flightplan.ShortestFlightPlan;
 import lapr.project.utils.exceptions.FailedAnalysisException;
 import lapr.project.utils.exceptions.InsufficientFuelException;
+import lapr.project.utils.graph.ArrivalTimeFunction;
+import lapr.project.utils.graph.EdgeWeightFunction;
+import lapr.project.utils.graph.EdgeWeights;
 import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapGraph;
 import lapr.project.utils.graph.MapGraphAlgorithms;
@@ -30,12 +38,20 @@ import org.jscience.physics.amount.Amount;
 /**
  * Represents the algorithm to calculate the fastest time (SI: Min) flight plan.
  *
+ * When segments of the air network have a wind forecast, the flight time of
+ * an edge depends on when it is flown: the legs are searched in order by
+ * earliest arrival from the time the flight reaches them. The alternative
+ * flight plans are searched over static edge weights, so with wind forecasts
+ * only the earliest arrival flight plan is generated, and its flight plan
+ * cannot be kept up to date by a
+ * {@link lapr.project.model.flightplan.WindReplanner}.
+ *
  * @author Daniel Gonçalves - 1151452
  * @author Eric Amaral - 1141570
  * @author Ivo Ferro - 1151159
  * @author Tiago Correia - 1151031
  */
-public class FastestPath extends ShortestFlightPlan {
+public class FastestPath extends ShortestFlightPlan implements AlternativeFlightPlan {
 
     /**
      * Algorithm's description.
@@ -43,16 +59,16 @@ public class FastestPath extends ShortestFlightPlan {
     private static final String DESCRIPTION = "Fastest Path";
 
     @Override
-    public Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight, LinkedList<Segment> flightplan)
-            throws Exception {
+    public Amount<?> generateFlightPlan(PlanningContext context, LinkedList<Segment> flightplan) throws Exception {
 
-        MapGraph<Coordinate, Segment> graph = createFlightTimeGraph(network, flight);
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+        prepare(context);
 
         // New ordered list of coordinates.
         LinkedList<Coordinate> coordinates = new LinkedList<>();
 
         // Find best shortest path between orgin & dest, passing through waypoints/stops
-        double distance = shortestFlightPlan(graph, flight, coordinates);
+        double distance = shortestFlightPlan(context, coordinates);
 
         if (distance < 1 || coordinates.isEmpty()) {
             throw new FailedAnalysisException();
@@ -72,43 +88,163 @@ public class FastestPath extends ShortestFlightPlan {
         return Amount.valueOf(distance, SI.SECOND);
     }
 
-    private MapGraph<Coordinate, Segment> createFlightTimeGraph(AirNetwork network, FlightSimulation flight) throws CloneNotSupportedException {
+    @Override
+    public List<Amount<?>> generateFlightPlans(AirNetwork network, FlightSimulation flight, int k, long timeBudget,
+            List<LinkedList<Segment>> flightplans) throws Exception {
+
+        if (k < 1 || timeBudget < 0) {
+            throw new IllegalArgumentException("Invalid number of flight plans or time budget.");
+        }
+        PlanningContext context = new PlanningContext(network, flight);
+        if (context.hasWindForecasts()) {
+            // the alternatives would keep the static winds: only the earliest arrival
+            LinkedList<Segment> flightplan = new LinkedList<>();
+            List<Amount<?>> amounts = new ArrayList<>();
+            amounts.add(generateFlightPlan(network, flight, flightplan));
+            flightplans.add(flightplan);
+            return amounts;
+        }
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+        prepare(context);
+
+        List<LinkedList<Coordinate>> plans = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        alternativeFlightPlans(context, Math.min(k, MAX_ALTERNATIVES), timeBudget, plans, costs);
+
+        if (plans.isEmpty()) {
+            throw new FailedAnalysisException();
+        }
+        List<Amount<?>> amounts = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            LinkedList<Segment> flightplan = new LinkedList<>();
+            segments(graph, plans.get(i), flightplan);
+            flightplans.add(flightplan);
+            amounts.add(Amount.valueOf(costs.get(i), SI.SECOND));
+        }
+        return amounts;
+    }
+
+    /**
+     * Creates the flight time (s) of an edge: climb or landing (at the
+     * origin, the destination &amp; the technical stops) plus the cruise at
+     * the ground speed over the rest of the edge.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param strongestWind true to cruise with the strongest wind of the
+     * segment (static or forecast) as a tailwind, the least flight time at any
+     * time
+     * @return the flight time of an edge
+     */
+    private EdgeWeightFunction<Coordinate, Segment> flightTime(PerformanceProfile profile, FlightSimulation flight,
+            boolean strongestWind) {
 
         Coordinate vOrig = flight.getFlightInfo().getOriginAirport().getCoordinates();
         Coordinate vDest = flight.getFlightInfo().getDestinationAirport().getCoordinates();
-        Amount<Length> altitude = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseAltitude();
-        Amount<Velocity> machNumber = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseSpeed();
         List<Stop> stops = flight.getFlightInfo().getStops();
 
-        MapGraph<Coordinate, Segment> graph = network.getNetwork().clone();
-        for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+        double tas = cruiseTas(flight);
+
+        return (MapEdge<Coordinate, Segment> edge) -> {
 
             double subToDist = 0;
             double addToTime = 0;
-            if (isTechnicalStop(edge.getVOrig(), stops) || edge.getVOrig().equals(vOrig)) {
+            boolean climbs = isTechnicalStop(edge.getVOrig(), stops) || edge.getVOrig().equals(vOrig);
+            AlgorithmAnalysis phase = phase(edge, climbs, profile, flight, vDest, stops);
+            if (phase != null) {
 
-                AlgorithmAnalysis climb = Calculus.calculateClimb(flight, getAirportAltitude(edge.getVOrig(), flight));
-                subToDist += climb.getDistance().doubleValue(SI.METER);
-                addToTime += climb.getDuration().doubleValue(SI.SECOND);
-            } else if (isTechnicalStop(edge.getVDest(), stops) || edge.getVDest().equals(vDest)) {
+                subToDist += phase.getDistance().doubleValue(SI.METER);
+                addToTime += phase.getDuration().doubleValue(SI.SECOND);
+            }
 
-                AlgorithmAnalysis landing = Calculus.calculateLanding(flight, getAirportAltitude(edge.getVDest(), flight));
-                subToDist += landing.getDistance().doubleValue(SI.METER);
-                addToTime += landing.getDuration().doubleValue(SI.SECOND);
+            double wind = strongestWind ? edge.getElement().getMaxWindSpeed()
+                    : Calculus.windComponent(edge.getElement(), edge.getVOrig(), edge.getVDest());
+            double groundSpeed = tas + wind;
+            if (groundSpeed <= 0) {
+                // the headwind never lets the flight arrive
+                return Double.POSITIVE_INFINITY;
             }
+            // an edge shorter than its climb or landing has no cruise
+            double cruiseDistance = Math.max(0, edge.getWeight() - subToDist);
 
-            Amount<Angle> flightDirection = Calculus.direction(edge.getVOrig(), edge.getVDest());
+            double cruiseTime = cruiseDistance / groundSpeed;
 
-            double groundSpeed = Calculus.calculateGS(altitude, machNumber,
-                    edge.getElement().getWindIntensity(), edge.getElement().getWindDirection(), flightDirection).doubleValue(SI.METERS_PER_SECOND);
-            double cruiseDistance = edge.getWeight() - subToDist;
+            return cruiseTime + addToTime;
+        };
+    }
 
-            double cruiseTime = cruiseDistance / groundSpeed;
+    /**
+     * Creates the arrival time (s since the epoch) over an edge entered at a
+     * time: climb (at the origin &amp; the technical stops) before the cruise
+     * or landing (at the destination &amp; the technical stops) after it, the
+     * cruise flown through the wind forecast of the segment, if any.
+     *
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @return the arrival time over an edge
+     */
+    private ArrivalTimeFunction<Coordinate, Segment> arrivalTime(PerformanceProfile profile,
+            FlightSimulation flight) {
+
+        Coordinate vOrig = flight.getFlightInfo().getOriginAirport().getCoordinates();
+        Coordinate vDest = flight.getFlightInfo().getDestinationAirport().getCoordinates();
+        List<Stop> stops = flight.getFlightInfo().getStops();
+
+        double tas = cruiseTas(flight);
+
+        return (MapEdge<Coordinate, Segment> edge, double departure) -> {
 
-            edge.setWeight(cruiseTime + addToTime);
+            boolean climbs = isTechnicalStop(edge.getVOrig(), stops) || edge.getVOrig().equals(vOrig);
+            AlgorithmAnalysis phase = phase(edge, climbs, profile, flight, vDest, stops);
+            if (phase == null) {
+                return Calculus.cruiseArrival(edge.getElement(), edge.getVOrig(), edge.getVDest(), departure,
+                        edge.getWeight(), tas);
+            }
+            double phaseTime = phase.getDuration().doubleValue(SI.SECOND);
+            double cruiseDistance = Math.max(0, edge.getWeight() - phase.getDistance().doubleValue(SI.METER));
+            if (climbs) {
+                return Calculus.cruiseArrival(edge.getElement(), edge.getVOrig(), edge.getVDest(),
+                        departure + phaseTime, cruiseDistance, tas);
+            }
+            return Calculus.cruiseArrival(edge.getElement(), edge.getVOrig(), edge.getVDest(), departure,
+                    cruiseDistance, tas) + phaseTime;
+        };
+    }
+
+    /**
+     * Obtains the climb or the landing flown over an edge.
+     *
+     * @param edge the edge
+     * @param climbs true if the edge starts at the origin or a technical stop
+     * @param profile the performance profile of the aircraft of the flight
+     * @param flight the flight
+     * @param vDest the destination
+     * @param stops the technical stops
+     * @return the climb or the landing, null if the edge is all cruise
+     */
+    private AlgorithmAnalysis phase(MapEdge<Coordinate, Segment> edge, boolean climbs, PerformanceProfile profile,
+            FlightSimulation flight, Coordinate vDest, List<Stop> stops) {
+
+        if (climbs) {
+            return PhaseProfileCache.SHARED.climb(profile, flight, getAirportAltitude(edge.getVOrig(), flight));
+        }
+        if (isTechnicalStop(edge.getVDest(), stops) || edge.getVDest().equals(vDest)) {
+            return PhaseProfileCache.SHARED.landing(profile, flight, getAirportAltitude(edge.getVDest(), flight));
         }
+        return null;
+    }
+
+    /**
+     * Obtains the cruise true airspeed of a flight.
+     *
+     * @param flight the flight
+     * @return the true airspeed (m/s)
+     */
+    private static double cruiseTas(FlightSimulation flight) {
 
-        return graph;
+        Amount<Length> altitude = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseAltitude();
+        Amount<Velocity> machNumber = flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getCruiseSpeed();
+        return Calculus.calculateTAS(altitude, machNumber).doubleValue(SI.METERS_PER_SECOND);
     }
 
     private boolean isTechnicalStop(Coordinate coord, List<Stop> stops) {
@@ -159,11 +295,64 @@ public class FastestPath extends ShortestFlightPlan {
     }
 
     @Override
-    protected double pathAlgorithm(MapGraph<Coordinate, Segment> network, Coordinate vOrig,
-            Coordinate vDest, LinkedList<Coordinate> efficientPath, FlightSimulation flight,
-            List<Junction> junctions) throws InsufficientFuelException {
+    protected boolean staticLegCosts(PlanningContext context) {
+        // with wind forecasts a leg costs depend on when it is flown
+        return !context.hasWindForecasts();
+    }
 
-        return MapGraphAlgorithms.shortestPath(network, vOrig, vDest, efficientPath);
+    @Override
+    protected void prepare(PlanningContext context) {
+        // Flight time (s) of the edges, computed once per flight plan.
+        context.setEdgeWeights(new EdgeWeights<>(context.getGraph(),
+                flightTime(context.getProfile(), context.getFlight(), false)));
+        if (context.hasWindForecasts()) {
+            context.setArrivalTimes(arrivalTime(context.getProfile(), context.getFlight()));
+        }
+    }
+
+    @Override
+    protected EdgeWeightFunction<Coordinate, Segment> legWeights(PlanningContext context) {
+        return context.getEdgeWeights();
+    }
+
+    @Override
+    protected GreatCircleHeuristic legHeuristic(PlanningContext context) {
+
+        // Heuristic of the flight times (A*), built on the first search of the request
+        GreatCircleHeuristic heuristic = context.getHeuristic();
+        if (heuristic == null) {
+            // with wind forecasts, bounded by the least flight times at any time
+            EdgeWeightFunction<Coordinate, Segment> weights = context.hasWindForecasts()
+                    ? flightTime(context.getProfile(), context.getFlight(), true) : context.getEdgeWeights();
+            heuristic = GreatCircleHeuristic.time(context.getNetwork(), weights,
+                    GreatCircleHeuristic.maxGroundSpeed(context.getNetwork(), context.getFlight()));
+            context.setHeuristic(heuristic);
+        }
+        return heuristic;
+    }
+
+    @Override
+    protected double pathAlgorithm(PlanningContext context, Coordinate vOrig, Coordinate vDest,
+            LinkedList<Coordinate> efficientPath, List<Junction> junctions) throws InsufficientFuelException {
+
+        MapGraph<Coordinate, Segment> network = context.getGraph();
+        EdgeWeights<Coordinate, Segment> flightTimes = context.getEdgeWeights();
+        GreatCircleHeuristic heuristic = legHeuristic(context);
+        ArrivalTimeFunction<Coordinate, Segment> arrivalTimes = context.getArrivalTimes();
+        double time;
+        if (arrivalTimes != null) {
+            time = MapGraphAlgorithms.timeDependentPath(network, vOrig, vDest, context.getTime(), arrivalTimes,
+                    heuristic, efficientPath);
+        } else if (heuristic.getCostPerMeter() == 0) {
+            // without an informed estimate, search from both ends instead
+            time = MapGraphAlgorithms.bidirectionalPath(network, vOrig, vDest, flightTimes, efficientPath);
+        } else {
+            time = MapGraphAlgorithms.aStar(network, vOrig, vDest, heuristic, flightTimes, efficientPath);
+        }
+        if (time >= 0) {
+            context.setTime(context.getTime() + time);
+        }
+        return time;
     }
 
     @Override
@@ -172,8 +361,9 @@ public class FastestPath extends ShortestFlightPlan {
     }
 
     @Override
-    protected void actionAtStop(Junction junction, FlightSimulation flight) {
-        // does nothing
+    protected void actionAtStop(Junction junction, PlanningContext context) {
+        // the flight leaves after the stopage time
+        context.setTime(context.getTime() + addStopWeight(junction));
     }
 
 }
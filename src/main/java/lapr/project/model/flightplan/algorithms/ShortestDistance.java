@@ -3,6 +3,7 @@
  */
 package lapr.project.model.flightplan.algorithms;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -10,11 +11,15 @@ import javax.measure.unit.SI;
 import lapr.project.model.AirNetwork;
 import lapr.project.model.Coordinate;
 import lapr.project.model.FlightSimulation;
+import lapr.project.model.GreatCircleHeuristic;
 import lapr.project.model.Junction;
 import lapr.project.model.Segment;
+import lapr.project.model.flightplan.AlternativeFlightPlan;
+import lapr.project.model.flightplan.PlanningContext;
 import lapr.project.model.flightplan.ShortestFlightPlan;
 import lapr.project.utils.exceptions.FailedAnalysisException;
 import lapr.project.utils.exceptions.InsufficientFuelException;
+import lapr.project.utils.graph.ContractionHierarchy;
 import lapr.project.utils.graph.MapGraph;
 import lapr.project.utils.graph.MapGraphAlgorithms;
 import org.jscience.physics.amount.Amount;
@@ -28,7 +33,7 @@ import org.jscience.physics.amount.Amount;
  * @author Ivo Ferro - 1151159
  * @author Tiago Correia - 1151031
  */
-public class ShortestDistance extends ShortestFlightPlan {
+public class ShortestDistance extends ShortestFlightPlan implements AlternativeFlightPlan {
 
     /**
      * Algorithm's description.
@@ -36,16 +41,15 @@ public class ShortestDistance extends ShortestFlightPlan {
     private static final String DESCRIPTION = "Shortest Path";
 
     @Override
-    public Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight, LinkedList<Segment> flightplan)
-            throws Exception {
+    public Amount<?> generateFlightPlan(PlanningContext context, LinkedList<Segment> flightplan) throws Exception {
 
-        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
 
         // New ordered list of coordinates.
         LinkedList<Coordinate> coordinates = new LinkedList<>();
 
         // Find best shortest path between orgin & dest, passing through waypoints/stops
-        double distance = shortestFlightPlan(graph, flight, coordinates);
+        double distance = shortestFlightPlan(context, coordinates);
 
         if (distance < 1 || coordinates.isEmpty()) {
             throw new FailedAnalysisException();
@@ -65,6 +69,33 @@ public class ShortestDistance extends ShortestFlightPlan {
         return Amount.valueOf(distance, SI.METER);
     }
 
+    @Override
+    public List<Amount<?>> generateFlightPlans(AirNetwork network, FlightSimulation flight, int k, long timeBudget,
+            List<LinkedList<Segment>> flightplans) throws Exception {
+
+        if (k < 1 || timeBudget < 0) {
+            throw new IllegalArgumentException("Invalid number of flight plans or time budget.");
+        }
+        PlanningContext context = new PlanningContext(network, flight);
+        MapGraph<Coordinate, Segment> graph = context.getGraph();
+
+        List<LinkedList<Coordinate>> plans = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        alternativeFlightPlans(context, Math.min(k, MAX_ALTERNATIVES), timeBudget, plans, costs);
+
+        if (plans.isEmpty()) {
+            throw new FailedAnalysisException();
+        }
+        List<Amount<?>> amounts = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            LinkedList<Segment> flightplan = new LinkedList<>();
+            segments(graph, plans.get(i), flightplan);
+            flightplans.add(flightplan);
+            amounts.add(Amount.valueOf(costs.get(i), SI.METER));
+        }
+        return amounts;
+    }
+
     @Override
     protected double addStopWeight(Junction junction) {
         // This algorithm doesn't imply any stop/waypoint passing alteration.
@@ -77,11 +108,37 @@ public class ShortestDistance extends ShortestFlightPlan {
     }
 
     @Override
-    protected double pathAlgorithm(MapGraph<Coordinate, Segment> network, Coordinate vOrig,
-            Coordinate vDest, LinkedList<Coordinate> efficientPath, FlightSimulation flight,
-            List<Junction> junctions) throws InsufficientFuelException {
+    protected boolean staticLegCosts(PlanningContext context) {
+        // indexed point to point queries are cheaper than a tree per junction
+        return context.getRouteIndex() == null;
+    }
+
+    @Override
+    protected GreatCircleHeuristic legHeuristic(PlanningContext context) {
+
+        GreatCircleHeuristic heuristic = context.getHeuristic();
+        if (heuristic == null) {
+            heuristic = GreatCircleHeuristic.distance(context.getNetwork());
+            context.setHeuristic(heuristic);
+        }
+        return heuristic;
+    }
+
+    @Override
+    protected double pathAlgorithm(PlanningContext context, Coordinate vOrig, Coordinate vDest,
+            LinkedList<Coordinate> efficientPath, List<Junction> junctions) throws InsufficientFuelException {
 
-        return MapGraphAlgorithms.shortestPath(network, vOrig, vDest, efficientPath);
+        ContractionHierarchy<Coordinate, Segment> routeIndex = context.getRouteIndex();
+        if (routeIndex != null) {
+            return routeIndex.shortestPath(vOrig, vDest, efficientPath);
+        }
+        MapGraph<Coordinate, Segment> network = context.getGraph();
+        GreatCircleHeuristic heuristic = legHeuristic(context);
+        // without an informed estimate, search from both ends instead
+        if (heuristic.getCostPerMeter() == 0) {
+            return MapGraphAlgorithms.bidirectionalPath(network, vOrig, vDest, efficientPath);
+        }
+        return MapGraphAlgorithms.aStar(network, vOrig, vDest, heuristic, efficientPath);
     }
 
     @Override
@@ -90,7 +147,7 @@ public class ShortestDistance extends ShortestFlightPlan {
     }
 
     @Override
-    protected void actionAtStop(Junction junction, FlightSimulation flight) {
+    protected void actionAtStop(Junction junction, PlanningContext context) {
         // does nothing
     }
 
@@ -0,0 +1,33 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+/**
+ * Interface for the arrival times over the edges of a graph whose costs
+ * depend on when each edge is entered (for example, the flight time of an
+ * edge with a wind forecast).
+ *
+ * The arrival must not be before the departure and must not decrease when the
+ * departure increases (first in, first out): entering an edge later never
+ * leaves it sooner, so the time dependent searches are exact.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public interface ArrivalTimeFunction<V, E> {
+
+    /**
+     * Obtains the arrival time at the end of an edge.
+     *
+     * @param edge the edge
+     * @param departure the time the edge is entered
+     * @return the arrival time, infinity if never
+     */
+    double arrival(MapEdge<V, E> edge, double departure);
+}
@@ -0,0 +1,640 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contraction hierarchy of a directed {@link MapGraph}, for fast point to
+ * point shortest path queries.
+ *
+ * The vertices are contracted one by one, the least important first (edge
+ * difference plus contracted neighbours plus level, with lazy updates).
+ * Contracting a vertex v removes it from the remaining graph and adds a
+ * shortcut u -&gt; w for every path u -&gt; v -&gt; w that has no witness path
+ * of the same or lower weight avoiding v (bounded local Dijkstra's search). A
+ * query is a bidirectional Dijkstra's search that only goes up in the
+ * hierarchy (with stall on demand), so it settles a small number of vertices
+ * whatever the size of the graph, and the shortcuts of the best path are
+ * unpacked to the original edges.
+ *
+ * The weights are read once, when the hierarchy is built, and the hierarchy
+ * never changes afterwards: it is safe to query from many threads (each
+ * thread keeps its own search arrays), and must be built again when the graph
+ * changes.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public class ContractionHierarchy<V, E> {
+
+    /**
+     * Maximum number of vertices settled by a witness search.
+     */
+    public static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * Maximum number of vertices settled by a witness search that only
+     * estimates the importance of a vertex.
+     */
+    public static final int ESTIMATE_SETTLE_LIMIT = 20;
+
+    /**
+     * The index of each vertex.
+     */
+    private final Map<V, Integer> index;
+
+    /**
+     * The vertices, by index.
+     */
+    private final V[] vertices;
+
+    /**
+     * Arcs from each vertex to higher ranked vertices (forward search).
+     */
+    private final int[] upOffset;
+    private final Arc<V, E>[] up;
+
+    /**
+     * Arcs from higher ranked vertices to each vertex (backward search).
+     */
+    private final int[] downOffset;
+    private final Arc<V, E>[] down;
+
+    /**
+     * Number of shortcuts added.
+     */
+    private final int shortcuts;
+
+    /**
+     * The search arrays of each thread.
+     */
+    private final ThreadLocal<Query<V, E>> queries;
+
+    /**
+     * Working graph of the contraction: arcs between the remaining vertices,
+     * the lightest one per pair. Null after the build.
+     */
+    private List<List<Arc<V, E>>> outArcs;
+    private List<List<Arc<V, E>>> inArcs;
+
+    /**
+     * Witness search workspace: distances, vertices with a distance and
+     * targets still to settle (marked with the search number).
+     */
+    private double[] witnessDist;
+    private int[] touched;
+    private int[] target;
+    private int witnessSearches;
+    private IndexedMinHeap witnessHeap;
+
+    /**
+     * Builds the hierarchy of a graph, with the current edge weights.
+     *
+     * @param g MapGraph instance
+     */
+    public ContractionHierarchy(MapGraph<V, E> g) {
+
+        int n = g.numVertices();
+        index = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        V[] vertexArray = (V[]) new Object[n];
+        vertices = vertexArray;
+        for (V vert : g.vertices()) {
+            vertices[index.size()] = vert;
+            index.put(vert, index.size());
+        }
+        queries = ThreadLocal.withInitial(() -> new Query<>(vertices.length));
+
+        outArcs = new ArrayList<>(n);
+        inArcs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            outArcs.add(new ArrayList<>());
+            inArcs.add(new ArrayList<>());
+        }
+        for (MapEdge<V, E> edge : g.edges()) {
+            int from = index.get(edge.getVOrig());
+            int to = index.get(edge.getVDest());
+            if (from != to) {
+                insertArc(new Arc<>(from, to, edge.getWeight(), edge, null, null));
+            }
+        }
+
+        witnessDist = new double[n];
+        touched = new int[n];
+        target = new int[n];
+        witnessHeap = new IndexedMinHeap(n);
+        Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+
+        int[] contractedNeighbours = new int[n];
+        int[] level = new int[n];
+        List<List<Arc<V, E>>> upArcs = new ArrayList<>(n);
+        List<List<Arc<V, E>>> downArcs = new ArrayList<>(n);
+        IndexedMinHeap queue = new IndexedMinHeap(n);
+        for (int v = 0; v < n; v++) {
+            upArcs.add(null);
+            downArcs.add(null);
+            queue.offer(v, priority(v, 0, 0));
+        }
+
+        int added = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            // lazy update: contract only if still the least important
+            double priority = priority(v, contractedNeighbours[v], level[v]);
+            if (!queue.isEmpty() && priority > queue.peekPriority()) {
+                queue.offer(v, priority);
+                continue;
+            }
+
+            List<Arc<V, E>> newArcs = new ArrayList<>();
+            shortcuts(v, newArcs, WITNESS_SETTLE_LIMIT);
+            List<Arc<V, E>> out = outArcs.get(v);
+            List<Arc<V, E>> in = inArcs.get(v);
+            upArcs.set(v, out);
+            downArcs.set(v, in);
+            outArcs.set(v, null);
+            inArcs.set(v, null);
+            for (Arc<V, E> arc : out) {
+                removeArc(inArcs.get(arc.to), v, false);
+                contractedNeighbours[arc.to]++;
+                level[arc.to] = Math.max(level[arc.to], level[v] + 1);
+            }
+            for (Arc<V, E> arc : in) {
+                removeArc(outArcs.get(arc.from), v, true);
+                contractedNeighbours[arc.from]++;
+                level[arc.from] = Math.max(level[arc.from], level[v] + 1);
+            }
+            for (Arc<V, E> arc : newArcs) {
+                if (insertArc(arc)) {
+                    added++;
+                }
+            }
+
+            // neighbours that became less important move up the queue
+            for (Arc<V, E> arc : out) {
+                queue.offer(arc.to, priority(arc.to, contractedNeighbours[arc.to], level[arc.to]));
+            }
+            for (Arc<V, E> arc : in) {
+                queue.offer(arc.from, priority(arc.from, contractedNeighbours[arc.from], level[arc.from]));
+            }
+        }
+        shortcuts = added;
+
+        upOffset = new int[n + 1];
+        up = pack(upArcs, upOffset);
+        downOffset = new int[n + 1];
+        down = pack(downArcs, downOffset);
+
+        outArcs = null;
+        inArcs = null;
+        witnessDist = null;
+        touched = null;
+        target = null;
+        witnessHeap = null;
+    }
+
+    /**
+     * Inserts an arc in the working graph, if it is the lightest of its pair
+     * of vertices.
+     *
+     * @param arc the arc
+     * @return true if inserted
+     */
+    private boolean insertArc(Arc<V, E> arc) {
+
+        List<Arc<V, E>> out = outArcs.get(arc.from);
+        for (int i = 0; i < out.size(); i++) {
+            Arc<V, E> existing = out.get(i);
+            if (existing.to == arc.to) {
+                if (existing.weight <= arc.weight) {
+                    return false;
+                }
+                out.set(i, arc);
+                List<Arc<V, E>> in = inArcs.get(arc.to);
+                in.set(in.indexOf(existing), arc);
+                return true;
+            }
+        }
+        out.add(arc);
+        inArcs.get(arc.to).add(arc);
+        return true;
+    }
+
+    /**
+     * Removes the arc of a contracted vertex from the arcs of a neighbour.
+     *
+     * @param arcs the arcs of the neighbour
+     * @param v the contracted vertex index
+     * @param outgoing true if the arcs are outgoing (end at v)
+     */
+    private static <V, E> void removeArc(List<Arc<V, E>> arcs, int v, boolean outgoing) {
+
+        for (int i = 0; i < arcs.size(); i++) {
+            Arc<V, E> arc = arcs.get(i);
+            if ((outgoing ? arc.to : arc.from) == v) {
+                arcs.set(i, arcs.get(arcs.size() - 1));
+                arcs.remove(arcs.size() - 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Computes the importance of a vertex: the shortcuts its contraction
+     * adds, minus the arcs it removes, plus its contracted neighbours and its
+     * level (contractions it depends on).
+     *
+     * @param v the vertex index
+     * @param contractedNeighbours the number of contracted neighbours
+     * @param level the level of the vertex
+     * @return the priority (lowest is contracted first)
+     */
+    private double priority(int v, int contractedNeighbours, int level) {
+
+        return shortcuts(v, null, ESTIMATE_SETTLE_LIMIT) - outArcs.get(v).size() - inArcs.get(v).size()
+                + contractedNeighbours + level;
+    }
+
+    /**
+     * Finds the shortcuts needed to contract a vertex.
+     *
+     * @param v the vertex index
+     * @param result the list to add the shortcuts to (null to only count)
+     * @param settleLimit the maximum number of vertices settled by a witness
+     * search
+     * @return the number of shortcuts
+     */
+    private int shortcuts(int v, List<Arc<V, E>> result, int settleLimit) {
+
+        List<Arc<V, E>> out = outArcs.get(v);
+        int count = 0;
+        for (Arc<V, E> in : inArcs.get(v)) {
+            witnessSearches++;
+            double bound = -1;
+            int targets = 0;
+            for (Arc<V, E> arc : out) {
+                if (arc.to != in.from) {
+                    bound = Math.max(bound, in.weight + arc.weight);
+                    target[arc.to] = witnessSearches;
+                    targets++;
+                }
+            }
+            if (targets == 0) {
+                continue;
+            }
+
+            int touchedCount = witnessSearch(in.from, v, bound, targets, settleLimit);
+            for (Arc<V, E> arc : out) {
+                double weight = in.weight + arc.weight;
+                if (arc.to != in.from && witnessDist[arc.to] > weight) {
+                    count++;
+                    if (result != null) {
+                        result.add(new Arc<>(in.from, arc.to, weight, null, in, arc));
+                    }
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Bounded Dijkstra's search from a vertex in the working graph, avoiding
+     * the vertex being contracted. It stops when every target is settled.
+     *
+     * @param source the source index
+     * @param avoid the index of the vertex to avoid
+     * @param bound the distance after which the search stops
+     * @param targets the number of targets
+     * @param settleLimit the maximum number of vertices settled
+     * @return the number of vertices with a distance (in touched)
+     */
+    private int witnessSearch(int source, int avoid, double bound, int targets, int settleLimit) {
+
+        int touchedCount = 0;
+        witnessDist[source] = 0;
+        touched[touchedCount++] = source;
+        witnessHeap.offer(source, 0);
+
+        int settled = 0;
+        int remaining = targets;
+        while (!witnessHeap.isEmpty()) {
+            int x = witnessHeap.poll();
+            if (witnessDist[x] > bound || ++settled > settleLimit) {
+                break;
+            }
+            if (target[x] == witnessSearches && --remaining == 0) {
+                break;
+            }
+            for (Arc<V, E> arc : outArcs.get(x)) {
+                if (arc.to == avoid) {
+                    continue;
+                }
+                double newDist = witnessDist[x] + arc.weight;
+                if (newDist < witnessDist[arc.to]) {
+                    if (witnessDist[arc.to] == Double.POSITIVE_INFINITY) {
+                        touched[touchedCount++] = arc.to;
+                    }
+                    witnessDist[arc.to] = newDist;
+                    witnessHeap.offer(arc.to, newDist);
+                }
+            }
+        }
+        witnessHeap.clear();
+        return touchedCount;
+    }
+
+    /**
+     * Packs per vertex arc lists in one array.
+     *
+     * @param lists the arcs of each vertex
+     * @param offset the array to fill with the first arc of each vertex
+     * @return the arcs
+     */
+    private static <V, E> Arc<V, E>[] pack(List<List<Arc<V, E>>> lists, int[] offset) {
+
+        for (int v = 0; v < lists.size(); v++) {
+            offset[v + 1] = offset[v] + lists.get(v).size();
+        }
+        @SuppressWarnings("unchecked")
+        Arc<V, E>[] arcs = (Arc<V, E>[]) new Arc[offset[lists.size()]];
+        for (int v = 0; v < lists.size(); v++) {
+            int i = offset[v];
+            for (Arc<V, E> arc : lists.get(v)) {
+                arcs[i++] = arc;
+            }
+        }
+        return arcs;
+    }
+
+    /**
+     * Obtains the number of vertices of the hierarchy.
+     *
+     * @return the number of vertices
+     */
+    public int numVertices() {
+        return vertices.length;
+    }
+
+    /**
+     * Obtains the number of shortcuts added by the contraction.
+     *
+     * @return the number of shortcuts
+     */
+    public int numShortcuts() {
+        return shortcuts;
+    }
+
+    /**
+     * Verifies if a vertex is in the hierarchy.
+     *
+     * @param vert the vertex
+     * @return true if the vertex was in the graph when the hierarchy was built
+     */
+    public boolean validVertex(V vert) {
+        return index.containsKey(vert);
+    }
+
+    /**
+     * Shortest path between two vertices, as vertices.
+     *
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public double shortestPath(V vOrig, V vDest, LinkedList<V> shortPath) {
+
+        LinkedList<MapEdge<V, E>> edges = new LinkedList<>();
+        double length = shortestPathEdges(vOrig, vDest, edges);
+        shortPath.clear();
+        if (length < 0) {
+            return length;
+        }
+        shortPath.add(vOrig);
+        for (MapEdge<V, E> edge : edges) {
+            shortPath.add(edge.getVDest());
+        }
+        return length;
+    }
+
+    /**
+     * Shortest path between two vertices, as the original edges.
+     *
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param edges list to fill with the edges of the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public double shortestPathEdges(V vOrig, V vDest, LinkedList<MapEdge<V, E>> edges) {
+
+        edges.clear();
+        Integer source = index.get(vOrig);
+        Integer destination = index.get(vDest);
+        if (source == null || destination == null) {
+            return -1d;
+        }
+        if (source.equals(destination)) {
+            return 0;
+        }
+
+        Query<V, E> query = queries.get();
+        query.reach(true, source, 0, null);
+        query.reach(false, destination, 0, null);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        // each side runs while it can still find a better path
+        while (true) {
+            boolean forwardOpen = query.forward.peekPriority() < best;
+            boolean backwardOpen = query.backward.peekPriority() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+
+            boolean isForward = forwardOpen
+                    && (!backwardOpen || query.forward.peekPriority() <= query.backward.peekPriority());
+            int x = isForward ? query.forward.poll() : query.backward.poll();
+            if (query.stalled(isForward, x, isForward ? down : up, isForward ? downOffset : upOffset)) {
+                continue;
+            }
+
+            double[] dist = isForward ? query.forwardDist : query.backwardDist;
+            double[] otherDist = isForward ? query.backwardDist : query.forwardDist;
+            Arc<V, E>[] arcs = isForward ? up : down;
+            int[] offset = isForward ? upOffset : downOffset;
+            for (int i = offset[x]; i < offset[x + 1]; i++) {
+                Arc<V, E> arc = arcs[i];
+                int y = isForward ? arc.to : arc.from;
+                double newDist = dist[x] + arc.weight;
+                if (newDist < dist[y]) {
+                    query.reach(isForward, y, newDist, arc);
+                    if (newDist + otherDist[y] < best) {
+                        best = newDist + otherDist[y];
+                        meet = y;
+                    }
+                }
+            }
+        }
+
+        if (meet >= 0) {
+            for (int x = meet; query.forwardArc[x] != null; x = query.forwardArc[x].from) {
+                unpack(query.forwardArc[x], edges, true);
+            }
+            for (int x = meet; query.backwardArc[x] != null; x = query.backwardArc[x].to) {
+                unpack(query.backwardArc[x], edges, false);
+            }
+        }
+        query.reset();
+        return (meet < 0) ? -1d : best;
+    }
+
+    /**
+     * Unpacks an arc (shortcut or original edge) to the original edges.
+     *
+     * @param arc the arc
+     * @param edges the list to add the edges to
+     * @param first true to add the edges at the beginning, false at the end
+     */
+    private static <V, E> void unpack(Arc<V, E> arc, LinkedList<MapEdge<V, E>> edges, boolean first) {
+
+        LinkedList<MapEdge<V, E>> unpacked = new LinkedList<>();
+        Deque<Arc<V, E>> stack = new ArrayDeque<>();
+        stack.push(arc);
+        while (!stack.isEmpty()) {
+            Arc<V, E> current = stack.pop();
+            if (current.edge != null) {
+                unpacked.add(current.edge);
+            } else {
+                stack.push(current.second);
+                stack.push(current.first);
+            }
+        }
+        if (first) {
+            edges.addAll(0, unpacked);
+        } else {
+            edges.addAll(unpacked);
+        }
+    }
+
+    /**
+     * Arc of the hierarchy: an original edge or a shortcut of two arcs.
+     */
+    private static final class Arc<V, E> {
+
+        private final int from;
+        private final int to;
+        private final double weight;
+        private final MapEdge<V, E> edge;
+        private final Arc<V, E> first;
+        private final Arc<V, E> second;
+
+        Arc(int from, int to, double weight, MapEdge<V, E> edge, Arc<V, E> first, Arc<V, E> second) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.edge = edge;
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * Search arrays of a query, reset after each query (only the reached
+     * vertices), so a query costs its search space and not the graph size.
+     */
+    private static final class Query<V, E> {
+
+        private final double[] forwardDist;
+        private final double[] backwardDist;
+        private final Arc<V, E>[] forwardArc;
+        private final Arc<V, E>[] backwardArc;
+        private final IndexedMinHeap forward;
+        private final IndexedMinHeap backward;
+        private final int[] reached;
+        private final boolean[] isReached;
+        private int reachedCount;
+
+        @SuppressWarnings("unchecked")
+        Query(int n) {
+            forwardDist = new double[n];
+            backwardDist = new double[n];
+            forwardArc = (Arc<V, E>[]) new Arc[n];
+            backwardArc = (Arc<V, E>[]) new Arc[n];
+            forward = new IndexedMinHeap(n);
+            backward = new IndexedMinHeap(n);
+            reached = new int[n];
+            isReached = new boolean[n];
+            Arrays.fill(forwardDist, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardDist, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Gives a vertex a new distance in one of the searches.
+         */
+        void reach(boolean isForward, int x, double dist, Arc<V, E> arc) {
+            if (!isReached[x]) {
+                isReached[x] = true;
+                reached[reachedCount++] = x;
+            }
+            if (isForward) {
+                forwardDist[x] = dist;
+                forwardArc[x] = arc;
+                forward.offer(x, dist);
+            } else {
+                backwardDist[x] = dist;
+                backwardArc[x] = arc;
+                backward.offer(x, dist);
+            }
+        }
+
+        /**
+         * Stall on demand: a vertex reached with a better distance through a
+         * higher ranked vertex is not on a shortest up path.
+         */
+        boolean stalled(boolean isForward, int x, Arc<V, E>[] arcs, int[] offset) {
+            double[] dist = isForward ? forwardDist : backwardDist;
+            for (int i = offset[x]; i < offset[x + 1]; i++) {
+                Arc<V, E> arc = arcs[i];
+                int y = isForward ? arc.from : arc.to;
+                if (dist[y] + arc.weight < dist[x]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Clears the reached vertices.
+         */
+        void reset() {
+            for (int i = 0; i < reachedCount; i++) {
+                int x = reached[i];
+                isReached[x] = false;
+                forwardDist[x] = Double.POSITIVE_INFINITY;
+                backwardDist[x] = Double.POSITIVE_INFINITY;
+                forwardArc[x] = null;
+                backwardArc[x] = null;
+            }
+            reachedCount = 0;
+            forward.clear();
+            backward.clear();
+        }
+    }
+}
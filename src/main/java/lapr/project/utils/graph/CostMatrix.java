@@ -0,0 +1,161 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Many to many shortest path costs between two lists of vertices of a
+ * {@link MapGraph}.
+ *
+ * Each source is searched once (Dijkstra's algorithm, one shortest path tree
+ * per source, over a fork-join pool when there are many sources), instead of
+ * one search per pair. Only the costs to the targets and the trees are kept,
+ * and the path of a pair is rebuilt from the tree of its source when it is
+ * asked for.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public class CostMatrix<V, E> {
+
+    /**
+     * Number of sources from which the trees are searched in parallel.
+     */
+    public static final int PARALLEL_SOURCES = 4;
+
+    /**
+     * The vertices of the graph, by key.
+     */
+    private final V[] vertices;
+
+    /**
+     * The key of each target.
+     */
+    private final int[] targetKeys;
+
+    /**
+     * The costs, by source and target (infinity if there is no path).
+     */
+    private final double[][] costs;
+
+    /**
+     * The shortest path tree of each source (previous vertex keys).
+     */
+    private final int[][] pathKeys;
+
+    /**
+     * Computes the costs between the sources and the targets.
+     *
+     * @param g MapGraph instance
+     * @param sources the sources (rows)
+     * @param targets the targets (columns)
+     */
+    public CostMatrix(MapGraph<V, E> g, List<V> sources, List<V> targets) {
+        this(g, sources, targets, null);
+    }
+
+    /**
+     * Computes the costs between the sources and the targets over the weights
+     * of a weight function.
+     *
+     * @param g MapGraph instance
+     * @param sources the sources (rows)
+     * @param targets the targets (columns)
+     * @param weights the edge weights (null for the weights of the edges)
+     */
+    public CostMatrix(MapGraph<V, E> g, List<V> sources, List<V> targets, EdgeWeightFunction<V, E> weights) {
+
+        for (V vert : sources) {
+            if (!g.validVertex(vert)) {
+                throw new IllegalArgumentException("Invalid cost matrix source.");
+            }
+        }
+        targetKeys = new int[targets.size()];
+        for (int j = 0; j < targetKeys.length; j++) {
+            if (!g.validVertex(targets.get(j))) {
+                throw new IllegalArgumentException("Invalid cost matrix target.");
+            }
+            targetKeys[j] = g.getKey(targets.get(j));
+        }
+
+        vertices = g.allkeyVerts();
+        costs = new double[sources.size()][];
+        pathKeys = new int[sources.size()][];
+
+        IntStream rows = IntStream.range(0, sources.size());
+        if (sources.size() >= PARALLEL_SOURCES) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            int numKeys = vertices.length;
+            boolean[] visited = new boolean[numKeys];
+            int[] tree = new int[numKeys];
+            double[] dist = new double[numKeys];
+            MapGraphAlgorithms.shortestPathLength(g, sources.get(i), null, weights, vertices, visited, tree, dist);
+
+            double[] row = new double[targetKeys.length];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = dist[targetKeys[j]];
+            }
+            costs[i] = row;
+            pathKeys[i] = tree;
+        });
+    }
+
+    /**
+     * Obtains the number of sources.
+     *
+     * @return the number of rows
+     */
+    public int numSources() {
+        return costs.length;
+    }
+
+    /**
+     * Obtains the number of targets.
+     *
+     * @return the number of columns
+     */
+    public int numTargets() {
+        return targetKeys.length;
+    }
+
+    /**
+     * Obtains the cost of the shortest path from a source to a target.
+     *
+     * @param source the source index
+     * @param target the target index
+     * @return the cost, infinity if there is no path
+     */
+    public double cost(int source, int target) {
+        return costs[source][target];
+    }
+
+    /**
+     * Builds the shortest path from a source to a target.
+     *
+     * @param source the source index
+     * @param target the target index
+     * @param path list to fill with the path (in order, empty if there is no
+     * path)
+     * @return the cost, -1 if there is no path
+     */
+    public double path(int source, int target, LinkedList<V> path) {
+
+        path.clear();
+        if (costs[source][target] == Double.POSITIVE_INFINITY) {
+            return -1d;
+        }
+        MapGraphAlgorithms.buildPath(vertices, pathKeys[source], targetKeys[target], path);
+        return costs[source][target];
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Shortest path between two vertices of a {@link MapGraph} that is repaired,
+ * not searched again, when edge weights change (D* Lite).
+ *
+ * The search goes from the destination to the origin and keeps, for every
+ * vertex it reached, its distance to the destination. When the weights of
+ * some edges change, only the vertices whose distance depends on them are
+ * searched again; the origin may also move (for example, along the path
+ * being flown) without discarding the search.
+ *
+ * The weight function is read on every search: after the weights of some
+ * edges changed, {@link #updateEdges(Iterable)} must be called with them.
+ * The heuristic must stay consistent with the new weights; otherwise a new
+ * search must be created. The graph must not have vertices or edges inserted
+ * or removed (see {@link #isCurrent()}).
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public class DynamicShortestPath<V, E> {
+
+    /**
+     * The graph.
+     */
+    private final MapGraph<V, E> graph;
+
+    /**
+     * The modification count of the graph when the search was created.
+     */
+    private final int modifications;
+
+    /**
+     * The edge weights (null for the weights of the edges).
+     */
+    private final EdgeWeightFunction<V, E> weights;
+
+    /**
+     * The admissible &amp; consistent estimate between vertices (null for
+     * none).
+     */
+    private final Heuristic<V> heuristic;
+
+    /**
+     * The vertices of the graph, by key.
+     */
+    private final V[] vertices;
+
+    /**
+     * The incoming edges of the vertices.
+     */
+    private final ReverseAdjacency<V, E> reverse;
+
+    /**
+     * The destination key.
+     */
+    private final int destKey;
+
+    /**
+     * The origin key.
+     */
+    private int origKey;
+
+    /**
+     * Distance of each vertex to the destination (infinity if unknown).
+     */
+    private final double[] dist;
+
+    /**
+     * One step lookahead of the distances (infinity if unknown).
+     */
+    private final double[] rhs;
+
+    /**
+     * Estimate of the origin to each vertex (NaN if not computed).
+     */
+    private final double[] estimate;
+
+    /**
+     * The vertices whose distance is not consistent, by key.
+     */
+    private final IndexedMinHeap heap;
+
+    /**
+     * Sum of the estimates between the origins, added to the keys computed
+     * after the origin moved.
+     */
+    private double keyModifier;
+
+    /**
+     * The counters of the searches.
+     */
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * Creates the search of the shortest path between two vertices. The
+     * path is only searched when first asked.
+     *
+     * @param g MapGraph instance
+     * @param vOrig the origin
+     * @param vDest the destination
+     * @param weights the edge weights (null for the weights of the edges)
+     * @param heuristic admissible &amp; consistent estimate (of the weights)
+     * between vertices (null for none)
+     */
+    public DynamicShortestPath(MapGraph<V, E> g, V vOrig, V vDest, EdgeWeightFunction<V, E> weights,
+            Heuristic<V> heuristic) {
+
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            throw new IllegalArgumentException("Invalid origin or destination.");
+        }
+        this.graph = g;
+        this.modifications = g.getModificationCount();
+        this.weights = weights;
+        this.heuristic = heuristic;
+        vertices = g.allkeyVerts();
+        reverse = g.reverseView();
+        origKey = g.getKey(vOrig);
+        destKey = g.getKey(vDest);
+
+        int numKeys = vertices.length;
+        dist = new double[numKeys];
+        rhs = new double[numKeys];
+        estimate = new double[numKeys];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(rhs, Double.POSITIVE_INFINITY);
+        Arrays.fill(estimate, Double.NaN);
+        heap = new IndexedMinHeap(numKeys);
+
+        rhs[destKey] = 0;
+        queue(destKey);
+    }
+
+    /**
+     * Verifies if the graph still has the vertices &amp; edges it had when
+     * the search was created.
+     *
+     * @return true if the search can still be used
+     */
+    public boolean isCurrent() {
+        return graph.getModificationCount() == modifications;
+    }
+
+    /**
+     * Obtains the origin.
+     *
+     * @return the origin
+     */
+    public V getOrigin() {
+        return vertices[origKey];
+    }
+
+    /**
+     * Obtains the destination.
+     *
+     * @return the destination
+     */
+    public V getDestination() {
+        return vertices[destKey];
+    }
+
+    /**
+     * Obtains the counters of the searches so far (the vertices settled
+     * &amp; the edges relaxed, including the repairs).
+     *
+     * @return the counters
+     */
+    public SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Moves the origin, keeping the search.
+     *
+     * @param vOrig the new origin
+     */
+    public void moveTo(V vOrig) {
+
+        if (!graph.validVertex(vOrig)) {
+            throw new IllegalArgumentException("Invalid origin.");
+        }
+        int newKey = graph.getKey(vOrig);
+        if (newKey == origKey) {
+            return;
+        }
+        keyModifier += estimate(newKey);
+        origKey = newKey;
+        // estimates are to the origin
+        Arrays.fill(estimate, Double.NaN);
+    }
+
+    /**
+     * Takes into account that the weights of some edges changed; their
+     * vertices are searched again when the path is next asked.
+     *
+     * @param edges the edges whose weight changed
+     * @return the number of edges of the graph among them
+     */
+    public int updateEdges(Iterable<MapEdge<V, E>> edges) {
+
+        int updated = 0;
+        for (MapEdge<V, E> edge : edges) {
+            int key = edge.getVOrigKey();
+            if (key >= 0 && key < vertices.length && graph.getEdge(edge.getVOrig(), edge.getVDest()) == edge) {
+                updateVertex(key);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Obtains the shortest path from the origin to the destination, repairing
+     * the search first if the weights changed.
+     *
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public double shortestPath(LinkedList<V> shortPath) {
+
+        shortPath.clear();
+        computeShortestPath();
+        if (dist[origKey] == Double.POSITIVE_INFINITY) {
+            return -1d;
+        }
+
+        // follow the least weight plus distance successors
+        double length = 0;
+        int key = origKey;
+        shortPath.add(vertices[key]);
+        while (key != destKey) {
+            MapEdge<V, E> best = null;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (MapEdge<V, E> edge : graph.outgoingEdges(vertices[key])) {
+                double newDist = weight(edge) + dist[edge.getVDestKey()];
+                if (newDist < bestDist) {
+                    bestDist = newDist;
+                    best = edge;
+                }
+            }
+            if (best == null || shortPath.size() > vertices.length) {
+                shortPath.clear();
+                return -1d;
+            }
+            length += weight(best);
+            key = best.getVDestKey();
+            shortPath.add(vertices[key]);
+        }
+        return length;
+    }
+
+    /**
+     * Settles the vertices whose distance is not consistent, until the
+     * distance of the origin is known.
+     */
+    private void computeShortestPath() {
+
+        int settled = 0;
+        long relaxed = 0;
+        while (!heap.isEmpty() && (before(heap.peekPriority(), heap.peekTieBreak(), origKey)
+                || rhs[origKey] != dist[origKey])) {
+            double oldKey = heap.peekPriority();
+            double oldTieBreak = heap.peekTieBreak();
+            int key = heap.poll();
+            settled++;
+            if (before(oldKey, oldTieBreak, key)) {
+                // the origin moved since it was queued
+                queue(key);
+            } else if (dist[key] > rhs[key]) {
+                dist[key] = rhs[key];
+                for (int i = reverse.first(key), end = reverse.end(key); i < end; i++) {
+                    MapEdge<V, E> edge = reverse.edge(i);
+                    int predKey = edge.getVOrigKey();
+                    relaxed++;
+                    if (predKey != destKey) {
+                        double newRhs = weight(edge) + dist[key];
+                        if (newRhs < rhs[predKey]) {
+                            rhs[predKey] = newRhs;
+                        }
+                    }
+                    queue(predKey);
+                }
+            } else {
+                dist[key] = Double.POSITIVE_INFINITY;
+                updateVertex(key);
+                for (int i = reverse.first(key), end = reverse.end(key); i < end; i++) {
+                    relaxed++;
+                    updateVertex(reverse.edge(i).getVOrigKey());
+                }
+            }
+        }
+        statistics.add(settled, relaxed);
+    }
+
+    /**
+     * Recomputes the lookahead of a vertex from its successors and queues it
+     * if it is not consistent.
+     *
+     * @param key the vertex key
+     */
+    private void updateVertex(int key) {
+
+        if (key != destKey) {
+            double best = Double.POSITIVE_INFINITY;
+            for (MapEdge<V, E> edge : graph.outgoingEdges(vertices[key])) {
+                best = Math.min(best, weight(edge) + dist[edge.getVDestKey()]);
+            }
+            rhs[key] = best;
+        }
+        queue(key);
+    }
+
+    /**
+     * Queues a vertex if it is not consistent, removes it otherwise.
+     *
+     * @param key the vertex key
+     */
+    private void queue(int key) {
+
+        if (dist[key] != rhs[key]) {
+            heap.update(key, key(key), Math.min(dist[key], rhs[key]));
+        } else {
+            heap.remove(key);
+        }
+    }
+
+    /**
+     * Verifies if a priority comes before the current priority of a vertex
+     * (lexicographic order: priority, then least distance).
+     *
+     * @param priority the priority
+     * @param tieBreak the least distance of the priority
+     * @param key the vertex key
+     * @return true if it comes first
+     */
+    private boolean before(double priority, double tieBreak, int key) {
+
+        double keyPriority = key(key);
+        return priority < keyPriority
+                || (priority == keyPriority && tieBreak < Math.min(dist[key], rhs[key]));
+    }
+
+    /**
+     * Computes the priority of a vertex (its least distance plus the
+     * estimate of the origin to it).
+     *
+     * @param key the vertex key
+     * @return the priority
+     */
+    private double key(int key) {
+        return Math.min(dist[key], rhs[key]) + estimate(key) + keyModifier;
+    }
+
+    /**
+     * Obtains the estimate of the origin to a vertex, computed once per
+     * origin.
+     *
+     * @param key the vertex key
+     * @return the estimate
+     */
+    private double estimate(int key) {
+
+        if (heuristic == null) {
+            return 0d;
+        }
+        if (Double.isNaN(estimate[key])) {
+            estimate[key] = heuristic.estimate(vertices[origKey], vertices[key]);
+        }
+        return estimate[key];
+    }
+
+    /**
+     * Obtains the weight of an edge.
+     *
+     * @param edge the edge
+     * @return the weight
+     */
+    private double weight(MapEdge<V, E> edge) {
+        return (weights == null) ? edge.getWeight() : weights.weight(edge);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+/**
+ * Interface for the weights of the edges of a graph seen by a search, instead
+ * of the weights stored in the edges (for example, the flight time of an edge
+ * weighted by distance).
+ *
+ * The weights must not be negative.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public interface EdgeWeightFunction<V, E> {
+
+    /**
+     * Obtains the weight of an edge.
+     *
+     * @param edge the edge
+     * @return the weight
+     */
+    double weight(MapEdge<V, E> edge);
+}
@@ -0,0 +1,84 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+/**
+ * Weights of the edges of a graph, computed once and kept in a primitive
+ * array indexed by edge (see {@link MapEdge#getId()}): a weighted view of the
+ * graph that costs one double per edge, without copying the graph.
+ *
+ * The weights are those of the edges of the graph when the view is created,
+ * until refreshed (see {@link #refresh(MapEdge)}); the weight of an edge
+ * inserted afterwards is computed on each call.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public class EdgeWeights<V, E> implements EdgeWeightFunction<V, E> {
+
+    /**
+     * The weights, by edge index.
+     */
+    private final double[] weights;
+
+    /**
+     * The function of the weights.
+     */
+    private final EdgeWeightFunction<V, E> function;
+
+    /**
+     * Computes the weights of the edges of a graph.
+     *
+     * @param g MapGraph instance
+     * @param function the weight of an edge
+     */
+    public EdgeWeights(MapGraph<V, E> g, EdgeWeightFunction<V, E> function) {
+
+        this.function = function;
+        weights = new double[g.numEdgeIds()];
+        for (MapEdge<V, E> edge : g.edges()) {
+            double weight = function.weight(edge);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative edge weight.");
+            }
+            weights[edge.getId()] = weight;
+        }
+    }
+
+    /**
+     * Computes the weight of an edge again (after what it depends on
+     * changed).
+     *
+     * @param edge the edge
+     * @return true if its weight changed
+     */
+    public boolean refresh(MapEdge<V, E> edge) {
+
+        int id = edge.getId();
+        if (id < 0 || id >= weights.length) {
+            return false;
+        }
+        double weight = function.weight(edge);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative edge weight.");
+        }
+        if (weight == weights[id]) {
+            return false;
+        }
+        weights[id] = weight;
+        return true;
+    }
+
+    @Override
+    public double weight(MapEdge<V, E> edge) {
+
+        int id = edge.getId();
+        return (id >= 0 && id < weights.length) ? weights[id] : function.weight(edge);
+    }
+}
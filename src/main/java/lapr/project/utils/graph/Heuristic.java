@@ -0,0 +1,31 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+/**
+ * Interface for the heuristic of a goal directed search (A*).
+ *
+ * The estimate must never exceed the real cost from a vertex to the target
+ * (admissible) and must not decrease by more than the weight of an edge along
+ * that edge (consistent), so every vertex is settled once with its minimum
+ * cost.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ */
+public interface Heuristic<V> {
+
+    /**
+     * Estimates the cost from a vertex to the target.
+     *
+     * @param vertex the vertex
+     * @param target the target vertex
+     * @return the estimated cost (a lower bound)
+     */
+    double estimate(V vertex, V target);
+}
@@ -0,0 +1,307 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of vertex keys with decrease-key, over primitive
+ * arrays.
+ *
+ * The keys are the vertex keys of a graph (0 to capacity - 1). Each key is at
+ * most once in the heap; offering a key that is already there only lowers its
+ * priority, updating it sets its priority either way. Keys of equal priority
+ * may be ordered by a second priority, the tie break (lexicographic order).
+ * Offer, update, poll and remove are O(log n), contains and priority are
+ * O(1).
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class IndexedMinHeap {
+
+    /**
+     * The keys, in heap order.
+     */
+    private final int[] heap;
+
+    /**
+     * The heap position of each key (-1 if not in the heap).
+     */
+    private final int[] position;
+
+    /**
+     * The priority of each key.
+     */
+    private final double[] priority;
+
+    /**
+     * The tie break of each key (null until one is given).
+     */
+    private double[] tieBreak;
+
+    /**
+     * The number of keys in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity the number of keys (0 to capacity - 1)
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        priority = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Verifies if the heap is empty.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Obtains the number of keys in the heap.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifies if a key is in the heap.
+     *
+     * @param key the key
+     * @return true if the key is in the heap
+     */
+    public boolean contains(int key) {
+        return position[key] >= 0;
+    }
+
+    /**
+     * Obtains the priority of a key in the heap.
+     *
+     * @param key the key
+     * @return the priority
+     */
+    public double priority(int key) {
+        return priority[key];
+    }
+
+    /**
+     * Obtains the lowest priority in the heap.
+     *
+     * @return the lowest priority, infinity if empty
+     */
+    public double peekPriority() {
+        return (size == 0) ? Double.POSITIVE_INFINITY : priority[heap[0]];
+    }
+
+    /**
+     * Obtains the tie break of the key with the lowest priority.
+     *
+     * @return the tie break, infinity if empty
+     */
+    public double peekTieBreak() {
+        return (size == 0) ? Double.POSITIVE_INFINITY : tieBreak(heap[0]);
+    }
+
+    /**
+     * Inserts a key, or lowers its priority if it is already in the heap.
+     *
+     * @param key the key
+     * @param keyPriority the priority
+     * @return true if the key was inserted or its priority lowered
+     */
+    public boolean offer(int key, double keyPriority) {
+
+        int index = position[key];
+        if (index < 0) {
+            index = size++;
+            heap[index] = key;
+            position[key] = index;
+        } else if (keyPriority >= priority[key]) {
+            return false;
+        }
+        priority[key] = keyPriority;
+        if (tieBreak != null) {
+            tieBreak[key] = 0;
+        }
+        siftUp(index);
+        return true;
+    }
+
+    /**
+     * Removes the key with the lowest priority.
+     *
+     * @return the key, -1 if empty
+     */
+    public int poll() {
+
+        if (size == 0) {
+            return -1;
+        }
+        int key = heap[0];
+        position[key] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return key;
+    }
+
+    /**
+     * Inserts a key or changes its priority (lower or higher).
+     *
+     * @param key the key
+     * @param keyPriority the priority
+     */
+    public void update(int key, double keyPriority) {
+
+        int index = position[key];
+        if (index < 0) {
+            index = size++;
+            heap[index] = key;
+            position[key] = index;
+        }
+        priority[key] = keyPriority;
+        if (tieBreak != null) {
+            tieBreak[key] = 0;
+        }
+        siftUp(index);
+        siftDown(position[key]);
+    }
+
+    /**
+     * Inserts a key or changes its priority &amp; tie break (lower or
+     * higher).
+     *
+     * @param key the key
+     * @param keyPriority the priority
+     * @param keyTieBreak the tie break, between keys of equal priority
+     */
+    public void update(int key, double keyPriority, double keyTieBreak) {
+
+        if (tieBreak == null) {
+            tieBreak = new double[priority.length];
+        }
+        int index = position[key];
+        if (index < 0) {
+            index = size++;
+            heap[index] = key;
+            position[key] = index;
+        }
+        priority[key] = keyPriority;
+        tieBreak[key] = keyTieBreak;
+        siftUp(index);
+        siftDown(position[key]);
+    }
+
+    /**
+     * Removes a key from the heap.
+     *
+     * @param key the key
+     * @return true if the key was in the heap
+     */
+    public boolean remove(int key) {
+
+        int index = position[key];
+        if (index < 0) {
+            return false;
+        }
+        position[key] = -1;
+        size--;
+        if (index < size) {
+            int last = heap[size];
+            heap[index] = last;
+            position[last] = index;
+            siftUp(index);
+            siftDown(position[last]);
+        }
+        return true;
+    }
+
+    /**
+     * Removes every key.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+
+        int key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            int parentKey = heap[parent];
+            if (!less(key, parentKey)) {
+                break;
+            }
+            heap[index] = parentKey;
+            position[parentKey] = index;
+            index = parent;
+        }
+        heap[index] = key;
+        position[key] = index;
+    }
+
+    private void siftDown(int index) {
+
+        int key = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            int childKey = heap[child];
+            if (!less(childKey, key)) {
+                break;
+            }
+            heap[index] = childKey;
+            position[childKey] = index;
+            index = child;
+        }
+        heap[index] = key;
+        position[key] = index;
+    }
+
+    /**
+     * Verifies if a key comes before another (lower priority, then lower tie
+     * break).
+     *
+     * @param key a key
+     * @param other another key
+     * @return true if the key comes first
+     */
+    private boolean less(int key, int other) {
+        return priority[key] < priority[other]
+                || (tieBreak != null && priority[key] == priority[other] && tieBreak[key] < tieBreak[other]);
+    }
+
+    /**
+     * Obtains the tie break of a key.
+     *
+     * @param key the key
+     * @return the tie break, zero if none was given
+     */
+    private double tieBreak(int key) {
+        return (tieBreak == null) ? 0d : tieBreak[key];
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The k shortest loopless paths to a destination of a {@link MapGraph}
+ * (Yen's algorithm).
+ *
+ * The shortest path tree to the destination (reverse Dijkstra's algorithm) is
+ * computed once, when created, and reused: it gives the first path of any
+ * origin and it is the estimate (exact in the whole graph, a lower bound with
+ * edges removed) of the A* search of every spur path, so most spur searches
+ * only settle the vertices of the spur path itself.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public class KShortestPaths<V, E> {
+
+    /**
+     * The graph.
+     */
+    private final MapGraph<V, E> graph;
+
+    /**
+     * The edge weights (null for the weights of the edges).
+     */
+    private final EdgeWeightFunction<V, E> weights;
+
+    /**
+     * The vertices of the graph, by key.
+     */
+    private final V[] vertices;
+
+    /**
+     * The destination.
+     */
+    private final V vDest;
+    private final int destKey;
+
+    /**
+     * Distance of each vertex to the destination (infinity if none).
+     */
+    private final double[] toDest;
+
+    /**
+     * Next vertex key to the destination, in the shortest path tree.
+     */
+    private final int[] nextKeys;
+
+    /**
+     * Computes the shortest path tree to a destination.
+     *
+     * @param g MapGraph instance
+     * @param vDest the destination
+     * @param weights the edge weights (null for the weights of the edges)
+     */
+    public KShortestPaths(MapGraph<V, E> g, V vDest, EdgeWeightFunction<V, E> weights) {
+
+        if (!g.validVertex(vDest)) {
+            throw new IllegalArgumentException("Invalid destination.");
+        }
+        this.graph = g;
+        this.weights = weights;
+        this.vDest = vDest;
+        this.destKey = g.getKey(vDest);
+        vertices = g.allkeyVerts();
+
+        int numKeys = vertices.length;
+        toDest = new double[numKeys];
+        nextKeys = new int[numKeys];
+        Arrays.fill(toDest, Double.POSITIVE_INFINITY);
+        Arrays.fill(nextKeys, -1);
+
+        ReverseAdjacency<V, E> reverse = g.reverseView();
+        IndexedMinHeap heap = new IndexedMinHeap(numKeys);
+        boolean[] settled = new boolean[numKeys];
+        toDest[destKey] = 0;
+        heap.offer(destKey, 0);
+        while (!heap.isEmpty()) {
+            int key = heap.poll();
+            settled[key] = true;
+            for (int i = reverse.first(key), end = reverse.end(key); i < end; i++) {
+                MapEdge<V, E> edge = reverse.edge(i);
+                int adjKey = edge.getVOrigKey();
+                double newDist = toDest[key] + weight(edge);
+                if (!settled[adjKey] && toDest[adjKey] > newDist) {
+                    toDest[adjKey] = newDist;
+                    nextKeys[adjKey] = key;
+                    heap.offer(adjKey, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the length of the shortest path from a vertex to the
+     * destination.
+     *
+     * @param vOrig the origin
+     * @return the length, -1 if there is no path
+     */
+    public double distance(V vOrig) {
+
+        if (!graph.validVertex(vOrig) || toDest[graph.getKey(vOrig)] == Double.POSITIVE_INFINITY) {
+            return -1d;
+        }
+        return toDest[graph.getKey(vOrig)];
+    }
+
+    /**
+     * Finds the k shortest loopless paths from an origin to the destination,
+     * in increasing length. When the time budget runs out, the paths found so
+     * far are kept (they are still the shortest).
+     *
+     * @param vOrig the origin
+     * @param k the maximum number of paths
+     * @param timeBudget the time budget (milliseconds)
+     * @param paths list to fill with the paths (in order)
+     * @param lengths list to fill with the path lengths
+     * @return the number of paths found
+     */
+    public int paths(V vOrig, int k, long timeBudget, List<LinkedList<V>> paths, List<Double> lengths) {
+
+        paths.clear();
+        lengths.clear();
+        if (k < 1 || distance(vOrig) < 0) {
+            return 0;
+        }
+        long deadline = System.nanoTime() + timeBudget * 1000000L;
+
+        // first path: along the tree
+        int origKey = graph.getKey(vOrig);
+        List<int[]> found = new ArrayList<>();
+        int[] first = new int[depth(origKey)];
+        for (int i = 0, key = origKey; key >= 0; i++, key = nextKeys[key]) {
+            first[i] = key;
+        }
+        found.add(first);
+        lengths.add(toDest[origKey]);
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<List<Integer>> seen = new HashSet<>();
+        seen.add(boxed(first));
+
+        int numKeys = vertices.length;
+        int[] blocked = new int[numKeys];  // stamp of the root path vertices
+        int stamp = 0;
+        boolean[] visited = new boolean[numKeys];
+        int[] pathKeys = new int[numKeys];
+        double[] dist = new double[numKeys];
+        Heuristic<V> estimate = (vertex, target) -> toDest[graph.getKey(vertex)];
+
+        boolean expired = false;
+        while (found.size() < k && !expired) {
+            int[] previous = found.get(found.size() - 1);
+            double rootLength = 0;
+
+            for (int j = 0; j < previous.length - 1; j++) {
+                if (System.nanoTime() > deadline) {
+                    expired = true;
+                    break;
+                }
+                int spurKey = previous[j];
+
+                // root path vertices are not visited again
+                stamp++;
+                for (int i = 0; i < j; i++) {
+                    blocked[previous[i]] = stamp;
+                }
+                // nor are the next edges of the found paths with this root
+                List<Integer> blockedNext = new ArrayList<>();
+                for (int[] path : found) {
+                    if (path.length > j + 1 && sameRoot(path, previous, j)) {
+                        blockedNext.add(path[j + 1]);
+                    }
+                }
+
+                final int spur = spurKey;
+                final int rootStamp = stamp;
+                EdgeWeightFunction<V, E> spurWeights = edge -> {
+                    int adjKey = edge.getVDestKey();
+                    if (blocked[adjKey] == rootStamp
+                            || (edge.getVOrigKey() == spur && blockedNext.contains(adjKey))) {
+                        return Double.POSITIVE_INFINITY;
+                    }
+                    return weight(edge);
+                };
+                MapGraphAlgorithms.search(graph, vertices[spurKey], vDest, estimate, spurWeights,
+                        vertices, visited, pathKeys, dist, null);
+
+                if (visited[destKey] && dist[destKey] < Double.POSITIVE_INFINITY) {
+                    LinkedList<Integer> spurPath = new LinkedList<>();
+                    for (int key = destKey; key >= 0 && key != spurKey; key = pathKeys[key]) {
+                        spurPath.addFirst(key);
+                    }
+                    int[] path = new int[j + 1 + spurPath.size()];
+                    System.arraycopy(previous, 0, path, 0, j + 1);
+                    int i = j + 1;
+                    for (int key : spurPath) {
+                        path[i++] = key;
+                    }
+                    if (seen.add(boxed(path))) {
+                        candidates.add(new Candidate(path, rootLength + dist[destKey]));
+                    }
+                }
+
+                rootLength += weight(graph.getEdge(vertices[spurKey], vertices[previous[j + 1]]));
+            }
+
+            if (expired || candidates.isEmpty()) {
+                break;
+            }
+            Candidate best = candidates.poll();
+            found.add(best.keys);
+            lengths.add(best.length);
+        }
+
+        for (int[] keys : found) {
+            LinkedList<V> path = new LinkedList<>();
+            for (int key : keys) {
+                path.add(vertices[key]);
+            }
+            paths.add(path);
+        }
+        return found.size();
+    }
+
+    /**
+     * Obtains the weight of an edge.
+     *
+     * @param edge the edge
+     * @return the weight
+     */
+    private double weight(MapEdge<V, E> edge) {
+        return (weights == null) ? edge.getWeight() : weights.weight(edge);
+    }
+
+    /**
+     * Obtains the number of vertices of the tree path from a vertex.
+     *
+     * @param key the vertex key
+     * @return the number of vertices
+     */
+    private int depth(int key) {
+
+        int depth = 0;
+        for (; key >= 0; key = nextKeys[key]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Verifies if two paths have the same first j + 1 vertices.
+     *
+     * @param path a path
+     * @param other another path
+     * @param j the index of the last root vertex
+     * @return true if they have the same root
+     */
+    private static boolean sameRoot(int[] path, int[] other, int j) {
+
+        for (int i = 0; i <= j; i++) {
+            if (path[i] != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtains the list of the keys of a path (to compare paths).
+     *
+     * @param keys the path keys
+     * @return the list of the keys
+     */
+    private static List<Integer> boxed(int[] keys) {
+
+        List<Integer> list = new ArrayList<>(keys.length);
+        for (int key : keys) {
+            list.add(key);
+        }
+        return list;
+    }
+
+    /**
+     * A candidate path, ordered by length.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+
+        private final int[] keys;
+        private final double length;
+
+        Candidate(int[] keys, double length) {
+            this.keys = keys;
+            this.length = length;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(length, other.length);
+        }
+    }
+}
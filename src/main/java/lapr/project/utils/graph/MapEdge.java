@@ -23,6 +23,7 @@ public class MapEdge<V, E> implements Comparable {
     private double weight;       // MapEdge weight
     private MapVertex<V, E> vOrig;  // vertex origin
     private MapVertex<V, E> vDest;  // vertex destination
+    private int id = -1;  // index of the edge in its graph, -1 if in none
 
     public MapEdge() {
         element = null;
@@ -70,6 +71,29 @@ public class MapEdge<V, E> implements Comparable {
         vDest = vd;
     }
 
+    // vertex keys of the endpoints, without a map lookup (graph algorithms)
+    int getVOrigKey() {
+        return vOrig.getKey();
+    }
+
+    int getVDestKey() {
+        return vDest.getKey();
+    }
+
+    /**
+     * Obtains the index of the edge in its graph (unique in the graph, from 0
+     * to {@link MapGraph#numEdgeIds()} - 1).
+     *
+     * @return the index, -1 if the edge was not inserted in a graph
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     public V[] getEndpoints() {
 
         V oElem = vOrig.getElement();
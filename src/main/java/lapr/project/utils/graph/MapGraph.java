@@ -25,6 +25,9 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
     private int numEdge;
     private final boolean isDirected;
     private final Map<V, MapVertex<V, E>> vertices;  //all Vertices of the graph 
+    private int modifications;  //vertices & edges insertions and removals
+    private int edgeIds;  //edge indexes given so far
+    private volatile ReverseAdjacency<V, E> reverse;  //incoming edges view, built on demand
 
     // Constructs an empty graph (either undirected or directed)
     public MapGraph(boolean directed) {
@@ -55,7 +58,7 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
 
     public V[] allkeyVerts() {
 
-        V[] keyverts = (V[]) new Object[numVert];
+        V[] keyverts = (V[]) new Object[numKeys()];
 
         vertices.values().stream().forEach((vert) -> {
             keyverts[vert.getKey()] = vert.getElement();
@@ -64,6 +67,59 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
         return keyverts;
     }
 
+    /**
+     * Obtains the number of edge indexes given (see {@link MapEdge#getId()}),
+     * an upper bound of the index of every edge of the graph. Indexes of
+     * removed edges are not reused.
+     *
+     * @return the number of edge indexes
+     */
+    public int numEdgeIds() {
+        return edgeIds;
+    }
+
+    /**
+     * Obtains the number of vertex keys (0 to number of keys - 1).
+     *
+     * @return the number of keys
+     */
+    public int numKeys() {
+
+        // keys are not renumbered when a vertex is removed
+        int size = numVert;
+        for (MapVertex<V, E> vert : vertices.values()) {
+            size = Math.max(size, vert.getKey() + 1);
+        }
+        return size;
+    }
+
+    /**
+     * Obtains the number of vertices &amp; edges insertions and removals so
+     * far, to detect that the graph changed.
+     *
+     * @return the modification count
+     */
+    public int getModificationCount() {
+        return modifications;
+    }
+
+    /**
+     * Obtains the reverse adjacency view (incoming edges of every vertex).
+     * It is built once and rebuilt only after vertices or edges are inserted
+     * or removed.
+     *
+     * @return the reverse adjacency view
+     */
+    public ReverseAdjacency<V, E> reverseView() {
+
+        ReverseAdjacency<V, E> view = reverse;
+        if (view == null || view.getModifications() != modifications) {
+            view = new ReverseAdjacency<>(vertices.values(), numKeys(), modifications);
+            reverse = view;
+        }
+        return view;
+    }
+
     @Override
     public int numEdges() {
         return numEdge;
@@ -199,6 +255,7 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
         MapVertex<V, E> vertex = new MapVertex<>(numVert, vert);
         vertices.put(vert, vertex);
         numVert++;
+        modifications++;
 
         return true;
     }
@@ -222,13 +279,16 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
         MapVertex<V, E> vdest = vertices.get(vDest);
 
         MapEdge<V, E> newEdge = new MapEdge<>(eInf, eWeight, vorig, vdest);
+        newEdge.setId(edgeIds++);
         vorig.addAdjVert(vDest, newEdge);
         numEdge++;
+        modifications++;
 
         //if graph is not direct insert other edge in the opposite direction 
         if (!isDirected) {
             if (getEdge(vDest, vOrig) == null) {
                 MapEdge<V, E> otherEdge = new MapEdge<>(eInf, eWeight, vdest, vorig);
+                otherEdge.setId(edgeIds++);
                 vdest.addAdjVert(vOrig, otherEdge);
                 numEdge++;
             }
@@ -253,6 +313,7 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
 
         this.vertices.remove(vert);
         this.numVert--;
+        this.modifications++;
 
         return true;
     }
@@ -274,6 +335,7 @@ public class MapGraph<V, E> implements MapGraphInterface<V, E> {
 
         vorig.remAdjVert(vDest);
         numEdge--;
+        modifications++;
 
         //if graph is not direct 
         if (!isDirected) {
@@ -4,6 +4,7 @@
 package lapr.project.utils.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 
 /**
@@ -161,48 +162,141 @@ public class MapGraphAlgorithms {
     /**
      * Computes shortest-path distance from a source vertex to all reachable
      * vertices of a graph g with nonnegative edge weights This implementation
-     * uses Dijkstra's algorithm
+     * uses Dijkstra's algorithm with an indexed binary heap, and stops when
+     * the destination (if any) is settled.
      *
      * @param g MapGraph instance
      * @param vOrig Vertex that will be the source of the path
-     * @param visited set of discovered vertices
-     * @param pathkeys minimum path vertices keys
+     * @param vDest Vertex where the search stops (null for all vertices)
+     * @param vertices vertices indexed by key
+     * @param visited set of settled vertices
+     * @param pathKeys minimum path vertices keys
      * @param dist minimum distances
+     * @return the number of settled vertices
      */
-    private static <V, E> void shortestPathLength(MapGraph<V, E> g, V vOrig, V[] vertices,
+    static <V, E> int shortestPathLength(MapGraph<V, E> g, V vOrig, V vDest, V[] vertices,
             boolean[] visited, int[] pathKeys, double[] dist) {
 
-        for (V v : vertices) {
-            dist[g.getKey(v)] = Double.POSITIVE_INFINITY;
-            pathKeys[g.getKey(v)] = -1;
-            visited[g.getKey(v)] = false;
-        }
+        return shortestPathLength(g, vOrig, vDest, null, vertices, visited, pathKeys, dist);
+    }
 
-        dist[g.getKey(vOrig)] = 0;
+    /**
+     * Computes shortest-path distances from a source vertex over the weights
+     * of a weight function (see
+     * {@link #shortestPathLength(MapGraph, Object, Object, Object[], boolean[], int[], double[])}).
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex where the search stops (null for all vertices)
+     * @param weights the edge weights (null for the weights of the edges)
+     * @param vertices vertices indexed by key
+     * @param visited set of settled vertices
+     * @param pathKeys minimum path vertices keys
+     * @param dist minimum distances
+     * @return the number of settled vertices
+     */
+    static <V, E> int shortestPathLength(MapGraph<V, E> g, V vOrig, V vDest, EdgeWeightFunction<V, E> weights,
+            V[] vertices, boolean[] visited, int[] pathKeys, double[] dist) {
 
-        while (vOrig != null) {
-            int vOrigValue = g.getKey(vOrig);
-            visited[vOrigValue] = true;
+        return search(g, vOrig, vDest, null, weights, vertices, visited, pathKeys, dist, null);
+    }
 
-            for (MapEdge<V, E> edge : g.outgoingEdges(vOrig)) {
-                V vAdj = g.opposite(vOrig, edge);
-                if (!visited[g.getKey(vAdj)] && dist[g.getKey(vAdj)] > dist[vOrigValue] + edge.getWeight()) {
-                    dist[g.getKey(vAdj)] = dist[vOrigValue] + edge.getWeight();
-                    pathKeys[g.getKey(vAdj)] = vOrigValue;
-                }
+    /**
+     * Best first search (Dijkstra's algorithm, or A* with a heuristic) with an
+     * indexed binary heap, ordered by the distance plus the estimate to the
+     * destination. It stops when the destination (if any) is settled.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex where the search stops (null for all vertices)
+     * @param heuristic the estimate to vDest (null for none)
+     * @param weights the edge weights (null for the weights of the edges)
+     * @param vertices vertices indexed by key
+     * @param visited set of settled vertices
+     * @param pathKeys minimum path vertices keys
+     * @param dist minimum distances
+     * @param stats the counters to add to (null for none)
+     * @return the number of settled vertices
+     */
+    static <V, E> int search(MapGraph<V, E> g, V vOrig, V vDest, Heuristic<V> heuristic,
+            EdgeWeightFunction<V, E> weights, V[] vertices, boolean[] visited, int[] pathKeys, double[] dist,
+            SearchStatistics stats) {
+
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pathKeys, -1);
+        Arrays.fill(visited, false);
+
+        int origKey = g.getKey(vOrig);
+        int destKey = (vDest == null) ? -1 : g.getKey(vDest);
+        IndexedMinHeap heap = new IndexedMinHeap(vertices.length);
+        // estimates, computed once per vertex
+        double[] estimate = null;
+        if (heuristic != null && vDest != null) {
+            estimate = new double[vertices.length];
+            Arrays.fill(estimate, Double.NaN);
+        }
+        dist[origKey] = 0;
+        heap.offer(origKey, 0);
+
+        int settled = 0;
+        long relaxed = 0;
+        while (!heap.isEmpty()) {
+            int key = heap.poll();
+            visited[key] = true;
+            settled++;
+            if (key == destKey) {
+                break;
             }
 
-            vOrig = null;
-            double minimunDistance = Double.POSITIVE_INFINITY;
-
-            for (V ver : vertices) {
-                int vId = g.getKey(ver);
-                if (visited[vId] == false && dist[vId] < minimunDistance) {
-                    vOrig = ver;
-                    minimunDistance = dist[vId];
+            for (MapEdge<V, E> edge : g.outgoingEdges(vertices[key])) {
+                int adjKey = edge.getVDestKey();
+                double newDist = dist[key] + weight(weights, edge);
+                relaxed++;
+                if (!visited[adjKey] && dist[adjKey] > newDist) {
+                    dist[adjKey] = newDist;
+                    pathKeys[adjKey] = key;
+                    if (estimate == null) {
+                        heap.offer(adjKey, newDist);
+                    } else {
+                        if (Double.isNaN(estimate[adjKey])) {
+                            estimate[adjKey] = heuristic.estimate(vertices[adjKey], vDest);
+                        }
+                        heap.offer(adjKey, newDist + estimate[adjKey]);
+                    }
                 }
             }
         }
+        if (stats != null) {
+            stats.add(settled, relaxed);
+        }
+        return settled;
+    }
+
+    /**
+     * Obtains the weight of an edge.
+     *
+     * @param weights the edge weights (null for the weights of the edges)
+     * @param edge the edge
+     * @return the weight
+     */
+    private static <V, E> double weight(EdgeWeightFunction<V, E> weights, MapEdge<V, E> edge) {
+        return (weights == null) ? edge.getWeight() : weights.weight(edge);
+    }
+
+    /**
+     * Builds the path that ends in a vertex from the minimum path keys, in
+     * order (O(path length)).
+     *
+     * @param vertices vertices indexed by key
+     * @param pathKeys minimum path vertices keys
+     * @param destKey key of the last vertex
+     * @param path list to fill with the path (origin first)
+     */
+    static <V> void buildPath(V[] vertices, int[] pathKeys, int destKey, LinkedList<V> path) {
+
+        for (int key = destKey; key >= 0; key = pathKeys[key]) {
+            path.addFirst(vertices[key]);
+        }
     }
 
     /**
@@ -217,55 +311,367 @@ public class MapGraphAlgorithms {
      */
     public static <V, E> void getPath(MapGraph<V, E> g, V vOrig, V vDest, V[] verts, int[] pathKeys, LinkedList<V> path) {
 
-        int vDestID = g.getKey(vDest);
-
-        int prevID = pathKeys[vDestID];
-        V prevV = null;
-
+        // Index the vertices by key once (verts may be in any order)
+        @SuppressWarnings("unchecked")
+        V[] byKey = (V[]) new Object[pathKeys.length];
         for (V v : verts) {
-            if (g.getKey(v) == prevID) {
-                prevV = v;
-            }
+            byKey[g.getKey(v)] = v;
         }
-        path.add(vDest);
 
-        if (!vOrig.equals(vDest)) {
-            getPath(g, vOrig, prevV, verts, pathKeys, path);
+        int origKey = g.getKey(vOrig);
+        int key = g.getKey(vDest);
+        path.add(vDest);
+        while (key != origKey && pathKeys[key] >= 0) {
+            key = pathKeys[key];
+            path.add(byKey[key]);
         }
     }
 
     //shortest-path between voInf and vdInf
     public static <V, E> double shortestPath(MapGraph<V, E> g, V vOrig, V vDest, LinkedList<V> shortPath) {
 
+        return shortestPath(g, vOrig, vDest, shortPath, null);
+    }
+
+    /**
+     * Shortest path between two vertices (Dijkstra's algorithm), counting the
+     * settled vertices and relaxed edges.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param shortPath list to fill with the path (in order)
+     * @param stats the counters to add to (null for none)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double shortestPath(MapGraph<V, E> g, V vOrig, V vDest, LinkedList<V> shortPath,
+            SearchStatistics stats) {
+
+        return bestFirstPath(g, vOrig, vDest, null, null, shortPath, stats);
+    }
+
+    /**
+     * Shortest path between two vertices (Dijkstra's algorithm) over the
+     * weights of a weight function.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param weights the edge weights
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double shortestPath(MapGraph<V, E> g, V vOrig, V vDest, EdgeWeightFunction<V, E> weights,
+            LinkedList<V> shortPath) {
+
+        return bestFirstPath(g, vOrig, vDest, null, weights, shortPath, null);
+    }
+
+    /**
+     * Shortest path between two vertices with the A* algorithm.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param heuristic admissible &amp; consistent estimate to vDest
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double aStar(MapGraph<V, E> g, V vOrig, V vDest, Heuristic<V> heuristic,
+            LinkedList<V> shortPath) {
+
+        return aStar(g, vOrig, vDest, heuristic, shortPath, null);
+    }
+
+    /**
+     * Shortest path between two vertices with the A* algorithm, counting the
+     * settled vertices and relaxed edges.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param heuristic admissible &amp; consistent estimate to vDest
+     * @param shortPath list to fill with the path (in order)
+     * @param stats the counters to add to (null for none)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double aStar(MapGraph<V, E> g, V vOrig, V vDest, Heuristic<V> heuristic,
+            LinkedList<V> shortPath, SearchStatistics stats) {
+
+        return bestFirstPath(g, vOrig, vDest, heuristic, null, shortPath, stats);
+    }
+
+    /**
+     * Shortest path between two vertices with the A* algorithm over the
+     * weights of a weight function.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param heuristic admissible &amp; consistent estimate (of the weights) to
+     * vDest
+     * @param weights the edge weights
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double aStar(MapGraph<V, E> g, V vOrig, V vDest, Heuristic<V> heuristic,
+            EdgeWeightFunction<V, E> weights, LinkedList<V> shortPath) {
+
+        return bestFirstPath(g, vOrig, vDest, heuristic, weights, shortPath, null);
+    }
+
+    private static <V, E> double bestFirstPath(MapGraph<V, E> g, V vOrig, V vDest, Heuristic<V> heuristic,
+            EdgeWeightFunction<V, E> weights, LinkedList<V> shortPath, SearchStatistics stats) {
+
         if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
             return -1d;
         }
 
-        int numVert = g.numVertices();
+        V[] vertices = g.allkeyVerts();
+        int numKeys = vertices.length;
+        boolean visited[] = new boolean[numKeys];
+        int[] pathKeys = new int[numKeys];
+        double[] dist = new double[numKeys];
+
+        search(g, vOrig, vDest, heuristic, weights, vertices, visited, pathKeys, dist, stats);
+        shortPath.clear();
+
+        int vDestId = g.getKey(vDest);
+        if (!visited[vDestId]) {
+            return -1d;
+        }
+        buildPath(vertices, pathKeys, vDestId, shortPath);
+
+        return dist[vDestId];
+    }
 
-        V[] vertices = (V[]) g.allkeyVerts().clone();
-        boolean visited[] = new boolean[numVert];
-        int[] pathKeys = new int[numVert];
-        double[] dist = new double[numVert];
+    /**
+     * Earliest arrival path between two vertices when the edge costs depend on
+     * the time (time dependent Dijkstra's algorithm, or A* with a heuristic):
+     * each vertex is settled with its earliest arrival time, entering its
+     * outgoing edges at that time. The arrival times are first in, first out,
+     * so no later departure from a vertex arrives sooner anywhere.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param departure the departure time from vOrig
+     * @param arrivals the arrival times over the edges
+     * @param heuristic admissible &amp; consistent estimate (of the time, at any
+     * departure) to vDest (null for none)
+     * @param shortPath list to fill with the path (in order)
+     * @return the time from the departure to the arrival at vDest, -1 if there
+     * is no path
+     */
+    public static <V, E> double timeDependentPath(MapGraph<V, E> g, V vOrig, V vDest, double departure,
+            ArrivalTimeFunction<V, E> arrivals, Heuristic<V> heuristic, LinkedList<V> shortPath) {
 
-        shortestPathLength(g, vOrig, vertices, visited, pathKeys, dist);
         shortPath.clear();
-        if (!visited[g.getKey(vDest)]) {
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return -1d;
+        }
+
+        V[] vertices = g.allkeyVerts();
+        int numKeys = vertices.length;
+        boolean[] visited = new boolean[numKeys];
+        int[] pathKeys = new int[numKeys];
+        double[] arrival = new double[numKeys];
+        Arrays.fill(arrival, Double.POSITIVE_INFINITY);
+        Arrays.fill(pathKeys, -1);
+        double[] estimate = null;
+        if (heuristic != null) {
+            estimate = new double[numKeys];
+            Arrays.fill(estimate, Double.NaN);
+        }
+
+        int origKey = g.getKey(vOrig);
+        int destKey = g.getKey(vDest);
+        IndexedMinHeap heap = new IndexedMinHeap(numKeys);
+        // priorities relative to the departure, not to the epoch
+        arrival[origKey] = departure;
+        heap.offer(origKey, 0);
+
+        while (!heap.isEmpty()) {
+            int key = heap.poll();
+            visited[key] = true;
+            if (key == destKey) {
+                break;
+            }
+
+            for (MapEdge<V, E> edge : g.outgoingEdges(vertices[key])) {
+                int adjKey = edge.getVDestKey();
+                if (visited[adjKey]) {
+                    continue;
+                }
+                double newArrival = arrivals.arrival(edge, arrival[key]);
+                if (newArrival < arrival[adjKey]) {
+                    arrival[adjKey] = newArrival;
+                    pathKeys[adjKey] = key;
+                    double priority = newArrival - departure;
+                    if (estimate != null) {
+                        if (Double.isNaN(estimate[adjKey])) {
+                            estimate[adjKey] = heuristic.estimate(vertices[adjKey], vDest);
+                        }
+                        priority += estimate[adjKey];
+                    }
+                    heap.offer(adjKey, priority);
+                }
+            }
+        }
+
+        if (!visited[destKey]) {
             return -1d;
         }
-        getPath(g, vOrig, vDest, vertices, pathKeys, shortPath);
+        buildPath(vertices, pathKeys, destKey, shortPath);
+        return arrival[destKey] - departure;
+    }
+
+    /**
+     * Shortest path between two vertices with the bidirectional Dijkstra's
+     * algorithm.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double bidirectionalPath(MapGraph<V, E> g, V vOrig, V vDest, LinkedList<V> shortPath) {
+
+        return bidirectionalPath(g, vOrig, vDest, null, shortPath, null);
+    }
+
+    /**
+     * Shortest path between two vertices with the bidirectional Dijkstra's
+     * algorithm over the weights of a weight function.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param weights the edge weights
+     * @param shortPath list to fill with the path (in order)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double bidirectionalPath(MapGraph<V, E> g, V vOrig, V vDest,
+            EdgeWeightFunction<V, E> weights, LinkedList<V> shortPath) {
+
+        return bidirectionalPath(g, vOrig, vDest, weights, shortPath, null);
+    }
+
+    /**
+     * Shortest path between two vertices with the bidirectional Dijkstra's
+     * algorithm, counting the settled vertices and relaxed edges of both
+     * searches.
+     *
+     * A forward search from vOrig over the outgoing edges and a backward
+     * search from vDest over the reverse adjacency view of the graph run in
+     * turns (the one with the smaller heap first). Every time a vertex gets a
+     * distance from one side and already has one from the other, the path
+     * through it is a candidate. The searches stop as soon as the sum of the
+     * lowest distances of both heaps is not below the best candidate: any
+     * path still unseen is at least that long.
+     *
+     * @param g MapGraph instance
+     * @param vOrig Vertex that will be the source of the path
+     * @param vDest Vertex that will be the end of the path
+     * @param shortPath list to fill with the path (in order)
+     * @param stats the counters to add to (null for none)
+     * @return the path length, -1 if there is no path
+     */
+    public static <V, E> double bidirectionalPath(MapGraph<V, E> g, V vOrig, V vDest, LinkedList<V> shortPath,
+            SearchStatistics stats) {
+
+        return bidirectionalPath(g, vOrig, vDest, null, shortPath, stats);
+    }
+
+    private static <V, E> double bidirectionalPath(MapGraph<V, E> g, V vOrig, V vDest,
+            EdgeWeightFunction<V, E> weights, LinkedList<V> shortPath, SearchStatistics stats) {
 
-        LinkedList<V> pathInOrder = revPath(shortPath);
         shortPath.clear();
-        while (!pathInOrder.isEmpty()) {
-            shortPath.add(pathInOrder.removeFirst());
+        if (!g.validVertex(vOrig) || !g.validVertex(vDest)) {
+            return -1d;
         }
 
-        int vDestId = g.getKey(vDest);
-        if (!visited[vDestId]) {
+        V[] vertices = g.allkeyVerts();
+        ReverseAdjacency<V, E> reverse = g.reverseView();
+        int numKeys = vertices.length;
+        double[] forwardDist = new double[numKeys];
+        double[] backwardDist = new double[numKeys];
+        int[] pathKeys = new int[numKeys];
+        int[] nextKeys = new int[numKeys];
+        Arrays.fill(forwardDist, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pathKeys, -1);
+        Arrays.fill(nextKeys, -1);
+
+        int origKey = g.getKey(vOrig);
+        int destKey = g.getKey(vDest);
+        IndexedMinHeap forward = new IndexedMinHeap(numKeys);
+        IndexedMinHeap backward = new IndexedMinHeap(numKeys);
+        forwardDist[origKey] = 0;
+        backwardDist[destKey] = 0;
+        forward.offer(origKey, 0);
+        backward.offer(destKey, 0);
+
+        // best path found so far, through the meeting vertex
+        double best = (origKey == destKey) ? 0 : Double.POSITIVE_INFINITY;
+        int meetKey = (origKey == destKey) ? origKey : -1;
+
+        int settled = 0;
+        long relaxed = 0;
+        while (!forward.isEmpty() && !backward.isEmpty()
+                && forward.peekPriority() + backward.peekPriority() < best) {
+
+            if (forward.size() <= backward.size()) {
+                int key = forward.poll();
+                settled++;
+                for (MapEdge<V, E> edge : g.outgoingEdges(vertices[key])) {
+                    int adjKey = edge.getVDestKey();
+                    double newDist = forwardDist[key] + weight(weights, edge);
+                    relaxed++;
+                    if (forwardDist[adjKey] > newDist) {
+                        forwardDist[adjKey] = newDist;
+                        pathKeys[adjKey] = key;
+                        forward.offer(adjKey, newDist);
+                        if (newDist + backwardDist[adjKey] < best) {
+                            best = newDist + backwardDist[adjKey];
+                            meetKey = adjKey;
+                        }
+                    }
+                }
+            } else {
+                int key = backward.poll();
+                settled++;
+                for (int i = reverse.first(key), end = reverse.end(key); i < end; i++) {
+                    MapEdge<V, E> edge = reverse.edge(i);
+                    int adjKey = edge.getVOrigKey();
+                    double newDist = backwardDist[key] + weight(weights, edge);
+                    relaxed++;
+                    if (backwardDist[adjKey] > newDist) {
+                        backwardDist[adjKey] = newDist;
+                        nextKeys[adjKey] = key;
+                        backward.offer(adjKey, newDist);
+                        if (newDist + forwardDist[adjKey] < best) {
+                            best = newDist + forwardDist[adjKey];
+                            meetKey = adjKey;
+                        }
+                    }
+                }
+            }
+        }
+        if (stats != null) {
+            stats.add(settled, relaxed);
+        }
+
+        if (meetKey < 0) {
             return -1d;
         }
-        return dist[vDestId];
+        buildPath(vertices, pathKeys, meetKey, shortPath);
+        for (int key = nextKeys[meetKey]; key >= 0; key = nextKeys[key]) {
+            shortPath.add(vertices[key]);
+        }
+
+        return best;
     }
 
     /**
@@ -275,11 +681,9 @@ public class MapGraphAlgorithms {
      */
     public static <V, E> LinkedList<V> revPath(LinkedList<V> path) {
 
-        LinkedList<V> pathcopy = new LinkedList<>(path);
         LinkedList<V> pathrev = new LinkedList<>();
-
-        while (!pathcopy.isEmpty()) {
-            pathrev.push(pathcopy.pop());
+        for (V v : path) {
+            pathrev.addFirst(v);
         }
 
         return pathrev;
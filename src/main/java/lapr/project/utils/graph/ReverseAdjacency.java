@@ -0,0 +1,144 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable reverse adjacency view of a {@link MapGraph}: the incoming edges
+ * of every vertex, grouped by destination key in one array (compressed
+ * sparse rows).
+ *
+ * It is built in O(V + E) from the outgoing edges and keeps the edges
+ * themselves, so the weights are read when the view is walked and stay up to
+ * date. Adding or removing vertices or edges makes the graph build a new view
+ * (see {@link MapGraph#reverseView()}).
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ *
+ * @param <V> Generic Vertex
+ * @param <E> Generic Edge
+ */
+public class ReverseAdjacency<V, E> {
+
+    /**
+     * The graph modification count the view was built at.
+     */
+    private final int modifications;
+
+    /**
+     * Index of the first incoming edge of each key (size: keys + 1).
+     */
+    private final int[] offset;
+
+    /**
+     * The incoming edges, grouped by destination key.
+     */
+    private final MapEdge<V, E>[] edges;
+
+    /**
+     * Builds the view of a graph.
+     *
+     * @param vertices the vertices of the graph
+     * @param numKeys the number of vertex keys
+     * @param modifications the graph modification count
+     */
+    ReverseAdjacency(Iterable<MapVertex<V, E>> vertices, int numKeys, int modifications) {
+
+        this.modifications = modifications;
+        offset = new int[numKeys + 1];
+        for (MapVertex<V, E> vertex : vertices) {
+            for (MapEdge<V, E> edge : vertex.getAllOutEdges()) {
+                offset[edge.getVDestKey() + 1]++;
+            }
+        }
+        for (int key = 0; key < numKeys; key++) {
+            offset[key + 1] += offset[key];
+        }
+
+        @SuppressWarnings("unchecked")
+        MapEdge<V, E>[] incoming = (MapEdge<V, E>[]) new MapEdge[offset[numKeys]];
+        edges = incoming;
+        int[] next = Arrays.copyOf(offset, numKeys);
+        for (MapVertex<V, E> vertex : vertices) {
+            for (MapEdge<V, E> edge : vertex.getAllOutEdges()) {
+                edges[next[edge.getVDestKey()]++] = edge;
+            }
+        }
+    }
+
+    /**
+     * Obtains the graph modification count the view was built at.
+     *
+     * @return the modification count
+     */
+    int getModifications() {
+        return modifications;
+    }
+
+    /**
+     * Obtains the number of vertex keys of the view.
+     *
+     * @return the number of keys
+     */
+    public int numKeys() {
+        return offset.length - 1;
+    }
+
+    /**
+     * Obtains the number of incoming edges of a vertex.
+     *
+     * @param key the vertex key
+     * @return the in degree
+     */
+    public int inDegree(int key) {
+        return offset[key + 1] - offset[key];
+    }
+
+    /**
+     * Obtains an incoming edge of a vertex.
+     *
+     * @param key the vertex key
+     * @param index the edge index (0 to in degree - 1)
+     * @return the edge
+     */
+    public MapEdge<V, E> incomingEdge(int key, int index) {
+        return edges[offset[key] + index];
+    }
+
+    /**
+     * Obtains the index of the first incoming edge of a vertex in
+     * {@link #edge(int)}.
+     *
+     * @param key the vertex key
+     * @return the first index
+     */
+    int first(int key) {
+        return offset[key];
+    }
+
+    /**
+     * Obtains the index after the last incoming edge of a vertex in
+     * {@link #edge(int)}.
+     *
+     * @param key the vertex key
+     * @return the end index
+     */
+    int end(int key) {
+        return offset[key + 1];
+    }
+
+    /**
+     * Obtains an edge of the view.
+     *
+     * @param index the index
+     * @return the edge
+     */
+    MapEdge<V, E> edge(int index) {
+        return edges[index];
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+/**
+ * Counters of a path search: settled vertices and relaxed edges.
+ *
+ * A search adds to the counters, so one instance can sum several searches.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class SearchStatistics {
+
+    /**
+     * Number of settled (visited) vertices.
+     */
+    private long settled;
+
+    /**
+     * Number of relaxed edges.
+     */
+    private long relaxed;
+
+    /**
+     * Obtains the number of settled vertices.
+     *
+     * @return the number of settled vertices
+     */
+    public long getSettled() {
+        return settled;
+    }
+
+    /**
+     * Obtains the number of relaxed edges.
+     *
+     * @return the number of relaxed edges
+     */
+    public long getRelaxed() {
+        return relaxed;
+    }
+
+    /**
+     * Adds to the counters.
+     *
+     * @param settledVertices settled vertices
+     * @param relaxedEdges relaxed edges
+     */
+    void add(long settledVertices, long relaxedEdges) {
+        settled += settledVertices;
+        relaxed += relaxedEdges;
+    }
+
+    /**
+     * Resets the counters.
+     */
+    public void reset() {
+        settled = 0;
+        relaxed = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchStatistics{settled=%d, relaxed=%d}", settled, relaxed);
+    }
+}
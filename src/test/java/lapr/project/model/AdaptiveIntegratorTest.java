@@ -0,0 +1,125 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.quantity.Length;
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+import lapr.project.utils.CustomUnits;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the adaptive integrator class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class AdaptiveIntegratorTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+    }
+
+    /**
+     * Test of integrate method in cruise, of class AdaptiveIntegrator.
+     */
+    @Test
+    public void testIntegrateCruise() {
+        System.out.println("integrateCruise");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double initialMass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double segmentDistance = 3000000;
+
+        int steps = AdaptiveIntegrator.integrate(profile, Calculus.REGIME.CRUISE, initialMass, 0, segmentDistance, result);
+
+        // mass closed form of a constant altitude and Mach cruise (thrust = drag = a.m^2 + b)
+        AircraftModel model = flight.getFlightInfo().getAircraft().getAircraftModel();
+        double altitude = model.getMotorization().getCruiseAltitude().doubleValue(SI.METER);
+        double mach = model.getMotorization().getCruiseSpeed().doubleValue(NonSI.MACH);
+        double density = Atmosphere.ISA.density(altitude);
+        double tas = Atmosphere.ISA.speedOfSound(altitude) * mach;
+        double wingArea = model.getWingArea().doubleValue(SI.SQUARE_METRE);
+        double g = FlightIntegrator.G;
+        double a = 2 * g * g / (density * wingArea * tas * tas * Math.PI
+                * model.getAspectRatio().doubleValue(Unit.ONE) * model.getE().doubleValue(Unit.ONE));
+        double b = model.getCdragFunction(mach) * density * tas * tas * wingArea / 2;
+        double k = model.getMotorization().getTsfc().doubleValue(CustomUnits.TSFC_NNS) / g;
+        double mass0 = 70000 + 144720 + 3.00E+05;
+        double duration = segmentDistance / tas;
+        double mass = Math.sqrt(b / a) * Math.tan(Math.atan(mass0 * Math.sqrt(a / b)) - k * Math.sqrt(a * b) * duration);
+
+        assertEquals(segmentDistance, result[FlightIntegrator.DISTANCE], 1e-3);
+        assertEquals(duration, result[FlightIntegrator.DURATION], 1e-6);
+        assertEquals(mass0 - mass, result[FlightIntegrator.CONSUMPTION], 1e-3);
+        assertTrue(steps < 10);
+    }
+
+    /**
+     * Test of integrate method in climb, of class AdaptiveIntegrator.
+     */
+    @Test
+    public void testIntegrateClimb() {
+        System.out.println("integrateClimb");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double mass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] fixed = new double[FlightIntegrator.RESULT_SIZE];
+
+        AdaptiveIntegrator.integrate(profile, Calculus.REGIME.CLIMB, mass, 0, 0, result);
+        FlightIntegrator.integrate(profile, Calculus.REGIME.CLIMB, mass, 0, 0, fixed);
+
+        // the fixed step stops up to one step after the boundary
+        assertTrue(result[FlightIntegrator.DURATION] <= fixed[FlightIntegrator.DURATION] + FlightIntegrator.TIMESTEP);
+        assertEquals(fixed[FlightIntegrator.DISTANCE], result[FlightIntegrator.DISTANCE],
+                fixed[FlightIntegrator.DISTANCE] * 0.1);
+        assertEquals(fixed[FlightIntegrator.CONSUMPTION], result[FlightIntegrator.CONSUMPTION],
+                fixed[FlightIntegrator.CONSUMPTION] * 0.1);
+    }
+
+    /**
+     * Test of integrate method in landing, of class AdaptiveIntegrator.
+     */
+    @Test
+    public void testIntegrateLanding() {
+        System.out.println("integrateLanding");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double mass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] fixed = new double[FlightIntegrator.RESULT_SIZE];
+
+        AdaptiveIntegrator.integrate(profile, Calculus.REGIME.LANDING, mass, 300, 0, result);
+        FlightIntegrator.integrate(profile, Calculus.REGIME.LANDING, mass, 300, 0, fixed);
+
+        assertTrue(result[FlightIntegrator.DURATION] <= fixed[FlightIntegrator.DURATION] + FlightIntegrator.TIMESTEP);
+        assertEquals(fixed[FlightIntegrator.DISTANCE], result[FlightIntegrator.DISTANCE],
+                fixed[FlightIntegrator.DISTANCE] * 0.1);
+        assertEquals(fixed[FlightIntegrator.CONSUMPTION], result[FlightIntegrator.CONSUMPTION],
+                fixed[FlightIntegrator.CONSUMPTION] * 0.1);
+    }
+
+    /**
+     * Test of the integration modes of the Calculus regimes.
+     */
+    @Test
+    public void testCalculusModes() {
+        System.out.println("calculusModes");
+        Amount<Length> distance = Amount.valueOf(411652, SI.METER);
+
+        assertEquals(Calculus.calculateCruise(flight, distance),
+                Calculus.calculateCruise(flight, distance, Calculus.INTEGRATION.FIXED_STEP));
+        AlgorithmAnalysis adaptive = Calculus.calculateCruise(flight, distance, Calculus.INTEGRATION.ADAPTIVE);
+        assertEquals(411652, adaptive.getDistance().doubleValue(SI.METER), 1e-3);
+    }
+}
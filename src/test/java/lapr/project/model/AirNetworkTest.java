@@ -3,11 +3,13 @@
  */
 package lapr.project.model;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import javax.measure.unit.NonSI;
 import javax.measure.unit.SI;
+import lapr.project.utils.graph.ContractionHierarchy;
 import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapGraph;
 import org.jscience.physics.amount.Amount;
@@ -146,6 +148,9 @@ public class AirNetworkTest {
         Segment expResult = new Segment("SG01", Amount.valueOf(1.0, SI.METER), Amount.valueOf(1.0, NonSI.DEGREE_ANGLE), Amount.valueOf(1.0, NonSI.KNOT));
         Segment result3 = instance2.getSegments().iterator().next().getElement();
         assertEquals(expResult, result3);
+        // Geometry computed on insertion
+        assertEquals(SegmentGeometry.of(coordinateA, coordinateB, newSegment.getAltitude()),
+                newSegment.getGeometry(coordinateA, coordinateB));
     }
 
     /**
@@ -292,4 +297,58 @@ public class AirNetworkTest {
         boolean result = instance.equals(instance2);
         assertFalse(result);
     }
+
+    /**
+     * Test of shortestRoute, buildRouteIndex, getRouteIndex &amp;
+     * getReadyRouteIndex methods, of class AirNetwork.
+     */
+    @Test
+    public void testShortestRoute() throws Exception {
+        System.out.println("shortestRoute");
+
+        Coordinate a = new Coordinate("ID01", 1.0, 1.0);
+        Coordinate b = new Coordinate("ID02", 2.0, 2.0);
+        Coordinate c = new Coordinate("ID03", 3.0, 3.0);
+        Coordinate d = new Coordinate("ID04", 0.0, 5.0);
+        Segment ab = new Segment("SG01", Amount.valueOf(1.0, SI.METER), Amount.valueOf(1.0, NonSI.DEGREE_ANGLE), Amount.valueOf(1.0, NonSI.KNOT));
+        Segment bc = new Segment("SG02", Amount.valueOf(1.0, SI.METER), Amount.valueOf(1.0, NonSI.DEGREE_ANGLE), Amount.valueOf(1.0, NonSI.KNOT));
+        Segment ad = new Segment("SG03", Amount.valueOf(1.0, SI.METER), Amount.valueOf(1.0, NonSI.DEGREE_ANGLE), Amount.valueOf(1.0, NonSI.KNOT));
+        Segment dc = new Segment("SG04", Amount.valueOf(1.0, SI.METER), Amount.valueOf(1.0, NonSI.DEGREE_ANGLE), Amount.valueOf(1.0, NonSI.KNOT));
+        instance.addSegment(a, b, ab);
+        instance.addSegment(b, c, bc);
+        instance.addSegment(a, d, ad);
+        instance.addSegment(d, c, dc);
+
+        // disabled until requested
+        assertNull(instance.getRouteIndex());
+        LinkedList<Segment> route = new LinkedList<>();
+        double expResult = ab.getGeometry(a, b).getLength() + bc.getGeometry(b, c).getLength();
+        assertEquals(expResult, instance.shortestRoute(a, c, route), 1e-6);
+        assertEquals(Arrays.asList(ab, bc), route);
+
+        ContractionHierarchy<Coordinate, Segment> index = instance.buildRouteIndex().get();
+        assertSame(index, instance.getReadyRouteIndex());
+        assertSame(index, instance.getRouteIndex());
+        assertEquals(expResult, instance.shortestRoute(a, c, route), 1e-6);
+        assertEquals(Arrays.asList(ab, bc), route);
+        assertEquals(-1d, instance.shortestRoute(c, a, route), 0d);
+        assertTrue(route.isEmpty());
+
+        // a change discards the index, the queries search the network
+        assertTrue(instance.removeSegment(b, c));
+        assertNull(instance.getReadyRouteIndex());
+        assertNull(instance.getRouteIndex());
+        expResult = ad.getGeometry(a, d).getLength() + dc.getGeometry(d, c).getLength();
+        assertEquals(expResult, instance.shortestRoute(a, c, route), 1e-6);
+        assertEquals(Arrays.asList(ad, dc), route);
+
+        index = instance.buildRouteIndex().get();
+        assertSame(index, instance.getRouteIndex());
+        assertEquals(expResult, instance.shortestRoute(a, c, route), 1e-6);
+        assertEquals(Arrays.asList(ad, dc), route);
+
+        assertTrue(instance.removeJunction(d));
+        assertNull(instance.getRouteIndex());
+        assertEquals(-1d, instance.shortestRoute(a, c, route), 0d);
+    }
 }
@@ -0,0 +1,112 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import lapr.project.utils.CustomUnits;
+import org.jscience.physics.amount.Amount;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the atmosphere class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class AtmosphereTest {
+
+    /**
+     * Test of temperature method, of class Atmosphere.
+     */
+    @Test
+    public void testTemperature() {
+        System.out.println("temperature");
+        for (double altitude = -1000; altitude < 20000; altitude += 7.3) {
+            assertEquals(Atmosphere.exactTemperature(altitude), Atmosphere.ISA.temperature(altitude), 1e-9);
+        }
+        assertEquals(288.2, Atmosphere.ISA.temperature(0), 1e-9);
+        assertEquals(216.7, Atmosphere.ISA.temperature(15000), 1e-9);
+    }
+
+    /**
+     * Test of pressure method, of class Atmosphere.
+     */
+    @Test
+    public void testPressure() {
+        System.out.println("pressure");
+        for (double altitude = -1000; altitude < 20000; altitude += 7.3) {
+            double expResult = Atmosphere.exactPressure(altitude);
+            assertEquals(expResult, Atmosphere.ISA.pressure(altitude), expResult * 1e-10);
+        }
+    }
+
+    /**
+     * Test of density method, of class Atmosphere.
+     */
+    @Test
+    public void testDensity() {
+        System.out.println("density");
+        for (double altitude = -1000; altitude < 20000; altitude += 7.3) {
+            double expResult = Atmosphere.exactDensity(altitude);
+            assertEquals(expResult, Atmosphere.ISA.density(altitude), expResult * 1e-10);
+        }
+    }
+
+    /**
+     * Test of speedOfSound method, of class Atmosphere.
+     */
+    @Test
+    public void testSpeedOfSound() {
+        System.out.println("speedOfSound");
+        for (double altitude = -1000; altitude < 20000; altitude += 7.3) {
+            double expResult = Atmosphere.exactSpeedOfSound(altitude);
+            assertEquals(expResult, Atmosphere.ISA.speedOfSound(altitude), expResult * 1e-10);
+        }
+    }
+
+    /**
+     * Test of the interpolation around the tropopause.
+     */
+    @Test
+    public void testTropopause() {
+        System.out.println("tropopause");
+        for (double altitude = Atmosphere.TROPOPAUSE - 30; altitude < Atmosphere.TROPOPAUSE + 30; altitude += 0.5) {
+            double density = Atmosphere.exactDensity(altitude);
+            double speedOfSound = Atmosphere.exactSpeedOfSound(altitude);
+            assertEquals(density, Atmosphere.ISA.density(altitude), density * 1e-10);
+            assertEquals(speedOfSound, Atmosphere.ISA.speedOfSound(altitude), speedOfSound * 1e-10);
+        }
+    }
+
+    /**
+     * Test of the altitudes out of the table.
+     */
+    @Test
+    public void testOutOfTable() {
+        System.out.println("outOfTable");
+        assertEquals(Atmosphere.exactDensity(-2000), Atmosphere.ISA.density(-2000), 0d);
+        assertEquals(Atmosphere.exactDensity(Atmosphere.MAX_ALTITUDE), Atmosphere.ISA.density(Atmosphere.MAX_ALTITUDE), 0d);
+        assertEquals(Atmosphere.exactPressure(30000), Atmosphere.ISA.pressure(30000), 0d);
+    }
+
+    /**
+     * Test of the agreement with the Calculus formulas in the troposphere.
+     */
+    @Test
+    public void testCalculusAgreement() {
+        System.out.println("calculusAgreement");
+        for (double altitude = 0; altitude < 11000; altitude += 500) {
+            Amount<Length> h = Amount.valueOf(altitude, SI.METER);
+            double pressure = Calculus.getPressure(h).doubleValue(SI.PASCAL);
+            double density = Calculus.getAirDensity(Calculus.getPressure(h), Calculus.getTemperature(h))
+                    .doubleValue(CustomUnits.VOLUMETRIC_DENSITY_SI);
+            assertEquals(Atmosphere.exactPressure(altitude), pressure, pressure * 1e-10);
+            assertEquals(Atmosphere.exactDensity(altitude), density, density * 1e-10);
+        }
+    }
+}
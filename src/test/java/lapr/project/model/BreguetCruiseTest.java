@@ -0,0 +1,95 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.SI;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the Breguet cruise class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class BreguetCruiseTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+    }
+
+    /**
+     * Test of solve method, of class BreguetCruise.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double mass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] adaptive = new double[FlightIntegrator.RESULT_SIZE];
+
+        for (double segmentDistance : new double[]{1000, 411652, 3000000, 9000000}) {
+            BreguetCruise.solve(profile, mass, segmentDistance, result);
+            AdaptiveIntegrator.integrate(profile, Calculus.REGIME.CRUISE, mass, 0, segmentDistance, adaptive);
+
+            assertEquals(segmentDistance, result[FlightIntegrator.DISTANCE], 0d);
+            assertEquals(adaptive[FlightIntegrator.DURATION], result[FlightIntegrator.DURATION], 1e-6);
+            assertEquals(adaptive[FlightIntegrator.CONSUMPTION], result[FlightIntegrator.CONSUMPTION],
+                    adaptive[FlightIntegrator.CONSUMPTION] * 1e-6);
+        }
+    }
+
+    /**
+     * Test of solve method against the step by step loop, of class
+     * BreguetCruise.
+     */
+    @Test
+    public void testSolveReference() {
+        System.out.println("solveReference");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double mass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] fixed = new double[FlightIntegrator.RESULT_SIZE];
+
+        // the loop stops at the end of the step that reaches the distance
+        FlightIntegrator.integrate(profile, Calculus.REGIME.CRUISE, mass, 0, 3000000, fixed);
+        BreguetCruise.solve(profile, mass, fixed[FlightIntegrator.DISTANCE], result);
+
+        assertEquals(fixed[FlightIntegrator.DURATION], result[FlightIntegrator.DURATION], 1e-6);
+        assertEquals(fixed[FlightIntegrator.CONSUMPTION], result[FlightIntegrator.CONSUMPTION],
+                fixed[FlightIntegrator.CONSUMPTION] * 1e-3);
+    }
+
+    /**
+     * Test of mass method, of class BreguetCruise.
+     */
+    @Test
+    public void testMass() {
+        System.out.println("mass");
+        // without induced drag the burn is linear, without zero lift drag it is hyperbolic
+        assertEquals(1000 - 2 * 3 * 10, BreguetCruise.mass(1000, 0, 3, 2, 10), 1e-9);
+        assertEquals(1000 / (1 + 2 * 1e-6 * 1000 * 10), BreguetCruise.mass(1000, 1e-6, 0, 2, 10), 1e-9);
+        assertEquals(1000, BreguetCruise.mass(1000, 1e-6, 3, 2, 0), 1e-9);
+    }
+
+    /**
+     * Test of the analytic mode of the Calculus cruise.
+     */
+    @Test
+    public void testCalculateCruise() {
+        System.out.println("calculateCruise");
+        AlgorithmAnalysis result = Calculus.calculateCruise(flight, Amount.valueOf(411652, SI.METER),
+                Calculus.INTEGRATION.ANALYTIC);
+        assertEquals(411652, result.getDistance().doubleValue(SI.METER), 1e-9);
+    }
+}
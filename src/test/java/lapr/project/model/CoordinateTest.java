@@ -60,6 +60,44 @@ public class CoordinateTest {
         assertEquals(latitude, instance.getLatitude());
     }
 
+    /**
+     * Test of distance method, of class Coordinate.
+     */
+    @Test
+    public void testDistance() {
+        System.out.println("distance");
+        Coordinate first = new Coordinate("01", 43.6426, -79.3871);
+        Coordinate second = new Coordinate("02", 38.6916, -9.2160);
+
+        assertEquals(5722000d, first.distance(second, 0), 500);
+        assertEquals(first.distance(second, 0), second.distance(first, 0), 1e-6);
+        assertEquals(first.distance(second, 0) * (6371e3 + 10000) / 6371e3, first.distance(second, 10000), 1e-6);
+        assertEquals(0d, first.distance(first, 0), 0d);
+
+        // cached values follow the setters
+        second.setLatitude(43.6426);
+        second.setLongitude(-79.3871);
+        assertEquals(0d, first.distance(second, 0), 0d);
+    }
+
+    /**
+     * Test of distances method, of class Coordinate.
+     */
+    @Test
+    public void testDistances() {
+        System.out.println("distances");
+        Coordinate origin = new Coordinate("01", 43.6426, -79.3871);
+        Coordinate[] others = {new Coordinate("02", 38.6916, -9.2160), new Coordinate("03", -33.9, 151.2),
+            new Coordinate("04", 43.6426, -79.3871)};
+        double[] result = new double[others.length];
+
+        origin.distances(others, 10000, result);
+
+        for (int i = 0; i < others.length; i++) {
+            assertEquals(origin.distance(others[i], 10000), result[i], 0d);
+        }
+    }
+
     /**
      * Test of equals method, of class Coordinate.
      */
@@ -0,0 +1,155 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import java.util.concurrent.ForkJoinPool;
+import javax.measure.unit.SI;
+import lapr.project.model.Calculus.INTEGRATION;
+import lapr.project.model.Calculus.REGIME;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the cruise batch class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class CruiseBatchTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+    }
+
+    /**
+     * Test of evaluate method, of class CruiseBatch.
+     */
+    @Test
+    public void testEvaluate() {
+        System.out.println("evaluate");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double[] distances = {1000, 411652, 3000000, 3000000, 9000000};
+        double[] headings = {0, 45, 90, 270, 180};
+        double[] windSpeeds = {0, 20, 30, 30, 0};
+        double[] windDirections = {0, 10, 90, 90, 0};
+        double[] masses = {514720, 500000, 450000, 450000, 600000};
+        int size = distances.length;
+        double[] distance = new double[size];
+        double[] duration = new double[size];
+        double[] consumption = new double[size];
+        double[] expected = new double[FlightIntegrator.RESULT_SIZE];
+
+        new CruiseBatch(profile, INTEGRATION.FIXED_STEP).evaluate(distances, headings, windSpeeds, windDirections,
+                masses, distance, duration, consumption);
+
+        for (int i = 0; i < size; i++) {
+            double tas = Atmosphere.ISA.speedOfSound(profile.getCruiseAltitude()) * profile.getCruiseMach();
+            double groundSpeed = tas + windSpeeds[i] * Math.cos(Math.toRadians(headings[i] - windDirections[i]));
+            FlightIntegrator.integrate(profile, REGIME.CRUISE, masses[i], 0, distances[i] * tas / groundSpeed, expected);
+
+            assertEquals(expected[FlightIntegrator.DISTANCE], distance[i], 0d);
+            assertEquals(expected[FlightIntegrator.DURATION], duration[i], 0d);
+            assertEquals(expected[FlightIntegrator.CONSUMPTION], consumption[i], 0d);
+        }
+        // a tail wind shortens the air distance, a head wind lengthens it
+        assertTrue(consumption[2] < consumption[3]);
+    }
+
+    /**
+     * Test of evaluate method without wind, against Calculus, of class
+     * CruiseBatch.
+     */
+    @Test
+    public void testEvaluateCalculus() {
+        System.out.println("evaluateCalculus");
+        double[] distance = new double[1];
+        double[] duration = new double[1];
+        double[] consumption = new double[1];
+
+        new CruiseBatch(PerformanceProfile.of(flight), INTEGRATION.FIXED_STEP).evaluate(new double[]{3000000},
+                new double[]{90}, new double[]{0}, new double[]{0}, new double[]{514720}, distance, duration, consumption);
+        AlgorithmAnalysis expected = Calculus.calculateCruise(flight, Amount.valueOf(3000000, SI.METER));
+
+        assertEquals(expected.getDistance().doubleValue(SI.METER), distance[0], 1e-6);
+        assertEquals(expected.getDuration().doubleValue(SI.SECOND), duration[0], 1e-6);
+        assertEquals(expected.getConsumption().doubleValue(SI.KILOGRAM), consumption[0], 1e-6);
+    }
+
+    /**
+     * Test of evaluate method in analytic mode, of class CruiseBatch.
+     */
+    @Test
+    public void testEvaluateAnalytic() {
+        System.out.println("evaluateAnalytic");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double[] distances = {1000, 411652, 3000000, 9000000};
+        double[] masses = {514720, 500000, 450000, 600000};
+        double[] distance = new double[4];
+        double[] duration = new double[4];
+        double[] consumption = new double[4];
+        double[] expected = new double[FlightIntegrator.RESULT_SIZE];
+
+        new CruiseBatch(profile, INTEGRATION.ANALYTIC).evaluate(distances, new double[4], new double[4],
+                new double[4], masses, distance, duration, consumption);
+
+        for (int i = 0; i < distances.length; i++) {
+            BreguetCruise.solve(profile, masses[i], distances[i], expected);
+            assertEquals(expected[FlightIntegrator.DISTANCE], distance[i], 1e-6);
+            assertEquals(expected[FlightIntegrator.DURATION], duration[i], 1e-6);
+            assertEquals(expected[FlightIntegrator.CONSUMPTION], consumption[i], 1e-6);
+        }
+    }
+
+    /**
+     * Test of evaluate method over a fork-join pool, of class CruiseBatch.
+     */
+    @Test
+    public void testEvaluateParallel() {
+        System.out.println("evaluateParallel");
+        int size = 4 * CruiseBatch.SPLIT_THRESHOLD + 3;
+        double[] distances = new double[size];
+        double[] headings = new double[size];
+        double[] windSpeeds = new double[size];
+        double[] windDirections = new double[size];
+        double[] masses = new double[size];
+        for (int i = 0; i < size; i++) {
+            distances[i] = 1000 + i * 997;
+            headings[i] = i % 360;
+            windSpeeds[i] = i % 40;
+            windDirections[i] = (i * 7) % 360;
+            masses[i] = 400000 + i * 50;
+        }
+        double[][] sequential = new double[3][size];
+        double[][] parallel = new double[3][size];
+        CruiseBatch batch = new CruiseBatch(PerformanceProfile.of(flight), INTEGRATION.FIXED_STEP);
+
+        batch.evaluate(distances, headings, windSpeeds, windDirections, masses,
+                sequential[0], sequential[1], sequential[2]);
+        batch.evaluate(new ForkJoinPool(4), distances, headings, windSpeeds, windDirections, masses,
+                parallel[0], parallel[1], parallel[2]);
+
+        for (int k = 0; k < 3; k++) {
+            assertArrayEquals(sequential[k], parallel[k], 0d);
+        }
+    }
+
+    /**
+     * Test of evaluate method with arrays of different lengths, of class
+     * CruiseBatch.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluateInvalidSize() {
+        System.out.println("evaluateInvalidSize");
+        new CruiseBatch(PerformanceProfile.of(flight), INTEGRATION.FIXED_STEP).evaluate(new double[2], new double[2],
+                new double[2], new double[2], new double[1], new double[2], new double[2], new double[2]);
+    }
+}
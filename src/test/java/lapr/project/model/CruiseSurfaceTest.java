@@ -0,0 +1,164 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the cruise surface class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class CruiseSurfaceTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+        flight.getFlightInfo().getAircraft().getAircraftModel().setMtow(Amount.valueOf(6.00E+05, SI.KILOGRAM));
+    }
+
+    /**
+     * Test of lookup method at the grid nodes, of class CruiseSurface.
+     */
+    @Test
+    public void testLookupNodes() {
+        System.out.println("lookupNodes");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        CruiseSurface surface = new CruiseSurface(profile, 3e5, 6e5, 4, 6e6, 7);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] expected = new double[FlightIntegrator.RESULT_SIZE];
+
+        assertFalse(surface.isBuilt());
+        for (double mass : new double[]{3e5, 4e5, 5e5, 6e5}) {
+            for (double distance : new double[]{0, 1e6, 3e6, 6e6}) {
+                surface.lookup(mass, distance, result);
+                FlightIntegrator.integrate(profile, Calculus.REGIME.CRUISE, mass, 0, distance, expected);
+
+                assertEquals(distance, result[FlightIntegrator.DISTANCE], 0d);
+                assertEquals(expected[FlightIntegrator.DURATION], result[FlightIntegrator.DURATION], 1e-9);
+                assertEquals(expected[FlightIntegrator.CONSUMPTION], result[FlightIntegrator.CONSUMPTION], 1e-9);
+            }
+        }
+        assertTrue(surface.isBuilt());
+    }
+
+    /**
+     * Test of lookup method between the grid nodes, of class CruiseSurface.
+     */
+    @Test
+    public void testLookupInterpolated() {
+        System.out.println("lookupInterpolated");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        CruiseSurface surface = CruiseSurface.of(profile);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] expected = new double[FlightIntegrator.RESULT_SIZE];
+
+        for (double distance : new double[]{411652, 3000000, 9000000}) {
+            surface.lookup(514720, distance, result);
+            FlightIntegrator.integrate(profile, Calculus.REGIME.CRUISE, 514720, 0, distance, expected);
+
+            // within about one minute of cruise
+            assertEquals(expected[FlightIntegrator.DURATION], result[FlightIntegrator.DURATION], 60);
+            assertEquals(expected[FlightIntegrator.CONSUMPTION], result[FlightIntegrator.CONSUMPTION],
+                    expected[FlightIntegrator.CONSUMPTION] / expected[FlightIntegrator.DURATION] * 60);
+        }
+    }
+
+    /**
+     * Test of lookup method out of the grid, of class CruiseSurface.
+     */
+    @Test
+    public void testLookupOutOfGrid() {
+        System.out.println("lookupOutOfGrid");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        CruiseSurface surface = new CruiseSurface(profile, 3e5, 6e5, 4, 6e6, 7);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+        double[] expected = new double[FlightIntegrator.RESULT_SIZE];
+
+        assertFalse(surface.covers(6.5e5, 1e6));
+        assertFalse(surface.covers(5e5, 7e6));
+        assertFalse(surface.covers(5e5, -1));
+
+        surface.lookup(5e5, 7e6, result);
+        FlightIntegrator.integrate(profile, Calculus.REGIME.CRUISE, 5e5, 0, 7e6, expected);
+        assertArrayEquals(expected, result, 0d);
+        assertFalse(surface.isBuilt());
+    }
+
+    /**
+     * Test of of method, of class CruiseSurface.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+
+        assertSame(CruiseSurface.of(profile), CruiseSurface.of(PerformanceProfile.of(flight)));
+
+        flight.getFlightInfo().getAircraft().getAircraftModel().setMtow(Amount.valueOf(0, SI.KILOGRAM));
+        CruiseSurface uncovered = CruiseSurface.of(PerformanceProfile.of(flight));
+        assertNotSame(CruiseSurface.of(profile), uncovered);
+        assertFalse(uncovered.covers(5e5, 1e6));
+
+        // the registry stays bounded
+        for (int i = 0; i <= CruiseSurface.REGISTRY_CAPACITY; i++) {
+            flight.getFlightInfo().getAircraft().getAircraftModel().setMtow(Amount.valueOf(6e5 + i, SI.KILOGRAM));
+            PerformanceProfile other = PerformanceProfile.of(flight);
+            assertSame(CruiseSurface.of(other), CruiseSurface.of(other));
+        }
+    }
+
+    /**
+     * Test of cruise method, of class CruiseSurface.
+     */
+    @Test
+    public void testCruise() {
+        System.out.println("cruise");
+        Amount<Length> distance = Amount.valueOf(3000000, SI.METER);
+        CruiseSurface surface = CruiseSurface.of(PerformanceProfile.of(flight));
+
+        AlgorithmAnalysis expected = CruiseSurface.calculateCruise(flight, distance);
+        AlgorithmAnalysis result = surface.cruise(flight, distance);
+        assertEquals(expected.getDuration().doubleValue(SI.SECOND), result.getDuration().doubleValue(SI.SECOND), 0d);
+        assertEquals(expected.getConsumption().doubleValue(SI.KILOGRAM),
+                result.getConsumption().doubleValue(SI.KILOGRAM), 0d);
+    }
+
+    /**
+     * Test of calculateCruise method, of class CruiseSurface.
+     */
+    @Test
+    public void testCalculateCruise() {
+        System.out.println("calculateCruise");
+        Amount<Length> distance = Amount.valueOf(3000000, SI.METER);
+
+        AlgorithmAnalysis expected = Calculus.calculateCruise(flight, distance);
+        AlgorithmAnalysis result = CruiseSurface.calculateCruise(flight, distance);
+
+        assertEquals(3000000, result.getDistance().doubleValue(SI.METER), 0d);
+        assertEquals(expected.getDuration().doubleValue(SI.SECOND), result.getDuration().doubleValue(SI.SECOND), 60);
+        assertEquals(expected.getConsumption().doubleValue(SI.KILOGRAM),
+                result.getConsumption().doubleValue(SI.KILOGRAM), 100);
+    }
+
+    /**
+     * Test of the constructor with an invalid grid, of class CruiseSurface.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidGrid() {
+        System.out.println("invalidGrid");
+        new CruiseSurface(PerformanceProfile.of(flight), 3e5, 6e5, 1, 6e6, 7);
+    }
+}
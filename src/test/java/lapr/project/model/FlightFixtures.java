@@ -0,0 +1,60 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+import lapr.project.utils.CustomUnits;
+import org.jscience.physics.amount.Amount;
+
+/**
+ * Flights shared by the tests of the flight performance calculations.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public final class FlightFixtures {
+
+    /**
+     * Not instantiable.
+     */
+    private FlightFixtures() {
+    }
+
+    /**
+     * Creates a flight of a four engine wide body aircraft, with its flight
+     * pattern, 70000 kg of cargo and 144720 kg of fuel.
+     *
+     * @return the flight
+     */
+    public static FlightSimulation wideBodyFlight() {
+
+        FlightPattern flightPattern = new FlightPattern();
+        flightPattern.insertLine(Amount.valueOf(0, SI.METER), Amount.valueOf(210, NonSI.KNOT), Amount.valueOf(180, NonSI.KNOT), Amount.valueOf(-5, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(2000, SI.METER), Amount.valueOf(220, NonSI.KNOT), Amount.valueOf(250, NonSI.KNOT), Amount.valueOf(-7, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(5000, SI.METER), Amount.valueOf(260, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(11000, SI.METER), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(14000, SI.METER), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+
+        FlightSimulation flight = new FlightSimulation();
+        flight.getFlightInfo().getAircraft().setFlightPattern(flightPattern);
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setLapseRateFactor(Amount.valueOf(0.96, Unit.ONE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setWingArea(Amount.valueOf(858, SI.SQUARE_METRE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setAspectRatio(Amount.valueOf(9, Unit.ONE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setCruiseAltitude(Amount.valueOf(10061, SI.METER));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setE(Amount.valueOf(0.84, Unit.ONE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().setThrust0(Amount.valueOf(3.38E+05, SI.NEWTON));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().setThrustMaxSpeed(Amount.valueOf(1.80E+05, SI.NEWTON));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().setMaxSpeed(Amount.valueOf(0.9, NonSI.MACH));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setNumberOfMotors(4);
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setTsfc(Amount.valueOf(1.60E-04, CustomUnits.TSFC_NNS));
+        flight.setEffectiveCargo(Amount.valueOf(70000, SI.KILOGRAM));
+        flight.setEffectiveFuel(Amount.valueOf(144720, SI.KILOGRAM));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setEmptyWeight(Amount.valueOf(3.00E+05, SI.KILOGRAM));
+        return flight;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import lapr.project.utils.CustomUnits;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the flight integrator class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class FlightIntegratorTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+    }
+
+    /**
+     * Test of machTrue method, of class FlightIntegrator.
+     */
+    @Test
+    public void testMachTrue() {
+        System.out.println("machTrue");
+        double expResult = Calculus.getMachTrue(Amount.valueOf(250, NonSI.KNOT),
+                Amount.valueOf(0.7, CustomUnits.VOLUMETRIC_DENSITY_SI)).doubleValue(NonSI.MACH);
+        double result = FlightIntegrator.machTrue(Amount.valueOf(250, NonSI.KNOT).doubleValue(SI.METERS_PER_SECOND), 0.7);
+        assertEquals(expResult, result, 1e-9);
+    }
+
+    /**
+     * Test of integrate method, of class FlightIntegrator.
+     */
+    @Test
+    public void testIntegrate() {
+        System.out.println("integrate");
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+        double mass = profile.initialMass(flight);
+        double[] result = new double[FlightIntegrator.RESULT_SIZE];
+
+        FlightIntegrator.integrate(profile, Calculus.REGIME.CRUISE, mass, 0, 500000, result);
+        assertTrue(result[FlightIntegrator.DISTANCE] >= 500000);
+        assertEquals(0, result[FlightIntegrator.DURATION] % FlightIntegrator.TIMESTEP, 0d);
+
+        AlgorithmAnalysis climb = Calculus.calculateClimb(flight, Amount.valueOf(0d, SI.METER));
+        FlightIntegrator.integrate(profile, Calculus.REGIME.CLIMB, mass, 0, 0, result);
+        assertEquals(climb.getDistance().doubleValue(SI.METER), result[FlightIntegrator.DISTANCE], 1e-6);
+        assertEquals(climb.getDuration().doubleValue(SI.SECOND), result[FlightIntegrator.DURATION], 0d);
+        assertEquals(climb.getConsumption().doubleValue(SI.KILOGRAM), result[FlightIntegrator.CONSUMPTION], 1e-6);
+    }
+}
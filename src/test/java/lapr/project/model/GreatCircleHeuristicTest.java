@@ -0,0 +1,185 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import java.util.LinkedList;
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.MapGraphAlgorithms;
+import lapr.project.utils.graph.SearchStatistics;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the great circle heuristic class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class GreatCircleHeuristicTest {
+
+    /**
+     * Grid size (junctions per side).
+     */
+    private static final int SIDE = 30;
+
+    /**
+     * Continental grid network, one degree between junctions.
+     */
+    private AirNetwork network;
+
+    private Coordinate[][] grid;
+
+    @Before
+    public void setUp() {
+        network = new AirNetwork();
+        grid = new Coordinate[SIDE][SIDE];
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                grid[i][j] = new Coordinate(String.format("J%02d%02d", i, j), 30.0 + i, -10.0 + j);
+                network.addJunction(grid[i][j]);
+            }
+        }
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                if (i + 1 < SIDE) {
+                    network.addSegment(grid[i][j], grid[i + 1][j], segment("N" + i + "_" + j));
+                    network.addSegment(grid[i + 1][j], grid[i][j], segment("S" + i + "_" + j));
+                }
+                if (j + 1 < SIDE) {
+                    network.addSegment(grid[i][j], grid[i][j + 1], segment("E" + i + "_" + j));
+                    network.addSegment(grid[i][j + 1], grid[i][j], segment("W" + i + "_" + j));
+                }
+            }
+        }
+    }
+
+    private static Segment segment(String id) {
+        return new Segment(id, Amount.valueOf(0, SI.METER), Amount.valueOf(0, NonSI.DEGREE_ANGLE),
+                Amount.valueOf(0, SI.METERS_PER_SECOND));
+    }
+
+    /**
+     * Test of distance method, of class GreatCircleHeuristic.
+     */
+    @Test
+    public void testDistance() {
+        System.out.println("distance");
+        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+        GreatCircleHeuristic heuristic = GreatCircleHeuristic.distance(graph);
+
+        assertEquals(1, heuristic.getCostPerMeter(), 1e-9);
+        assertEquals(grid[0][0].distance(grid[5][7], 0), heuristic.estimate(grid[0][0], grid[5][7]), 1e-3);
+    }
+
+    /**
+     * Test of the A* search against Dijkstra, with the visited counts.
+     */
+    @Test
+    public void testAStar() {
+        System.out.println("aStar");
+        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+        GreatCircleHeuristic heuristic = GreatCircleHeuristic.distance(graph);
+        SearchStatistics dijkstra = new SearchStatistics();
+        SearchStatistics aStar = new SearchStatistics();
+        LinkedList<Coordinate> expected = new LinkedList<>();
+        LinkedList<Coordinate> result = new LinkedList<>();
+
+        for (int k = 0; k < SIDE; k += 7) {
+            Coordinate origin = grid[k][0];
+            Coordinate target = grid[SIDE - 1 - k][SIDE - 1];
+            double expLength = MapGraphAlgorithms.shortestPath(graph, origin, target, expected, dijkstra);
+            double length = MapGraphAlgorithms.aStar(graph, origin, target, heuristic, result, aStar);
+
+            assertEquals(expLength, length, 1e-6);
+            assertEquals(origin, result.getFirst());
+            assertEquals(target, result.getLast());
+        }
+        assertTrue(aStar.getSettled() < dijkstra.getSettled());
+    }
+
+    /**
+     * Test of time method, of class GreatCircleHeuristic.
+     */
+    @Test
+    public void testTime() {
+        System.out.println("time");
+        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+
+        // weights in seconds at 250 m/s: the bound of 300 m/s is kept
+        for (MapEdge<Coordinate, Segment> edge : graph.edges()) {
+            edge.setWeight(edge.getWeight() / 250);
+        }
+        assertEquals(1d / 300, GreatCircleHeuristic.time(graph, 300).getCostPerMeter(), 1e-12);
+        // a bound below the real speed is lowered to keep the heuristic admissible
+        assertTrue(GreatCircleHeuristic.time(graph, 200).getCostPerMeter() <= 1d / 250);
+    }
+
+    /**
+     * Test of maxGroundSpeed method, of class GreatCircleHeuristic.
+     */
+    @Test
+    public void testMaxGroundSpeed() {
+        System.out.println("maxGroundSpeed");
+        FlightSimulation flight = new FlightSimulation();
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setCruiseAltitude(Amount.valueOf(10000, SI.METER));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setCruiseSpeed(Amount.valueOf(0.8, NonSI.MACH));
+        network.getNetwork().edges().iterator().next().getElement().setWindIntensity(Amount.valueOf(40, SI.METERS_PER_SECOND));
+
+        double tas = Calculus.calculateTAS(Amount.valueOf(10000, SI.METER), Amount.valueOf(0.8, NonSI.MACH))
+                .doubleValue(SI.METERS_PER_SECOND);
+        assertEquals(tas + 40, GreatCircleHeuristic.maxGroundSpeed(network.getNetwork(), flight), 1e-9);
+    }
+
+    /**
+     * Test of distance method with an air network, of class
+     * GreatCircleHeuristic.
+     */
+    @Test
+    public void testDistanceNetwork() {
+        System.out.println("distanceNetwork");
+        MapGraph<Coordinate, Segment> graph = network.getNetwork();
+
+        assertEquals(GreatCircleHeuristic.distance(graph).getCostPerMeter(),
+                GreatCircleHeuristic.distance(network).getCostPerMeter(), 1e-12);
+        // the distances are kept until the network changes
+        double[] distances = network.getGreatCircleDistances();
+        assertSame(distances, network.getGreatCircleDistances());
+
+        // a segment weighted below its great circle distance lowers the cost
+        Coordinate far = new Coordinate("FAR", 30.0, 40.0);
+        network.addJunction(far);
+        graph.insertEdge(grid[0][0], far, segment("SC"), 1000);
+        assertNotSame(distances, network.getGreatCircleDistances());
+        assertEquals(GreatCircleHeuristic.distance(graph).getCostPerMeter(),
+                GreatCircleHeuristic.distance(network).getCostPerMeter(), 1e-12);
+        assertTrue(GreatCircleHeuristic.distance(network).getCostPerMeter() < 1);
+    }
+
+    /**
+     * Test of maxGroundSpeed method with an air network, of class
+     * GreatCircleHeuristic.
+     */
+    @Test
+    public void testMaxGroundSpeedNetwork() {
+        System.out.println("maxGroundSpeedNetwork");
+        FlightSimulation flight = new FlightSimulation();
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setCruiseAltitude(Amount.valueOf(10000, SI.METER));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setCruiseSpeed(Amount.valueOf(0.8, NonSI.MACH));
+        double tas = Calculus.calculateTAS(Amount.valueOf(10000, SI.METER), Amount.valueOf(0.8, NonSI.MACH))
+                .doubleValue(SI.METERS_PER_SECOND);
+        assertEquals(tas, GreatCircleHeuristic.maxGroundSpeed(network, flight), 1e-9);
+
+        // a wind change does not change the network, but is seen
+        network.getNetwork().edges().iterator().next().getElement().setWindIntensity(Amount.valueOf(40, SI.METERS_PER_SECOND));
+        assertEquals(tas + 40, GreatCircleHeuristic.maxGroundSpeed(network, flight), 1e-9);
+        assertEquals(40, network.getMaxWindSpeed(), 1e-9);
+    }
+}
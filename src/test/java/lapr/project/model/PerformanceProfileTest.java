@@ -0,0 +1,125 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the performance profile class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class PerformanceProfileTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+    }
+
+    /**
+     * Test of of method, of class PerformanceProfile.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        PerformanceProfile instance = PerformanceProfile.of(flight);
+        AircraftModel model = flight.getFlightInfo().getAircraft().getAircraftModel();
+        ThrustFunction thrustFunction = model.getMotorization().getThrustFunction();
+
+        assertEquals(10061, instance.getCruiseAltitude(), 0d);
+        assertEquals(858, instance.getWingArea(), 0d);
+        assertEquals(4, instance.getNumberOfMotors());
+        assertEquals(0.96, instance.getLapseRateFactor(), 0d);
+        assertEquals(Calculus.getLambda(thrustFunction.getThrust0(), thrustFunction.getThrustMaxSpeed(),
+                thrustFunction.getMaxSpeed()).doubleValue(SI.NEWTON), instance.getLambda(), 1e-9);
+        assertEquals(1 / (9 * Math.PI * 0.84), instance.getInducedDragFactor(), 1e-12);
+        assertEquals(70000 + 144720 + 3.00E+05, instance.initialMass(flight), 1e-9);
+        assertEquals(5, instance.patternLines());
+    }
+
+    /**
+     * Test of cdrag method, of class PerformanceProfile.
+     */
+    @Test
+    public void testCdrag() {
+        System.out.println("cdrag");
+        AircraftModel model = flight.getFlightInfo().getAircraft().getAircraftModel();
+        PerformanceProfile instance = PerformanceProfile.of(flight);
+        for (double mach = 0; mach < 1; mach += 0.05) {
+            assertEquals(model.getCdragFunction(mach), instance.cdrag(mach), 0d);
+        }
+
+        model.setCdragFunction(new double[][]{{0, 0.02}, {0.5, 0.03}, {0.7, 0.04}, {0.9, 0.05}});
+        instance = PerformanceProfile.of(flight);
+        for (double mach = -0.1; mach < 1; mach += 0.01) {
+            assertEquals(model.getCdragFunction(mach), instance.cdrag(mach), 0d);
+        }
+    }
+
+    /**
+     * Test of patternLine method, of class PerformanceProfile.
+     */
+    @Test
+    public void testPatternLine() {
+        System.out.println("patternLine");
+        FlightPattern pattern = flight.getFlightInfo().getAircraft().getFlightPattern();
+        PerformanceProfile instance = PerformanceProfile.of(flight);
+
+        assertEquals(0, instance.patternLine(0));
+        assertEquals(1, instance.patternLine(4999));
+        assertEquals(3, instance.patternLine(11000));
+        assertEquals(-1, instance.patternLine(14000));
+        assertEquals(-1, instance.patternLine(-1));
+        for (double altitude = -500; altitude < 15000; altitude += 250) {
+            assertEquals(pattern.getAltitudeIndex(Amount.valueOf(altitude, SI.METER)), instance.patternLine(altitude));
+        }
+        assertEquals(Amount.valueOf(220, NonSI.KNOT).doubleValue(SI.METERS_PER_SECOND), instance.climbIas(1), 1e-9);
+        assertEquals(Amount.valueOf(250, NonSI.KNOT).doubleValue(SI.METERS_PER_SECOND), instance.descentIas(1), 1e-9);
+        assertEquals(5000, instance.patternAltitude(2), 0d);
+    }
+
+    /**
+     * Test of the sorting of the flight pattern lines.
+     */
+    @Test
+    public void testUnsortedPattern() {
+        System.out.println("unsortedPattern");
+        FlightPattern pattern = new FlightPattern();
+        pattern.insertLine(Amount.valueOf(5000, SI.METER), Amount.valueOf(260, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        pattern.insertLine(Amount.valueOf(0, SI.METER), Amount.valueOf(210, NonSI.KNOT), Amount.valueOf(180, NonSI.KNOT), Amount.valueOf(-5, SI.METERS_PER_SECOND));
+        pattern.insertLine(Amount.valueOf(2000, SI.METER), Amount.valueOf(220, NonSI.KNOT), Amount.valueOf(250, NonSI.KNOT), Amount.valueOf(-7, SI.METERS_PER_SECOND));
+
+        PerformanceProfile instance = PerformanceProfile.compile(flight.getFlightInfo().getAircraft().getAircraftModel(), pattern);
+        assertEquals(0, instance.patternAltitude(0), 0d);
+        assertEquals(1, instance.patternLine(3000));
+        assertEquals(Amount.valueOf(220, NonSI.KNOT).doubleValue(SI.METERS_PER_SECOND), instance.climbIas(1), 1e-9);
+    }
+
+    /**
+     * Test of equals method, of class PerformanceProfile.
+     */
+    @Test
+    public void testEquals() {
+        System.out.println("equals");
+        PerformanceProfile instance = PerformanceProfile.of(flight);
+
+        assertEquals(instance, PerformanceProfile.of(flight));
+        assertEquals(instance.hashCode(), PerformanceProfile.of(flight).hashCode());
+
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setNumberOfMotors(2);
+        assertNotEquals(instance, PerformanceProfile.of(flight));
+        assertNotEquals(instance, null);
+    }
+}
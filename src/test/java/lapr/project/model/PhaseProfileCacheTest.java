@@ -0,0 +1,191 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import java.util.stream.IntStream;
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the phase profile cache class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class PhaseProfileCacheTest {
+
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+    }
+
+    /**
+     * Test of climb method, of class PhaseProfileCache.
+     */
+    @Test
+    public void testClimb() {
+        System.out.println("climb");
+        PhaseProfileCache instance = new PhaseProfileCache(PhaseProfileCache.DEFAULT_CAPACITY, 0);
+        Amount<Length> altitude = Amount.valueOf(300, SI.METER);
+
+        AlgorithmAnalysis expResult = Calculus.calculateClimb(flight, altitude);
+        assertEquals(expResult, instance.climb(flight, altitude));
+        assertEquals(expResult, instance.climb(flight, altitude));
+        assertEquals(1, instance.getMisses());
+        assertEquals(1, instance.getHits());
+    }
+
+    /**
+     * Test of landing method, of class PhaseProfileCache.
+     */
+    @Test
+    public void testLanding() {
+        System.out.println("landing");
+        PhaseProfileCache instance = new PhaseProfileCache(PhaseProfileCache.DEFAULT_CAPACITY, 0);
+        Amount<Length> altitude = Amount.valueOf(300, SI.METER);
+
+        AlgorithmAnalysis expResult = Calculus.calculateLanding(flight, altitude);
+        assertEquals(expResult, instance.landing(flight, altitude));
+        instance.climb(flight, altitude);
+        instance.landing(flight, Amount.valueOf(0, SI.METER));
+        assertEquals(3, instance.getMisses());
+        assertEquals(0, instance.getHits());
+    }
+
+    /**
+     * Test of climb &amp; landing methods with a compiled performance
+     * profile, of class PhaseProfileCache.
+     */
+    @Test
+    public void testProfile() {
+        System.out.println("profile");
+        PhaseProfileCache instance = new PhaseProfileCache(PhaseProfileCache.DEFAULT_CAPACITY, 0);
+        Amount<Length> altitude = Amount.valueOf(300, SI.METER);
+        PerformanceProfile profile = PerformanceProfile.of(flight);
+
+        assertEquals(Calculus.calculateClimb(flight, altitude), instance.climb(profile, flight, altitude));
+        assertEquals(Calculus.calculateLanding(flight, altitude), instance.landing(profile, flight, altitude));
+        // same entries as the flight methods
+        instance.climb(flight, altitude);
+        instance.landing(flight, altitude);
+        assertEquals(2, instance.getMisses());
+        assertEquals(2, instance.getHits());
+        assertEquals(profile.hashCode(), PerformanceProfile.of(flight).hashCode());
+    }
+
+    /**
+     * Test of the keys of the cache, which must follow the model values.
+     */
+    @Test
+    public void testChangedModel() {
+        System.out.println("changedModel");
+        PhaseProfileCache instance = new PhaseProfileCache(PhaseProfileCache.DEFAULT_CAPACITY, 0);
+        Amount<Length> altitude = Amount.valueOf(0, SI.METER);
+
+        instance.climb(flight, altitude);
+        flight.getFlightInfo().getAircraft().getAircraftModel().setWingArea(Amount.valueOf(800, SI.SQUARE_METRE));
+        assertEquals(Calculus.calculateClimb(flight, altitude), instance.climb(flight, altitude));
+        assertEquals(2, instance.getMisses());
+    }
+
+    /**
+     * Test of the mass band of the cache.
+     */
+    @Test
+    public void testMassBand() {
+        System.out.println("massBand");
+        PhaseProfileCache instance = new PhaseProfileCache(16, 1000);
+        Amount<Length> altitude = Amount.valueOf(0, SI.METER);
+
+        AlgorithmAnalysis first = instance.climb(flight, altitude);
+        flight.setEffectiveFuel(Amount.valueOf(144720 + 100, SI.KILOGRAM));
+        assertEquals(first, instance.climb(flight, altitude));
+        flight.setEffectiveFuel(Amount.valueOf(144720 + 1000, SI.KILOGRAM));
+        instance.climb(flight, altitude);
+        assertEquals(1, instance.getHits());
+        assertEquals(2, instance.getMisses());
+
+        // the band center (514500 kg) is used
+        flight.setEffectiveFuel(Amount.valueOf(144500, SI.KILOGRAM));
+        assertEquals(Calculus.calculateClimb(flight, altitude), first);
+    }
+
+    /**
+     * Test of the default mass band of the cache.
+     */
+    @Test
+    public void testDefaultMassBand() {
+        System.out.println("defaultMassBand");
+        PhaseProfileCache instance = new PhaseProfileCache();
+        Amount<Length> altitude = Amount.valueOf(0, SI.METER);
+
+        AlgorithmAnalysis first = instance.landing(flight, altitude);
+        flight.setEffectiveFuel(Amount.valueOf(144720 + 5, SI.KILOGRAM));
+        assertEquals(first, instance.landing(flight, altitude));
+        assertEquals(1, instance.getHits());
+
+        // the band center (514725 kg) is used
+        assertEquals(Calculus.calculateLanding(flight, altitude), first);
+    }
+
+    /**
+     * Test of the eviction of the least recently used entries.
+     */
+    @Test
+    public void testEviction() {
+        System.out.println("eviction");
+        PhaseProfileCache instance = new PhaseProfileCache(2, 0);
+
+        instance.climb(flight, Amount.valueOf(0, SI.METER));
+        instance.climb(flight, Amount.valueOf(100, SI.METER));
+        instance.climb(flight, Amount.valueOf(0, SI.METER));
+        instance.climb(flight, Amount.valueOf(200, SI.METER));
+        assertEquals(2, instance.size());
+
+        // 100 m was the least recently used
+        instance.climb(flight, Amount.valueOf(0, SI.METER));
+        instance.climb(flight, Amount.valueOf(100, SI.METER));
+        assertEquals(2, instance.getHits());
+        assertEquals(4, instance.getMisses());
+
+        instance.clear();
+        assertEquals(0, instance.size());
+        assertEquals(0, instance.getHits());
+    }
+
+    /**
+     * Test of the concurrent use of the cache.
+     */
+    @Test
+    public void testConcurrency() {
+        System.out.println("concurrency");
+        PhaseProfileCache instance = new PhaseProfileCache(4, 0);
+        AlgorithmAnalysis expResult = Calculus.calculateClimb(flight, Amount.valueOf(0, SI.METER));
+
+        IntStream.range(0, 200).parallel().forEach(i -> {
+            assertEquals(expResult, instance.climb(flight, Amount.valueOf(0, SI.METER)));
+            instance.landing(flight, Amount.valueOf(i % 8, SI.METER));
+        });
+        assertEquals(400, instance.getHits() + instance.getMisses());
+        assertTrue(instance.size() <= 4);
+    }
+
+    /**
+     * Test of the constructor with invalid arguments.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        System.out.println("invalidCapacity");
+        new PhaseProfileCache(0, 0);
+    }
+}
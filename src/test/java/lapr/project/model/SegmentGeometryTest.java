@@ -0,0 +1,71 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import org.jscience.physics.amount.Amount;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the segment geometry class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class SegmentGeometryTest {
+
+    /**
+     * Test of of method, of class SegmentGeometry.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        Coordinate first = new Coordinate("a", 1.0, 20.0);
+        Coordinate second = new Coordinate("b", 1.0, 100.0);
+
+        SegmentGeometry result = SegmentGeometry.of(first, second, Amount.valueOf(10000, SI.METER));
+
+        assertEquals(Calculus.distance(first, second, Amount.valueOf(10000, SI.METER)).doubleValue(SI.METER),
+                result.getLength(), 0d);
+        assertEquals(Calculus.direction(first, second).doubleValue(NonSI.DEGREE_ANGLE), result.getBearing(), 0d);
+        assertEquals(Math.sin(Math.toRadians(result.getBearing())), result.getSinBearing(), 0d);
+        assertEquals(Math.cos(Math.toRadians(result.getBearing())), result.getCosBearing(), 0d);
+    }
+
+    /**
+     * Test of windComponent method, of class SegmentGeometry.
+     */
+    @Test
+    public void testWindComponent() {
+        System.out.println("windComponent");
+        SegmentGeometry instance = new SegmentGeometry(1000, 90);
+
+        for (double windDirection : new double[]{0, 15, 90, 200, 270}) {
+            double radians = Math.toRadians(windDirection);
+            double expResult = Calculus.getPortionWindSpeed(Amount.valueOf(40, SI.METERS_PER_SECOND),
+                    Amount.valueOf(windDirection, NonSI.DEGREE_ANGLE), Amount.valueOf(90, NonSI.DEGREE_ANGLE))
+                    .doubleValue(SI.METERS_PER_SECOND);
+            double result = instance.windComponent(40, Math.sin(radians), Math.cos(radians));
+            assertEquals(expResult, result, 1e-9);
+        }
+    }
+
+    /**
+     * Test of equals method, of class SegmentGeometry.
+     */
+    @Test
+    public void testEquals() {
+        System.out.println("equals");
+        SegmentGeometry instance = new SegmentGeometry(1000, 90);
+
+        assertEquals(instance, new SegmentGeometry(1000, 90));
+        assertEquals(instance.hashCode(), new SegmentGeometry(1000, 90).hashCode());
+        assertNotEquals(instance, new SegmentGeometry(1000, 91));
+        assertNotEquals(instance, null);
+    }
+}
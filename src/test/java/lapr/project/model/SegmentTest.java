@@ -87,6 +87,75 @@ public class SegmentTest {
         assertTrue(instance.getWindIntensity().approximates(windSpeed));
     }
 
+    /**
+     * Test of getWindComponent method, of class Segment.
+     */
+    @Test
+    public void testGetWindComponent() {
+        System.out.println("getWindComponent");
+        Coordinate first = new Coordinate("a", 1.0, 20.0);
+        Coordinate second = new Coordinate("b", 1.0, 100.0);
+        instance.setWindIntensity(Amount.valueOf(80, NonSI.KNOT));
+        instance.setWindDirection(Amount.valueOf(15, NonSI.DEGREE_ANGLE));
+
+        double expResult = Calculus.getPortionWindSpeed(instance.getWindIntensity(), instance.getWindDirection(),
+                Calculus.direction(first, second)).doubleValue(SI.METERS_PER_SECOND);
+
+        assertEquals(expResult, instance.getWindComponent(first, second), 1e-9);
+        expResult = Calculus.getPortionWindSpeed(instance.getWindIntensity(), instance.getWindDirection(),
+                Calculus.direction(second, first)).doubleValue(SI.METERS_PER_SECOND);
+        assertEquals(expResult, instance.getWindComponent(second, first), 1e-9);
+    }
+
+    /**
+     * Test of getGeometry and setGeometry methods, of class Segment.
+     */
+    @Test
+    public void testGetSetGeometry() {
+        System.out.println("get and setGeometry");
+        Coordinate first = new Coordinate("a", 1.0, 20.0);
+        Coordinate second = new Coordinate("b", 1.0, 100.0);
+
+        // one geometry for each direction
+        SegmentGeometry forward = instance.getGeometry(first, second);
+        SegmentGeometry backward = instance.getGeometry(second, first);
+        assertEquals(SegmentGeometry.of(first, second, instance.getAltitude()), forward);
+        assertEquals(SegmentGeometry.of(second, first, instance.getAltitude()), backward);
+        assertSame(forward, instance.getGeometry(first, second));
+        assertSame(backward, instance.getGeometry(second, first));
+        assertSame(forward, new Segment(instance).getGeometry(first, second));
+
+        // computed again when a coordinate moves or the altitude changes
+        second.setLongitude(90.0);
+        assertEquals(SegmentGeometry.of(first, second, instance.getAltitude()), instance.getGeometry(first, second));
+        instance.setAltitude(Amount.valueOf(10000, SI.METER));
+        assertEquals(SegmentGeometry.of(first, second, instance.getAltitude()), instance.getGeometry(first, second));
+
+        // a loaded geometry is used while the coordinates stay where it was stored
+        SegmentGeometry loaded = new SegmentGeometry(1000, 90, first, second);
+        instance.setGeometry(loaded);
+        assertSame(loaded, instance.getGeometry(first, second));
+        first.setLatitude(2.0);
+        assertNotSame(loaded, instance.getGeometry(first, second));
+    }
+
+    /**
+     * Test of getWindForecast and setWindForecast methods, of class Segment.
+     */
+    @Test
+    public void testGetSetWindForecast() {
+        System.out.println("get and setWindForecast");
+        assertNull(instance.getWindForecast());
+        instance.setWindIntensity(Amount.valueOf(30, SI.METERS_PER_SECOND));
+        assertEquals(30, instance.getMaxWindSpeed(), 1e-9);
+
+        WindForecast forecast = new WindForecast(new double[]{0, 3600}, new double[]{20, 50}, new double[]{0, 1});
+        instance.setWindForecast(forecast);
+        assertSame(forecast, instance.getWindForecast());
+        assertEquals(50, instance.getMaxWindSpeed(), 1e-9);
+        assertSame(forecast, new Segment(instance).getWindForecast());
+    }
+
     /**
      * Test of equals method, of class Segment.
      */
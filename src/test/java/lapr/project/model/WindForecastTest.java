@@ -0,0 +1,108 @@
+/**
+ * Package location for Model concept tests.
+ */
+package lapr.project.model;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for wind forecast class
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class WindForecastTest {
+
+    /**
+     * Test of windComponent method, of class WindForecast.
+     */
+    @Test
+    public void testWindComponent() {
+        System.out.println("windComponent");
+        // north winds of 10 m/s and 20 m/s
+        WindForecast instance = new WindForecast(new double[]{0, 100}, new double[]{10, 20}, new double[]{0, 0});
+
+        assertEquals(2, instance.size());
+        assertEquals(100, instance.getTime(1), 0d);
+        assertEquals(20, instance.getMaxWindSpeed(), 0d);
+        // flying north
+        assertEquals(15, instance.windComponent(50, 0, 1), 1e-9);
+        assertEquals(10, instance.windComponent(-50, 0, 1), 1e-9);
+        assertEquals(20, instance.windComponent(500, 0, 1), 1e-9);
+        // flying east
+        assertEquals(0, instance.windComponent(50, 1, 0), 1e-9);
+    }
+
+    /**
+     * Test of arrival method, of class WindForecast.
+     */
+    @Test
+    public void testArrival() {
+        System.out.println("arrival");
+        // calm
+        WindForecast instance = new WindForecast(new double[]{0}, new double[]{0}, new double[]{0});
+        assertEquals(10, instance.arrival(0, 1000, 100, 0, 1), 1e-9);
+        assertEquals(7, instance.arrival(7, 0, 100, 0, 1), 0d);
+
+        // ground speed from 100 m/s to 200 m/s in 100 s (15000 m)
+        instance = new WindForecast(new double[]{0, 100}, new double[]{0, 100}, new double[]{0, 0});
+        assertEquals(100, instance.arrival(0, 15000, 100, 0, 1), 1e-9);
+        assertEquals(Math.sqrt(20000) - 100, instance.arrival(0, 5000, 100, 0, 1), 1e-9);
+        assertEquals(150, instance.arrival(0, 25000, 100, 0, 1), 1e-9);
+        assertEquals(100, instance.arrival(-100, 25000, 100, 0, 1), 1e-9);
+
+        // a headwind stronger than the airspeed
+        instance = new WindForecast(new double[]{0}, new double[]{150}, new double[]{Math.PI});
+        assertEquals(Double.POSITIVE_INFINITY, instance.arrival(0, 1000, 100, 0, 1), 0d);
+    }
+
+    /**
+     * Test of arrival method, of class WindForecast, with random forecasts:
+     * a later departure never arrives sooner.
+     */
+    @Test
+    public void testArrivalFifo() {
+        System.out.println("arrival first in, first out");
+        Random random = new Random(3);
+        for (int test = 0; test < 20; test++) {
+            int size = 1 + random.nextInt(40);
+            double[] times = new double[size];
+            double[] speeds = new double[size];
+            double[] directions = new double[size];
+            for (int i = 0; i < size; i++) {
+                times[i] = (i == 0 ? 0 : times[i - 1]) + 1 + random.nextInt(3600);
+                speeds[i] = random.nextDouble() * 300;
+                directions[i] = random.nextDouble() * 2 * Math.PI;
+            }
+            WindForecast instance = new WindForecast(times, speeds, directions);
+
+            double[] departures = new double[50];
+            for (int i = 0; i < departures.length; i++) {
+                departures[i] = random.nextDouble() * (times[size - 1] + 7200) - 3600;
+            }
+            Arrays.sort(departures);
+            double previous = Double.NEGATIVE_INFINITY;
+            for (double departure : departures) {
+                double arrival = instance.arrival(departure, 500000, 230, 0.6, 0.8);
+                assertTrue(arrival >= departure);
+                assertTrue(arrival >= previous);
+                previous = arrival;
+            }
+        }
+    }
+
+    /**
+     * Test of the constructor with times not increasing, of class
+     * WindForecast.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimes() {
+        System.out.println("invalid times");
+        new WindForecast(new double[]{0, 0}, new double[]{1, 1}, new double[]{0, 0});
+    }
+}
@@ -0,0 +1,129 @@
+package lapr.project.model.flightplan;
+
+import javax.measure.unit.SI;
+import lapr.project.model.AlgorithmAnalysis;
+import lapr.project.model.Calculus;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightFixtures;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.PerformanceProfile;
+import lapr.project.model.Segment;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the edge cost cache class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class EdgeCostCacheTest {
+
+    private FlightSimulation flight;
+
+    private MapEdge<Coordinate, Segment> edge1;
+
+    private MapEdge<Coordinate, Segment> edge2;
+
+    @Before
+    public void setUp() throws Exception {
+
+        flight = FlightFixtures.wideBodyFlight();
+
+        MapGraph<Coordinate, Segment> graph = new MapGraph<>(true);
+        Coordinate a = new Coordinate("A", 1d, 1d);
+        Coordinate b = new Coordinate("B", -1d, 1d);
+        graph.insertEdge(a, b, new Segment(), 2000000);
+        graph.insertEdge(b, a, new Segment(), 2000000);
+        edge1 = graph.getEdge(a, b);
+        edge2 = graph.getEdge(b, a);
+    }
+
+    /**
+     * Test of cruise method with exact masses, of class EdgeCostCache.
+     */
+    @Test
+    public void testCruise() {
+        System.out.println("cruise");
+        EdgeCostCache instance = new EdgeCostCache(0, false);
+
+        AlgorithmAnalysis expResult = Calculus.calculateCruise(flight,
+                Calculus.virtualDistance(1800000, flight, edge1.getElement(), edge1.getVOrig(), edge1.getVDest()));
+        AlgorithmAnalysis result = instance.cruise(flight, edge1, 1800000, 144720);
+        assertEquals(expResult.getConsumption().doubleValue(SI.KILOGRAM),
+                result.getConsumption().doubleValue(SI.KILOGRAM), 0d);
+        assertEquals(expResult.getDuration().doubleValue(SI.SECOND),
+                result.getDuration().doubleValue(SI.SECOND), 0d);
+        assertEquals(0, instance.getHits());
+        assertEquals(1, instance.getMisses());
+
+        // same edge, distance & mass
+        assertEquals(result.getConsumption(), instance.cruise(flight, edge1, 1800000, 144720).getConsumption());
+        assertEquals(1, instance.getHits());
+
+        // another edge, distance or mass
+        instance.cruise(flight, edge2, 1800000, 144720);
+        instance.cruise(flight, edge1, 1700000, 144720);
+        instance.cruise(flight, edge1, 1800000, 144719);
+        assertEquals(1, instance.getHits());
+        assertEquals(4, instance.getMisses());
+        assertEquals(4, instance.size());
+    }
+
+    /**
+     * Test of cruise method with a mass band, of class EdgeCostCache.
+     */
+    @Test
+    public void testMassBand() {
+        System.out.println("massBand");
+        EdgeCostCache instance = new EdgeCostCache(100, false);
+
+        // both in the band [144700, 144800[, calculated at its center
+        AlgorithmAnalysis result = instance.cruise(flight, edge1, 1800000.2, 144701);
+        assertEquals(result.getConsumption(), instance.cruise(flight, edge1, 1800000, 144799).getConsumption());
+        assertEquals(1, instance.getHits());
+        assertEquals(1, instance.size());
+
+        flight.setEffectiveFuel(Amount.valueOf(144750, SI.KILOGRAM));
+        AlgorithmAnalysis expResult = Calculus.calculateCruise(flight,
+                Calculus.virtualDistance(1800000, flight, edge1.getElement(), edge1.getVOrig(), edge1.getVDest()));
+        assertEquals(expResult.getConsumption().doubleValue(SI.KILOGRAM),
+                result.getConsumption().doubleValue(SI.KILOGRAM), 0d);
+
+        instance.cruise(flight, edge1, 1800000, 144800);
+        assertEquals(2, instance.getMisses());
+    }
+
+    /**
+     * Test of cruise method with a compiled performance profile, of class
+     * EdgeCostCache.
+     */
+    @Test
+    public void testCruiseProfile() {
+        System.out.println("cruiseProfile");
+        EdgeCostCache instance = new EdgeCostCache(PerformanceProfile.of(flight), 0, false);
+
+        AlgorithmAnalysis expResult = new EdgeCostCache(0, false).cruise(flight, edge1, 1800000, 144720);
+        AlgorithmAnalysis result = instance.cruise(flight, edge1, 1800000, 144720);
+        assertEquals(expResult.getConsumption().doubleValue(SI.KILOGRAM),
+                result.getConsumption().doubleValue(SI.KILOGRAM), 0d);
+        assertEquals(expResult.getDuration().doubleValue(SI.SECOND),
+                result.getDuration().doubleValue(SI.SECOND), 0d);
+    }
+
+    /**
+     * Test of the constructor with a negative mass band, of class
+     * EdgeCostCache.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMassBand() {
+        System.out.println("invalidMassBand");
+        new EdgeCostCache(-1, false);
+    }
+}
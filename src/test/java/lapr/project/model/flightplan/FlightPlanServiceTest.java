@@ -0,0 +1,189 @@
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import javax.measure.quantity.Length;
+import javax.measure.unit.SI;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.Airport;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightInfo;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import lapr.project.model.Stop;
+import lapr.project.model.flightplan.algorithms.ShortestDistance;
+import lapr.project.utils.exceptions.FailedAnalysisException;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the flight plan service.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class FlightPlanServiceTest {
+
+    /**
+     * test airnetwork
+     */
+    private AirNetwork network;
+
+    /**
+     * test flight
+     */
+    private FlightSimulation flight;
+
+    @Before
+    public void setUp() {
+
+        /*      0 1 2 3 4
+                A B C D E
+            0 A|0|2|3|6|0|
+            1 B|2|0|1|2|0|
+            2 C|0|1|0|3|1|
+            3 D|0|0|3|0|0|
+            4 E|0|0|0|1|0|
+         */
+        MapGraph<Coordinate, Segment> graph = new MapGraph(true);
+        Coordinate a = new Coordinate("A", 1d, 1d);
+        Coordinate b = new Coordinate("B", -1d, 1d);
+        Coordinate c = new Coordinate("C", 1d, -1d);
+        Coordinate d = new Coordinate("D", 10d, 10d);
+        Coordinate e = new Coordinate("E", 1d, 10d);
+        graph.insertVertex(a);
+        graph.insertVertex(b);
+        graph.insertVertex(c);
+        graph.insertVertex(d);
+        graph.insertVertex(e);
+
+        graph.insertEdge(a, b, new Segment(), 2);
+        graph.insertEdge(a, c, new Segment(), 3);
+        graph.insertEdge(a, d, new Segment(), 6);
+        graph.insertEdge(b, a, new Segment(), 2);
+        graph.insertEdge(b, c, new Segment(), 1);
+        graph.insertEdge(b, d, new Segment(), 2);
+        graph.insertEdge(c, b, new Segment(), 1);
+        graph.insertEdge(c, d, new Segment(), 3);
+        graph.insertEdge(c, e, new Segment(), 1);
+        graph.insertEdge(d, c, new Segment(), 3);
+        graph.insertEdge(e, d, new Segment(), 1);
+
+        network = new AirNetwork(graph);
+
+        Airport origin = new Airport();
+        origin.setCoordinates(a);
+        Airport dest = new Airport();
+        dest.setCoordinates(d);
+        Airport aStop = new Airport();
+        aStop.setCoordinates(c);
+
+        List<Stop> stops = new ArrayList();
+        Stop stop = new Stop();
+        stop.setAirport(aStop);
+        stops.add(stop);
+
+        List<Coordinate> waypoints = new ArrayList<>();
+        waypoints.add(b);
+
+        FlightInfo info = new FlightInfo();
+        info.setOriginAirport(origin);
+        info.setDestinationAirport(dest);
+        info.setStops(stops);
+        info.setWaypoints(waypoints);
+
+        flight = new FlightSimulation();
+        flight.setFlightInfo(info);
+
+    }
+
+    /**
+     * Test of evaluate method, of class FlightPlanService.
+     */
+    @Test
+    public void testEvaluate() throws Exception {
+        System.out.println("evaluate");
+        flight.setEffectiveFuel(Amount.valueOf(1000, SI.KILOGRAM));
+        FlightPlan failing = new FlightPlan() {
+            @Override
+            public Amount<?> generateFlightPlan(AirNetwork network, FlightSimulation flight,
+                    LinkedList<Segment> flightplan) throws Exception {
+                flight.setEffectiveFuel(Amount.valueOf(0, SI.KILOGRAM));
+                throw new FailedAnalysisException();
+            }
+
+            @Override
+            public String getDescription() {
+                return "Failing";
+            }
+        };
+        List<FlightPlan> algorithms = Arrays.asList(new ShortestDistance(), failing, new ShortestDistance());
+
+        ConcurrentLinkedQueue<FlightPlanResult> streamed = new ConcurrentLinkedQueue<>();
+        FlightPlanService instance = new FlightPlanService(new ForkJoinPool(2));
+        List<FlightPlanResult> result = instance.evaluate(network, flight, algorithms, streamed::add).get();
+
+        assertEquals(3, result.size());
+        assertEquals(3, streamed.size());
+        assertTrue(streamed.containsAll(result));
+        for (int i = 0; i < result.size(); i++) {
+            assertSame(algorithms.get(i), result.get(i).getAlgorithm());
+        }
+        assertTrue(result.get(0).isSuccessful());
+        assertEquals(5d, ((Amount<Length>) result.get(0).getAmount()).doubleValue(SI.METER), 0.1d);
+        assertEquals(4, result.get(0).getFlightplan().size());
+        assertEquals(result.get(0).getFlightplan(), result.get(2).getFlightplan());
+
+        // a failed algorithm does not fail the others
+        assertFalse(result.get(1).isSuccessful());
+        assertTrue(result.get(1).getException() instanceof FailedAnalysisException);
+        assertTrue(result.get(1).getFlightplan().isEmpty());
+
+        // each algorithm simulates a copy of the flight
+        assertNotSame(flight, result.get(1).getFlight());
+        assertEquals(0, result.get(1).getFlight().getEffectiveFuel().doubleValue(SI.KILOGRAM), 0d);
+        assertEquals(1000, flight.getEffectiveFuel().doubleValue(SI.KILOGRAM), 0d);
+    }
+
+    /**
+     * Test of snapshot method, of class FlightPlanService.
+     */
+    @Test
+    public void testSnapshot() throws Exception {
+        System.out.println("snapshot");
+        AirNetwork result = FlightPlanService.snapshot(network);
+        assertNotSame(network.getNetwork(), result.getNetwork());
+        assertEquals(network.getNumSegments(), result.getNumSegments());
+
+        // the route index is kept when it is ready
+        assertNull(result.getReadyRouteIndex());
+        network.buildRouteIndex().get();
+        AirNetwork indexed = FlightPlanService.snapshot(network);
+        assertSame(network.getReadyRouteIndex(), indexed.getReadyRouteIndex());
+
+        // later changes to the wind of the segments are not seen
+        Coordinate a = network.getNetwork().vertices().iterator().next();
+        MapEdge<Coordinate, Segment> edge = network.getNetwork().outgoingEdges(a).iterator().next();
+        Segment copy = result.getNetwork().getEdge(edge.getVOrig(), edge.getVDest()).getElement();
+        assertNotSame(edge.getElement(), copy);
+        edge.getElement().setWindIntensity(Amount.valueOf(50, SI.METERS_PER_SECOND));
+        assertEquals(0d, copy.getWindIntensity().doubleValue(SI.METERS_PER_SECOND), 0d);
+
+        // later changes to the network are not seen
+        network.addJunction(new Coordinate("Z", 5d, 5d));
+        network.removeJunction(a);
+        assertEquals(5, result.getNumJunctions());
+        assertTrue(result.getNetwork().validVertex(a));
+        assertNotNull(indexed.getReadyRouteIndex());
+    }
+}
@@ -0,0 +1,205 @@
+package lapr.project.model.flightplan;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test the junction order.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class JunctionOrderTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    /**
+     * Test of solve method, of class JunctionOrder.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("Test solve");
+
+        // the nearest next junction (0) leads to an expensive last leg
+        double[][] costs = {
+            {INF, 1, 2, 10},
+            {INF, 0, 1, 1},
+            {INF, 1, 0, 50},
+            {INF, INF, INF, INF}};
+        JunctionOrder instance = new JunctionOrder(costs);
+        assertEquals(2, instance.numJunctions());
+        int[] order = instance.solve();
+        assertArrayEquals(new int[]{1, 0}, order);
+        assertEquals(4, instance.cost(order), 0d);
+
+        // no junctions
+        instance = new JunctionOrder(new double[][]{{INF, 3}, {INF, INF}});
+        assertEquals(0, instance.solve().length);
+
+        // unreachable junction
+        costs[0][2] = INF;
+        costs[1][2] = INF;
+        assertNull(new JunctionOrder(costs).solve());
+    }
+
+    /**
+     * Test of solve method with a budget between refuels, of class
+     * JunctionOrder.
+     */
+    @Test
+    public void testSolveBudget() {
+        System.out.println("Test solve with budget");
+
+        double[][] costs = {
+            {INF, 4, 6, 5},
+            {INF, 0, 4, 3},
+            {INF, 4, 0, 4},
+            {INF, INF, INF, INF}};
+
+        // without budget, 0 then 1 costs 12
+        JunctionOrder instance = new JunctionOrder(costs);
+        assertEquals(12, instance.cost(instance.solve()), 0d);
+
+        // refuel only at junction 1: via 0 costs 8 until it, over budget
+        instance = new JunctionOrder(costs, new boolean[]{false, true}, 7);
+        int[] order = instance.solve();
+        assertArrayEquals(new int[]{1, 0}, order);
+        assertEquals(13, instance.cost(order), 0d);
+        assertTrue(instance.withinBudget(order));
+        assertFalse(instance.withinBudget(new int[]{0, 1}));
+
+        // no order within budget: the cheapest
+        instance = new JunctionOrder(costs, new boolean[]{false, true}, 3);
+        order = instance.solve();
+        assertEquals(12, instance.cost(order), 0d);
+        assertFalse(instance.withinBudget(order));
+    }
+
+    /**
+     * Test of the constructor with an invalid matrix, of class JunctionOrder.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCosts() {
+        System.out.println("Test invalid costs");
+
+        new JunctionOrder(new double[][]{{0, 1}, {1}});
+    }
+
+    /**
+     * Test of solve method against every order of random asymmetric costs,
+     * of class JunctionOrder.
+     */
+    @Test
+    public void testSolveRandom() {
+        System.out.println("Test solve on random costs");
+
+        Random random = new Random(7);
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + random.nextInt(7);
+            double[][] costs = randomCosts(random, n);
+            boolean[] refuel = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                refuel[i] = random.nextBoolean();
+            }
+            double budget = 30 + random.nextInt(60);
+
+            JunctionOrder instance = new JunctionOrder(costs, refuel, budget);
+            int[] order = instance.solve();
+
+            // brute force
+            double best = INF;
+            boolean within = false;
+            int[] permutation = new int[n];
+            for (int i = 0; i < n; i++) {
+                permutation[i] = i;
+            }
+            do {
+                boolean ok = instance.withinBudget(permutation);
+                double cost = instance.cost(permutation);
+                if ((ok && !within) || (ok == within && cost < best)) {
+                    best = cost;
+                    within = ok;
+                }
+            } while (nextPermutation(permutation));
+
+            assertEquals(within, instance.withinBudget(order));
+            assertEquals(best, instance.cost(order), 1e-9);
+        }
+    }
+
+    /**
+     * Test of solve method above the dynamic programming limit, of class
+     * JunctionOrder.
+     */
+    @Test
+    public void testSolveHeuristic() {
+        System.out.println("Test solve with many junctions");
+
+        Random random = new Random(11);
+        int n = 3 * JunctionOrder.HELD_KARP_JUNCTIONS;
+        double[][] costs = randomCosts(random, n);
+        JunctionOrder instance = new JunctionOrder(costs);
+        int[] order = instance.solve();
+
+        // a permutation of the junctions
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, sorted[i]);
+        }
+
+        // not worse than the nearest next junction
+        int[] greedy = new int[n];
+        boolean[] visited = new boolean[n];
+        int previous = 0;
+        for (int i = 0; i < n; i++) {
+            int next = -1;
+            for (int j = 0; j < n; j++) {
+                if (!visited[j] && (next < 0 || costs[previous][j + 1] < costs[previous][next + 1])) {
+                    next = j;
+                }
+            }
+            visited[next] = true;
+            greedy[i] = next;
+            previous = next + 1;
+        }
+        assertTrue(instance.cost(order) <= instance.cost(greedy));
+    }
+
+    private static double[][] randomCosts(Random random, int n) {
+        double[][] costs = new double[n + 2][n + 2];
+        for (int i = 0; i < n + 2; i++) {
+            for (int j = 0; j < n + 2; j++) {
+                costs[i][j] = (j == 0 || i == n + 1) ? INF : (i == j) ? 0 : 1 + random.nextInt(40);
+            }
+        }
+        return costs;
+    }
+
+    private static boolean nextPermutation(int[] a) {
+        int i = a.length - 2;
+        while (i >= 0 && a[i] >= a[i + 1]) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        int j = a.length - 1;
+        while (a[j] <= a[i]) {
+            j--;
+        }
+        int swap = a[i];
+        a[i] = a[j];
+        a[j] = swap;
+        for (int l = i + 1, r = a.length - 1; l < r; l++, r--) {
+            swap = a[l];
+            a[l] = a[r];
+            a[r] = swap;
+        }
+        return true;
+    }
+}
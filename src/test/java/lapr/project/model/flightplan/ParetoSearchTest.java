@@ -0,0 +1,253 @@
+package lapr.project.model.flightplan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import javax.measure.quantity.Duration;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Mass;
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+import javax.measure.unit.Unit;
+import lapr.project.model.AirNetwork;
+import lapr.project.model.Airport;
+import lapr.project.model.Coordinate;
+import lapr.project.model.FlightPattern;
+import lapr.project.model.FlightSimulation;
+import lapr.project.model.Segment;
+import lapr.project.model.Stop;
+import lapr.project.model.flightplan.algorithms.FastestPath;
+import lapr.project.utils.CustomUnits;
+import lapr.project.utils.exceptions.InsufficientFuelException;
+import lapr.project.utils.graph.MapGraph;
+import org.jscience.physics.amount.Amount;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the Pareto search of flight plans.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class ParetoSearchTest {
+
+    private AirNetwork airNetwork;
+
+    private FlightSimulation flight;
+
+    private FlightPattern flightPattern = new FlightPattern();
+
+    private Coordinate a;
+
+    private Coordinate b;
+
+    private Coordinate d;
+
+    @Before
+    public void setUp() {
+
+        /*      0 1 2 3 4
+                A B C D E
+            0 A|0|2|3|6|0|
+            1 B|2|0|1|2|0|
+            2 C|0|1|0|3|1|
+            3 D|0|0|3|0|0|
+            4 E|0|0|0|1|0|
+         */
+        MapGraph<Coordinate, Segment> graph = new MapGraph(true);
+        a = new Coordinate("A", 1d, 1d);
+        b = new Coordinate("B", -1d, 1d);
+        Coordinate c = new Coordinate("C", 1d, -1d);
+        d = new Coordinate("D", 10d, 10d);
+        Coordinate e = new Coordinate("E", 1d, 10d);
+        graph.insertVertex(a);
+        graph.insertVertex(b);
+        graph.insertVertex(c);
+        graph.insertVertex(d);
+        graph.insertVertex(e);
+
+        graph.insertEdge(a, b, new Segment(), 2000000);
+        graph.insertEdge(a, c, new Segment(), 3000000);
+        graph.insertEdge(a, d, new Segment(), 6000000);
+        graph.insertEdge(b, a, new Segment(), 2000000);
+        graph.insertEdge(b, c, new Segment(), 1000000);
+        graph.insertEdge(b, d, new Segment(), 2000000);
+        graph.insertEdge(c, b, new Segment(), 1000000);
+        graph.insertEdge(c, d, new Segment(), 3000000);
+        graph.insertEdge(c, e, new Segment(), 1000000);
+        graph.insertEdge(d, c, new Segment(), 3000000);
+        graph.insertEdge(e, d, new Segment(), 1000000);
+
+        airNetwork = new AirNetwork(graph);
+
+        Airport origin = new Airport();
+        origin.setCoordinates(a);
+        Airport dest = new Airport();
+        dest.setCoordinates(d);
+        Airport aStop = new Airport();
+        aStop.setCoordinates(c);
+
+        List<Stop> stops = new ArrayList();
+        Stop stop = new Stop();
+        stop.setAirport(aStop);
+        stops.add(stop);
+
+        List<Coordinate> waypoints = new ArrayList<>();
+        waypoints.add(b);
+
+        flight = new FlightSimulation();
+        flightPattern.insertLine(Amount.valueOf(0, SI.METER), Amount.valueOf(210, NonSI.KNOT), Amount.valueOf(180, NonSI.KNOT), Amount.valueOf(-5, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(1000, SI.METER), Amount.valueOf(210, NonSI.KNOT), Amount.valueOf(200, NonSI.KNOT), Amount.valueOf(-7, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(2000, SI.METER), Amount.valueOf(220, NonSI.KNOT), Amount.valueOf(250, NonSI.KNOT), Amount.valueOf(-7, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(3000, SI.METER), Amount.valueOf(230, NonSI.KNOT), Amount.valueOf(250, NonSI.KNOT), Amount.valueOf(-8, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(4000, SI.METER), Amount.valueOf(250, NonSI.KNOT), Amount.valueOf(270, NonSI.KNOT), Amount.valueOf(-8, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(5000, SI.METER), Amount.valueOf(260, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(6000, SI.METER), Amount.valueOf(290, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(7000, SI.METER), Amount.valueOf(290, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(8000, SI.METER), Amount.valueOf(290, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(9000, SI.METER), Amount.valueOf(290, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(10000, SI.METER), Amount.valueOf(290, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(11000, SI.METER), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(12000, SI.METER), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(13000, SI.METER), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flightPattern.insertLine(Amount.valueOf(14000, SI.METER), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(300, NonSI.KNOT), Amount.valueOf(-10, SI.METERS_PER_SECOND));
+        flight.getFlightInfo().getAircraft().setFlightPattern(flightPattern);
+        flight.getFlightInfo().setOriginAirport(origin);
+        flight.getFlightInfo().setDestinationAirport(dest);
+        flight.getFlightInfo().setStops(stops);
+        flight.getFlightInfo().setWaypoints(waypoints);
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setLapseRateFactor(Amount.valueOf(0.96, Unit.ONE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setWingArea(Amount.valueOf(858, SI.SQUARE_METRE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setAspectRatio(Amount.valueOf(9, Unit.ONE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setCruiseAltitude(Amount.valueOf(10061, SI.METER));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setE(Amount.valueOf(0.84, Unit.ONE));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().setThrust0(Amount.valueOf(3.38E+05, SI.NEWTON));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().setThrustMaxSpeed(Amount.valueOf(1.80E+05, SI.NEWTON));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().getThrustFunction().setMaxSpeed(Amount.valueOf(0.9, NonSI.MACH));
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setNumberOfMotors(4);
+        flight.getFlightInfo().getAircraft().getAircraftModel().getMotorization().setTsfc(Amount.valueOf(1.60E-04, CustomUnits.TSFC_NNS));
+        flight.setEffectiveCargo(Amount.valueOf(70000, SI.KILOGRAM));
+        flight.setEffectiveFuel(Amount.valueOf(144720, SI.KILOGRAM));
+        flight.getFlightInfo().getAircraft().getAircraftModel().setEmptyWeight(Amount.valueOf(3.00E+05, SI.KILOGRAM));
+    }
+
+    /**
+     * Test of frontier method, of class ParetoSearch.
+     */
+    @Test
+    public void testFrontier() throws Exception {
+        System.out.println("frontier");
+        ParetoSearch instance = new ParetoSearch(0, 0);
+        List<ParetoPlan> result = instance.frontier(airNetwork, flight);
+        assertEquals(1, result.size());
+        assertEquals(5000000, result.get(0).getDistance(), 0.1d);
+        assertEquals(109658, result.get(0).getFuel(), 10d);
+        assertEquals(5, result.get(0).getCoordinates().size());
+        assertEquals(144720, flight.getEffectiveFuel().doubleValue(SI.KILOGRAM), 0d);
+
+        // the same flight reuses the frontier
+        assertSame(result, instance.frontier(airNetwork, flight));
+        flight.setEffectiveFuel(Amount.valueOf(144000, SI.KILOGRAM));
+        assertNotSame(result, instance.frontier(airNetwork, flight));
+
+        // a change of the network or of the wind searches again
+        result = instance.frontier(airNetwork, flight);
+        airNetwork.getSegments().iterator().next().getElement()
+                .setWindIntensity(Amount.valueOf(10, SI.METERS_PER_SECOND));
+        assertNotSame(result, instance.frontier(airNetwork, flight));
+        result = instance.frontier(airNetwork, flight);
+        airNetwork.addJunction(new Coordinate("Z", 5d, 5d));
+        assertNotSame(result, instance.frontier(airNetwork, flight));
+    }
+
+    /**
+     * Test of frontier method with a trade-off, of class ParetoSearch.
+     */
+    @Test
+    public void testFrontierTradeOff() throws Exception {
+        System.out.println("frontier with a trade-off");
+        flight.getFlightInfo().setWaypoints(new ArrayList<>());
+        flight.getFlightInfo().setStops(new ArrayList<>());
+        // the longest segment with a strong tailwind, flown in less time
+        Segment tailwind = airNetwork.getNetwork().getEdge(a, d).getElement();
+        tailwind.setWindIntensity(Amount.valueOf(200, SI.METERS_PER_SECOND));
+        tailwind.setWindDirection(Amount.valueOf(0, NonSI.DEGREE_ANGLE));
+
+        List<ParetoPlan> result = new ParetoSearch(0, 0).frontier(airNetwork, flight);
+        assertEquals(2, result.size());
+        ParetoPlan shortest = ParetoSearch.extreme(result, Criterion.DISTANCE);
+        ParetoPlan fastest = ParetoSearch.extreme(result, Criterion.TIME);
+        assertEquals(Arrays.asList(a, b, d), shortest.getCoordinates());
+        assertEquals(Arrays.asList(a, d), fastest.getCoordinates());
+        assertSame(shortest, ParetoSearch.extreme(result, Criterion.FUEL));
+        assertTrue(shortest.getDistance() < fastest.getDistance());
+        assertTrue(shortest.getTime() > fastest.getTime());
+
+        // within 5% of the shortest one, the fastest one is left out
+        result = new ParetoSearch(0.05, 0).frontier(airNetwork, flight);
+        assertEquals(1, result.size());
+        assertEquals(Arrays.asList(a, b, d), result.get(0).getCoordinates());
+    }
+
+    /**
+     * Test of frontier method without enough fuel, of class ParetoSearch.
+     */
+    @Test(expected = InsufficientFuelException.class)
+    public void testFrontierInsufficientFuel() throws Exception {
+        System.out.println("frontier without enough fuel");
+        flight.getFlightInfo().setWaypoints(new ArrayList<>());
+        flight.getFlightInfo().setStops(new ArrayList<>());
+        flight.setEffectiveFuel(Amount.valueOf(70000, SI.KILOGRAM));
+        new ParetoSearch().frontier(airNetwork, flight);
+    }
+
+    /**
+     * Test of the constructor with a negative epsilon, of class ParetoSearch.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidEpsilon() {
+        System.out.println("invalidEpsilon");
+        new ParetoSearch(-1, 0);
+    }
+
+    /**
+     * Test of generateFlightPlan method, of class ParetoFlightPlan.
+     */
+    @Test
+    public void testViews() throws Exception {
+        System.out.println("views");
+        ParetoSearch search = new ParetoSearch(0, 0);
+        ParetoFlightPlan[] views = ParetoFlightPlan.views(search);
+        assertEquals(3, views.length);
+
+        LinkedList<Segment> flightplan = new LinkedList<>();
+        Amount<Length> distance = (Amount<Length>) views[0].generateFlightPlan(airNetwork, flight, flightplan);
+        assertEquals(5000000, distance.doubleValue(SI.METER), 0.1d);
+        assertEquals(4, flightplan.size());
+        Amount<Mass> fuel = (Amount<Mass>) views[2].generateFlightPlan(airNetwork, flight, new LinkedList<>());
+        assertEquals(109658, fuel.doubleValue(SI.KILOGRAM), 10d);
+        Amount<Duration> time = (Amount<Duration>) views[1].generateFlightPlan(airNetwork, flight, new LinkedList<>());
+        LinkedList<Segment> timeplan = new LinkedList<>();
+        views[1].generateFlightPlan(airNetwork, flight, timeplan);
+        LinkedList<Segment> fastestplan = new LinkedList<>();
+        Amount<Duration> fastest = (Amount<Duration>) new FastestPath().generateFlightPlan(airNetwork, flight,
+                fastestplan);
+        // the same plan and flight time (the phases here are flown with the
+        // fuel on board, in the fastest path with the initial fuel)
+        assertEquals(fastestplan.size(), timeplan.size());
+        for (int i = 0; i < fastestplan.size(); i++) {
+            assertSame(fastestplan.get(i), timeplan.get(i));
+        }
+        assertEquals(fastest.doubleValue(SI.SECOND), time.doubleValue(SI.SECOND),
+                0.005 * fastest.doubleValue(SI.SECOND));
+
+        // one search for the three views
+        assertSame(views[0].frontier(airNetwork, flight), views[2].frontier(airNetwork, flight));
+        assertEquals(Criterion.TIME, views[1].getCriterion());
+    }
+}
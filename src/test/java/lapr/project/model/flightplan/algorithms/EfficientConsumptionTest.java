@@ -6,6 +6,10 @@ package lapr.project.model.flightplan.algorithms;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.measure.quantity.Mass;
 import javax.measure.unit.NonSI;
 import javax.measure.unit.SI;
@@ -16,9 +20,14 @@ import lapr.project.model.Coordinate;
 import lapr.project.model.FlightPattern;
 import lapr.project.model.FlightSimulation;
 import lapr.project.model.Junction;
+import lapr.project.model.PhaseProfileCache;
 import lapr.project.model.Segment;
 import lapr.project.model.Stop;
+import lapr.project.model.WindForecast;
+import lapr.project.model.flightplan.PlanningContext;
 import lapr.project.utils.CustomUnits;
+import lapr.project.utils.exceptions.InsufficientFuelException;
+import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapGraph;
 import org.jscience.physics.amount.Amount;
 import org.junit.Before;
@@ -142,21 +151,165 @@ public class EfficientConsumptionTest {
         assertEquals(expResult, result, 10d);
     }
 
+    /**
+     * Test of generateFlightPlan method with wind forecasts, of class
+     * EfficientConsumption.
+     */
+    @Test
+    public void testGenerateFlightPlanWindForecast() throws Exception {
+        System.out.println("generateFlightPlan with wind forecasts");
+        EfficientConsumption instance = new EfficientConsumption();
+        double departure = flight.getDepartureDate().getTimeInMillis() / 1000d;
+        double calm = ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, new LinkedList<>()))
+                .doubleValue(SI.KILOGRAM);
+
+        // winds that only start after the arrival
+        WindForecast later = new WindForecast(new double[]{departure + 36000, departure + 39600},
+                new double[]{0, 50}, new double[]{Math.PI, Math.PI});
+        for (MapEdge<Coordinate, Segment> edge : airNetwork.getSegments()) {
+            edge.getElement().setWindForecast(later);
+        }
+        double result = ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, new LinkedList<>()))
+                .doubleValue(SI.KILOGRAM);
+        assertEquals(calm, result, 1e-6);
+
+        // winds from the departure on, flown as static winds
+        WindForecast now = new WindForecast(new double[]{departure}, new double[]{50}, new double[]{Math.PI});
+        for (MapEdge<Coordinate, Segment> edge : airNetwork.getSegments()) {
+            edge.getElement().setWindForecast(now);
+        }
+        result = ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, new LinkedList<>()))
+                .doubleValue(SI.KILOGRAM);
+        for (MapEdge<Coordinate, Segment> edge : airNetwork.getSegments()) {
+            edge.getElement().setWindForecast(null);
+            edge.getElement().setWindIntensity(Amount.valueOf(50, SI.METERS_PER_SECOND));
+            edge.getElement().setWindDirection(Amount.valueOf(Math.PI, SI.RADIAN));
+        }
+        double windy = ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, new LinkedList<>()))
+                .doubleValue(SI.KILOGRAM);
+        assertTrue(Math.abs(result - calm) > 100);
+        assertEquals(windy, result, 10d);
+    }
+
+    /**
+     * Test of generateFlightPlan method with a refuel at a stop, of class
+     * EfficientConsumption.
+     */
+    @Test
+    public void testGenerateFlightPlanRefuel() throws Exception {
+        System.out.println("generateFlightPlan with refuel");
+        flight.getFlightInfo().setWaypoints(new ArrayList<>());
+        flight.setEffectiveFuel(Amount.valueOf(70000, SI.KILOGRAM));
+        LinkedList<Segment> flightplan = new LinkedList<>();
+        EfficientConsumption instance = new EfficientConsumption();
+        double result = ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, flightplan)).doubleValue(SI.KILOGRAM);
+        // more than the fuel on board, burned before & after the stop
+        assertTrue(result > 70000);
+        assertEquals(3, flightplan.size());
+    }
+
+    /**
+     * Test of generateFlightPlan method without enough fuel, of class
+     * EfficientConsumption.
+     */
+    @Test(expected = InsufficientFuelException.class)
+    public void testGenerateFlightPlanInsufficientFuel() throws Exception {
+        System.out.println("generateFlightPlan without enough fuel");
+        flight.getFlightInfo().setWaypoints(new ArrayList<>());
+        flight.getFlightInfo().setStops(new ArrayList<>());
+        flight.setEffectiveFuel(Amount.valueOf(70000, SI.KILOGRAM));
+        new EfficientConsumption().generateFlightPlan(airNetwork, flight, new LinkedList<>());
+    }
+
+    /**
+     * Test of generateFlightPlan method keeping the flight, of class
+     * EfficientConsumption.
+     */
+    @Test
+    public void testGenerateFlightPlanFlightUnchanged() throws Exception {
+        System.out.println("generateFlightPlan keeping the flight");
+        EfficientConsumption instance = new EfficientConsumption();
+        instance.generateFlightPlan(airNetwork, flight, new LinkedList<>());
+        assertEquals(144720d, flight.getEffectiveFuel().doubleValue(SI.KILOGRAM), 0d);
+    }
+
+    /**
+     * Test of generateFlightPlan method by concurrent requests, of class
+     * EfficientConsumption.
+     */
+    @Test
+    public void testGenerateFlightPlanConcurrent() throws Exception {
+        System.out.println("generateFlightPlan by concurrent requests");
+        EfficientConsumption instance = new EfficientConsumption();
+        LinkedList<Segment> expPlan = new LinkedList<>();
+        double expResult = ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, expPlan)).doubleValue(SI.KILOGRAM);
+
+        List<Callable<Double>> requests = new ArrayList<>();
+        List<LinkedList<Segment>> plans = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            LinkedList<Segment> flightplan = new LinkedList<>();
+            plans.add(flightplan);
+            requests.add(() -> ((Amount<Mass>) instance.generateFlightPlan(airNetwork, flight, flightplan))
+                    .doubleValue(SI.KILOGRAM));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Double>> results = executor.invokeAll(requests);
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(expResult, results.get(i).get(), 0d);
+                assertEquals(expPlan, plans.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of generateFlightPlan method by requests of almost the same mass,
+     * which must share the climbs and landings of the shared phase cache, of
+     * class EfficientConsumption.
+     */
+    @Test
+    public void testGenerateFlightPlanPhaseCacheHits() throws Exception {
+        System.out.println("generateFlightPlan phase cache hits");
+        EfficientConsumption instance = new EfficientConsumption();
+        PhaseProfileCache.SHARED.clear();
+        instance.generateFlightPlan(airNetwork, flight, new LinkedList<>());
+        long misses = PhaseProfileCache.SHARED.getMisses();
+
+        // the climbs and the landings at the stop fall in the same mass bands
+        for (int i = 1; i < 5; i++) {
+            flight.setEffectiveFuel(Amount.valueOf(144720 + i, SI.KILOGRAM));
+            instance.generateFlightPlan(airNetwork, flight, new LinkedList<>());
+        }
+        assertEquals(misses, PhaseProfileCache.SHARED.getMisses());
+        assertTrue(PhaseProfileCache.SHARED.getHits() >= 4 * misses);
+    }
+
+    /**
+     * Test of constructor with an invalid mass band, of class
+     * EfficientConsumption.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMassBand() {
+        System.out.println("invalid mass band");
+        new EfficientConsumption(false, -1d);
+    }
+
     /**
      * Test of pathAlgorithm method, of class EfficientConsumption.
      */
 //    @Test
     public void testPathAlgorithm() throws Exception {
         System.out.println("pathAlgorithm");
-        MapGraph<Coordinate, Segment> network = null;
+        PlanningContext context = null;
         Coordinate vOrig = null;
         Coordinate vDest = null;
         LinkedList<Coordinate> efficientPath = null;
-        FlightSimulation flight = null;
         List<Junction> junctions = null;
         EfficientConsumption instance = new EfficientConsumption();
         double expResult = 0.0;
-        double result = instance.pathAlgorithm(network, vOrig, vDest, efficientPath, flight, junctions);
+        double result = instance.pathAlgorithm(context, vOrig, vDest, efficientPath, junctions);
         assertEquals(expResult, result, 0.0);
         // TODO review the generated test code and remove the default call to fail.
         fail("The test case is a prototype.");
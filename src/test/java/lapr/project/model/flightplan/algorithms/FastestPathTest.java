@@ -4,6 +4,7 @@
 package lapr.project.model.flightplan.algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import javax.measure.quantity.Duration;
@@ -18,6 +19,9 @@ import lapr.project.model.FlightSimulation;
 import lapr.project.model.Junction;
 import lapr.project.model.Segment;
 import lapr.project.model.Stop;
+import lapr.project.model.WindForecast;
+import lapr.project.model.flightplan.AlternativeFlightPlan;
+import lapr.project.model.flightplan.PlanningContext;
 import lapr.project.utils.CustomUnits;
 import lapr.project.utils.graph.MapGraph;
 import org.jscience.physics.amount.Amount;
@@ -142,6 +146,100 @@ public class FastestPathTest {
         assertEquals(expResult, result, 10d);
     }
 
+    /**
+     * Test of generateFlightPlan method with wind forecasts, of class
+     * FastestPath.
+     */
+    @Test
+    public void testGenerateFlightPlanWindForecast() throws Exception {
+        System.out.println("generateFlightPlan with wind forecasts");
+        MapGraph<Coordinate, Segment> graph = airNetwork.getNetwork();
+        Segment segment = graph.getEdge(new Coordinate("E", 1d, 10d), new Coordinate("D", 10d, 10d)).getElement();
+        double departure = flight.getDepartureDate().getTimeInMillis() / 1000d;
+        LinkedList<Segment> calmPlan = new LinkedList<>();
+        double calm = ((Amount<Duration>) new FastestPath().generateFlightPlan(airNetwork, flight, calmPlan))
+                .doubleValue(SI.SECOND);
+
+        // a headwind that only starts after the arrival
+        segment.setWindForecast(new WindForecast(new double[]{departure + 36000, departure + 39600},
+                new double[]{0, 180}, new double[]{Math.PI, Math.PI}));
+        LinkedList<Segment> flightplan = new LinkedList<>();
+        double result = ((Amount<Duration>) new FastestPath().generateFlightPlan(airNetwork, flight, flightplan))
+                .doubleValue(SI.SECOND);
+        assertEquals(calm, result, 1e-3);
+        assertEquals(calmPlan.size(), flightplan.size());
+
+        // a headwind from the second hour, flown as a static headwind
+        segment.setWindForecast(new WindForecast(new double[]{departure + 3600, departure + 7200},
+                new double[]{0, 180}, new double[]{Math.PI, Math.PI}));
+        flightplan.clear();
+        result = ((Amount<Duration>) new FastestPath().generateFlightPlan(airNetwork, flight, flightplan))
+                .doubleValue(SI.SECOND);
+        segment.setWindForecast(null);
+        segment.setWindIntensity(Amount.valueOf(180, SI.METERS_PER_SECOND));
+        segment.setWindDirection(Amount.valueOf(180, NonSI.DEGREE_ANGLE));
+        LinkedList<Segment> headwindPlan = new LinkedList<>();
+        double headwind = ((Amount<Duration>) new FastestPath().generateFlightPlan(airNetwork, flight, headwindPlan))
+                .doubleValue(SI.SECOND);
+        assertTrue(result > calm);
+        assertEquals(headwind, result, 1e-3);
+        assertEquals(headwindPlan.size(), flightplan.size());
+        assertTrue(flightplan.size() < calmPlan.size());
+    }
+
+    /**
+     * Test of generateFlightPlans method with wind forecasts, of class
+     * FastestPath.
+     */
+    @Test
+    public void testGenerateFlightPlansWindForecast() throws Exception {
+        System.out.println("generateFlightPlans with wind forecasts");
+        Segment segment = airNetwork.getNetwork().getEdge(new Coordinate("E", 1d, 10d),
+                new Coordinate("D", 10d, 10d)).getElement();
+        double departure = flight.getDepartureDate().getTimeInMillis() / 1000d;
+        segment.setWindForecast(new WindForecast(new double[]{departure + 3600, departure + 7200},
+                new double[]{0, 180}, new double[]{Math.PI, Math.PI}));
+
+        LinkedList<Segment> expected = new LinkedList<>();
+        double time = ((Amount<Duration>) new FastestPath().generateFlightPlan(airNetwork, flight, expected))
+                .doubleValue(SI.SECOND);
+        List<LinkedList<Segment>> flightplans = new ArrayList<>();
+        List<Amount<?>> result = new FastestPath().generateFlightPlans(airNetwork, flight, 3,
+                AlternativeFlightPlan.DEFAULT_TIME_BUDGET, flightplans);
+        // only the earliest arrival, the alternatives would keep the static winds
+        assertEquals(1, result.size());
+        assertEquals(Arrays.asList(expected), flightplans);
+        assertEquals(time, ((Amount<Duration>) result.get(0)).doubleValue(SI.SECOND), 1e-6);
+    }
+
+    /**
+     * Test of generateFlightPlan method with an edge shorter than its climb
+     * and a headwind stronger than the airspeed, of class FastestPath.
+     */
+    @Test
+    public void testGenerateFlightPlanShortEdgeHeadwind() throws Exception {
+        System.out.println("generateFlightPlan with a short edge and a headwind");
+        MapGraph<Coordinate, Segment> graph = new MapGraph<>(true);
+        Coordinate a = new Coordinate("A", 1d, 1d);
+        Coordinate b = new Coordinate("B", 1.05d, 1.05d);
+        Coordinate d = new Coordinate("D", 10d, 10d);
+        graph.insertEdge(a, b, new Segment(), 10000);
+        graph.insertEdge(b, d, new Segment(), 1400000);
+        Segment headwind = new Segment();
+        headwind.setWindIntensity(Amount.valueOf(600, SI.METERS_PER_SECOND));
+        headwind.setWindDirection(Amount.valueOf(180, NonSI.DEGREE_ANGLE));
+        graph.insertEdge(a, d, headwind, 1400000);
+        flight.getFlightInfo().setStops(new ArrayList<>());
+        flight.getFlightInfo().setWaypoints(new ArrayList<>());
+
+        LinkedList<Segment> flightplan = new LinkedList<>();
+        double result = ((Amount<Duration>) new FastestPath().generateFlightPlan(new AirNetwork(graph), flight,
+                flightplan)).doubleValue(SI.SECOND);
+        assertEquals(2, flightplan.size());
+        assertSame(graph.getEdge(a, b).getElement(), flightplan.getFirst());
+        assertTrue(result > 0 && result < Double.POSITIVE_INFINITY);
+    }
+
     /**
      * Test of addStopWeight method, of class FastestPath.
      */
@@ -177,15 +275,14 @@ public class FastestPathTest {
 //    @Test
     public void testPathAlgorithm() throws Exception {
         System.out.println("pathAlgorithm");
-        MapGraph<Coordinate, Segment> network = null;
+        PlanningContext context = null;
         Coordinate vOrig = null;
         Coordinate vDest = null;
         LinkedList<Coordinate> efficientPath = null;
-        FlightSimulation flight = null;
         List<Junction> junctions = null;
         FastestPath instance = new FastestPath();
         double expResult = 0.0;
-        double result = instance.pathAlgorithm(network, vOrig, vDest, efficientPath, flight, junctions);
+        double result = instance.pathAlgorithm(context, vOrig, vDest, efficientPath, junctions);
         assertEquals(expResult, result, 0.0);
         // TODO review the generated test code and remove the default call to fail.
         fail("The test case is a prototype.");
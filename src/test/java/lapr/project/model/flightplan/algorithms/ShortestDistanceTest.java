@@ -148,4 +148,40 @@ public class ShortestDistanceTest {
         double result = instance.addStopWeight(junction);
         assertEquals(expResult, result, 0.0);
     }
+
+    /**
+     * Test of generateFlightPlans method, of class ShortestDistance.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testGenerateFlightPlans() throws Exception {
+        System.out.println("generateFlightPlans");
+        List<LinkedList<Segment>> flightplans = new ArrayList<>();
+        ShortestDistance instance = new ShortestDistance();
+        List<Amount<?>> result = instance.generateFlightPlans(network, flight, 4, 1000, flightplans);
+        assertEquals(4, result.size());
+        assertEquals(4, flightplans.size());
+        double[] expResult = {5d, 6d, 6d, 7d};
+        for (int i = 0; i < expResult.length; i++) {
+            assertEquals(expResult[i], ((Amount<Length>) result.get(i)).doubleValue(SI.METER), 0.1d);
+        }
+
+        // the first is the flight plan
+        LinkedList<Segment> flightplan = new LinkedList();
+        instance.generateFlightPlan(network, flight, flightplan);
+        assertEquals(flightplan, flightplans.get(0));
+    }
+
+    /**
+     * Test of generateFlightPlans method with an invalid number of flight
+     * plans, of class ShortestDistance.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerateFlightPlansInvalid() throws Exception {
+        System.out.println("generateFlightPlans invalid");
+        new ShortestDistance().generateFlightPlans(network, flight, 0, 1000, new ArrayList<>());
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Package for generic concepts related to graphs.
+ */
+package lapr.project.utils.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the indexed min-heap class.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class IndexedMinHeapTest {
+
+    /**
+     * Test of offer and poll methods, of class IndexedMinHeap.
+     */
+    @Test
+    public void testOfferPoll() {
+        System.out.println("offerPoll");
+        int n = 500;
+        Random random = new Random(3);
+        IndexedMinHeap instance = new IndexedMinHeap(n);
+        double[] priorities = new double[n];
+        for (int key = 0; key < n; key++) {
+            priorities[key] = random.nextDouble();
+            assertTrue(instance.offer(key, priorities[key]));
+        }
+        // decrease some keys
+        for (int key = 0; key < n; key += 3) {
+            priorities[key] /= 2;
+            assertTrue(instance.offer(key, priorities[key]));
+        }
+        // an increase is ignored
+        assertFalse(instance.offer(1, priorities[1] + 1));
+        assertEquals(n, instance.size());
+
+        double[] sorted = priorities.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) {
+            assertEquals(sorted[i], instance.peekPriority(), 0d);
+            int key = instance.poll();
+            assertEquals(sorted[i], priorities[key], 0d);
+            assertFalse(instance.contains(key));
+        }
+        assertTrue(instance.isEmpty());
+        assertEquals(-1, instance.poll());
+    }
+
+    /**
+     * Test of update and remove methods, of class IndexedMinHeap.
+     */
+    @Test
+    public void testUpdateRemove() {
+        System.out.println("updateRemove");
+        int n = 300;
+        Random random = new Random(5);
+        IndexedMinHeap instance = new IndexedMinHeap(n);
+        double[] priorities = new double[n];
+        for (int key = 0; key < n; key++) {
+            priorities[key] = random.nextDouble();
+            instance.update(key, priorities[key]);
+        }
+        // increase & decrease keys, remove some
+        for (int key = 0; key < n; key += 2) {
+            priorities[key] = random.nextDouble();
+            instance.update(key, priorities[key]);
+        }
+        int removed = 0;
+        for (int key = 1; key < n; key += 5) {
+            assertTrue(instance.remove(key));
+            assertFalse(instance.remove(key));
+            priorities[key] = Double.NaN;
+            removed++;
+        }
+        assertEquals(n - removed, instance.size());
+
+        double[] sorted = Arrays.stream(priorities).filter(p -> !Double.isNaN(p)).sorted().toArray();
+        for (double expected : sorted) {
+            assertEquals(expected, instance.peekPriority(), 0d);
+            assertEquals(expected, priorities[instance.poll()], 0d);
+        }
+        assertTrue(instance.isEmpty());
+    }
+
+    /**
+     * Test of clear method, of class IndexedMinHeap.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("clear");
+        IndexedMinHeap instance = new IndexedMinHeap(4);
+        instance.offer(2, 1);
+        instance.offer(3, 0.5);
+
+        instance.clear();
+
+        assertTrue(instance.isEmpty());
+        assertFalse(instance.contains(2));
+        assertTrue(instance.offer(2, 7));
+        assertEquals(7, instance.priority(2), 0d);
+    }
+}
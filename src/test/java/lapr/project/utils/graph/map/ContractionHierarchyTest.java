@@ -0,0 +1,146 @@
+package lapr.project.utils.graph.map;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Random;
+import lapr.project.utils.graph.ContractionHierarchy;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.MapGraphAlgorithms;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test a contraction hierarchy.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class ContractionHierarchyTest {
+
+    /**
+     * Test of shortestPath method, of class ContractionHierarchy.
+     */
+    @Test
+    public void testShortestPath() {
+        System.out.println("Test shortestPath");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 6);
+        graph.insertEdge("A", "C", "Edge2", 1);
+        graph.insertEdge("B", "D", "Edge3", 3);
+        graph.insertEdge("C", "D", "Edge4", 4);
+        graph.insertEdge("C", "E", "Edge5", 1);
+        graph.insertEdge("D", "A", "Edge6", 2);
+        graph.insertEdge("E", "D", "Edge7", 1);
+        graph.insertEdge("E", "E", "Edge8", 1);
+        graph.insertVertex("F");
+
+        ContractionHierarchy<String, String> instance = new ContractionHierarchy<>(graph);
+        assertEquals(6, instance.numVertices());
+        assertTrue(instance.validVertex("F"));
+        assertFalse(instance.validVertex("G"));
+
+        LinkedList<String> path = new LinkedList<>();
+        assertEquals(3, instance.shortestPath("A", "D", path), 0d);
+        assertEquals(Arrays.asList("A", "C", "E", "D"), path);
+
+        assertEquals(4, instance.shortestPath("E", "C", path), 0d);
+        assertEquals(Arrays.asList("E", "D", "A", "C"), path);
+
+        assertEquals(0, instance.shortestPath("B", "B", path), 0d);
+        assertEquals(Arrays.asList("B"), path);
+
+        assertEquals(-1d, instance.shortestPath("A", "F", path), 0d);
+        assertTrue(path.isEmpty());
+        assertEquals(-1d, instance.shortestPath("A", "G", path), 0d);
+        assertTrue(path.isEmpty());
+
+        // edges of the original graph
+        LinkedList<MapEdge<String, String>> edges = new LinkedList<>();
+        assertEquals(3, instance.shortestPathEdges("A", "D", edges), 0d);
+        assertEquals(3, edges.size());
+        assertSame(graph.getEdge("A", "C"), edges.get(0));
+        assertSame(graph.getEdge("C", "E"), edges.get(1));
+        assertSame(graph.getEdge("E", "D"), edges.get(2));
+    }
+
+    /**
+     * Test of shortestPathEdges method on random directed graphs, of class
+     * ContractionHierarchy.
+     */
+    @Test
+    public void testShortestPathRandom() {
+        System.out.println("Test shortestPath on random graphs");
+
+        Random random = new Random(5);
+        for (int round = 0; round < 10; round++) {
+            int n = 50 + random.nextInt(250);
+            MapGraph<Integer, String> graph = new MapGraph<>(true);
+            for (int i = 0; i < n; i++) {
+                graph.insertVertex(i);
+            }
+            for (int k = 0; k < 3 * n; k++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                graph.insertEdge(a, b, "E" + k, random.nextInt(50));
+            }
+
+            ContractionHierarchy<Integer, String> instance = new ContractionHierarchy<>(graph);
+            LinkedList<Integer> expected = new LinkedList<>();
+            LinkedList<MapEdge<Integer, String>> edges = new LinkedList<>();
+            for (int query = 0; query < 50; query++) {
+                int orig = random.nextInt(n);
+                int dest = random.nextInt(n);
+                double length = MapGraphAlgorithms.shortestPath(graph, orig, dest, expected);
+                assertEquals(length, instance.shortestPathEdges(orig, dest, edges), 0d);
+
+                // unpacked edges form the path
+                double sum = 0;
+                int previous = orig;
+                for (MapEdge<Integer, String> edge : edges) {
+                    assertSame(graph.getEdge(previous, edge.getVDest()), edge);
+                    sum += edge.getWeight();
+                    previous = edge.getVDest();
+                }
+                if (length >= 0) {
+                    assertEquals(dest, previous);
+                    assertEquals(length, sum, 0d);
+                } else {
+                    assertTrue(edges.isEmpty());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of numShortcuts method, of class ContractionHierarchy.
+     */
+    @Test
+    public void testNumShortcuts() {
+        System.out.println("Test numShortcuts");
+
+        // a chain needs no shortcut to end at its ends
+        MapGraph<Integer, String> graph = new MapGraph<>(true);
+        for (int i = 0; i < 10; i++) {
+            graph.insertEdge(i, i + 1, "E" + i, 1);
+        }
+        ContractionHierarchy<Integer, String> instance = new ContractionHierarchy<>(graph);
+        LinkedList<Integer> path = new LinkedList<>();
+        assertEquals(10, instance.shortestPath(0, 10, path), 0d);
+        assertEquals(11, path.size());
+        assertTrue(instance.numShortcuts() < 10);
+
+        // a triangle with a shorter side needs none
+        graph = new MapGraph<>(true);
+        graph.insertEdge(0, 1, "A", 1);
+        graph.insertEdge(1, 2, "B", 1);
+        graph.insertEdge(0, 2, "C", 1);
+        instance = new ContractionHierarchy<>(graph);
+        assertEquals(0, instance.numShortcuts());
+        assertEquals(1, instance.shortestPath(0, 2, path), 0d);
+        assertEquals(Arrays.asList(0, 2), path);
+    }
+}
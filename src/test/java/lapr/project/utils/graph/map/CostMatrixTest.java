@@ -0,0 +1,124 @@
+package lapr.project.utils.graph.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import lapr.project.utils.graph.CostMatrix;
+import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.MapGraphAlgorithms;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test a cost matrix.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class CostMatrixTest {
+
+    /**
+     * Test of cost &amp; path methods, of class CostMatrix.
+     */
+    @Test
+    public void testCost() {
+        System.out.println("Test cost");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 6);
+        graph.insertEdge("A", "C", "Edge2", 1);
+        graph.insertEdge("B", "D", "Edge3", 3);
+        graph.insertEdge("C", "D", "Edge4", 4);
+        graph.insertEdge("C", "E", "Edge5", 1);
+        graph.insertEdge("D", "A", "Edge6", 2);
+        graph.insertEdge("E", "D", "Edge7", 1);
+        graph.insertVertex("F");
+
+        CostMatrix<String, String> instance = new CostMatrix<>(graph,
+                Arrays.asList("A", "E"), Arrays.asList("D", "C", "F", "E"));
+        assertEquals(2, instance.numSources());
+        assertEquals(4, instance.numTargets());
+
+        assertEquals(3, instance.cost(0, 0), 0d);
+        assertEquals(1, instance.cost(0, 1), 0d);
+        assertEquals(Double.POSITIVE_INFINITY, instance.cost(0, 2), 0d);
+        assertEquals(2, instance.cost(0, 3), 0d);
+        assertEquals(4, instance.cost(1, 1), 0d);
+        assertEquals(0, instance.cost(1, 3), 0d);
+
+        LinkedList<String> path = new LinkedList<>();
+        assertEquals(3, instance.path(0, 0, path), 0d);
+        assertEquals(Arrays.asList("A", "C", "E", "D"), path);
+        assertEquals(4, instance.path(1, 1, path), 0d);
+        assertEquals(Arrays.asList("E", "D", "A", "C"), path);
+        assertEquals(0, instance.path(1, 3, path), 0d);
+        assertEquals(Arrays.asList("E"), path);
+        assertEquals(-1d, instance.path(0, 2, path), 0d);
+        assertTrue(path.isEmpty());
+    }
+
+    /**
+     * Test of the constructor with a vertex out of the graph, of class
+     * CostMatrix.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidVertex() {
+        System.out.println("Test invalid vertex");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 6);
+        new CostMatrix<>(graph, Arrays.asList("A"), Arrays.asList("B", "C"));
+    }
+
+    /**
+     * Test of cost method on a random graph, of class CostMatrix.
+     */
+    @Test
+    public void testCostRandom() {
+        System.out.println("Test cost on a random graph");
+
+        int n = 300;
+        Random random = new Random(3);
+        MapGraph<Integer, String> graph = new MapGraph<>(true);
+        for (int i = 0; i < n; i++) {
+            graph.insertVertex(i);
+        }
+        for (int k = 0; k < 4 * n; k++) {
+            graph.insertEdge(random.nextInt(n), random.nextInt(n), "E" + k, random.nextInt(30));
+        }
+
+        // enough sources to search in parallel
+        List<Integer> sources = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < 2 * CostMatrix.PARALLEL_SOURCES; i++) {
+            sources.add(random.nextInt(n));
+            targets.add(random.nextInt(n));
+        }
+        CostMatrix<Integer, String> instance = new CostMatrix<>(graph, sources, targets);
+
+        LinkedList<Integer> expected = new LinkedList<>();
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            for (int j = 0; j < targets.size(); j++) {
+                double length = MapGraphAlgorithms.shortestPath(graph, sources.get(i), targets.get(j), expected);
+                assertEquals(length, instance.path(i, j, path), 0d);
+                if (length < 0) {
+                    assertEquals(Double.POSITIVE_INFINITY, instance.cost(i, j), 0d);
+                    continue;
+                }
+                assertEquals(length, instance.cost(i, j), 0d);
+                double sum = 0;
+                for (int k = 1; k < path.size(); k++) {
+                    sum += graph.getEdge(path.get(k - 1), path.get(k)).getWeight();
+                }
+                assertEquals(sources.get(i), path.getFirst());
+                assertEquals(targets.get(j), path.getLast());
+                assertEquals(length, sum, 0d);
+            }
+        }
+    }
+}
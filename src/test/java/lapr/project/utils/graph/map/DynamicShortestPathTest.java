@@ -0,0 +1,184 @@
+package lapr.project.utils.graph.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import lapr.project.utils.graph.DynamicShortestPath;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.MapGraphAlgorithms;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test the shortest path repaired when edge weights change.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class DynamicShortestPathTest {
+
+    /**
+     * Test of shortestPath and updateEdges methods, of class
+     * DynamicShortestPath.
+     */
+    @Test
+    public void testShortestPath() {
+        System.out.println("Test shortestPath");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("C", "D", "Edge1", 3);
+        graph.insertEdge("C", "E", "Edge2", 2);
+        graph.insertEdge("D", "F", "Edge3", 4);
+        graph.insertEdge("E", "D", "Edge4", 1);
+        graph.insertEdge("E", "F", "Edge5", 2);
+        graph.insertEdge("E", "G", "Edge6", 3);
+        graph.insertEdge("F", "G", "Edge7", 2);
+        graph.insertEdge("F", "H", "Edge8", 1);
+        graph.insertEdge("G", "H", "Edge9", 2);
+        graph.insertVertex("I");
+
+        DynamicShortestPath<String, String> instance = new DynamicShortestPath<>(graph, "C", "H", null, null);
+        LinkedList<String> path = new LinkedList<>();
+        assertEquals(5, instance.shortestPath(path), 0d);
+        assertEquals(Arrays.asList("C", "E", "F", "H"), path);
+
+        // slower edge on the path
+        MapEdge<String, String> edge = graph.getEdge("E", "F");
+        edge.setWeight(6);
+        assertEquals(1, instance.updateEdges(Arrays.asList(edge)));
+        assertEquals(7, instance.shortestPath(path), 0d);
+        assertEquals(Arrays.asList("C", "E", "G", "H"), path);
+
+        // faster edge off the path
+        edge = graph.getEdge("C", "D");
+        edge.setWeight(1);
+        instance.updateEdges(Arrays.asList(edge));
+        assertEquals(6, instance.shortestPath(path), 0d);
+        assertEquals(Arrays.asList("C", "D", "F", "H"), path);
+
+        // no path
+        edge = graph.getEdge("F", "H");
+        MapEdge<String, String> other = graph.getEdge("G", "H");
+        edge.setWeight(Double.POSITIVE_INFINITY);
+        other.setWeight(Double.POSITIVE_INFINITY);
+        instance.updateEdges(Arrays.asList(edge, other));
+        assertEquals(-1, instance.shortestPath(path), 0d);
+        assertTrue(path.isEmpty());
+
+        assertEquals(-1, new DynamicShortestPath<>(graph, "I", "H", null, null).shortestPath(path), 0d);
+    }
+
+    /**
+     * Test of moveTo method, of class DynamicShortestPath.
+     */
+    @Test
+    public void testMoveTo() {
+        System.out.println("Test moveTo");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("C", "D", "Edge1", 3);
+        graph.insertEdge("C", "E", "Edge2", 2);
+        graph.insertEdge("D", "F", "Edge3", 4);
+        graph.insertEdge("E", "D", "Edge4", 1);
+        graph.insertEdge("E", "F", "Edge5", 2);
+        graph.insertEdge("F", "H", "Edge8", 1);
+
+        DynamicShortestPath<String, String> instance = new DynamicShortestPath<>(graph, "C", "H", null,
+                (vertex, target) -> vertex.equals(target) ? 0 : 0.5);
+        LinkedList<String> path = new LinkedList<>();
+        assertEquals(5, instance.shortestPath(path), 0d);
+
+        instance.moveTo("E");
+        assertEquals("E", instance.getOrigin());
+        MapEdge<String, String> edge = graph.getEdge("E", "F");
+        edge.setWeight(10);
+        instance.updateEdges(Arrays.asList(edge));
+        assertEquals(6, instance.shortestPath(path), 0d);
+        assertEquals(Arrays.asList("E", "D", "F", "H"), path);
+    }
+
+    /**
+     * Test of the constructor with an invalid origin, of class
+     * DynamicShortestPath.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrigin() {
+        System.out.println("Test invalid origin");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 1);
+        new DynamicShortestPath<>(graph, "Z", "B", null, null);
+    }
+
+    /**
+     * Test of shortestPath method on random graphs with random weight
+     * changes, against the Dijkstra's algorithm.
+     */
+    @Test
+    public void testShortestPathRandom() {
+        System.out.println("Test shortestPath on random graphs");
+
+        Random random = new Random(11);
+        for (int test = 0; test < 20; test++) {
+            int n = 40;
+            MapGraph<Integer, String> graph = new MapGraph<>(test % 2 == 0);
+            for (int i = 0; i < n; i++) {
+                graph.insertVertex(i);
+            }
+            for (int k = 0; k < 4 * n; k++) {
+                graph.insertEdge(random.nextInt(n), random.nextInt(n), "E" + k, 1 + random.nextInt(20));
+            }
+            List<MapEdge<Integer, String>> edges = new ArrayList<>();
+            for (MapEdge<Integer, String> edge : graph.edges()) {
+                edges.add(edge);
+            }
+            int orig = random.nextInt(n);
+            int dest = random.nextInt(n);
+            // every weight is at least one
+            DynamicShortestPath<Integer, String> instance = new DynamicShortestPath<>(graph, orig, dest, null,
+                    (vertex, target) -> vertex.equals(target) ? 0 : 1);
+
+            LinkedList<Integer> path = new LinkedList<>();
+            LinkedList<Integer> expectedPath = new LinkedList<>();
+            for (int round = 0; round < 10; round++) {
+                double expected = MapGraphAlgorithms.shortestPath(graph, instance.getOrigin(), dest, expectedPath);
+                double result = instance.shortestPath(path);
+                assertEquals(expected, result, 1e-9);
+                if (result >= 0) {
+                    assertEquals(result, length(graph, path), 1e-9);
+                    assertEquals(instance.getOrigin(), path.getFirst());
+                    assertEquals(Integer.valueOf(dest), path.getLast());
+                    // fly the first edge of the path
+                    if (path.size() > 1 && random.nextBoolean()) {
+                        instance.moveTo(path.get(1));
+                    }
+                }
+
+                List<MapEdge<Integer, String>> changed = new ArrayList<>();
+                for (int k = 0; k < 5; k++) {
+                    MapEdge<Integer, String> edge = edges.get(random.nextInt(edges.size()));
+                    edge.setWeight(1 + random.nextInt(20));
+                    changed.add(edge);
+                }
+                instance.updateEdges(changed);
+            }
+        }
+    }
+
+    /**
+     * Obtains the length of a path.
+     */
+    private static double length(MapGraph<Integer, String> graph, LinkedList<Integer> path) {
+
+        double length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            length += graph.getEdge(path.get(i - 1), path.get(i)).getWeight();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,135 @@
+package lapr.project.utils.graph.map;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Random;
+import lapr.project.utils.graph.CostMatrix;
+import lapr.project.utils.graph.EdgeWeightFunction;
+import lapr.project.utils.graph.EdgeWeights;
+import lapr.project.utils.graph.MapEdge;
+import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.MapGraphAlgorithms;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test the edge weights overlay.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class EdgeWeightsTest {
+
+    /**
+     * Test of weight method, of class EdgeWeights.
+     */
+    @Test
+    public void testWeight() {
+        System.out.println("Test weight");
+
+        MapGraph<String, String> graph = new MapGraph<>(false);
+        graph.insertEdge("A", "B", "Edge1", 6);
+        graph.insertEdge("B", "C", "Edge2", 1);
+        assertEquals(4, graph.numEdgeIds());
+        assertEquals(0, graph.getEdge("A", "B").getId());
+        assertEquals(1, graph.getEdge("B", "A").getId());
+
+        EdgeWeights<String, String> instance = new EdgeWeights<>(graph, edge -> 2 * edge.getWeight());
+        assertEquals(12, instance.weight(graph.getEdge("A", "B")), 0d);
+        assertEquals(2, instance.weight(graph.getEdge("C", "B")), 0d);
+
+        // the weights are kept, an edge inserted later is computed
+        graph.getEdge("A", "B").setWeight(1);
+        graph.insertEdge("A", "C", "Edge3", 5);
+        assertEquals(12, instance.weight(graph.getEdge("A", "B")), 0d);
+        assertEquals(10, instance.weight(graph.getEdge("A", "C")), 0d);
+
+        // removed edges do not give their indexes again
+        graph.removeEdge("A", "C");
+        graph.insertEdge("A", "C", "Edge3", 5);
+        assertEquals(8, graph.numEdgeIds());
+    }
+
+    /**
+     * Test of refresh method, of class EdgeWeights.
+     */
+    @Test
+    public void testRefresh() {
+        System.out.println("Test refresh");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 6);
+        graph.insertEdge("B", "C", "Edge2", 1);
+        EdgeWeights<String, String> instance = new EdgeWeights<>(graph, edge -> 2 * edge.getWeight());
+
+        MapEdge<String, String> edge = graph.getEdge("A", "B");
+        assertFalse(instance.refresh(edge));
+        edge.setWeight(4);
+        assertTrue(instance.refresh(edge));
+        assertEquals(8, instance.weight(edge), 0d);
+        assertEquals(2, instance.weight(graph.getEdge("B", "C")), 0d);
+
+        // an edge inserted later has no kept weight
+        graph.insertEdge("C", "A", "Edge3", 5);
+        assertFalse(instance.refresh(graph.getEdge("C", "A")));
+    }
+
+    /**
+     * Test of the constructor with a negative weight, of class EdgeWeights.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        System.out.println("Test negative weight");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 6);
+        new EdgeWeights<>(graph, edge -> -edge.getWeight());
+    }
+
+    /**
+     * Test of the searches over edge weights, against the searches over a
+     * copy of the graph with those weights.
+     */
+    @Test
+    public void testSearches() throws CloneNotSupportedException {
+        System.out.println("Test searches over edge weights");
+
+        Random random = new Random(13);
+        int n = 200;
+        MapGraph<Integer, String> graph = new MapGraph<>(true);
+        for (int i = 0; i < n; i++) {
+            graph.insertVertex(i);
+        }
+        for (int k = 0; k < 4 * n; k++) {
+            graph.insertEdge(random.nextInt(n), random.nextInt(n), "E" + k, random.nextInt(30));
+        }
+
+        EdgeWeightFunction<Integer, String> function = edge -> edge.getWeight() * (1 + edge.getVDest() % 3);
+        EdgeWeights<Integer, String> weights = new EdgeWeights<>(graph, function);
+        MapGraph<Integer, String> weighted = graph.clone();
+        for (MapEdge<Integer, String> edge : weighted.edges()) {
+            edge.setWeight(function.weight(edge));
+        }
+
+        LinkedList<Integer> expected = new LinkedList<>();
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int query = 0; query < 50; query++) {
+            int orig = random.nextInt(n);
+            int dest = random.nextInt(n);
+            double length = MapGraphAlgorithms.shortestPath(weighted, orig, dest, expected);
+
+            assertEquals(length, MapGraphAlgorithms.shortestPath(graph, orig, dest, weights, path), 0d);
+            assertEquals(expected, path);
+            assertEquals(length, MapGraphAlgorithms.aStar(graph, orig, dest, (v, t) -> 0, weights, path), 0d);
+            assertEquals(length, MapGraphAlgorithms.bidirectionalPath(graph, orig, dest, weights, path), 0d);
+        }
+
+        // the original weights are untouched
+        assertEquals(MapGraphAlgorithms.shortestPath(graph, 0, 1, expected),
+                new CostMatrix<>(graph, Arrays.asList(0), Arrays.asList(1)).cost(0, 0), 0d);
+        assertEquals(MapGraphAlgorithms.shortestPath(weighted, 0, 1, expected),
+                new CostMatrix<>(graph, Arrays.asList(0), Arrays.asList(1), weights).cost(0, 0), 0d);
+    }
+}
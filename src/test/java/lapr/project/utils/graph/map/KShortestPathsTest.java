@@ -0,0 +1,133 @@
+package lapr.project.utils.graph.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import lapr.project.utils.graph.KShortestPaths;
+import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.MapGraphAlgorithms;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test the k shortest paths.
+ *
+ * @author Daniel Gonçalves - 1151452
+ * @author Eric Amaral - 1141570
+ * @author Ivo Ferro - 1151159
+ * @author Tiago Correia - 1151031
+ */
+public class KShortestPathsTest {
+
+    /**
+     * Test of paths method, of class KShortestPaths.
+     */
+    @Test
+    public void testPaths() {
+        System.out.println("Test paths");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("C", "D", "Edge1", 3);
+        graph.insertEdge("C", "E", "Edge2", 2);
+        graph.insertEdge("D", "F", "Edge3", 4);
+        graph.insertEdge("E", "D", "Edge4", 1);
+        graph.insertEdge("E", "F", "Edge5", 2);
+        graph.insertEdge("E", "G", "Edge6", 3);
+        graph.insertEdge("F", "G", "Edge7", 2);
+        graph.insertEdge("F", "H", "Edge8", 1);
+        graph.insertEdge("G", "H", "Edge9", 2);
+        graph.insertVertex("I");
+
+        KShortestPaths<String, String> instance = new KShortestPaths<>(graph, "H", null);
+        assertEquals(5, instance.distance("C"), 0d);
+        assertEquals(-1, instance.distance("I"), 0d);
+
+        List<LinkedList<String>> paths = new ArrayList<>();
+        List<Double> lengths = new ArrayList<>();
+        assertEquals(3, instance.paths("C", 3, 1000, paths, lengths));
+        assertEquals(Arrays.asList("C", "E", "F", "H"), paths.get(0));
+        assertEquals(Arrays.asList("C", "E", "G", "H"), paths.get(1));
+        assertEquals(Arrays.asList(5d, 7d, 8d), lengths);
+
+        // fewer paths than asked
+        assertEquals(7, instance.paths("C", 20, 1000, paths, lengths));
+        assertEquals(0, instance.paths("I", 3, 1000, paths, lengths));
+        assertTrue(paths.isEmpty());
+        assertEquals(1, instance.paths("H", 3, 1000, paths, lengths));
+        assertEquals(Arrays.asList("H"), paths.get(0));
+
+        // the tree is reused by other origins
+        assertEquals(1, instance.paths("F", 1, 1000, paths, lengths));
+        assertEquals(Arrays.asList("F", "H"), paths.get(0));
+    }
+
+    /**
+     * Test of the constructor with an invalid destination, of class
+     * KShortestPaths.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDestination() {
+        System.out.println("Test invalid destination");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 1);
+        new KShortestPaths<>(graph, "Z", null);
+    }
+
+    /**
+     * Test of paths method on random graphs, against all the paths.
+     */
+    @Test
+    public void testPathsRandom() {
+        System.out.println("Test paths on random graphs");
+
+        Random random = new Random(7);
+        for (int test = 0; test < 20; test++) {
+            int n = 9;
+            MapGraph<Integer, String> graph = new MapGraph<>(test % 2 == 0);
+            for (int i = 0; i < n; i++) {
+                graph.insertVertex(i);
+            }
+            for (int k = 0; k < 2 * n; k++) {
+                graph.insertEdge(random.nextInt(n), random.nextInt(n), "E" + k, 1 + random.nextInt(20));
+            }
+            int orig = random.nextInt(n);
+            int dest = random.nextInt(n);
+            if (orig == dest) {
+                continue;
+            }
+
+            List<Double> expected = new ArrayList<>();
+            for (LinkedList<Integer> path : MapGraphAlgorithms.allPaths(graph, orig, dest)) {
+                expected.add(length(graph, path));
+            }
+            Collections.sort(expected);
+
+            int k = 12;
+            List<LinkedList<Integer>> paths = new ArrayList<>();
+            List<Double> lengths = new ArrayList<>();
+            int found = new KShortestPaths<>(graph, dest, null).paths(orig, k, 10000, paths, lengths);
+            assertEquals(Math.min(k, expected.size()), found);
+            for (int i = 0; i < found; i++) {
+                assertEquals(expected.get(i), lengths.get(i), 1e-9);
+                assertEquals(lengths.get(i), length(graph, paths.get(i)), 1e-9);
+                assertEquals(paths.get(i).size(), paths.get(i).stream().distinct().count());
+            }
+        }
+    }
+
+    /**
+     * Obtains the length of a path.
+     */
+    private static double length(MapGraph<Integer, String> graph, LinkedList<Integer> path) {
+
+        double length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            length += graph.getEdge(path.get(i - 1), path.get(i)).getWeight();
+        }
+        return length;
+    }
+}
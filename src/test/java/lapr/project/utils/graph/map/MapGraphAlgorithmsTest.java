@@ -5,11 +5,15 @@
  */
 package lapr.project.utils.graph.map;
 
+import lapr.project.utils.graph.ArrivalTimeFunction;
 import lapr.project.utils.graph.MapGraphAlgorithms;
 import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.SearchStatistics;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Random;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
@@ -198,4 +202,238 @@ public class MapGraphAlgorithmsTest {
         assertTrue("then Castelo Branco", it.next().compareTo("Castelo Branco") == 0);
 
     }
+
+    /**
+     * Test of shortestPath method on a random graph, against an exhaustive
+     * relaxation, of class GraphAlgorithms.
+     */
+    @Test
+    public void testShortestPathRandom() {
+        System.out.println("Test of shortest path on a random graph");
+
+        int n = 200;
+        Random random = new Random(7);
+        MapGraph<Integer, String> graph = new MapGraph<>(true);
+        double[][] weight = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            graph.insertVertex(i);
+            Arrays.fill(weight[i], Double.POSITIVE_INFINITY);
+        }
+        for (int k = 0; k < 4 * n; k++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            double w = 1 + random.nextInt(100);
+            if (a != b && graph.insertEdge(a, b, "E" + k, w)) {
+                weight[a][b] = w;
+            }
+        }
+
+        // Bellman-Ford from vertex 0
+        double[] expected = new double[n];
+        Arrays.fill(expected, Double.POSITIVE_INFINITY);
+        expected[0] = 0;
+        for (int round = 0; round < n; round++) {
+            for (int a = 0; a < n; a++) {
+                for (int b = 0; b < n; b++) {
+                    expected[b] = Math.min(expected[b], expected[a] + weight[a][b]);
+                }
+            }
+        }
+
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int v = 0; v < n; v++) {
+            double length = MapGraphAlgorithms.shortestPath(graph, 0, v, path);
+            if (expected[v] == Double.POSITIVE_INFINITY) {
+                assertEquals(-1d, length, 0d);
+                assertTrue(path.isEmpty());
+            } else {
+                assertEquals(expected[v], length, 0d);
+                // path weight matches the length
+                double sum = 0;
+                Iterator<Integer> it = path.iterator();
+                int previous = it.next();
+                assertEquals(0, previous);
+                while (it.hasNext()) {
+                    int next = it.next();
+                    sum += graph.getEdge(previous, next).getWeight();
+                    previous = next;
+                }
+                assertEquals(v, previous);
+                assertEquals(length, sum, 0d);
+            }
+        }
+    }
+
+    /**
+     * Test of shortestPath method after removing a vertex, of class
+     * GraphAlgorithms.
+     */
+    @Test
+    public void testShortestPathRemovedVertex() {
+        System.out.println("Test of shortest path after removing a vertex");
+
+        completeMap.removeVertex("Braga");
+        LinkedList<String> shortPath = new LinkedList<>();
+
+        double lenpath = MapGraphAlgorithms.shortestPath(completeMap, "Porto", "Lisboa", shortPath);
+        assertEquals(335, lenpath, 0d);
+        assertEquals("Lisboa", shortPath.getLast());
+    }
+
+    /**
+     * Test of bidirectionalPath method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testBidirectionalPath() {
+        System.out.println("Test of bidirectional shortest path");
+
+        LinkedList<String> shortPath = new LinkedList<>();
+
+        double lenpath = MapGraphAlgorithms.bidirectionalPath(completeMap, "Porto", "LX", shortPath);
+        assertEquals(-1d, lenpath, 0d);
+        assertTrue(shortPath.isEmpty());
+
+        lenpath = MapGraphAlgorithms.bidirectionalPath(completeMap, "Porto", "Porto", shortPath);
+        assertEquals(0, lenpath, 0d);
+        assertEquals(Arrays.asList("Porto"), shortPath);
+
+        lenpath = MapGraphAlgorithms.bidirectionalPath(completeMap, "Porto", "Faro", shortPath);
+        assertEquals(-1d, lenpath, 0d);
+        assertTrue(shortPath.isEmpty());
+
+        lenpath = MapGraphAlgorithms.bidirectionalPath(completeMap, "Porto", "Lisboa", shortPath);
+        assertEquals(335, lenpath, 0d);
+        assertEquals(Arrays.asList("Porto", "Aveiro", "Coimbra", "Lisboa"), shortPath);
+
+        lenpath = MapGraphAlgorithms.bidirectionalPath(completeMap, "Braga", "Leiria", shortPath);
+        assertEquals(255, lenpath, 0d);
+        assertEquals(Arrays.asList("Braga", "Porto", "Aveiro", "Leiria"), shortPath);
+    }
+
+    /**
+     * Test of bidirectionalPath method on random directed graphs, of class
+     * GraphAlgorithms.
+     */
+    @Test
+    public void testBidirectionalPathRandom() {
+        System.out.println("Test of bidirectional shortest path on random graphs");
+
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            int n = 50 + random.nextInt(150);
+            MapGraph<Integer, String> graph = new MapGraph<>(true);
+            for (int i = 0; i < n; i++) {
+                graph.insertVertex(i);
+            }
+            for (int k = 0; k < 3 * n; k++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                if (a != b) {
+                    graph.insertEdge(a, b, "E" + k, random.nextInt(20));
+                }
+            }
+
+            LinkedList<Integer> expected = new LinkedList<>();
+            LinkedList<Integer> path = new LinkedList<>();
+            for (int query = 0; query < 20; query++) {
+                int orig = random.nextInt(n);
+                int dest = random.nextInt(n);
+                double length = MapGraphAlgorithms.shortestPath(graph, orig, dest, expected);
+                assertEquals(length, MapGraphAlgorithms.bidirectionalPath(graph, orig, dest, path), 0d);
+                if (length < 0) {
+                    assertTrue(path.isEmpty());
+                    continue;
+                }
+                // path weight matches the length
+                double sum = 0;
+                Iterator<Integer> it = path.iterator();
+                int previous = it.next();
+                assertEquals(orig, previous);
+                while (it.hasNext()) {
+                    int next = it.next();
+                    sum += graph.getEdge(previous, next).getWeight();
+                    previous = next;
+                }
+                assertEquals(dest, previous);
+                assertEquals(length, sum, 0d);
+            }
+        }
+    }
+
+    /**
+     * Test of bidirectionalPath method search space, of class GraphAlgorithms.
+     */
+    @Test
+    public void testBidirectionalPathSettled() {
+        System.out.println("Test of bidirectional shortest path search space");
+
+        // 40 x 40 grid, both directions
+        int side = 40;
+        MapGraph<Integer, String> graph = new MapGraph<>(true);
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                int v = i * side + j;
+                if (j + 1 < side) {
+                    graph.insertEdge(v, v + 1, "H" + v, 1);
+                    graph.insertEdge(v + 1, v, "H" + v, 1);
+                }
+                if (i + 1 < side) {
+                    graph.insertEdge(v, v + side, "V" + v, 1);
+                    graph.insertEdge(v + side, v, "V" + v, 1);
+                }
+            }
+        }
+
+        int orig = 20 * side + 5;
+        int dest = 20 * side + 34;
+        LinkedList<Integer> path = new LinkedList<>();
+        SearchStatistics dijkstra = new SearchStatistics();
+        SearchStatistics bidirectional = new SearchStatistics();
+        assertEquals(29, MapGraphAlgorithms.shortestPath(graph, orig, dest, path, dijkstra), 0d);
+        assertEquals(29, MapGraphAlgorithms.bidirectionalPath(graph, orig, dest, path, bidirectional), 0d);
+        assertEquals(30, path.size());
+        assertTrue(bidirectional.getSettled() < dijkstra.getSettled());
+    }
+
+    /**
+     * Test of timeDependentPath method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testTimeDependentPath() {
+        System.out.println("Test of timeDependentPath");
+
+        MapGraph<String, String> graph = new MapGraph<>(true);
+        graph.insertEdge("A", "B", "Edge1", 2);
+        graph.insertEdge("A", "C", "Edge2", 2);
+        graph.insertEdge("C", "B", "Edge3", 2);
+        graph.insertVertex("D");
+        // the direct edge only opens at time 10
+        ArrivalTimeFunction<String, String> arrivals = (edge, departure) -> edge.getElement().equals("Edge1")
+                ? Math.max(departure, 10) + edge.getWeight() : departure + edge.getWeight();
+
+        LinkedList<String> path = new LinkedList<>();
+        assertEquals(4, MapGraphAlgorithms.timeDependentPath(graph, "A", "B", 0, arrivals, null, path), 0d);
+        assertEquals(Arrays.asList("A", "C", "B"), path);
+        assertEquals(3, MapGraphAlgorithms.timeDependentPath(graph, "A", "B", 9, arrivals, null, path), 0d);
+        assertEquals(Arrays.asList("A", "B"), path);
+        assertEquals(2, MapGraphAlgorithms.timeDependentPath(graph, "A", "B", 20, arrivals,
+                (vertex, target) -> vertex.equals(target) ? 0 : 1, path), 0d);
+        assertEquals(Arrays.asList("A", "B"), path);
+
+        assertEquals(-1, MapGraphAlgorithms.timeDependentPath(graph, "A", "D", 0, arrivals, null, path), 0d);
+        assertTrue(path.isEmpty());
+        assertEquals(-1, MapGraphAlgorithms.timeDependentPath(graph, "A", "Z", 0, arrivals, null, path), 0d);
+    }
+
+    /**
+     * Test of revPath method, of class GraphAlgorithms.
+     */
+    @Test
+    public void testRevPath() {
+        System.out.println("Test of revPath");
+
+        LinkedList<String> path = new LinkedList<>(Arrays.asList("Porto", "Aveiro", "Lisboa"));
+        assertEquals(Arrays.asList("Lisboa", "Aveiro", "Porto"), MapGraphAlgorithms.revPath(path));
+        assertEquals(Arrays.asList("Porto", "Aveiro", "Lisboa"), path);
+    }
 }
@@ -2,6 +2,7 @@ package lapr.project.utils.graph.map;
 
 import lapr.project.utils.graph.MapEdge;
 import lapr.project.utils.graph.MapGraph;
+import lapr.project.utils.graph.ReverseAdjacency;
 import java.util.Iterator;
 import org.junit.Before;
 import org.junit.Test;
@@ -391,6 +392,48 @@ public class MapGraphTest {
         assertTrue("edges should be empty", (itEdge.hasNext() == false));
     }
 
+    /**
+     * Test of reverseView method, of class Graph.
+     */
+    @Test
+    public void testReverseView() {
+        System.out.println("Test reverseView");
+
+        instance.insertEdge("A", "B", "Edge1", 6);
+        instance.insertEdge("A", "C", "Edge2", 1);
+        instance.insertEdge("B", "D", "Edge3", 3);
+        instance.insertEdge("C", "D", "Edge4", 4);
+        instance.insertEdge("C", "E", "Edge5", 1);
+        instance.insertEdge("E", "D", "Edge7", 1);
+
+        ReverseAdjacency<String, String> view = instance.reverseView();
+        assertSame("view should be reused", view, instance.reverseView());
+        assertEquals(5, view.numKeys());
+
+        int key = instance.getKey("D");
+        assertEquals(3, view.inDegree(key));
+        assertEquals("Edge3", view.incomingEdge(key, 0).getElement());
+        assertEquals("Edge4", view.incomingEdge(key, 1).getElement());
+        assertEquals("Edge7", view.incomingEdge(key, 2).getElement());
+        assertEquals(0, view.inDegree(instance.getKey("A")));
+
+        // weights are read from the edges
+        instance.getEdge("C", "D").setWeight(9);
+        assertSame("view should be reused", view, instance.reverseView());
+        assertEquals(9, view.incomingEdge(key, 1).getWeight(), 0d);
+
+        instance.removeEdge("C", "D");
+        view = instance.reverseView();
+        assertEquals(2, view.inDegree(key));
+        assertEquals("Edge3", view.incomingEdge(key, 0).getElement());
+        assertEquals("Edge7", view.incomingEdge(key, 1).getElement());
+
+        instance.insertEdge("D", "A", "Edge6", 2);
+        view = instance.reverseView();
+        assertEquals(1, view.inDegree(instance.getKey("A")));
+        assertEquals("Edge6", view.incomingEdge(instance.getKey("A"), 0).getElement());
+    }
+
     /**
      * Test of insertVertex method, of class Graph.
      */